@@ -0,0 +1,47 @@
+package com.anydb.benchmark;
+
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryResult的Jackson序列化基准测试（与Spring MVC默认ObjectMapper配置一致）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryResultSerializationBenchmark {
+    
+    @Param({"4", "16", "64"})
+    private int columns;
+    
+    @Param({"100", "1000", "10000"})
+    private int rows;
+    
+    private ObjectMapper objectMapper;
+    
+    private QueryResult result;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        result = ResultSetExtractor.extract(SyntheticResultSets.table(columns, rows), 0L);
+    }
+    
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+}
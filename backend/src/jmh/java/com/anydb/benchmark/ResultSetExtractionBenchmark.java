@@ -0,0 +1,43 @@
+package com.anydb.benchmark;
+
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import com.anydb.connector.support.ResultSetExtractor;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结果集提取基准测试（不同列数、行数）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetExtractionBenchmark {
+    
+    @Param({"4", "16", "64"})
+    private int columns;
+    
+    @Param({"100", "1000", "10000"})
+    private int rows;
+    
+    private SimpleResultSet resultSet;
+    
+    @Setup
+    public void setUp() {
+        resultSet = SyntheticResultSets.table(columns, rows);
+    }
+    
+    @Benchmark
+    public QueryResult extract() throws SQLException {
+        resultSet.beforeFirst();
+        return ResultSetExtractor.extract(resultSet, 0L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.anydb.benchmark;
+
+import org.h2.tools.SimpleResultSet;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * 基准测试用的内存结果集
+ * 
+ * 基于H2的SimpleResultSet，不连接任何数据库；关闭自动关闭后可通过beforeFirst()反复读取。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class SyntheticResultSets {
+    
+    private static final int[] COLUMN_TYPES = {Types.BIGINT, Types.VARCHAR, Types.DECIMAL, Types.TIMESTAMP};
+    
+    private SyntheticResultSets() {
+    }
+    
+    /**
+     * 构造指定列数和行数的结果集，列类型在BIGINT/VARCHAR/DECIMAL/TIMESTAMP间循环
+     */
+    public static SimpleResultSet table(int columns, int rows) {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.setAutoClose(false);
+        for (int c = 0; c < columns; c++) {
+            rs.addColumn("col_" + c, COLUMN_TYPES[c % COLUMN_TYPES.length], 20, 2);
+        }
+        
+        long baseTime = 1_700_000_000_000L;
+        for (int r = 0; r < rows; r++) {
+            Object[] row = new Object[columns];
+            for (int c = 0; c < columns; c++) {
+                row[c] = switch (COLUMN_TYPES[c % COLUMN_TYPES.length]) {
+                    case Types.BIGINT -> (long) r * columns + c;
+                    case Types.VARCHAR -> "value-" + r + "-" + c;
+                    case Types.DECIMAL -> BigDecimal.valueOf(r * 100L + c, 2);
+                    default -> new Timestamp(baseTime + r * 1000L);
+                };
+            }
+            rs.addRow(row);
+        }
+        return rs;
+    }
+    
+    /**
+     * 构造MySQL SHOW FULL COLUMNS形状的结果集
+     */
+    public static SimpleResultSet showFullColumns(int rows) {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.setAutoClose(false);
+        for (String column : new String[] {"Field", "Type", "Collation", "Null", "Key", "Default", "Extra", "Privileges", "Comment"}) {
+            rs.addColumn(column, Types.VARCHAR, 255, 0);
+        }
+        for (int r = 0; r < rows; r++) {
+            rs.addRow("column_" + r, r % 2 == 0 ? "bigint" : "varchar(255)", r % 2 == 0 ? null : "utf8mb4_general_ci",
+                r == 0 ? "NO" : "YES", r == 0 ? "PRI" : "", null, r == 0 ? "auto_increment" : "",
+                "select,insert,update,references", "第" + r + "列");
+        }
+        return rs;
+    }
+}
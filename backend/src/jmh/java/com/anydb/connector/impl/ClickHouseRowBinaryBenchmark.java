@@ -0,0 +1,86 @@
+package com.anydb.connector.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ClickHouse RowBinary解码基准测试（列类型与ResultSetExtractionBenchmark一致，便于对比JDBC提取）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickHouseRowBinaryBenchmark {
+    
+    private static final String[] COLUMN_TYPES = {"Int64", "String", "Decimal(18, 2)", "DateTime64(3)"};
+    
+    @Param({"4", "16", "64"})
+    private int columns;
+    
+    @Param({"100", "1000", "10000"})
+    private int rows;
+    
+    private byte[] payload;
+    
+    private byte[] gzipPayload;
+    
+    @Setup
+    public void setUp() throws IOException {
+        String[] names = new String[columns];
+        String[] types = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            names[c] = "col_" + c;
+            types[c] = COLUMN_TYPES[c % COLUMN_TYPES.length];
+        }
+        
+        RowBinaryWriter writer = new RowBinaryWriter().header(names, types);
+        long baseTime = 1_700_000_000_000L;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                switch (c % COLUMN_TYPES.length) {
+                    case 0 -> writer.int64((long) r * columns + c);
+                    case 1 -> writer.string("value-" + r + "-" + c);
+                    case 2 -> writer.int64(r * 100L + c);
+                    default -> writer.int64(baseTime + r * 1000L);
+                }
+            }
+        }
+        payload = writer.toByteArray();
+        
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        gzipPayload = compressed.toByteArray();
+    }
+    
+    @Benchmark
+    public void decode(Blackhole blackhole) throws IOException {
+        decodeAll(new ByteArrayInputStream(payload), blackhole);
+    }
+    
+    @Benchmark
+    public void decodeGzip(Blackhole blackhole) throws IOException {
+        decodeAll(new GZIPInputStream(new ByteArrayInputStream(gzipPayload), 64 * 1024), blackhole);
+    }
+    
+    private void decodeAll(InputStream in, Blackhole blackhole) throws IOException {
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(in);
+        while (reader.hasNext()) {
+            blackhole.consume(reader.readRow());
+        }
+    }
+}
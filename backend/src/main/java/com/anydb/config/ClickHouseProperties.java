@@ -0,0 +1,77 @@
+package com.anydb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ClickHouse查询资源配置
+ *
+ * 设置档案（profile）是一组ClickHouse会话设置（max_threads、max_memory_usage、
+ * max_execution_time、max_result_rows、priority等），按以下顺序合并后随每条语句下发，
+ * 后者覆盖前者：
+ * 1. 默认档案（default-profile）
+ * 2. 数据源档案（连接选项settingsProfile）
+ * 3. 用户档案（user-profiles中按ClickHouse登录用户名映射）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "anydb.clickhouse")
+public class ClickHouseProperties {
+
+    /**
+     * 默认档案名，未配置时不下发默认设置
+     */
+    private String defaultProfile;
+
+    /**
+     * 设置档案 - key: 档案名, value: ClickHouse设置
+     */
+    private Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+
+    /**
+     * 用户档案映射 - key: ClickHouse用户名, value: 档案名
+     */
+    private Map<String, String> userProfiles = new LinkedHashMap<>();
+
+    /**
+     * 流式查询时轮询system.processes的最小间隔（毫秒）
+     */
+    private long progressPollInterval = 1000;
+
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public void setDefaultProfile(String defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    public Map<String, Map<String, String>> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, Map<String, String>> profiles) {
+        this.profiles = profiles;
+    }
+
+    public Map<String, String> getUserProfiles() {
+        return userProfiles;
+    }
+
+    public void setUserProfiles(Map<String, String> userProfiles) {
+        this.userProfiles = userProfiles;
+    }
+
+    public long getProgressPollInterval() {
+        return progressPollInterval;
+    }
+
+    public void setProgressPollInterval(long progressPollInterval) {
+        this.progressPollInterval = progressPollInterval;
+    }
+}
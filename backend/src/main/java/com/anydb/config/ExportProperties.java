@@ -0,0 +1,57 @@
+package com.anydb.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 批量导出配置
+ *
+ * 并行导出的准入限制：单次导出的并行度不超过max-workers-per-export，
+ * 所有并行导出同时占用的读取线程（及数据库连接）不超过max-concurrent-workers。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@ConfigurationProperties(prefix = "anydb.export")
+public class ExportProperties {
+
+    /**
+     * 单次导出的最大并行读取线程数
+     */
+    private int maxWorkersPerExport = 8;
+
+    /**
+     * 全部导出同时运行的最大读取线程数
+     */
+    private int maxConcurrentWorkers = 16;
+
+    /**
+     * 等待准入的最长时间（毫秒），超时后导出失败
+     */
+    private long admissionTimeout = 30000;
+
+    public int getMaxWorkersPerExport() {
+        return maxWorkersPerExport;
+    }
+
+    public void setMaxWorkersPerExport(int maxWorkersPerExport) {
+        this.maxWorkersPerExport = maxWorkersPerExport;
+    }
+
+    public int getMaxConcurrentWorkers() {
+        return maxConcurrentWorkers;
+    }
+
+    public void setMaxConcurrentWorkers(int maxConcurrentWorkers) {
+        this.maxConcurrentWorkers = maxConcurrentWorkers;
+    }
+
+    public long getAdmissionTimeout() {
+        return admissionTimeout;
+    }
+
+    public void setAdmissionTimeout(long admissionTimeout) {
+        this.admissionTimeout = admissionTimeout;
+    }
+}
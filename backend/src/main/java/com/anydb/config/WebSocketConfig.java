@@ -0,0 +1,28 @@
+package com.anydb.config;
+
+import com.anydb.websocket.QueryStreamWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * WebSocket配置
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    
+    @Autowired
+    private QueryStreamWebSocketHandler queryStreamWebSocketHandler;
+    
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(queryStreamWebSocketHandler, "/ws/query")
+            .setAllowedOriginPatterns("*");
+    }
+}
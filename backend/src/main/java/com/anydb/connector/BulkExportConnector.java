@@ -0,0 +1,19 @@
+package com.anydb.connector;
+
+import java.io.OutputStream;
+
+/**
+ * 支持批量导出的连接器（对应能力{@link ConnectorCapability#BULK_EXPORT}）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public interface BulkExportConnector extends DatabaseConnector {
+    
+    /**
+     * 批量导出表数据，直接写入输出流
+     * 
+     * @return 导出行数
+     */
+    long exportTable(DatabaseConfig config, String database, String tableName, BulkFormat format, OutputStream out);
+}
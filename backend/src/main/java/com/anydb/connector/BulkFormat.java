@@ -0,0 +1,49 @@
+package com.anydb.connector;
+
+/**
+ * 批量导入导出数据格式
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public enum BulkFormat {
+    
+    /**
+     * CSV文本（导出时带表头）
+     */
+    CSV("csv", "text/csv"),
+    
+    /**
+     * 数据库原生二进制格式（如PostgreSQL COPY BINARY），只能导回同类数据库
+     */
+    BINARY("bin", "application/octet-stream");
+    
+    private final String extension;
+    
+    private final String contentType;
+    
+    BulkFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    /**
+     * 按名称解析（不区分大小写）
+     */
+    public static BulkFormat fromName(String name) {
+        for (BulkFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的数据格式: " + name);
+    }
+}
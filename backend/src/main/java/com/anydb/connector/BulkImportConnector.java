@@ -0,0 +1,23 @@
+package com.anydb.connector;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 支持批量导入的连接器（对应能力{@link ConnectorCapability#BULK_IMPORT}）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public interface BulkImportConnector extends DatabaseConnector {
+    
+    /**
+     * 批量导入表数据，直接从输入流读取
+     * 
+     * @param columns 目标列（为空时按表定义顺序）
+     * @param header CSV数据是否带表头
+     * @return 导入行数
+     */
+    long importTable(DatabaseConfig config, String database, String tableName, List<String> columns,
+                     BulkFormat format, boolean header, InputStream in);
+}
@@ -0,0 +1,68 @@
+package com.anydb.connector;
+
+/**
+ * 连接器能力
+ * 
+ * 连接器通过{@link ConnectorPlugin#capabilities()}声明自己支持的能力，
+ * 服务层据此为每个目标库选择执行路径（流式读取、代价检查、副本路由、批量导入导出）；未声明的能力走通用实现。
+ * 带额外方法的能力对应一个连接器子接口，声明能力的连接器必须实现该接口，工厂登记时校验。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public enum ConnectorCapability {
+    
+    /**
+     * 流式读取结果，不在内存中缓存完整结果集；未声明时服务层按行数上限完整执行后分批推送
+     */
+    STREAMING,
+    
+    /**
+     * 支持批量导出（如COPY TO STDOUT、按Region并行扫描），实现{@link BulkExportConnector}
+     */
+    BULK_EXPORT(BulkExportConnector.class),
+    
+    /**
+     * 支持批量导入（如COPY FROM STDIN），实现{@link BulkImportConnector}
+     */
+    BULK_IMPORT(BulkImportConnector.class),
+    
+    /**
+     * 支持按后端分配的查询ID查询服务端执行进度
+     */
+    PROGRESS,
+    
+    /**
+     * 支持只读副本路由（可查询副本复制延迟）
+     */
+    READ_REPLICAS,
+    
+    /**
+     * 支持获取归一化的执行计划（EXPLAIN），实现{@link ExplainConnector}
+     */
+    EXPLAIN(ExplainConnector.class);
+    
+    /**
+     * 声明该能力的连接器必须实现的接口，无额外方法的能力为null
+     */
+    private final Class<? extends DatabaseConnector> contract;
+    
+    ConnectorCapability() {
+        this(null);
+    }
+    
+    ConnectorCapability(Class<? extends DatabaseConnector> contract) {
+        this.contract = contract;
+    }
+    
+    public Class<? extends DatabaseConnector> getContract() {
+        return contract;
+    }
+    
+    /**
+     * 连接器类是否实现了本能力要求的接口
+     */
+    public boolean isImplementedBy(Class<? extends DatabaseConnector> connectorClass) {
+        return contract == null || contract.isAssignableFrom(connectorClass);
+    }
+}
@@ -0,0 +1,35 @@
+package com.anydb.connector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 连接器插件声明
+ * 
+ * 标注在{@link DatabaseConnector}实现类上，并在
+ * {@code META-INF/services/com.anydb.connector.DatabaseConnector}中登记实现类名。
+ * 工厂通过ServiceLoader发现插件时只读取本注解，不会实例化连接器。子类继承父类的声明。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConnectorPlugin {
+    
+    /**
+     * 连接器支持的数据库类型
+     */
+    DatabaseType type();
+    
+    /**
+     * 连接器声明的能力
+     */
+    ConnectorCapability[] capabilities() default {};
+}
@@ -1,6 +1,13 @@
 package com.anydb.connector;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 数据库连接配置
@@ -57,6 +64,26 @@ public class DatabaseConfig {
      */
     private Map<String, String> options;
     
+    /**
+     * 备用主机：与host/port对等的其他节点，按负载均衡策略选择并在故障时切换
+     */
+    private List<HostEndpoint> hosts;
+    
+    /**
+     * 多主机负载均衡策略（为空时按FAILOVER处理）
+     */
+    private LoadBalancePolicy loadBalancePolicy;
+    
+    /**
+     * 只读副本（为空时所有语句都发往主库）
+     */
+    private List<HostEndpoint> replicas;
+    
+    /**
+     * 允许读取副本的最大复制延迟（秒），为空时不检查延迟
+     */
+    private Integer maxReplicationLag;
+    
     // 构造函数
     public DatabaseConfig() {
     }
@@ -149,6 +176,64 @@ public class DatabaseConfig {
         this.options = options;
     }
     
+    public List<HostEndpoint> getHosts() {
+        return hosts;
+    }
+    
+    public void setHosts(List<HostEndpoint> hosts) {
+        this.hosts = hosts;
+    }
+    
+    public LoadBalancePolicy getLoadBalancePolicy() {
+        return loadBalancePolicy;
+    }
+    
+    public void setLoadBalancePolicy(LoadBalancePolicy loadBalancePolicy) {
+        this.loadBalancePolicy = loadBalancePolicy;
+    }
+    
+    /**
+     * 是否配置了备用主机
+     */
+    public boolean hasHosts() {
+        return hosts != null && !hosts.isEmpty();
+    }
+    
+    /**
+     * 全部对等主机：host/port在前，备用主机按配置顺序在后
+     */
+    public List<HostEndpoint> getHostEndpoints() {
+        List<HostEndpoint> endpoints = new ArrayList<>();
+        endpoints.add(new HostEndpoint(host, port));
+        if (hosts != null) {
+            endpoints.addAll(hosts);
+        }
+        return endpoints;
+    }
+    
+    public List<HostEndpoint> getReplicas() {
+        return replicas;
+    }
+    
+    public void setReplicas(List<HostEndpoint> replicas) {
+        this.replicas = replicas;
+    }
+    
+    public Integer getMaxReplicationLag() {
+        return maxReplicationLag;
+    }
+    
+    public void setMaxReplicationLag(Integer maxReplicationLag) {
+        this.maxReplicationLag = maxReplicationLag;
+    }
+    
+    /**
+     * 是否配置了只读副本
+     */
+    public boolean hasReplicas() {
+        return replicas != null && !replicas.isEmpty();
+    }
+    
     // 添加parameters方法
     public Object getParameter(String key) {
         return parameters != null ? parameters.get(key) : null;
@@ -201,6 +286,90 @@ public class DatabaseConfig {
      * 更新时间
      */
     private Long updateTime;
+
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(Integer poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public void setRemark(String remark) {
+        this.remark = remark;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Long getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Long createTime) {
+        this.createTime = createTime;
+    }
+
+    public Long getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Long updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    /**
+     * 复制配置（浅拷贝parameters/options映射）
+     */
+    public DatabaseConfig copy() {
+        DatabaseConfig copy = new DatabaseConfig(id, type, host, port);
+        copy.setName(name);
+        copy.setDatabase(database);
+        copy.setUsername(username);
+        copy.setPassword(password);
+        copy.setParameters(parameters != null ? new java.util.HashMap<>(parameters) : null);
+        copy.setOptions(options != null ? new java.util.HashMap<>(options) : null);
+        copy.setHosts(hosts != null ? new ArrayList<>(hosts) : null);
+        copy.setLoadBalancePolicy(loadBalancePolicy);
+        copy.setReplicas(replicas != null ? new ArrayList<>(replicas) : null);
+        copy.setMaxReplicationLag(maxReplicationLag);
+        copy.setTimeout(timeout);
+        copy.setPoolSize(poolSize);
+        copy.setRemark(remark);
+        copy.setEnabled(enabled);
+        copy.setCreateTime(createTime);
+        copy.setUpdateTime(updateTime);
+        return copy;
+    }
+
+    /**
+     * 指向指定节点的配置副本：替换主机与端口，去掉备用主机和副本列表
+     */
+    public DatabaseConfig forEndpoint(HostEndpoint endpoint) {
+        DatabaseConfig copy = copy();
+        copy.setHost(endpoint.getHost());
+        copy.setPort(endpoint.getPort() != null ? endpoint.getPort() : port);
+        copy.setHosts(null);
+        copy.setReplicas(null);
+        return copy;
+    }
     
     /**
      * 构建JDBC URL
@@ -266,6 +435,30 @@ public class DatabaseConfig {
         return url.toString();
     }
     
+    /**
+     * 连接参数摘要：地址（含备用主机）、用户名、密码、连接选项与连接池参数的SHA-256（十六进制）
+     * 
+     * 用作连接池、客户端缓存键的一部分：凭据或选项变化后不会复用旧连接，缓存键中也不含明文密码。
+     */
+    public String connectionDigest() {
+        StringBuilder material = new StringBuilder()
+            .append(type).append('\n')
+            .append(host).append(':').append(port).append('/').append(database).append('\n')
+            .append(hosts).append('\n')
+            .append(parameters != null ? new TreeMap<>(parameters) : null).append('\n')
+            .append(username).append('\n')
+            .append(password).append('\n')
+            .append(options != null ? new TreeMap<>(options) : null).append('\n')
+            .append(poolSize).append('|').append(timeout);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(material.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+    
     /**
      * 获取连接描述信息
      */
@@ -1,7 +1,13 @@
 package com.anydb.connector;
 
+import com.anydb.sql.SqlStatement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 数据库连接器接口
@@ -21,6 +27,18 @@ public interface DatabaseConnector {
      */
     QueryResult executeQuery(DatabaseConfig config, String sql);
     
+    /**
+     * 按结果集限制执行SQL查询，超过行数或字节上限时截断并标记truncated
+     * 
+     * 默认实现完整执行后截断；JDBC连接器在驱动层限制行数（setMaxRows）与语句超时，读取时计算字节预算。
+     * 
+     * @param statement 调用方对语句的分析结果（读写类型、引用的表等），连接器不再重复分析；
+     *                  sql可能已追加行数限制，分析结果仍适用
+     */
+    default QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement, ResultLimits limits) {
+        return limits.apply(executeQuery(config, sql));
+    }
+    
     /**
      * 执行SQL更新（INSERT, UPDATE, DELETE等）
      */
@@ -47,16 +65,97 @@ public interface DatabaseConnector {
     QueryResult getTableData(DatabaseConfig config, String database, String tableName, 
                            int page, int size, String orderBy, String orderDirection);
     
+    /**
+     * 流式执行SQL查询，按批推送结果
+     * 
+     * 默认实现先完整执行查询再分批推送，只保证协议一致；
+     * 声明了{@link ConnectorCapability#STREAMING}的连接器边取数边推送，
+     * 服务层只对声明了该能力的连接器调用本方法。
+     * 
+     * @return 推送的总行数
+     */
+    default long streamQuery(DatabaseConfig config, String sql, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        QueryResult result = executeQuery(config, sql);
+        sink.onColumns(result.getColumns());
+        
+        List<List<Object>> rows = result.getRows() != null ? result.getRows() : List.of();
+        long rowsRead = 0;
+        for (int from = 0; from < rows.size() && !sink.isCancelled(); from += batchSize) {
+            List<List<Object>> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            sink.onRows(batch);
+            rowsRead += batch.size();
+            sink.onProgress(new QueryProgress(rowsRead, System.currentTimeMillis() - startTime));
+        }
+        return rowsRead;
+    }
+    
+    /**
+     * 预览表数据：不排序，支持的数据库使用原生采样子句，在有限时间内返回一页有代表性的数据
+     * 
+     * 默认实现退化为不排序的第一页，采样方式记为{@link QueryResult#SAMPLING_NONE}。
+     */
+    default QueryResult previewTableData(DatabaseConfig config, String database, String tableName, int size) {
+        QueryResult result = getTableData(config, database, tableName, 1, size, null, null);
+        result.setSamplingMethod(QueryResult.SAMPLING_NONE);
+        return result;
+    }
+    
+    /**
+     * 获取服务端查询进度
+     * 
+     * 仅声明了{@link ConnectorCapability#PROGRESS}的连接器支持；查询已结束或不支持时返回null。
+     */
+    default QueryProgress getQueryProgress(DatabaseConfig config, String queryId) {
+        return null;
+    }
+    
+    /**
+     * 获取由本服务发起、仍在服务端执行的查询及其进度
+     */
+    default List<QueryProgress> getRunningQueries(DatabaseConfig config) {
+        return List.of();
+    }
+    
     /**
      * 获取支持的数据库类型
      */
     DatabaseType getSupportedType();
     
+    /**
+     * 获取连接器声明的能力（默认读取{@link ConnectorPlugin}注解）
+     */
+    default Set<ConnectorCapability> getCapabilities() {
+        Set<ConnectorCapability> capabilities = EnumSet.noneOf(ConnectorCapability.class);
+        ConnectorPlugin plugin = getClass().getAnnotation(ConnectorPlugin.class);
+        if (plugin != null) {
+            capabilities.addAll(Arrays.asList(plugin.capabilities()));
+        }
+        return capabilities;
+    }
+    
+    /**
+     * 查询副本复制延迟（秒），仅对声明READ_REPLICAS能力的连接器有意义
+     * 
+     * @param config 指向副本的配置
+     * @return 延迟秒数，无法判断（未在复制或无权限）时返回null
+     */
+    default Long getReplicationLag(DatabaseConfig config) {
+        return null;
+    }
+    
     /**
      * 创建连接池 (按需创建)
      */
     Object createConnectionPool(DatabaseConfig config);
     
+    /**
+     * 释放为指定配置缓存的连接池、客户端等资源（配置更新或删除后调用，下次使用时按新配置重建）
+     */
+    default void evict(Long configId) {
+    }
+    
     /**
      * 关闭连接
      */
@@ -66,11 +165,42 @@ public interface DatabaseConnector {
      * 查询结果
      */
     class QueryResult {
+        
+        /**
+         * 预览未采样（直接读取第一页）
+         */
+        public static final String SAMPLING_NONE = "NONE";
+        
         private List<String> columns;
         private List<List<Object>> rows;
         private Integer total;
         private Long executionTime;
         
+        /**
+         * 预览采样方式（如TABLESAMPLE SYSTEM），非预览查询为null
+         */
+        private String samplingMethod;
+        
+        /**
+         * 采样百分比，未采样时为null
+         */
+        private Double samplingPercent;
+        
+        /**
+         * 代价检查自动追加的行数上限，未改写语句时为null
+         */
+        private Integer appliedLimit;
+        
+        /**
+         * 结果是否因行数或字节上限被截断
+         */
+        private boolean truncated;
+        
+        /**
+         * 截断时读取后续数据的续取标识
+         */
+        private String continuation;
+        
         public List<String> getColumns() {
             return columns;
         }
@@ -102,6 +232,50 @@ public interface DatabaseConnector {
         public void setExecutionTime(Long executionTime) {
             this.executionTime = executionTime;
         }
+        
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String getSamplingMethod() {
+            return samplingMethod;
+        }
+        
+        public void setSamplingMethod(String samplingMethod) {
+            this.samplingMethod = samplingMethod;
+        }
+        
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Double getSamplingPercent() {
+            return samplingPercent;
+        }
+        
+        public void setSamplingPercent(Double samplingPercent) {
+            this.samplingPercent = samplingPercent;
+        }
+        
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Integer getAppliedLimit() {
+            return appliedLimit;
+        }
+        
+        public void setAppliedLimit(Integer appliedLimit) {
+            this.appliedLimit = appliedLimit;
+        }
+        
+        public boolean isTruncated() {
+            return truncated;
+        }
+        
+        public void setTruncated(boolean truncated) {
+            this.truncated = truncated;
+        }
+        
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String getContinuation() {
+            return continuation;
+        }
+        
+        public void setContinuation(String continuation) {
+            this.continuation = continuation;
+        }
     }
     
     /**
@@ -1,15 +1,26 @@
 package com.anydb.connector;
 
-import com.anydb.connector.impl.*;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 数据库连接器工厂
+ * 数据库连接器工厂 - 全局唯一的连接器注册表
+ * 
+ * 连接器通过ServiceLoader（META-INF/services/com.anydb.connector.DatabaseConnector）发现，
+ * 启动时只读取实现类上的{@link ConnectorPlugin}注解登记类型和能力，不创建任何连接器实例；
+ * 某种数据库类型第一次被使用时才加载其JDBC驱动并实例化连接器，之后复用同一实例。
  * 
  * @author AnyDB Team
  * @version 1.0.0
@@ -18,77 +29,83 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class DatabaseConnectorFactory {
     
-    private final Map<DatabaseType, DatabaseConnector> connectorMap = new ConcurrentHashMap<>();
-    
-    @Autowired
-    private MySQLConnector mysqlConnector;
-    
-    @Autowired
-    private PostgreSQLConnector postgresqlConnector;
-    
-    @Autowired
-    private RedisConnector redisConnector;
-    
-    @Autowired
-    private MongoDBConnector mongodbConnector;
-    
-    @Autowired
-    private ElasticsearchConnector elasticsearchConnector;
-    
-    @Autowired
-    private OracleConnector oracleConnector;
-    
-    @Autowired
-    private SQLServerConnector sqlserverConnector;
-    
-    @Autowired
-    private MariaDBConnector mariadbConnector;
+    /**
+     * 连接器注册表 - 数据库类型 -> 连接器实现类
+     */
+    private final Map<DatabaseType, Class<? extends DatabaseConnector>> connectorClasses = new ConcurrentHashMap<>();
     
-    @Autowired
-    private TiDBConnector tidbConnector;
+    /**
+     * 已实例化的连接器 - 数据库类型 -> 连接器实例（首次使用时创建）
+     */
+    private final Map<DatabaseType, DatabaseConnector> connectorMap = new ConcurrentHashMap<>();
     
     @Autowired
-    private ClickHouseConnector clickhouseConnector;
+    private AutowireCapableBeanFactory beanFactory;
     
     public DatabaseConnectorFactory() {
         initializeConnectors();
     }
     
     /**
-     * 初始化连接器映射
+     * 通过ServiceLoader发现连接器插件（不实例化）
      */
     private void initializeConnectors() {
-        try {
-            // 高优先级连接器
-            registerConnector(DatabaseType.MYSQL, mysqlConnector);
-            registerConnector(DatabaseType.POSTGRESQL, postgresqlConnector);
-            registerConnector(DatabaseType.REDIS, redisConnector);
-            registerConnector(DatabaseType.MONGODB, mongodbConnector);
-            registerConnector(DatabaseType.ELASTICSEARCH, elasticsearchConnector);
-            registerConnector(DatabaseType.ORACLE, oracleConnector);
-            registerConnector(DatabaseType.SQLSERVER, sqlserverConnector);
-            registerConnector(DatabaseType.MARIADB, mariadbConnector);
-            
-            // 中优先级连接器
-            registerConnector(DatabaseType.TIDB, tidbConnector);
-            registerConnector(DatabaseType.CLICKHOUSE, clickhouseConnector);
-            
-            log.info("数据库连接器工厂初始化完成，支持的数据库类型: {}", connectorMap.keySet());
-            
-        } catch (Exception e) {
-            log.error("连接器工厂初始化失败", e);
+        ServiceLoader.load(DatabaseConnector.class, getClass().getClassLoader()).stream().forEach(provider -> {
+            try {
+                Class<? extends DatabaseConnector> connectorClass = provider.type();
+                ConnectorPlugin plugin = connectorClass.getAnnotation(ConnectorPlugin.class);
+                if (plugin != null) {
+                    registerConnector(plugin.type(), connectorClass);
+                } else {
+                    // 未声明注解的插件只能实例化后才能知道类型
+                    DatabaseConnector connector = provider.get();
+                    registerConnector(connector.getSupportedType(), connector);
+                }
+            } catch (Exception | ServiceConfigurationError e) {
+                log.error("加载连接器插件失败", e);
+            }
+        });
+        
+        log.info("数据库连接器工厂初始化完成，支持的数据库类型: {}", connectorClasses.keySet());
+    }
+    
+    /**
+     * 登记连接器实现类，首次使用时实例化
+     */
+    public void registerConnector(DatabaseType type, Class<? extends DatabaseConnector> connectorClass) {
+        ConnectorPlugin plugin = connectorClass.getAnnotation(ConnectorPlugin.class);
+        if (plugin != null) {
+            checkCapabilities(connectorClass, Arrays.asList(plugin.capabilities()));
         }
+        connectorClasses.put(type, connectorClass);
+        connectorMap.remove(type);
+        log.debug("登记 {} 连接器: {}", type.getDisplayName(), connectorClass.getSimpleName());
     }
     
     /**
-     * 注册连接器
+     * 注册已创建的连接器实例
      */
-    private void registerConnector(DatabaseType type, DatabaseConnector connector) {
+    public void registerConnector(DatabaseType type, DatabaseConnector connector) {
         if (connector != null) {
+            checkCapabilities(connector.getClass(), connector.getCapabilities());
+            connectorClasses.put(type, connector.getClass());
             connectorMap.put(type, connector);
             log.debug("注册 {} 连接器成功", type.getDisplayName());
         } else {
-            log.warn("{} 连接器未找到，无法注册", type.getDisplayName());
+            log.warn("{} 连接器为空，无法注册", type.getDisplayName());
+        }
+    }
+    
+    /**
+     * 声明的能力必须有对应接口的实现，避免服务层按能力放行后调用失败
+     */
+    private static void checkCapabilities(Class<? extends DatabaseConnector> connectorClass,
+                                          Collection<ConnectorCapability> capabilities) {
+        for (ConnectorCapability capability : capabilities) {
+            if (!capability.isImplementedBy(connectorClass)) {
+                throw new IllegalArgumentException(connectorClass.getSimpleName() + "声明了" + capability
+                    + "能力但未实现" + capability.getContract().getSimpleName());
+            }
         }
     }
     
@@ -100,9 +117,8 @@ public class DatabaseConnectorFactory {
             throw new IllegalArgumentException("数据库类型不能为null");
         }
         
-        DatabaseConnector connector = connectorMap.get(type);
-        if (connector == null) {
-            String supportedTypes = connectorMap.keySet().stream()
+        if (!connectorClasses.containsKey(type)) {
+            String supportedTypes = connectorClasses.keySet().stream()
                 .map(DatabaseType::getDisplayName)
                 .sorted()
                 .reduce((a, b) -> a + ", " + b)
@@ -113,9 +129,39 @@ public class DatabaseConnectorFactory {
                     type.getDisplayName(), supportedTypes));
         }
         
+        return connectorMap.computeIfAbsent(type, this::createConnector);
+    }
+    
+    /**
+     * 创建连接器实例（每种类型只执行一次）
+     */
+    private DatabaseConnector createConnector(DatabaseType type) {
+        long start = System.currentTimeMillis();
+        loadDriver(type);
+        
+        DatabaseConnector connector = beanFactory.createBean(connectorClasses.get(type));
+        log.info("{} 连接器首次使用，已完成加载，耗时: {}ms", type.getDisplayName(), System.currentTimeMillis() - start);
         return connector;
     }
     
+    /**
+     * 按需加载JDBC驱动类
+     * 
+     * 驱动缺失时只记录警告，实际建立连接时再由驱动管理器报告错误，
+     * 以免影响连接器中不依赖JDBC的功能。
+     */
+    private void loadDriver(DatabaseType type) {
+        if (!type.getUrlPrefix().startsWith("jdbc:")) {
+            return;
+        }
+        try {
+            Class.forName(type.getDriverClass(), true, getClass().getClassLoader());
+            log.debug("加载 {} JDBC驱动: {}", type.getDisplayName(), type.getDriverClass());
+        } catch (ClassNotFoundException e) {
+            log.warn("{} JDBC驱动不在类路径中: {}", type.getDisplayName(), type.getDriverClass());
+        }
+    }
+    
     /**
      * 根据数据库类型代码获取连接器
      */
@@ -124,7 +170,7 @@ public class DatabaseConnectorFactory {
             DatabaseType type = DatabaseType.fromCode(typeCode);
             return getConnector(type);
         } catch (IllegalArgumentException e) {
-            String supportedTypes = connectorMap.keySet().stream()
+            String supportedTypes = connectorClasses.keySet().stream()
                 .map(DatabaseType::getCode)
                 .sorted()
                 .reduce((a, b) -> a + ", " + b)
@@ -140,14 +186,14 @@ public class DatabaseConnectorFactory {
      * 获取所有支持的数据库类型
      */
     public DatabaseType[] getSupportedTypes() {
-        return connectorMap.keySet().toArray(new DatabaseType[0]);
+        return connectorClasses.keySet().toArray(new DatabaseType[0]);
     }
     
     /**
      * 检查是否支持指定数据库类型
      */
     public boolean isSupported(DatabaseType type) {
-        return connectorMap.containsKey(type);
+        return type != null && connectorClasses.containsKey(type);
     }
     
     /**
@@ -167,14 +213,18 @@ public class DatabaseConnectorFactory {
      */
     public Map<String, Object> getConnectorStats() {
         return Map.of(
-            "totalConnectors", connectorMap.size(),
-            "supportedTypes", connectorMap.keySet().stream()
+            "totalConnectors", connectorClasses.size(),
+            "loadedConnectors", connectorMap.keySet().stream()
+                .map(DatabaseType::getDisplayName)
+                .sorted()
+                .toList(),
+            "supportedTypes", connectorClasses.keySet().stream()
                 .map(DatabaseType::getDisplayName)
                 .sorted()
                 .toList(),
             "unimplementedTypes", DatabaseType.values() != null ? 
                 java.util.Arrays.stream(DatabaseType.values())
-                    .filter(type -> !connectorMap.containsKey(type))
+                    .filter(type -> !connectorClasses.containsKey(type))
                     .map(DatabaseType::getDisplayName)
                     .sorted()
                     .toList() : java.util.Collections.emptyList()
@@ -182,13 +232,14 @@ public class DatabaseConnectorFactory {
     }
     
     /**
-     * 测试所有连接器
+     * 测试所有连接器（会加载全部连接器）
      */
     public Map<String, Boolean> testAllConnectors() {
         Map<String, Boolean> results = new ConcurrentHashMap<>();
         
-        connectorMap.forEach((type, connector) -> {
+        for (DatabaseType type : getSupportedTypes()) {
             try {
+                DatabaseConnector connector = getConnector(type);
                 // 使用默认配置进行测试
                 DatabaseConfig testConfig = createTestConfig(type);
                 boolean success = connector.testConnection(testConfig);
@@ -203,7 +254,7 @@ public class DatabaseConnectorFactory {
                 results.put(type.getDisplayName(), false);
                 log.error("{} 连接器测试异常", type.getDisplayName(), e);
             }
-        });
+        }
         
         return results;
     }
@@ -242,8 +293,51 @@ public class DatabaseConnectorFactory {
     }
     
     /**
-     * 关闭所有连接器资源
+     * 获取指定类型连接器声明的能力（不会实例化连接器）
+     */
+    public Set<ConnectorCapability> getCapabilities(DatabaseType type) {
+        if (type == null) {
+            return EnumSet.noneOf(ConnectorCapability.class);
+        }
+        DatabaseConnector connector = connectorMap.get(type);
+        if (connector != null) {
+            return connector.getCapabilities();
+        }
+        
+        Set<ConnectorCapability> capabilities = EnumSet.noneOf(ConnectorCapability.class);
+        Class<? extends DatabaseConnector> connectorClass = connectorClasses.get(type);
+        ConnectorPlugin plugin = connectorClass != null ? connectorClass.getAnnotation(ConnectorPlugin.class) : null;
+        if (plugin != null) {
+            capabilities.addAll(Arrays.asList(plugin.capabilities()));
+        }
+        return capabilities;
+    }
+    
+    /**
+     * 检查指定类型的连接器是否支持某项能力
+     */
+    public boolean hasCapability(DatabaseType type, ConnectorCapability capability) {
+        return getCapabilities(type).contains(capability);
+    }
+    
+    /**
+     * 获取已实例化的连接器
+     */
+    public Collection<DatabaseConnector> getLoadedConnectors() {
+        return connectorMap.values();
+    }
+    
+    /**
+     * 检查指定类型的连接器是否已实例化
+     */
+    public boolean isLoaded(DatabaseType type) {
+        return type != null && connectorMap.containsKey(type);
+    }
+    
+    /**
+     * 关闭所有已实例化的连接器资源
      */
+    @PreDestroy
     public void closeAll() {
         log.info("关闭所有数据库连接器");
         connectorMap.forEach((type, connector) -> {
@@ -0,0 +1,20 @@
+package com.anydb.connector;
+
+import com.anydb.sql.SqlStatement;
+
+/**
+ * 支持获取执行计划的连接器（对应能力{@link ConnectorCapability#EXPLAIN}）
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public interface ExplainConnector extends DatabaseConnector {
+    
+    /**
+     * 获取语句的归一化执行计划
+     * 
+     * @param statement 调用方对语句的分析结果
+     * @param analyze 是否实际执行语句以获取实际行数与耗时（EXPLAIN ANALYZE）
+     */
+    QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze);
+}
@@ -0,0 +1,51 @@
+package com.anydb.connector;
+
+/**
+ * 数据库节点地址（备用主机或只读副本）
+ * 
+ * 节点沿用主配置的数据库名、用户名、密码和连接选项，仅主机与端口不同。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class HostEndpoint {
+    
+    /**
+     * 主机地址
+     */
+    private String host;
+    
+    /**
+     * 端口号（为空时沿用主配置端口）
+     */
+    private Integer port;
+    
+    public HostEndpoint() {
+    }
+    
+    public HostEndpoint(String host, Integer port) {
+        this.host = host;
+        this.port = port;
+    }
+    
+    public String getHost() {
+        return host;
+    }
+    
+    public void setHost(String host) {
+        this.host = host;
+    }
+    
+    public Integer getPort() {
+        return port;
+    }
+    
+    public void setPort(Integer port) {
+        this.port = port;
+    }
+    
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,30 @@
+package com.anydb.connector;
+
+/**
+ * 多主机负载均衡策略
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public enum LoadBalancePolicy {
+    
+    /**
+     * 按配置顺序优先使用第一个可用主机，仅在其故障时切换（默认）
+     */
+    FAILOVER,
+    
+    /**
+     * 在可用主机间轮询
+     */
+    ROUND_ROBIN,
+    
+    /**
+     * 选择执行中请求最少的主机
+     */
+    LEAST_CONNECTIONS,
+    
+    /**
+     * 按平均响应时间的倒数加权随机选择
+     */
+    LATENCY_WEIGHTED
+}
@@ -0,0 +1,149 @@
+package com.anydb.connector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 执行计划节点（各数据库执行计划归一化后的公共树形结构）
+ *
+ * 估算值与实际值按数据库提供的口径填写，不可用时为null；
+ * 实际行数与耗时（ANALYZE）为单次循环的值，总量需乘以loops。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class PlanNode {
+    
+    /**
+     * 算子（如Seq Scan、Table scan、TableReader、INDEX RANGE SCAN）
+     */
+    private String operation;
+    
+    /**
+     * 访问的对象（表或索引）
+     */
+    private String object;
+    
+    /**
+     * 估算行数
+     */
+    private Double estimatedRows;
+    
+    /**
+     * 估算代价（数据库自身的代价单位，不同数据库间不可比较）
+     */
+    private Double estimatedCost;
+    
+    /**
+     * 实际行数（ANALYZE）
+     */
+    private Double actualRows;
+    
+    /**
+     * 实际耗时（毫秒，ANALYZE）
+     */
+    private Double actualTimeMs;
+    
+    /**
+     * 执行次数（ANALYZE）
+     */
+    private Long loops;
+    
+    /**
+     * 数据库特有的附加信息（过滤条件、索引条件、访问方式等）
+     */
+    private Map<String, Object> details = new LinkedHashMap<>();
+    
+    private List<PlanNode> children = new ArrayList<>();
+    
+    public PlanNode() {
+    }
+    
+    public PlanNode(String operation) {
+        this.operation = operation;
+    }
+    
+    public void addChild(PlanNode child) {
+        children.add(child);
+    }
+    
+    public void putDetail(String key, Object value) {
+        if (value != null) {
+            details.put(key, value);
+        }
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+    
+    public String getObject() {
+        return object;
+    }
+    
+    public void setObject(String object) {
+        this.object = object;
+    }
+    
+    public Double getEstimatedRows() {
+        return estimatedRows;
+    }
+    
+    public void setEstimatedRows(Double estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
+    
+    public Double getEstimatedCost() {
+        return estimatedCost;
+    }
+    
+    public void setEstimatedCost(Double estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+    
+    public Double getActualRows() {
+        return actualRows;
+    }
+    
+    public void setActualRows(Double actualRows) {
+        this.actualRows = actualRows;
+    }
+    
+    public Double getActualTimeMs() {
+        return actualTimeMs;
+    }
+    
+    public void setActualTimeMs(Double actualTimeMs) {
+        this.actualTimeMs = actualTimeMs;
+    }
+    
+    public Long getLoops() {
+        return loops;
+    }
+    
+    public void setLoops(Long loops) {
+        this.loops = loops;
+    }
+    
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+    
+    public void setDetails(Map<String, Object> details) {
+        this.details = details;
+    }
+    
+    public List<PlanNode> getChildren() {
+        return children;
+    }
+    
+    public void setChildren(List<PlanNode> children) {
+        this.children = children;
+    }
+}
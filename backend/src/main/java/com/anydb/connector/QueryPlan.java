@@ -0,0 +1,100 @@
+package com.anydb.connector;
+
+/**
+ * 执行计划
+ *
+ * root为归一化后的计划树，raw保留数据库返回的原始计划（JSON、XML或文本），
+ * 便于查看归一化结构未覆盖的细节。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class QueryPlan {
+    
+    public static final String FORMAT_JSON = "json";
+    
+    public static final String FORMAT_XML = "xml";
+    
+    public static final String FORMAT_TEXT = "text";
+    
+    private PlanNode root;
+    
+    /**
+     * 原始计划的格式：json、xml、text
+     */
+    private String format;
+    
+    private String raw;
+    
+    /**
+     * 是否实际执行过语句（ANALYZE），为true时节点包含实际行数与耗时
+     */
+    private boolean analyzed;
+    
+    /**
+     * 优化器耗时（毫秒），数据库未提供时为null
+     */
+    private Double planningTimeMs;
+    
+    /**
+     * 执行耗时（毫秒，ANALYZE），数据库未提供时为null
+     */
+    private Double executionTimeMs;
+    
+    public QueryPlan() {
+    }
+    
+    public QueryPlan(PlanNode root, String format, String raw) {
+        this.root = root;
+        this.format = format;
+        this.raw = raw;
+    }
+    
+    public PlanNode getRoot() {
+        return root;
+    }
+    
+    public void setRoot(PlanNode root) {
+        this.root = root;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public String getRaw() {
+        return raw;
+    }
+    
+    public void setRaw(String raw) {
+        this.raw = raw;
+    }
+    
+    public boolean isAnalyzed() {
+        return analyzed;
+    }
+    
+    public void setAnalyzed(boolean analyzed) {
+        this.analyzed = analyzed;
+    }
+    
+    public Double getPlanningTimeMs() {
+        return planningTimeMs;
+    }
+    
+    public void setPlanningTimeMs(Double planningTimeMs) {
+        this.planningTimeMs = planningTimeMs;
+    }
+    
+    public Double getExecutionTimeMs() {
+        return executionTimeMs;
+    }
+    
+    public void setExecutionTimeMs(Double executionTimeMs) {
+        this.executionTimeMs = executionTimeMs;
+    }
+}
@@ -0,0 +1,112 @@
+package com.anydb.connector;
+
+/**
+ * 查询进度
+ * 
+ * rowsRead/elapsedMs对所有连接器有效；queryId、readRows、readBytes、totalRowsToRead、
+ * memoryUsage为服务端统计（如ClickHouse system.processes），不可用时为null。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class QueryProgress {
+    
+    /**
+     * 服务端查询ID（由后端分配）
+     */
+    private String queryId;
+    
+    /**
+     * 已推送给客户端的行数
+     */
+    private long rowsRead;
+    
+    /**
+     * 已耗时（毫秒）
+     */
+    private long elapsedMs;
+    
+    /**
+     * 服务端已扫描行数
+     */
+    private Long readRows;
+    
+    /**
+     * 服务端已扫描字节数
+     */
+    private Long readBytes;
+    
+    /**
+     * 服务端预计需扫描的总行数
+     */
+    private Long totalRowsToRead;
+    
+    /**
+     * 服务端当前内存占用（字节）
+     */
+    private Long memoryUsage;
+    
+    public QueryProgress() {
+    }
+    
+    public QueryProgress(long rowsRead, long elapsedMs) {
+        this.rowsRead = rowsRead;
+        this.elapsedMs = elapsedMs;
+    }
+    
+    public String getQueryId() {
+        return queryId;
+    }
+    
+    public void setQueryId(String queryId) {
+        this.queryId = queryId;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+    
+    public Long getReadRows() {
+        return readRows;
+    }
+    
+    public void setReadRows(Long readRows) {
+        this.readRows = readRows;
+    }
+    
+    public Long getReadBytes() {
+        return readBytes;
+    }
+    
+    public void setReadBytes(Long readBytes) {
+        this.readBytes = readBytes;
+    }
+    
+    public Long getTotalRowsToRead() {
+        return totalRowsToRead;
+    }
+    
+    public void setTotalRowsToRead(Long totalRowsToRead) {
+        this.totalRowsToRead = totalRowsToRead;
+    }
+    
+    public Long getMemoryUsage() {
+        return memoryUsage;
+    }
+    
+    public void setMemoryUsage(Long memoryUsage) {
+        this.memoryUsage = memoryUsage;
+    }
+}
@@ -0,0 +1,49 @@
+package com.anydb.connector;
+
+import java.util.List;
+
+/**
+ * 查询结果流式接收端
+ * 
+ * 连接器边读取结果集边推送：先推送列头，再按批推送数据行，并在每批之后推送进度。
+ * {@link #onRows(List)}在消费端没有可用额度时阻塞，读取线程随之暂停取数，形成背压。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public interface QueryStreamSink {
+    
+    /**
+     * 推送列头（执行返回后立即调用一次）
+     */
+    void onColumns(List<String> columns);
+    
+    /**
+     * 推送一批数据行，消费端未授予额度时阻塞
+     * 
+     * @throws InterruptedException 等待额度时被中断
+     */
+    void onRows(List<List<Object>> rows) throws InterruptedException;
+    
+    /**
+     * 推送进度
+     */
+    void onProgress(QueryProgress progress);
+    
+    /**
+     * 消费端是否已取消
+     */
+    boolean isCancelled();
+    
+    /**
+     * 结果超过行数上限，之后的行不再推送（连接器不调用，由服务层的行数上限调用）
+     */
+    default void onTruncated(long maxRows) {
+    }
+    
+    /**
+     * 登记终止句柄：支持终止的连接器在执行语句前调用，消费端取消时调用该句柄终止仍在执行的语句
+     */
+    default void onCancellable(Runnable canceller) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.anydb.connector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 结果集限制
+ *
+ * 交互式查询读取结果时的行数上限、字节预算（按行估算的堆占用）、跳过的起始行数和语句超时。
+ * 上限为0表示不限制；超过上限时结果被截断并标记truncated，剩余数据可按续取标识继续读取。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class ResultLimits {
+    
+    /**
+     * 不限制
+     */
+    public static final ResultLimits NONE = new ResultLimits(0, 0, 0, 0);
+    
+    private final int maxRows;
+    
+    private final long maxBytes;
+    
+    private final long skipRows;
+    
+    private final int queryTimeoutSeconds;
+    
+    public ResultLimits(int maxRows, long maxBytes, long skipRows, int queryTimeoutSeconds) {
+        this.maxRows = Math.max(0, maxRows);
+        this.maxBytes = Math.max(0, maxBytes);
+        this.skipRows = Math.max(0, skipRows);
+        this.queryTimeoutSeconds = Math.max(0, queryTimeoutSeconds);
+    }
+    
+    /**
+     * 最多返回的行数，0表示不限制
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+    
+    /**
+     * 结果集估算字节上限，0表示不限制
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+    
+    /**
+     * 读取前跳过的行数（续取时为已返回的行数；已改写为OFFSET时为0）
+     */
+    public long getSkipRows() {
+        return skipRows;
+    }
+    
+    /**
+     * 语句超时秒数，0表示使用驱动默认值
+     */
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+    
+    /**
+     * 跳过行数改为0（语句已改写为带OFFSET的形式）
+     */
+    public ResultLimits withoutSkip() {
+        return skipRows == 0 ? this : new ResultLimits(maxRows, maxBytes, 0, queryTimeoutSeconds);
+    }
+    
+    /**
+     * 传给Statement.setMaxRows的行数：跳过的行、返回的行再多读一行用于判断是否截断，不限制时为0
+     */
+    public int getFetchLimit() {
+        if (maxRows == 0) {
+            return 0;
+        }
+        long fetch = skipRows + maxRows + 1;
+        return fetch > Integer.MAX_VALUE ? 0 : (int) fetch;
+    }
+    
+    /**
+     * 估算一行的堆占用字节数
+     */
+    public static long estimateBytes(List<Object> row) {
+        long bytes = 16 + 4L * row.size();
+        for (Object value : row) {
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof CharSequence text) {
+                bytes += 40 + 2L * text.length();
+            } else if (value instanceof byte[] data) {
+                bytes += 16 + data.length;
+            } else if (value instanceof Number || value instanceof Boolean) {
+                bytes += 16;
+            } else {
+                bytes += 48;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * 创建按本限制收集行的收集器
+     */
+    public Collector collector() {
+        return new Collector();
+    }
+    
+    /**
+     * 对已完整读取的结果按限制截断（无法在驱动层限制的连接器使用）
+     */
+    public DatabaseConnector.QueryResult apply(DatabaseConnector.QueryResult result) {
+        if (result.getRows() == null || (maxRows == 0 && maxBytes == 0 && skipRows == 0)) {
+            return result;
+        }
+        Collector collector = collector();
+        for (List<Object> row : result.getRows()) {
+            if (!collector.skip() && !collector.offer(row)) {
+                break;
+            }
+        }
+        return collector.fill(result);
+    }
+    
+    /**
+     * 行收集器：先跳过skipRows行，之后读满行数上限或超过字节预算时拒收并标记截断
+     * 
+     * 首行即超过字节预算时仍收下该行，保证续取总能前进。用法：
+     * 每读到一行先调用skip()，返回false时再调用offer()，offer()返回false即停止读取。
+     */
+    public final class Collector {
+        
+        private final List<List<Object>> rows = new ArrayList<>();
+        
+        private long skipped;
+        
+        private long bytes;
+        
+        private boolean truncated;
+        
+        private Collector() {
+        }
+        
+        /**
+         * 当前行是否应跳过（续取时跳过已返回的行）
+         */
+        public boolean skip() {
+            if (skipped < skipRows) {
+                skipped++;
+                return true;
+            }
+            return false;
+        }
+        
+        /**
+         * 收下一行，超过行数上限或字节预算时返回false（该行不收）并标记截断
+         */
+        public boolean offer(List<Object> row) {
+            if (maxRows > 0 && rows.size() >= maxRows) {
+                truncated = true;
+                return false;
+            }
+            if (maxBytes > 0) {
+                bytes += estimateBytes(row);
+                if (bytes > maxBytes && !rows.isEmpty()) {
+                    truncated = true;
+                    return false;
+                }
+            }
+            rows.add(row);
+            return true;
+        }
+        
+        public List<List<Object>> getRows() {
+            return rows;
+        }
+        
+        public boolean isTruncated() {
+            return truncated;
+        }
+        
+        /**
+         * 把收集的行与截断标记写入结果
+         */
+        public DatabaseConnector.QueryResult fill(DatabaseConnector.QueryResult result) {
+            result.setRows(rows);
+            result.setTotal(rows.size());
+            result.setTruncated(truncated);
+            return result;
+        }
+    }
+}
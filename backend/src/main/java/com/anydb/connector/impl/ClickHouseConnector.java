@@ -1,13 +1,27 @@
 package com.anydb.connector.impl;
 
+import com.anydb.config.ClickHouseProperties;
 import com.anydb.connector.*;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.connector.support.TableSampling;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
+import com.anydb.sql.StatementType;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -18,13 +32,44 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - 高性能分析查询
  * - 分布式架构支持
  * - 实时数据处理
+ * - 查询默认走HTTP接口（RowBinary + 服务端压缩），直接解码字节流，绕开JDBC逐值装箱；
+ *   连接选项transport=jdbc时回退到JDBC驱动
+ * - 每条语句下发合并后的设置档案（max_threads、max_memory_usage等，见{@link ClickHouseProperties}）
+ *   和后端分配的query_id，可通过system.processes查询进度
  * 
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.CLICKHOUSE, capabilities = {ConnectorCapability.STREAMING, ConnectorCapability.PROGRESS, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class ClickHouseConnector implements DatabaseConnector {
+public class ClickHouseConnector implements ExplainConnector {
+    
+    /**
+     * 查询传输方式选项：http（默认）或jdbc
+     */
+    static final String OPTION_TRANSPORT = "transport";
+    
+    /**
+     * 数据源设置档案选项
+     */
+    static final String OPTION_SETTINGS_PROFILE = "settingsProfile";
+    
+    /**
+     * 后端分配的query_id前缀
+     */
+    static final String QUERY_ID_PREFIX = "anydb-";
+    
+    private static final Pattern QUERY_ID_PATTERN = Pattern.compile("anydb-[0-9a-f\\-]{36}");
+    
+    private static final Pattern SETTING_NAME_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    
+    private static final String PROCESSES_SQL = "SELECT query_id, read_rows, read_bytes, total_rows_approx, "
+        + "memory_usage, elapsed FROM system.processes WHERE ";
+    
+    private final ClickHouseHttpClient httpClient = new ClickHouseHttpClient();
+    
+    @Autowired(required = false)
+    private ClickHouseProperties properties;
     
     /**
      * 获取支持的数据库类型
@@ -48,6 +93,10 @@ public class ClickHouseConnector implements DatabaseConnector {
         try {
             log.debug("测试ClickHouse连接: {}:{}", config.getHost(), config.getPort());
             
+            if (useHttp(config)) {
+                return !executeHttpQuery(config, "SELECT 1").getRows().isEmpty();
+            }
+            
             conn = getConnection(config);
             stmt = conn.createStatement();
             
@@ -74,6 +123,18 @@ public class ClickHouseConnector implements DatabaseConnector {
      */
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询
+     * 
+     * HTTP传输以max_result_rows + result_overflow_mode=break让服务端在达到上限后停止（按块粒度，可能略多），
+     * JDBC传输使用setMaxRows；读取时再按行数与字节预算精确截断。
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         validateConfig(config);
         validateSql(sql);
         
@@ -86,18 +147,25 @@ public class ClickHouseConnector implements DatabaseConnector {
         try {
             log.debug("执行ClickHouse SQL查询: {}", sql);
             
+            if (useHttp(config)) {
+                return executeHttpQuery(config, sql, limits);
+            }
+            
             conn = getConnection(config);
             stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             
             // ClickHouse特殊查询处理
-            if (isClickHouseSpecialQuery(sql)) {
-                return executeClickHouseSpecialQuery(stmt, sql);
+            if (isClickHouseSpecialQuery(statement)) {
+                return executeClickHouseSpecialQuery(stmt, sql, limits);
             }
             
             rs = stmt.executeQuery(sql);
             
-            return processResultSet(rs, startTime);
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
+        } catch (DatabaseOperationException e) {
+            throw e;
         } catch (SQLException e) {
             log.error("ClickHouse SQL执行失败: {}", e.getMessage());
             throw new DatabaseOperationException(
@@ -135,10 +203,14 @@ public class ClickHouseConnector implements DatabaseConnector {
         try {
             log.debug("执行ClickHouse SQL更新: {}", sql);
             
-            conn = getConnection(config);
-            stmt = conn.createStatement();
-            
-            int affectedRows = stmt.executeUpdate(sql);
+            int affectedRows;
+            if (useHttp(config)) {
+                affectedRows = (int) httpClient.execute(config, sql, statementSettings(config, newQueryId()));
+            } else {
+                conn = getConnection(config);
+                stmt = conn.createStatement();
+                affectedRows = stmt.executeUpdate(sql);
+            }
             
             UpdateResult result = new UpdateResult();
             result.setAffectedRows(affectedRows);
@@ -148,6 +220,8 @@ public class ClickHouseConnector implements DatabaseConnector {
             log.debug("ClickHouse更新操作完成，影响行数: {}", affectedRows);
             return result;
             
+        } catch (DatabaseOperationException e) {
+            throw e;
         } catch (SQLException e) {
             log.error("ClickHouse SQL更新失败: {}", e.getMessage());
             throw new DatabaseOperationException(
@@ -351,9 +425,6 @@ public class ClickHouseConnector implements DatabaseConnector {
             log.debug("获取ClickHouse表数据，数据库: {}, 表: {}, 页码: {}, 每页: {}", 
                      database, tableName, page, size);
             
-            conn = getConnection(config);
-            stmt = conn.createStatement();
-            
             StringBuilder sql = new StringBuilder("SELECT * FROM ");
             if (database != null && !database.trim().isEmpty()) {
                 sql.append(database).append(".");
@@ -371,13 +442,22 @@ public class ClickHouseConnector implements DatabaseConnector {
             sql.append(" LIMIT ").append(size).append(" OFFSET ").append((page - 1) * size);
             
             log.debug("执行SQL: {}", sql.toString());
-            rs = stmt.executeQuery(sql.toString());
             
-            QueryResult result = processResultSet(rs, startTime);
+            QueryResult result;
+            if (useHttp(config)) {
+                result = executeHttpQuery(config, sql.toString());
+            } else {
+                conn = getConnection(config);
+                stmt = conn.createStatement();
+                rs = stmt.executeQuery(sql.toString());
+                result = ResultSetExtractor.extract(rs, startTime);
+            }
             
             log.debug("获取到 {} 行数据，耗时: {}ms", result.getRows().size(), result.getExecutionTime());
             return result;
             
+        } catch (DatabaseOperationException e) {
+            throw e;
         } catch (SQLException e) {
             log.error("获取ClickHouse表数据失败: {}", e.getMessage());
             throw new DatabaseOperationException(
@@ -399,6 +479,191 @@ public class ClickHouseConnector implements DatabaseConnector {
         }
     }
     
+    /**
+     * 预览表数据：表定义了SAMPLE BY时按total_rows估算比例使用SAMPLE子句，否则不排序读取第一页
+     * 
+     * MergeTree不带ORDER BY的LIMIT只读取前几个数据块，本身即可在有限时间内返回。
+     */
+    @Override
+    public QueryResult previewTableData(DatabaseConfig config, String database, String tableName, int size) {
+        validateConfig(config);
+        if (size <= 0) {
+            throw new IllegalArgumentException("页面大小必须大于0");
+        }
+        if (tableName == null || tableName.trim().isEmpty()) {
+            throw new IllegalArgumentException("表名不能为空");
+        }
+        if (!useHttp(config)) {
+            return ExplainConnector.super.previewTableData(config, database, tableName, size);
+        }
+        
+        boolean hasDatabase = database != null && !database.trim().isEmpty();
+        String qualifiedName = hasDatabase ? database + "." + tableName : tableName;
+        
+        try {
+            QueryResult meta = executeHttpQuery(config,
+                "SELECT sampling_key, total_rows FROM system.tables WHERE database = "
+                    + (hasDatabase ? quote(database) : "currentDatabase()") + " AND name = " + quote(tableName));
+            
+            double percent = 0;
+            if (!meta.getRows().isEmpty()) {
+                List<Object> row = meta.getRows().get(0);
+                String samplingKey = (String) row.get(0);
+                long totalRows = row.get(1) != null ? ((Number) row.get(1)).longValue() : 0;
+                if (samplingKey != null && !samplingKey.isEmpty()) {
+                    percent = TableSampling.percent(totalRows, size);
+                }
+            }
+            
+            QueryResult result;
+            if (percent > 0) {
+                result = executeHttpQuery(config, "SELECT * FROM " + qualifiedName
+                    + " SAMPLE " + TableSampling.format(percent / 100) + " LIMIT " + size);
+                result.setSamplingMethod("SAMPLE");
+                result.setSamplingPercent(percent);
+            } else {
+                result = executeHttpQuery(config, "SELECT * FROM " + qualifiedName + " LIMIT " + size);
+                result.setSamplingMethod(QueryResult.SAMPLING_NONE);
+            }
+            return result;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("INTERRUPTED", "ClickHouse预览表数据被中断");
+        }
+    }
+    
+    /**
+     * 流式执行SQL查询（HTTP接口边解码边推送）
+     * 
+     * 取消时直接关闭响应流，ClickHouse检测到连接断开后终止查询。
+     */
+    @Override
+    public long streamQuery(DatabaseConfig config, String sql, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        validateConfig(config);
+        validateSql(sql);
+        
+        if (!useHttp(config)) {
+            return ExplainConnector.super.streamQuery(config, sql, batchSize, sink);
+        }
+        
+        long startTime = System.currentTimeMillis();
+        String queryId = newQueryId();
+        log.debug("流式执行ClickHouse SQL查询: {}, query_id: {}", sql, queryId);
+        
+        try (InputStream in = httpClient.query(config, sql, statementSettings(config, queryId))) {
+            ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(in);
+            sink.onColumns(reader.getColumns());
+            
+            long pollInterval = properties != null ? properties.getProgressPollInterval() : 1000L;
+            long lastPoll = startTime;
+            long rowsRead = 0;
+            List<List<Object>> batch = new ArrayList<>(batchSize);
+            while (!sink.isCancelled() && reader.hasNext()) {
+                batch.add(reader.readRow());
+                if (batch.size() == batchSize) {
+                    rowsRead += batch.size();
+                    sink.onRows(batch);
+                    
+                    // 服务端进度按间隔轮询，避免每批都额外发起一次请求
+                    long now = System.currentTimeMillis();
+                    boolean poll = now - lastPoll >= pollInterval;
+                    if (poll) {
+                        lastPoll = now;
+                    }
+                    sink.onProgress(buildProgress(config, queryId, rowsRead, startTime, poll));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && !sink.isCancelled()) {
+                rowsRead += batch.size();
+                sink.onRows(batch);
+                sink.onProgress(buildProgress(config, queryId, rowsRead, startTime, false));
+            }
+            if (sink.isCancelled()) {
+                killQuery(config, queryId);
+            }
+            return rowsRead;
+            
+        } catch (IOException | IllegalStateException e) {
+            log.error("ClickHouse流式查询失败: {}", e.getMessage());
+            throw new DatabaseOperationException(
+                "SQL_EXECUTION_FAILED",
+                "ClickHouse流式查询失败: " + e.getMessage(),
+                "STREAM_QUERY",
+                e
+            );
+        }
+    }
+    
+    /**
+     * 获取执行计划：EXPLAIN PLAN json = 1（含读取的表与索引裁剪情况）
+     * 
+     * 计划本身不含行数，另用EXPLAIN ESTIMATE（21.9+）按索引裁剪后的mark数估算各表读取行数，
+     * 写入对应的ReadFrom节点，根节点为各表之和。
+     * ClickHouse没有带实际执行统计的EXPLAIN，analyze时在根节点附加EXPLAIN PIPELINE的处理器流水线，
+     * 计划本身仍为估算（analyzed为false）。沿用executeQuery，HTTP与JDBC传输均适用。
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        String json = joinRows(executeQuery(config, "EXPLAIN PLAN json = 1, description = 1, indexes = 1 " + sql));
+        QueryPlan plan = ExplainPlans.fromClickHouseJson(json);
+        applyEstimate(config, sql, plan);
+        if (analyze) {
+            plan.getRoot().putDetail("pipeline", joinRows(executeQuery(config, "EXPLAIN PIPELINE " + sql)));
+        }
+        return plan;
+    }
+    
+    /**
+     * 按EXPLAIN ESTIMATE（database、table、parts、rows、marks）填充读取节点的估算行数，旧版本不支持时忽略
+     */
+    private void applyEstimate(DatabaseConfig config, String sql, QueryPlan plan) {
+        QueryResult estimate;
+        try {
+            estimate = executeQuery(config, "EXPLAIN ESTIMATE " + sql);
+        } catch (DatabaseOperationException e) {
+            log.debug("ClickHouse EXPLAIN ESTIMATE不可用: {}", e.getMessage());
+            return;
+        }
+        int database = estimate.getColumns().indexOf("database");
+        int table = estimate.getColumns().indexOf("table");
+        int rows = estimate.getColumns().indexOf("rows");
+        if (database < 0 || table < 0 || rows < 0) {
+            return;
+        }
+        Map<String, Double> tableRows = new LinkedHashMap<>();
+        double total = 0;
+        for (List<Object> row : estimate.getRows()) {
+            double value = Double.parseDouble(String.valueOf(row.get(rows)));
+            tableRows.merge(row.get(database) + "." + row.get(table), value, Double::sum);
+            total += value;
+        }
+        applyEstimate(plan.getRoot(), tableRows);
+        if (plan.getRoot().getEstimatedRows() == null) {
+            plan.getRoot().setEstimatedRows(total);
+        }
+    }
+    
+    private static void applyEstimate(PlanNode node, Map<String, Double> tableRows) {
+        if (node.getObject() != null && tableRows.containsKey(node.getObject())) {
+            node.setEstimatedRows(tableRows.get(node.getObject()));
+        }
+        for (PlanNode child : node.getChildren()) {
+            applyEstimate(child, tableRows);
+        }
+    }
+    
+    /**
+     * 把EXPLAIN的单列多行输出拼接为文本
+     */
+    private static String joinRows(QueryResult result) {
+        return result.getRows().stream()
+            .map(row -> row.isEmpty() || row.get(0) == null ? "" : row.get(0).toString())
+            .collect(Collectors.joining("\n"));
+    }
+    
     /**
      * 创建连接池（按需）
      */
@@ -475,34 +740,198 @@ public class ClickHouseConnector implements DatabaseConnector {
     }
     
     /**
-     * 处理结果集
+     * 是否使用HTTP接口执行查询
      */
-    private QueryResult processResultSet(ResultSet rs, long startTime) throws SQLException {
-        QueryResult result = new QueryResult();
-        
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        
-        List<String> columns = new ArrayList<>();
-        for (int i = 1; i <= columnCount; i++) {
-            columns.add(metaData.getColumnLabel(i));
+    private boolean useHttp(DatabaseConfig config) {
+        String transport = config.getOption(OPTION_TRANSPORT);
+        return transport == null || !"jdbc".equalsIgnoreCase(transport.trim());
+    }
+    
+    /**
+     * 获取服务端查询进度（system.processes），查询已结束时返回null
+     */
+    @Override
+    public QueryProgress getQueryProgress(DatabaseConfig config, String queryId) {
+        validateConfig(config);
+        if (queryId == null || !QUERY_ID_PATTERN.matcher(queryId).matches()) {
+            throw new IllegalArgumentException("查询ID无效: " + queryId);
         }
         
-        List<List<Object>> rows = new ArrayList<>();
-        while (rs.next()) {
-            List<Object> row = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                row.add(rs.getObject(i));
+        List<QueryProgress> processes = queryProcesses(config, "query_id = '" + queryId + "'");
+        return processes.isEmpty() ? null : processes.get(0);
+    }
+    
+    /**
+     * 获取由本服务发起、仍在执行的查询（按query_id前缀过滤）
+     */
+    @Override
+    public List<QueryProgress> getRunningQueries(DatabaseConfig config) {
+        validateConfig(config);
+        return queryProcesses(config, "startsWith(query_id, '" + QUERY_ID_PREFIX + "') ORDER BY elapsed DESC");
+    }
+    
+    /**
+     * 合并设置档案：默认档案 → 数据源档案 → 用户档案，后者覆盖前者
+     */
+    Map<String, String> resolveSettings(DatabaseConfig config) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        if (properties == null) {
+            return settings;
+        }
+        applyProfile(settings, properties.getDefaultProfile());
+        applyProfile(settings, config.getOption(OPTION_SETTINGS_PROFILE));
+        applyProfile(settings, properties.getUserProfiles().get(config.getUsername()));
+        return settings;
+    }
+    
+    private void applyProfile(Map<String, String> settings, String profileName) {
+        if (profileName == null || profileName.isBlank()) {
+            return;
+        }
+        Map<String, String> profile = properties.getProfiles().get(profileName.trim());
+        if (profile == null) {
+            throw new IllegalArgumentException("ClickHouse设置档案不存在: " + profileName);
+        }
+        profile.forEach((name, value) -> {
+            if (!SETTING_NAME_PATTERN.matcher(name).matches()) {
+                throw new IllegalArgumentException("ClickHouse设置名无效: " + name);
+            }
+            settings.put(name, value);
+        });
+    }
+    
+    /**
+     * 单条语句的设置：设置档案 + query_id
+     */
+    private Map<String, String> statementSettings(DatabaseConfig config, String queryId) {
+        Map<String, String> settings = resolveSettings(config);
+        settings.put("query_id", queryId);
+        // 客户端断开（如流式查询取消）时服务端立即终止只读查询
+        settings.put("cancel_http_readonly_queries_on_client_close", "1");
+        return settings;
+    }
+    
+    /**
+     * 转义为ClickHouse字符串字面量
+     */
+    private static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+    
+    private String newQueryId() {
+        return QUERY_ID_PREFIX + UUID.randomUUID();
+    }
+    
+    /**
+     * 构建流式进度，poll为true时附带服务端统计
+     */
+    private QueryProgress buildProgress(DatabaseConfig config, String queryId, long rowsRead, long startTime, boolean poll) {
+        QueryProgress progress = null;
+        if (poll) {
+            try {
+                progress = getQueryProgress(config, queryId);
+            } catch (DatabaseOperationException e) {
+                log.debug("获取ClickHouse查询进度失败，query_id: {}, 错误: {}", queryId, e.getMessage());
+            }
+        }
+        if (progress == null) {
+            progress = new QueryProgress();
+            progress.setQueryId(queryId);
+        }
+        progress.setRowsRead(rowsRead);
+        progress.setElapsedMs(System.currentTimeMillis() - startTime);
+        return progress;
+    }
+    
+    /**
+     * 查询system.processes（监控语句不套用设置档案）
+     */
+    private List<QueryProgress> queryProcesses(DatabaseConfig config, String condition) {
+        try (InputStream in = httpClient.query(config, PROCESSES_SQL + condition, Map.of())) {
+            ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(in);
+            List<QueryProgress> processes = new ArrayList<>();
+            while (reader.hasNext()) {
+                List<Object> row = reader.readRow();
+                QueryProgress progress = new QueryProgress();
+                progress.setQueryId((String) row.get(0));
+                progress.setReadRows(((Number) row.get(1)).longValue());
+                progress.setReadBytes(((Number) row.get(2)).longValue());
+                progress.setTotalRowsToRead(((Number) row.get(3)).longValue());
+                progress.setMemoryUsage(((Number) row.get(4)).longValue());
+                progress.setElapsedMs((long) (((Number) row.get(5)).doubleValue() * 1000));
+                processes.add(progress);
             }
-            rows.add(row);
+            return processes;
+        } catch (IOException | IllegalStateException e) {
+            throw new DatabaseOperationException(
+                "QUERY_FAILED",
+                "ClickHouse查询进度获取失败: " + e.getMessage(),
+                "QUERY_PROGRESS",
+                e
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("INTERRUPTED", "ClickHouse查询进度获取被中断");
+        }
+    }
+    
+    /**
+     * 终止服务端查询（异步，失败只记录日志）
+     */
+    private void killQuery(DatabaseConfig config, String queryId) {
+        try {
+            httpClient.execute(config, "KILL QUERY WHERE query_id = '" + queryId + "' ASYNC", Map.of());
+            log.debug("已终止ClickHouse查询，query_id: {}", queryId);
+        } catch (Exception e) {
+            log.debug("终止ClickHouse查询失败，query_id: {}, 错误: {}", queryId, e.getMessage());
         }
+    }
+    
+    private QueryResult executeHttpQuery(DatabaseConfig config, String sql) throws InterruptedException {
+        return executeHttpQuery(config, sql, ResultLimits.NONE);
+    }
+    
+    /**
+     * 通过HTTP接口执行查询并解码为完整结果
+     */
+    private QueryResult executeHttpQuery(DatabaseConfig config, String sql, ResultLimits limits)
+            throws InterruptedException {
+        long startTime = System.currentTimeMillis();
         
-        result.setColumns(columns);
-        result.setRows(rows);
-        result.setTotal(rows.size());
-        result.setExecutionTime(System.currentTimeMillis() - startTime);
+        Map<String, String> settings = statementSettings(config, newQueryId());
+        if (limits.getFetchLimit() > 0) {
+            settings.put("max_result_rows", String.valueOf(limits.getFetchLimit()));
+            settings.put("result_overflow_mode", "break");
+        }
+        if (limits.getQueryTimeoutSeconds() > 0) {
+            settings.put("max_execution_time", String.valueOf(limits.getQueryTimeoutSeconds()));
+        }
         
-        return result;
+        try (InputStream in = httpClient.query(config, sql, settings)) {
+            ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(in);
+            
+            ResultLimits.Collector collector = limits.collector();
+            while (reader.hasNext()) {
+                List<Object> row = reader.readRow();
+                if (!collector.skip() && !collector.offer(row)) {
+                    break;
+                }
+            }
+            
+            QueryResult result = new QueryResult();
+            result.setColumns(reader.getColumns());
+            collector.fill(result);
+            result.setExecutionTime(System.currentTimeMillis() - startTime);
+            return result;
+            
+        } catch (IOException | IllegalStateException e) {
+            throw new DatabaseOperationException(
+                "SQL_EXECUTION_FAILED",
+                "ClickHouse HTTP查询失败: " + e.getMessage(),
+                "EXECUTE_QUERY",
+                e
+            );
+        }
     }
     
     /**
@@ -543,6 +972,14 @@ public class ClickHouseConnector implements DatabaseConnector {
         props.setProperty("characterEncoding", "UTF-8");
         props.setProperty("serverTimezone", "Asia/Shanghai");
         props.setProperty("socketTimeout", "30000");
+        
+        // JDBC传输同样下发设置档案
+        Map<String, String> settings = resolveSettings(config);
+        if (!settings.isEmpty()) {
+            props.setProperty("custom_settings", settings.entrySet().stream()
+                .map(setting -> setting.getKey() + "=" + setting.getValue())
+                .collect(Collectors.joining(",")));
+        }
         return props;
     }
     
@@ -562,29 +999,30 @@ public class ClickHouseConnector implements DatabaseConnector {
     }
     
     /**
-     * 检查是否为ClickHouse特殊查询
+     * 检查是否为ClickHouse特殊查询（SYSTEM、GRANT/REVOKE或查询system库）
      */
-    private boolean isClickHouseSpecialQuery(String sql) {
-        if (sql == null || sql.trim().isEmpty()) {
-            return false;
+    private boolean isClickHouseSpecialQuery(SqlStatement statement) {
+        if (statement.getType() == StatementType.SYSTEM || statement.getType() == StatementType.DCL) {
+            return true;
+        }
+        for (String table : statement.getTables()) {
+            if (table.regionMatches(true, 0, "system.", 0, 7)) {
+                return true;
+            }
         }
-        String lowerSql = sql.trim().toLowerCase();
-        return lowerSql.startsWith("system") || 
-               lowerSql.startsWith("grant") || 
-               lowerSql.startsWith("revoke") ||
-               lowerSql.contains("clickhouse") ||
-               lowerSql.contains("replicated");
+        return false;
     }
     
     /**
      * 执行ClickHouse特殊查询
      */
-    private QueryResult executeClickHouseSpecialQuery(Statement stmt, String sql) throws SQLException {
+    private QueryResult executeClickHouseSpecialQuery(Statement stmt, String sql, ResultLimits limits)
+            throws SQLException {
         long startTime = System.currentTimeMillis();
         
         try {
             ResultSet rs = stmt.executeQuery(sql);
-            return processResultSet(rs, startTime);
+            return ResultSetExtractor.extract(rs, startTime, limits);
         } catch (SQLException e) {
             throw new DatabaseOperationException(
                 "SQL_EXECUTION_FAILED",
@@ -658,7 +1096,7 @@ public class ClickHouseConnector implements DatabaseConnector {
         }
     }
     
-    private static class ClickHouseConnectionPool {
+    private static class ClickHouseConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
@@ -0,0 +1,327 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseOperationException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ClickHouse HTTP接口客户端
+ *
+ * 查询以RowBinaryWithNamesAndTypes格式返回，并开启服务端压缩（gzip/deflate，
+ * JDK内置解压，不引入额外依赖）。返回的输入流已解压，由调用方负责关闭。
+ * 响应头发出后查询才失败时服务端仍返回200，并在已输出的数据后追加异常文本：
+ * 结果解码失败时由解码器检查流末尾是否为这段文本（见{@link ExceptionTrailerInputStream}），
+ * 无结果集的语句读完响应后检查。
+ *
+ * 连接选项：
+ * - compression：gzip（默认）、deflate、none
+ * - ssl：true时使用https
+ * - requestTimeout：等待响应头的超时时间（毫秒），默认按max_execution_time加10秒，未设置时为5分钟
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class ClickHouseHttpClient {
+
+    static final String FORMAT = "RowBinaryWithNamesAndTypes";
+
+    static final String OPTION_COMPRESSION = "compression";
+
+    static final String OPTION_SSL = "ssl";
+
+    static final String OPTION_REQUEST_TIMEOUT = "requestTimeout";
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern WRITTEN_ROWS = Pattern.compile("\"written_rows\"\\s*:\\s*\"?(\\d+)");
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * 保留的结果流末尾字节数（服务端追加的异常文本不超过此长度）
+     */
+    private static final int TRAILER_BYTES = 8192;
+
+    private static final Pattern EXCEPTION_TRAILER = Pattern.compile("Code: \\d+\\. DB::Exception: ");
+
+    private final HttpClient httpClient;
+
+    ClickHouseHttpClient() {
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+            .build();
+    }
+
+    /**
+     * 执行查询，返回已解压的RowBinary结果流（解码失败后由{@link ClickHouseRowBinaryReader}检查服务端追加的异常文本）
+     *
+     * @param settings 附加的ClickHouse会话设置（作为URL参数传递）
+     */
+    InputStream query(DatabaseConfig config, String sql, Map<String, String> settings)
+            throws IOException, InterruptedException {
+        return send(config, sql, settings).body();
+    }
+
+    /**
+     * 执行无结果集的语句，返回服务端统计的写入行数（X-ClickHouse-Summary）
+     */
+    long execute(DatabaseConfig config, String sql, Map<String, String> settings)
+            throws IOException, InterruptedException {
+        Response response = send(config, sql, settings);
+        try (ExceptionTrailerInputStream in = response.body()) {
+            // 没有结果数据，末尾的异常文本只能来自服务端
+            in.transferTo(OutputStream.nullOutputStream());
+            in.checkTrailer();
+        }
+        return response.headers().firstValue("X-ClickHouse-Summary")
+            .map(summary -> {
+                Matcher matcher = WRITTEN_ROWS.matcher(summary);
+                return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+            })
+            .orElse(0L);
+    }
+
+    private Response send(DatabaseConfig config, String sql, Map<String, String> settings)
+            throws IOException, InterruptedException {
+        String compression = resolveCompression(config);
+
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("default_format", FORMAT);
+        if (config.getDatabase() != null && !config.getDatabase().trim().isEmpty()) {
+            params.put("database", config.getDatabase().trim());
+        }
+        if (!"none".equals(compression)) {
+            params.put("enable_http_compression", "1");
+            // 压缩级别1：大结果集下带宽收益已足够，CPU开销最小
+            params.put("http_zlib_compression_level", "1");
+        }
+        if (settings != null) {
+            params.putAll(settings);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(buildUri(config, params))
+            .timeout(resolveRequestTimeout(config, params))
+            .POST(HttpRequest.BodyPublishers.ofString(stripTrailingSemicolon(sql), StandardCharsets.UTF_8));
+        // 未设置用户名时由服务端使用default用户
+        if (config.getUsername() != null && !config.getUsername().isBlank()) {
+            request.header("X-ClickHouse-User", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            request.header("X-ClickHouse-Key", config.getPassword());
+        }
+        if (!"none".equals(compression)) {
+            request.header("Accept-Encoding", compression);
+        }
+
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        InputStream body = decompress(response);
+
+        if (response.statusCode() != 200) {
+            String error;
+            try (InputStream in = body) {
+                error = new String(in.readNBytes(8192), StandardCharsets.UTF_8).trim();
+            }
+            throw new DatabaseOperationException(
+                "SQL_EXECUTION_FAILED",
+                "ClickHouse查询失败(HTTP " + response.statusCode() + "): " + error
+            );
+        }
+        return new Response(new ExceptionTrailerInputStream(body), response.headers());
+    }
+
+    /**
+     * 等待响应头的超时时间：连接选项requestTimeout优先，其次为max_execution_time加连接超时，否则为默认值
+     */
+    static Duration resolveRequestTimeout(DatabaseConfig config, Map<String, String> params) {
+        String option = config.getOption(OPTION_REQUEST_TIMEOUT);
+        if (option != null && !option.isBlank()) {
+            try {
+                long millis = Long.parseLong(option.trim());
+                if (millis > 0) {
+                    return Duration.ofMillis(millis);
+                }
+            } catch (NumberFormatException e) {
+                // 按下方异常处理
+            }
+            throw new IllegalArgumentException("连接选项" + OPTION_REQUEST_TIMEOUT + "必须为正整数（毫秒）: " + option);
+        }
+        String maxExecutionTime = params.get("max_execution_time");
+        if (maxExecutionTime != null) {
+            try {
+                long seconds = Long.parseLong(maxExecutionTime.trim());
+                if (seconds > 0) {
+                    return Duration.ofSeconds(seconds).plus(DEFAULT_CONNECT_TIMEOUT);
+                }
+            } catch (NumberFormatException e) {
+                // 非整数的设置交由服务端校验
+            }
+        }
+        return DEFAULT_REQUEST_TIMEOUT;
+    }
+
+    private URI buildUri(DatabaseConfig config, Map<String, String> params) {
+        boolean ssl = Boolean.parseBoolean(config.getOption(OPTION_SSL));
+        StringBuilder uri = new StringBuilder(ssl ? "https://" : "http://")
+            .append(config.getHost()).append(':').append(config.getPort()).append("/?");
+        boolean first = true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!first) {
+                uri.append('&');
+            }
+            uri.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            first = false;
+        }
+        return URI.create(uri.toString());
+    }
+
+    private InputStream decompress(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        InputStream body = response.body();
+        switch (encoding) {
+            case "gzip":
+                return new GZIPInputStream(body, STREAM_BUFFER_SIZE);
+            case "deflate":
+                return new InflaterInputStream(body, new Inflater(), STREAM_BUFFER_SIZE);
+            case "":
+                return body;
+            default:
+                body.close();
+                throw new IOException("不支持的ClickHouse响应压缩格式: " + encoding);
+        }
+    }
+
+    private String resolveCompression(DatabaseConfig config) {
+        String compression = config.getOption(OPTION_COMPRESSION);
+        if (compression == null || compression.isBlank()) {
+            return "gzip";
+        }
+        compression = compression.trim().toLowerCase();
+        if (!compression.equals("gzip") && !compression.equals("deflate") && !compression.equals("none")) {
+            throw new IllegalArgumentException("不支持的ClickHouse压缩方式: " + compression + "（可选gzip、deflate、none）");
+        }
+        return compression;
+    }
+
+    private static String stripTrailingSemicolon(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    /**
+     * 已解压的响应体及响应头
+     */
+    private record Response(ExceptionTrailerInputStream body, HttpHeaders headers) {
+    }
+
+    /**
+     * 识别服务端追加异常文本的结果流
+     *
+     * 保留最后TRAILER_BYTES字节，读取本身不做判断：解码器在行边界正常读到流末尾时，末尾的字节都是数据
+     * （字符串列的值可能恰好是以换行结束的异常文本）。只有解码失败后才调用{@link #drainTrailer()}，
+     * 若流末尾是以换行结束的"Code: N. DB::Exception: ..."则抛出包含该文本的IOException。
+     */
+    static final class ExceptionTrailerInputStream extends FilterInputStream {
+
+        private final byte[] tail = new byte[TRAILER_BYTES];
+
+        private long total;
+
+        ExceptionTrailerInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                tail[(int) (total++ % TRAILER_BYTES)] = (byte) b;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            for (int i = 0; i < n; i++) {
+                tail[(int) (total++ % TRAILER_BYTES)] = b[off + i];
+            }
+            return n;
+        }
+
+        /**
+         * 解码失败后调用：继续读取最多TRAILER_BYTES字节，流在此范围内结束且末尾为服务端异常时抛出该异常
+         *
+         * 异常文本被当作数据解码时，解码器可能在读到流末尾之前就报告格式错误。
+         */
+        void drainTrailer() throws IOException {
+            byte[] scratch = new byte[4096];
+            long drained = 0;
+            while (drained <= TRAILER_BYTES) {
+                int n = read(scratch, 0, scratch.length);
+                if (n < 0) {
+                    checkTrailer();
+                    return;
+                }
+                drained += n;
+            }
+        }
+
+        /**
+         * 已读到的末尾为服务端异常时抛出该异常
+         */
+        void checkTrailer() throws IOException {
+            String message = serverException();
+            if (message != null) {
+                throw new IOException("ClickHouse查询在返回结果过程中失败: " + message);
+            }
+        }
+
+        /**
+         * 流末尾的服务端异常文本，没有时返回null
+         */
+        String serverException() {
+            int length = (int) Math.min(total, TRAILER_BYTES);
+            if (length == 0 || tail[(int) ((total - 1) % TRAILER_BYTES)] != '\n') {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = tail[(int) ((total - length + i) % TRAILER_BYTES)];
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            Matcher matcher = EXCEPTION_TRAILER.matcher(text);
+            int start = -1;
+            while (matcher.find()) {
+                start = matcher.start();
+            }
+            return start >= 0 ? text.substring(start).trim() : null;
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.anydb.connector.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ClickHouse RowBinaryWithNamesAndTypes格式解码器
+ *
+ * 按列类型预先构建解码器，逐行直接从字节流解码，不经过JDBC驱动。
+ * 日期时间解码为{@link Timestamp}/{@link Date}，与JDBC路径的序列化结果保持一致。
+ *
+ * 格式：列数(LEB128) + 列名 + 列类型，之后每行按列依次写入小端序二进制值，直到流结束。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class ClickHouseRowBinaryReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private final List<String> columns;
+
+    private final List<String> types;
+
+    private final ValueDecoder[] decoders;
+
+    ClickHouseRowBinaryReader(InputStream in) throws IOException {
+        this.in = in;
+
+        if (!fill()) {
+            // 无结果集的语句（DDL/INSERT）响应体为空
+            this.columns = List.of();
+            this.types = List.of();
+            this.decoders = new ValueDecoder[0];
+            return;
+        }
+
+        List<String> names;
+        List<String> typeNames;
+        ValueDecoder[] columnDecoders;
+        try {
+            int columnCount = (int) readVarInt();
+            names = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                names.add(readString());
+            }
+            typeNames = new ArrayList<>(columnCount);
+            columnDecoders = new ValueDecoder[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                String type = readString();
+                typeNames.add(type);
+                columnDecoders[i] = decoderFor(type);
+            }
+        } catch (IOException | RuntimeException e) {
+            checkServerFailure();
+            throw e;
+        }
+        this.columns = names;
+        this.types = typeNames;
+        this.decoders = columnDecoders;
+    }
+
+    List<String> getColumns() {
+        return columns;
+    }
+
+    List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * 是否还有下一行
+     */
+    boolean hasNext() throws IOException {
+        return decoders.length > 0 && (position < limit || fill());
+    }
+
+    /**
+     * 读取一行
+     */
+    List<Object> readRow() throws IOException {
+        Object[] values = new Object[decoders.length];
+        try {
+            for (int i = 0; i < decoders.length; i++) {
+                values[i] = decoders[i].read(this);
+            }
+        } catch (IOException | RuntimeException e) {
+            checkServerFailure();
+            throw e;
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 解码失败时检查HTTP结果流末尾是否为服务端异常（查询中途失败时追加的文本被当作数据解码），是则抛出服务端异常
+     */
+    private void checkServerFailure() throws IOException {
+        if (in instanceof ClickHouseHttpClient.ExceptionTrailerInputStream trailer) {
+            trailer.drainTrailer();
+        }
+    }
+
+    // ========== 类型解析 ==========
+
+    /**
+     * 按类型名构建解码器
+     */
+    static ValueDecoder decoderFor(String type) {
+        String t = type.trim();
+        int paren = t.indexOf('(');
+        String name = paren < 0 ? t : t.substring(0, paren);
+        String args = paren < 0 ? "" : t.substring(paren + 1, t.lastIndexOf(')'));
+
+        switch (name) {
+            case "UInt8":
+                return r -> r.readByte() & 0xFF;
+            case "Bool":
+                return r -> r.readByte() != 0;
+            case "Int8":
+                return r -> (int) r.readByte();
+            case "UInt16":
+                return r -> r.readShort() & 0xFFFF;
+            case "Int16":
+                return r -> (int) r.readShort();
+            case "UInt32":
+                return r -> r.readInt() & 0xFFFFFFFFL;
+            case "Int32":
+                return ClickHouseRowBinaryReader::readInt;
+            case "UInt64":
+                return r -> {
+                    long value = r.readLong();
+                    return value >= 0 ? (Object) value : new BigInteger(Long.toUnsignedString(value));
+                };
+            case "Int64":
+                return ClickHouseRowBinaryReader::readLong;
+            case "Int128":
+                return r -> r.readBigInteger(16, true);
+            case "UInt128":
+                return r -> r.readBigInteger(16, false);
+            case "Int256":
+                return r -> r.readBigInteger(32, true);
+            case "UInt256":
+                return r -> r.readBigInteger(32, false);
+            case "Float32":
+                return r -> Float.intBitsToFloat(r.readInt());
+            case "Float64":
+                return r -> Double.longBitsToDouble(r.readLong());
+            case "String":
+                return ClickHouseRowBinaryReader::readString;
+            case "FixedString":
+                int length = Integer.parseInt(args.trim());
+                return r -> r.readFixedString(length);
+            case "UUID":
+                return r -> {
+                    long high = r.readLong();
+                    long low = r.readLong();
+                    return new UUID(high, low).toString();
+                };
+            case "Date":
+                return r -> Date.valueOf(LocalDate.ofEpochDay(r.readShort() & 0xFFFF));
+            case "Date32":
+                return r -> Date.valueOf(LocalDate.ofEpochDay(r.readInt()));
+            case "DateTime":
+                return r -> new Timestamp((r.readInt() & 0xFFFFFFFFL) * 1000L);
+            case "DateTime64":
+                return dateTime64Decoder(args);
+            case "Decimal":
+                return decimalDecoder(args);
+            case "Decimal32":
+                return decimalDecoder(9, args);
+            case "Decimal64":
+                return decimalDecoder(18, args);
+            case "Decimal128":
+                return decimalDecoder(38, args);
+            case "Decimal256":
+                return decimalDecoder(76, args);
+            case "Enum8":
+                Map<Integer, String> enum8 = parseEnum(args);
+                return r -> enumValue(enum8, r.readByte());
+            case "Enum16":
+                Map<Integer, String> enum16 = parseEnum(args);
+                return r -> enumValue(enum16, r.readShort());
+            case "IPv4":
+                return r -> {
+                    long ip = r.readInt() & 0xFFFFFFFFL;
+                    return ((ip >> 24) & 0xFF) + "." + ((ip >> 16) & 0xFF) + "." + ((ip >> 8) & 0xFF) + "." + (ip & 0xFF);
+                };
+            case "IPv6":
+                return r -> InetAddress.getByAddress(r.readBytes(16)).getHostAddress();
+            case "Nothing":
+                return r -> null;
+            case "Nullable": {
+                ValueDecoder inner = decoderFor(args);
+                return r -> r.readByte() != 0 ? null : inner.read(r);
+            }
+            case "LowCardinality":
+                // RowBinary中LowCardinality按内部类型直接写出
+                return decoderFor(args);
+            case "SimpleAggregateFunction":
+                return decoderFor(splitTopLevel(args).get(1));
+            case "Array": {
+                ValueDecoder element = decoderFor(args);
+                return r -> {
+                    int size = (int) r.readVarInt();
+                    List<Object> values = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        values.add(element.read(r));
+                    }
+                    return values;
+                };
+            }
+            case "Tuple": {
+                List<String> elements = splitTopLevel(args);
+                ValueDecoder[] elementDecoders = new ValueDecoder[elements.size()];
+                for (int i = 0; i < elementDecoders.length; i++) {
+                    elementDecoders[i] = decoderFor(stripElementName(elements.get(i)));
+                }
+                return r -> {
+                    List<Object> values = new ArrayList<>(elementDecoders.length);
+                    for (ValueDecoder element : elementDecoders) {
+                        values.add(element.read(r));
+                    }
+                    return values;
+                };
+            }
+            case "Map": {
+                List<String> kv = splitTopLevel(args);
+                ValueDecoder key = decoderFor(kv.get(0));
+                ValueDecoder value = decoderFor(kv.get(1));
+                return r -> {
+                    int size = (int) r.readVarInt();
+                    Map<Object, Object> values = new LinkedHashMap<>(Math.max(4, size * 2));
+                    for (int i = 0; i < size; i++) {
+                        values.put(key.read(r), value.read(r));
+                    }
+                    return values;
+                };
+            }
+            default:
+                throw new IllegalStateException("不支持的ClickHouse类型: " + type + "，请改用JDBC传输");
+        }
+    }
+
+    private static ValueDecoder dateTime64Decoder(String args) {
+        int precision = Integer.parseInt(splitTopLevel(args).get(0).trim());
+        long scale = BigInteger.TEN.pow(precision).longValueExact();
+        return r -> {
+            long ticks = r.readLong();
+            long seconds = Math.floorDiv(ticks, scale);
+            long fraction = Math.floorMod(ticks, scale);
+            Timestamp timestamp = new Timestamp(seconds * 1000L);
+            timestamp.setNanos((int) (fraction * (1_000_000_000L / scale)));
+            return timestamp;
+        };
+    }
+
+    private static ValueDecoder decimalDecoder(String args) {
+        List<String> ps = splitTopLevel(args);
+        return decimalDecoder(Integer.parseInt(ps.get(0).trim()), ps.size() > 1 ? ps.get(1) : "0");
+    }
+
+    private static ValueDecoder decimalDecoder(int precision, String scaleArg) {
+        int scale = Integer.parseInt(scaleArg.trim());
+        if (precision <= 9) {
+            return r -> BigDecimal.valueOf(r.readInt(), scale);
+        }
+        if (precision <= 18) {
+            return r -> BigDecimal.valueOf(r.readLong(), scale);
+        }
+        int bytes = precision <= 38 ? 16 : 32;
+        return r -> new BigDecimal(r.readBigInteger(bytes, true), scale);
+    }
+
+    /**
+     * 解析枚举定义：'a' = 1, 'b' = 2
+     */
+    private static Map<Integer, String> parseEnum(String args) {
+        Map<Integer, String> values = new HashMap<>();
+        for (String entry : splitTopLevel(args)) {
+            int eq = entry.lastIndexOf('=');
+            String label = entry.substring(0, eq).trim();
+            values.put(Integer.parseInt(entry.substring(eq + 1).trim()),
+                label.substring(1, label.length() - 1).replace("\\'", "'"));
+        }
+        return values;
+    }
+
+    private static Object enumValue(Map<Integer, String> values, int code) {
+        String label = values.get(code);
+        return label != null ? label : code;
+    }
+
+    /**
+     * 按顶层逗号拆分类型参数（忽略括号和引号内的逗号）
+     */
+    static List<String> splitTopLevel(String args) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < args.length(); i++) {
+            char c = args.charAt(i);
+            if (c == '\\' && quoted) {
+                i++;
+            } else if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                parts.add(args.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(args.substring(start).trim());
+        return parts;
+    }
+
+    /**
+     * 去掉命名元组元素的名称：Tuple(id UInt64, name String)
+     */
+    private static String stripElementName(String element) {
+        int space = element.indexOf(' ');
+        int paren = element.indexOf('(');
+        if (space > 0 && (paren < 0 || space < paren)) {
+            return element.substring(space + 1).trim();
+        }
+        return element;
+    }
+
+    // ========== 底层读取 ==========
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = in.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void require(int bytes) throws IOException {
+        if (limit - position >= bytes) {
+            return;
+        }
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+        while (limit < bytes) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new EOFException("ClickHouse结果流意外结束");
+            }
+            limit += read;
+        }
+    }
+
+    byte readByte() throws IOException {
+        require(1);
+        return buffer[position++];
+    }
+
+    short readShort() throws IOException {
+        require(2);
+        short value = (short) ((buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8);
+        position += 2;
+        return value;
+    }
+
+    int readInt() throws IOException {
+        require(4);
+        int value = (buffer[position] & 0xFF)
+            | (buffer[position + 1] & 0xFF) << 8
+            | (buffer[position + 2] & 0xFF) << 16
+            | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    long readLong() throws IOException {
+        require(8);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (buffer[position + i] & 0xFF);
+        }
+        position += 8;
+        return value;
+    }
+
+    long readVarInt() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("ClickHouse变长整数格式错误");
+    }
+
+    byte[] readBytes(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            if (position == limit && !fill()) {
+                throw new EOFException("ClickHouse结果流意外结束");
+            }
+            int chunk = Math.min(length - copied, limit - position);
+            System.arraycopy(buffer, position, bytes, copied, chunk);
+            position += chunk;
+            copied += chunk;
+        }
+        return bytes;
+    }
+
+    String readString() throws IOException {
+        int length = (int) readVarInt();
+        if (length <= buffer.length) {
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        return new String(readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    String readFixedString(int length) throws IOException {
+        byte[] bytes = readBytes(length);
+        int end = length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+
+    BigInteger readBigInteger(int length, boolean signed) throws IOException {
+        byte[] littleEndian = readBytes(length);
+        byte[] bigEndian = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bigEndian[i] = littleEndian[length - 1 - i];
+        }
+        return signed ? new BigInteger(bigEndian) : new BigInteger(1, bigEndian);
+    }
+
+    /**
+     * 单列值解码器
+     */
+    @FunctionalInterface
+    interface ValueDecoder {
+        Object read(ClickHouseRowBinaryReader reader) throws IOException;
+    }
+}
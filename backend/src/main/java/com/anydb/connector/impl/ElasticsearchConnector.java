@@ -1,10 +1,10 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
 import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +16,7 @@ import java.util.Map;
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.ELASTICSEARCH)
 @Slf4j
 public class ElasticsearchConnector implements DatabaseConnector {
     
@@ -1,10 +1,17 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.*;
@@ -18,9 +25,9 @@ import java.util.Properties;
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.MARIADB, capabilities = {ConnectorCapability.READ_REPLICAS, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class MariaDBConnector implements DatabaseConnector {
+public class MariaDBConnector implements ExplainConnector {
     
     @Override
     public DatabaseType getSupportedType() {
@@ -42,6 +49,15 @@ public class MariaDBConnector implements DatabaseConnector {
     
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         Connection conn = null;
         Statement stmt = null;
         ResultSet rs = null;
@@ -51,32 +67,10 @@ public class MariaDBConnector implements DatabaseConnector {
         try {
             conn = getConnection(config);
             stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             rs = stmt.executeQuery(sql);
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
-            
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
-                }
-                rows.add(row);
-            }
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
         } catch (SQLException e) {
             throw new RuntimeException("MariaDB SQL执行失败: " + e.getMessage(), e);
@@ -267,30 +261,7 @@ public class MariaDBConnector implements DatabaseConnector {
             
             rs = stmt.executeQuery(sql.toString());
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
-            
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
-                }
-                rows.add(row);
-            }
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
+            return ResultSetExtractor.extract(rs, startTime);
             
         } catch (SQLException e) {
             throw new RuntimeException("获取表数据失败: " + e.getMessage(), e);
@@ -315,6 +286,42 @@ public class MariaDBConnector implements DatabaseConnector {
         // 清理资源
     }
     
+    /**
+     * 查询副本复制延迟（SHOW SLAVE STATUS的Seconds_Behind_Master）
+     */
+    @Override
+    public Long getReplicationLag(DatabaseConfig config) {
+        try (Connection conn = getConnection(config);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+            if (!rs.next()) {
+                return null;
+            }
+            long seconds = rs.getLong("Seconds_Behind_Master");
+            return rs.wasNull() ? null : seconds;
+        } catch (SQLException e) {
+            log.debug("查询MariaDB复制延迟失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 获取执行计划：EXPLAIN FORMAT=JSON；analyze时使用ANALYZE FORMAT=JSON（会实际执行语句，附带r_rows等实际值）
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        try (Connection conn = getConnection(config);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery((analyze ? "ANALYZE FORMAT=JSON " : "EXPLAIN FORMAT=JSON ") + sql)) {
+            if (!rs.next()) {
+                throw new RuntimeException("MariaDB未返回执行计划");
+            }
+            return ExplainPlans.fromMySqlJson(rs.getString(1));
+        } catch (SQLException e) {
+            throw new RuntimeException("获取MariaDB执行计划失败: " + e.getMessage(), e);
+        }
+    }
+    
     private Connection getConnection(DatabaseConfig config) throws SQLException {
         String url = config.buildUrl();
         Properties props = new Properties();
@@ -386,7 +393,7 @@ public class MariaDBConnector implements DatabaseConnector {
         }
     }
     
-    private static class MariaDBConnectionPool {
+    private static class MariaDBConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
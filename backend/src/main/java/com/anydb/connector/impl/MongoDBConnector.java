@@ -1,177 +1,645 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.HostEndpoint;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.TableSampling;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
+import com.mongodb.ConnectionString;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCredential;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MongoDB数据库连接器实现
+ *
+ * 每个连接配置对应一个MongoClient（驱动内部维护连接池）。集合浏览使用find()：
+ * 按_id排序时按_id范围分页（记住每页最后一个_id，顺序翻页不随页码增大而变慢），
+ * 按其他字段排序时退化为skip分页；行数使用estimatedDocumentCount（读取集合元数据，不扫描）。
+ * 文档逐条从游标转换为结果行，顶层字段作为列。
+ *
+ * executeQuery、streamQuery与explain只接受JSON格式的集合find或aggregate命令（见{@link MongoQuery}），
+ * 通过驱动游标逐批读取，聚合默认allowDiskUse；行数上限、字节预算与语句超时（maxTimeMS）与SQL结果一致。
+ * 其他命令（包括写入集合的聚合）只能经executeUpdate按数据库命令原样执行（runCommand）。
  * 
+ * 客户端按配置ID与连接参数摘要缓存，配置更新或删除后由evict关闭。
+ *
+ * 连接选项：connectionString（完整连接串，优先于主机配置）、authSource（认证库，默认admin）、
+ * browseProjection（浏览集合时的投影，如{"payload": 0}排除大字段）。
+ *
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.MONGODB, capabilities = {
+    ConnectorCapability.STREAMING, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class MongoDBConnector implements DatabaseConnector {
-    
+public class MongoDBConnector implements ExplainConnector {
+
+    static final String OPTION_CONNECTION_STRING = "connectionString";
+
+    static final String OPTION_AUTH_SOURCE = "authSource";
+
+    static final String OPTION_BROWSE_PROJECTION = "browseProjection";
+
+    private static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * 未指定batchSize时的游标批大小
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * 推断集合字段时读取的文档数
+     */
+    private static final int SCHEMA_SAMPLE_SIZE = 100;
+
+    /**
+     * 记住的分页边界数上限
+     */
+    private static final int MAX_PAGE_BOUNDARIES = 1000;
+
+    /**
+     * 客户端 - key: 配置ID + 连接参数摘要（连接串、主机、凭据、认证库等任一变化都使用新客户端）
+     */
+    private final ConcurrentMap<String, MongoClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 每页最后一个_id - key: 客户端key|库|集合|页大小|方向|页码
+     */
+    private final Map<String, Object> pageBoundaries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > MAX_PAGE_BOUNDARIES;
+        }
+    };
+
     @Override
     public DatabaseType getSupportedType() {
         return DatabaseType.MONGODB;
     }
-    
+
     @Override
     public boolean testConnection(DatabaseConfig config) {
         try {
-            log.info("模拟MongoDB连接测试: {}:{}", config.getHost(), config.getPort());
+            getClient(config).getDatabase("admin").runCommand(new Document("ping", 1));
             return true;
         } catch (Exception e) {
             log.warn("MongoDB连接测试失败: {}", e.getMessage());
             return false;
         }
     }
-    
+
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+
+    /**
+     * 执行查询：find/aggregate的游标逐批读取，读满行数上限或超过字节预算即关闭游标（服务端游标随之释放）。
+     * 行数上限与续取跳过的行下推为skip/limit（聚合管道末尾追加$skip/$limit），语句超时作为maxTimeMS。
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
+        MongoQuery query = MongoQuery.parse(sql);
+        long startTime = System.currentTimeMillis();
+
         try {
-            log.info("模拟MongoDB查询: {}", sql.substring(0, Math.min(50, sql.length())));
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(List.of("_id", "name", "email"));
-            result.setRows(List.of(List.of("1", "张三", "zhangsan@example.com")));
-            result.setTotal(1);
-            result.setExecutionTime(10L);
-            
+            MongoDatabase db = getDatabase(config, null);
+            ResultLimits.Collector collector = limits.withoutSkip().collector();
+            MongoRows.ColumnSet columns = new MongoRows.ColumnSet();
+            MongoIterable<Document> iterable = cursor(db, query, limits, batchSize(query, limits));
+            if (iterable != null) {
+                try (MongoCursor<Document> cursor = iterable.iterator()) {
+                    while (cursor.hasNext()) {
+                        if (!collector.offer(columns.row(cursor.next()))) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            QueryResult result = collector.fill(new QueryResult());
+            columns.pad(result.getRows());
+            result.setColumns(columns.getNames());
+            result.setExecutionTime(System.currentTimeMillis() - startTime);
             return result;
-        } catch (Exception e) {
+        } catch (MongoException e) {
             throw new RuntimeException("MongoDB查询失败: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * 流式执行：游标按批大小从服务端取数，本地已到达的文档先推送再等待下一批
+     * （分片集群上的聚合由mongos边合并边返回，不在本地缓冲整个结果）。
+     * 列头由第一批文档确定，之后出现的新字段不推送。
+     */
+    @Override
+    public long streamQuery(DatabaseConfig config, String sql, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        MongoQuery query = MongoQuery.parse(sql);
+        long startTime = System.currentTimeMillis();
+
+        try {
+            MongoDatabase db = getDatabase(config, null);
+            int cursorBatchSize = query.getBatchSize() != null ? query.getBatchSize() : batchSize;
+            MongoRows.ColumnSet columns = new MongoRows.ColumnSet();
+            long rowsRead = 0;
+            boolean columnsSent = false;
+            try (MongoCursor<Document> cursor = cursor(db, query, ResultLimits.NONE, cursorBatchSize).iterator()) {
+                while (!sink.isCancelled() && cursor.hasNext()) {
+                    List<List<Object>> batch = new ArrayList<>();
+                    do {
+                        batch.add(columns.row(cursor.next()));
+                    } while (batch.size() < batchSize && cursor.available() > 0);
+                    if (!columnsSent) {
+                        columns.pad(batch);
+                        columns.freeze();
+                        sink.onColumns(columns.getNames());
+                        columnsSent = true;
+                    }
+                    sink.onRows(batch);
+                    rowsRead += batch.size();
+                    sink.onProgress(new QueryProgress(rowsRead, System.currentTimeMillis() - startTime));
+                }
+            }
+            if (!columnsSent) {
+                sink.onColumns(List.of());
+            }
+            return rowsRead;
+        } catch (MongoException e) {
+            throw new RuntimeException("MongoDB流式查询失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取执行计划：find/aggregate的explain，analyze时为executionStats（实际执行查询部分，不写入数据），
+     * 否则为queryPlanner
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        MongoQuery query = MongoQuery.parse(sql);
+        ExplainVerbosity verbosity = analyze ? ExplainVerbosity.EXECUTION_STATS : ExplainVerbosity.QUERY_PLANNER;
+
+        try {
+            MongoDatabase db = getDatabase(config, null);
+            Document explain = query.getKind() == MongoQuery.Kind.FIND
+                ? find(db, query, ResultLimits.NONE, DEFAULT_BATCH_SIZE).explain(verbosity)
+                : aggregate(db, query, ResultLimits.NONE, DEFAULT_BATCH_SIZE).explain(verbosity);
+            return ExplainPlans.fromMongoExplain(explain.toJson(MongoRows.JSON));
+        } catch (MongoException e) {
+            throw new RuntimeException("获取MongoDB执行计划失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行写命令（insert/update/delete等），影响行数取自命令结果的nModified或n
+     */
     @Override
     public UpdateResult executeUpdate(DatabaseConfig config, String sql) {
+        long startTime = System.currentTimeMillis();
+
         try {
-            log.info("模拟MongoDB更新操作: {}", sql.substring(0, Math.min(50, sql.length())));
-            
+            Document reply = getDatabase(config, null).runCommand(MongoQuery.parseDocument(sql));
+            Number affected = reply.containsKey("nModified") ? reply.get("nModified", Number.class)
+                : reply.get("n", Number.class);
+
             UpdateResult result = new UpdateResult();
-            result.setAffectedRows(1);
-            result.setExecutionTime(10L);
+            result.setAffectedRows(affected != null ? affected.intValue() : 0);
+            result.setExecutionTime(System.currentTimeMillis() - startTime);
             result.setMessage("操作成功");
-            
             return result;
-        } catch (Exception e) {
+        } catch (MongoException e) {
             throw new RuntimeException("MongoDB操作失败: " + e.getMessage(), e);
         }
     }
-    
+
     @Override
     public List<String> getDatabases(DatabaseConfig config) {
         try {
-            log.info("模拟MongoDB获取数据库列表");
-            return List.of("test_db", "production_db");
-        } catch (Exception e) {
+            return getClient(config).listDatabaseNames().into(new ArrayList<>());
+        } catch (MongoException e) {
             throw new RuntimeException("获取数据库列表失败: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * 集合列表：视图等非普通集合以类型作为注释，普通集合附带估算文档数
+     */
     @Override
     public List<TableInfo> getTables(DatabaseConfig config, String database) {
         try {
-            log.info("模拟MongoDB获取集合列表: {}", database);
-            
+            MongoDatabase db = getDatabase(config, database);
             List<TableInfo> tables = new ArrayList<>();
-            TableInfo table = new TableInfo();
-            table.setName("users");
-            table.setComment("用户集合");
-            table.setRowCount(Integer.valueOf(1000));
-            table.setCreateTime(System.currentTimeMillis());
-            table.setUpdateTime(System.currentTimeMillis());
-            tables.add(table);
-            
+            for (Document collection : db.listCollections()) {
+                TableInfo table = new TableInfo();
+                table.setName(collection.getString("name"));
+                String type = collection.getString("type");
+                if ("collection".equals(type)) {
+                    table.setRowCount(clamp(db.getCollection(table.getName()).estimatedDocumentCount()));
+                } else {
+                    table.setComment(type);
+                }
+                tables.add(table);
+            }
             return tables;
-        } catch (Exception e) {
+        } catch (MongoException e) {
             throw new RuntimeException("获取集合列表失败: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * 集合信息：字段由前SCHEMA_SAMPLE_SIZE个文档推断，类型取首个非空值的BSON类型
+     */
     @Override
     public TableInfo getTableInfo(DatabaseConfig config, String database, String collectionName) {
         try {
-            log.info("模拟MongoDB获取集合信息: {}", collectionName);
-            
+            MongoCollection<Document> collection = getCollection(config, database, collectionName);
+            List<Document> samples = collection.find().limit(SCHEMA_SAMPLE_SIZE).batchSize(SCHEMA_SAMPLE_SIZE)
+                .into(new ArrayList<>());
+
+            List<ColumnInfo> columns = new ArrayList<>();
+            for (String name : MongoRows.columns(samples)) {
+                Object sample = null;
+                boolean nullable = samples.isEmpty();
+                for (Document document : samples) {
+                    Object value = document.get(name);
+                    if (value == null) {
+                        nullable = true;
+                    } else if (sample == null) {
+                        sample = value;
+                    }
+                }
+                ColumnInfo column = new ColumnInfo();
+                column.setName(name);
+                column.setType(MongoRows.typeName(sample));
+                column.setNullable(nullable && !MongoRows.ID.equals(name));
+                column.setPrimaryKey(MongoRows.ID.equals(name));
+                columns.add(column);
+            }
+
             TableInfo table = new TableInfo();
             table.setName(collectionName);
-            table.setComment("用户集合");
-            table.setRowCount(Integer.valueOf(1000));
-            table.setCreateTime(System.currentTimeMillis());
-            table.setUpdateTime(System.currentTimeMillis());
-            
-            List<ColumnInfo> columns = new ArrayList<>();
-            ColumnInfo idColumn = new ColumnInfo();
-            idColumn.setName("_id");
-            idColumn.setType("ObjectId");
-            idColumn.setComment("文档ID");
-            idColumn.setNullable(false);
-            idColumn.setPrimaryKey(true);
-            columns.add(idColumn);
-            
-            ColumnInfo nameColumn = new ColumnInfo();
-            nameColumn.setName("name");
-            nameColumn.setType("String");
-            nameColumn.setComment("姓名");
-            nameColumn.setNullable(false);
-            nameColumn.setPrimaryKey(false);
-            columns.add(nameColumn);
-            
-            ColumnInfo emailColumn = new ColumnInfo();
-            emailColumn.setName("email");
-            emailColumn.setType("String");
-            emailColumn.setComment("邮箱");
-            emailColumn.setNullable(false);
-            emailColumn.setPrimaryKey(false);
-            columns.add(emailColumn);
-            
+            table.setRowCount(clamp(collection.estimatedDocumentCount()));
             table.setColumns(columns);
             return table;
-        } catch (Exception e) {
+        } catch (MongoException e) {
             throw new RuntimeException("获取集合信息失败: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * 分页读取集合：默认按_id范围分页，上一页的最后一个_id已知时以_id比较代替skip
+     */
     @Override
-    public QueryResult getTableData(DatabaseConfig config, String database, String collectionName, 
+    public QueryResult getTableData(DatabaseConfig config, String database, String collectionName,
                                   int page, int size, String orderBy, String orderDirection) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("页面大小必须大于0");
+        }
+        long startTime = System.currentTimeMillis();
+        int pageIndex = Math.max(1, page);
+        boolean descending = "DESC".equalsIgnoreCase(orderDirection);
+        int skip = (int) Math.min(Integer.MAX_VALUE, (long) (pageIndex - 1) * size);
+
         try {
-            log.info("模拟MongoDB获取集合数据: {} 页面:{} 大小:{}", collectionName, page, size);
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(List.of("_id", "name", "email"));
-            result.setRows(List.of(
-                List.of("1", "张三", "zhangsan@example.com"),
-                List.of("2", "李四", "lisi@example.com")
-            ));
-            result.setTotal(2);
-            result.setExecutionTime(10L);
-            
-            return result;
-        } catch (Exception e) {
+            MongoCollection<Document> collection = getCollection(config, database, collectionName);
+            Bson projection = browseProjection(config);
+            List<Document> documents = new ArrayList<>(size);
+
+            if (orderBy == null || orderBy.isBlank() || MongoRows.ID.equals(orderBy)) {
+                String boundaryKey = clientKey(config) + "|" + database + "|" + collectionName + "|" + size + "|"
+                    + (descending ? "DESC" : "ASC") + "|";
+                Object after = pageIndex > 1 ? getBoundary(boundaryKey + (pageIndex - 1)) : null;
+                Bson filter = after == null ? new Document()
+                    : descending ? Filters.lt(MongoRows.ID, after) : Filters.gt(MongoRows.ID, after);
+                Bson sort = descending ? Sorts.descending(MongoRows.ID) : Sorts.ascending(MongoRows.ID);
+                collection.find(filter).projection(projection).sort(sort)
+                    .skip(after == null ? skip : 0).limit(size).batchSize(size)
+                    .into(documents);
+                Object last = documents.isEmpty() ? null : documents.get(documents.size() - 1).get(MongoRows.ID);
+                if (last != null) {
+                    putBoundary(boundaryKey + pageIndex, last);
+                }
+            } else {
+                Bson sort = descending ? Sorts.descending(orderBy, MongoRows.ID) : Sorts.ascending(orderBy, MongoRows.ID);
+                collection.find().projection(projection).sort(sort).skip(skip).limit(size).batchSize(size)
+                    .into(documents);
+            }
+
+            return toResult(documents, startTime);
+        } catch (MongoException e) {
             throw new RuntimeException("获取集合数据失败: " + e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * 预览集合数据：集合足够大时使用$sample随机取样，否则按自然顺序读取第一页
+     */
+    @Override
+    public QueryResult previewTableData(DatabaseConfig config, String database, String collectionName, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("页面大小必须大于0");
+        }
+        long startTime = System.currentTimeMillis();
+
+        try {
+            MongoCollection<Document> collection = getCollection(config, database, collectionName);
+            Bson projection = browseProjection(config);
+            long estimated = collection.estimatedDocumentCount();
+
+            List<Document> documents = new ArrayList<>(size);
+            QueryResult result;
+            if (TableSampling.percent(estimated, size) > 0) {
+                List<Bson> pipeline = new ArrayList<>();
+                pipeline.add(Aggregates.sample(size));
+                if (projection != null) {
+                    pipeline.add(Aggregates.project(projection));
+                }
+                collection.aggregate(pipeline).batchSize(size).into(documents);
+                result = toResult(documents, startTime);
+                result.setSamplingMethod("$sample");
+                result.setSamplingPercent(size * 100.0 / estimated);
+            } else {
+                collection.find().projection(projection).limit(size).batchSize(size).into(documents);
+                result = toResult(documents, startTime);
+                result.setSamplingMethod(QueryResult.SAMPLING_NONE);
+            }
+            return result;
+        } catch (MongoException e) {
+            throw new RuntimeException("预览集合数据失败: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Object createConnectionPool(DatabaseConfig config) {
-        log.info("为MongoDB创建连接池，配置: {}:{}", config.getHost(), config.getPort());
-        return new Object();
+        MongoClient client = getClient(config);
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            return client;
+        } catch (MongoException e) {
+            throw new RuntimeException("创建MongoDB连接池失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 关闭该配置的客户端并清除其分页边界
+     */
+    @Override
+    public void evict(Long configId) {
+        String prefix = configId + "|";
+        clients.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(prefix)) {
+                return false;
+            }
+            entry.getValue().close();
+            log.info("关闭MongoDB客户端，配置ID: {}", configId);
+            return true;
+        });
+        synchronized (pageBoundaries) {
+            pageBoundaries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
     }
-    
+
     @Override
     public void close() {
-        // 清理资源
+        clients.values().forEach(MongoClient::close);
+        clients.clear();
+        synchronized (pageBoundaries) {
+            pageBoundaries.clear();
+        }
+    }
+
+    /**
+     * 获取或创建连接配置对应的客户端
+     */
+    MongoClient getClient(DatabaseConfig config) {
+        return clients.computeIfAbsent(clientKey(config), key -> {
+            MongoClient client = MongoClients.create(buildSettings(config));
+            log.info("创建MongoDB客户端: {}", config.getDescription());
+            return client;
+        });
+    }
+
+    /**
+     * 客户端设置：连接串优先，否则使用主机列表（主机 + 备用主机作为种子列表）
+     */
+    static MongoClientSettings buildSettings(DatabaseConfig config) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        String connectionString = config.getOption(OPTION_CONNECTION_STRING);
+        if (connectionString != null && !connectionString.isBlank()) {
+            builder.applyConnectionString(new ConnectionString(connectionString.trim()));
+        } else {
+            if (config.getHost() == null || config.getHost().trim().isEmpty()) {
+                throw new IllegalArgumentException("数据库主机地址不能为空");
+            }
+            List<ServerAddress> addresses = new ArrayList<>();
+            for (HostEndpoint endpoint : config.getHostEndpoints()) {
+                addresses.add(new ServerAddress(endpoint.getHost(),
+                    endpoint.getPort() != null ? endpoint.getPort() : ServerAddress.defaultPort()));
+            }
+            builder.applyToClusterSettings(cluster -> cluster.hosts(addresses));
+            if (config.getUsername() != null && !config.getUsername().trim().isEmpty()) {
+                String password = config.getPassword() != null ? config.getPassword() : "";
+                builder.credential(MongoCredential.createCredential(config.getUsername(), authSource(config),
+                    password.toCharArray()));
+            }
+        }
+        int poolSize = config.getPoolSize() != null && config.getPoolSize() > 0 ? config.getPoolSize() : DEFAULT_POOL_SIZE;
+        builder.applyToConnectionPoolSettings(pool -> pool.minSize(0).maxSize(poolSize));
+        if (config.getTimeout() != null && config.getTimeout() > 0) {
+            int timeout = config.getTimeout();
+            builder.applyToSocketSettings(socket -> socket.connectTimeout(timeout, TimeUnit.MILLISECONDS));
+            builder.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(timeout, TimeUnit.MILLISECONDS));
+        }
+        return builder.build();
+    }
+
+    private static String authSource(DatabaseConfig config) {
+        String authSource = config.getOption(OPTION_AUTH_SOURCE);
+        return authSource != null && !authSource.isBlank() ? authSource.trim() : "admin";
+    }
+
+    static String clientKey(DatabaseConfig config) {
+        return config.getId() + "|" + config.connectionDigest();
+    }
+
+    /**
+     * 获取数据库，未指定时使用连接配置中的数据库
+     */
+    private MongoDatabase getDatabase(DatabaseConfig config, String database) {
+        String name = database != null && !database.trim().isEmpty() ? database.trim() : config.getDatabase();
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("MongoDB操作需要指定数据库");
+        }
+        return getClient(config).getDatabase(name.trim());
+    }
+
+    private MongoCollection<Document> getCollection(DatabaseConfig config, String database, String collectionName) {
+        if (collectionName == null || collectionName.trim().isEmpty()) {
+            throw new IllegalArgumentException("集合名不能为空");
+        }
+        return getDatabase(config, database).getCollection(collectionName.trim());
+    }
+
+    private static Bson browseProjection(DatabaseConfig config) {
+        String projection = config.getOption(OPTION_BROWSE_PROJECTION);
+        return projection != null && !projection.isBlank() ? MongoQuery.parseDocument(projection) : null;
+    }
+
+    /**
+     * 按查询类型创建游标；续取跳过的行已达到查询自身的limit时返回null（没有剩余结果）
+     */
+    private static MongoIterable<Document> cursor(MongoDatabase db, MongoQuery query, ResultLimits limits,
+                                                  int batchSize) {
+        if (query.getKind() == MongoQuery.Kind.FIND) {
+            if (query.getLimit() > 0 && limits.getSkipRows() >= query.getLimit()) {
+                return null;
+            }
+            return find(db, query, limits, batchSize);
+        }
+        return aggregate(db, query, limits, batchSize);
+    }
+
+    /**
+     * find：续取跳过的行并入skip，行数上限（多读一行判断截断）与查询自身剩余的limit取较小值
+     */
+    private static FindIterable<Document> find(MongoDatabase db, MongoQuery query, ResultLimits limits,
+                                               int batchSize) {
+        long fetch = limits.withoutSkip().getFetchLimit();
+        long remaining = query.getLimit() > 0 ? query.getLimit() - limits.getSkipRows() : 0;
+        long limit = fetch == 0 ? remaining : remaining == 0 ? fetch : Math.min(fetch, remaining);
+
+        Document filter = query.getFilter();
+        FindIterable<Document> find = db.getCollection(query.getCollection())
+            .find(filter != null ? filter : new Document())
+            .projection(query.getProjection())
+            .sort(query.getSort())
+            .skip(clamp(query.getSkip() + limits.getSkipRows()))
+            .limit(clamp(limit))
+            .batchSize(batchSize);
+        if (query.getHint() != null) {
+            find.hint(query.getHint());
+        }
+        if (query.getAllowDiskUse() != null) {
+            find.allowDiskUse(query.getAllowDiskUse());
+        }
+        long maxTimeMS = maxTimeMS(query, limits);
+        if (maxTimeMS > 0) {
+            find.maxTime(maxTimeMS, TimeUnit.MILLISECONDS);
+        }
+        return find;
+    }
+
+    /**
+     * aggregate：默认allowDiskUse；管道末尾追加$skip/$limit，排序后紧跟$limit时服务端只保留前N个文档
+     */
+    private static AggregateIterable<Document> aggregate(MongoDatabase db, MongoQuery query, ResultLimits limits,
+                                                         int batchSize) {
+        List<Document> pipeline = query.getPipeline();
+        if (limits.getSkipRows() > 0) {
+            pipeline.add(new Document("$skip", limits.getSkipRows()));
+        }
+        int fetch = limits.withoutSkip().getFetchLimit();
+        if (fetch > 0) {
+            pipeline.add(new Document("$limit", fetch));
+        }
+
+        AggregateIterable<Document> aggregate = db.getCollection(query.getCollection())
+            .aggregate(pipeline)
+            .allowDiskUse(query.getAllowDiskUse() != null ? query.getAllowDiskUse() : Boolean.TRUE)
+            .batchSize(batchSize);
+        if (query.getHint() != null) {
+            aggregate.hint(query.getHint());
+        }
+        long maxTimeMS = maxTimeMS(query, limits);
+        if (maxTimeMS > 0) {
+            aggregate.maxTime(maxTimeMS, TimeUnit.MILLISECONDS);
+        }
+        return aggregate;
+    }
+
+    /**
+     * 查询自身的maxTimeMS与语句超时取较小值，0表示不限制
+     */
+    private static long maxTimeMS(MongoQuery query, ResultLimits limits) {
+        long queryTimeout = limits.getQueryTimeoutSeconds() * 1000L;
+        long maxTimeMS = query.getMaxTimeMS();
+        return queryTimeout == 0 ? maxTimeMS : maxTimeMS == 0 ? queryTimeout : Math.min(maxTimeMS, queryTimeout);
+    }
+
+    private static int batchSize(MongoQuery query, ResultLimits limits) {
+        if (query.getBatchSize() != null) {
+            return query.getBatchSize();
+        }
+        int fetch = limits.withoutSkip().getFetchLimit();
+        return fetch > 0 ? Math.min(fetch, DEFAULT_BATCH_SIZE) : DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * 逐个文档转换为结果行（列为全部文档顶层字段的并集）
+     */
+    private static QueryResult toResult(List<Document> documents, long startTime) {
+        List<String> columns = MongoRows.columns(documents);
+        List<List<Object>> rows = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            rows.add(MongoRows.row(document, columns));
+        }
+
+        QueryResult result = new QueryResult();
+        result.setColumns(columns);
+        result.setRows(rows);
+        result.setTotal(rows.size());
+        result.setExecutionTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private Object getBoundary(String key) {
+        synchronized (pageBoundaries) {
+            return pageBoundaries.get(key);
+        }
+    }
+
+    private void putBoundary(String key, Object id) {
+        synchronized (pageBoundaries) {
+            pageBoundaries.put(key, id);
+        }
+    }
+
+    private static Integer clamp(long count) {
+        return (int) Math.min(Integer.MAX_VALUE, count);
     }
-}
\ No newline at end of file
+}
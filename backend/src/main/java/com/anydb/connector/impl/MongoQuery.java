@@ -0,0 +1,228 @@
+package com.anydb.connector.impl;
+
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MongoDB查询规格
+ *
+ * 查询以数据库命令的JSON形式提交，首个键决定命令，只接受：
+ * - {"find": "集合", "filter": {}, "projection": {}, "sort": {}, "skip": 0, "limit": 0, "hint": {},
+ *   "batchSize": 0, "maxTimeMS": 0, "allowDiskUse": false}
+ * - {"aggregate": "集合", "pipeline": [...], "allowDiskUse": true, "maxTimeMS": 0, "cursor": {"batchSize": 0}, "hint": {}}
+ * 两者通过驱动游标执行（可流式读取、可获取执行计划）。查询路径不写入数据：
+ * 其他命令与以$out/$merge结尾的聚合被拒绝，需通过执行更新（runCommand）提交。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class MongoQuery {
+
+    enum Kind {
+        FIND, AGGREGATE
+    }
+
+    private final Kind kind;
+
+    private final Document command;
+
+    private MongoQuery(Kind kind, Document command) {
+        this.kind = kind;
+        this.command = command;
+    }
+
+    /**
+     * 解析查询规格
+     *
+     * @throws IllegalArgumentException 不是JSON文档、不是集合上的find/aggregate、聚合写入集合或参数类型不正确
+     */
+    static MongoQuery parse(String json) {
+        Document command = parseDocument(json);
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("MongoDB命令不能为空");
+        }
+        String name = command.keySet().iterator().next();
+        // aggregate: 1为数据库级聚合（如$currentOp），不属于集合查询
+        Kind kind = !(command.get(name) instanceof String) ? null
+            : "find".equals(name) ? Kind.FIND
+            : "aggregate".equals(name) ? Kind.AGGREGATE
+            : null;
+        if (kind == null) {
+            throw new IllegalArgumentException("MongoDB查询只支持集合上的find与aggregate命令，其他命令请通过执行更新提交: " + name);
+        }
+        MongoQuery query = new MongoQuery(kind, command);
+        query.validate();
+        if (query.writesOutput()) {
+            throw new IllegalArgumentException("以$out或$merge结尾的聚合会写入集合，请通过执行更新提交");
+        }
+        return query;
+    }
+
+    static Document parseDocument(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            throw new IllegalArgumentException("MongoDB命令不能为空");
+        }
+        try {
+            return Document.parse(json.trim());
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("MongoDB命令必须为JSON文档: " + e.getMessage(), e);
+        }
+    }
+
+    private void validate() {
+        if (getCollection().isBlank()) {
+            throw new IllegalArgumentException("集合名不能为空");
+        }
+        if (kind == Kind.AGGREGATE) {
+            getPipeline();
+        } else {
+            getFilter();
+            getProjection();
+            getSort();
+        }
+        getHint();
+        if (getSkip() < 0 || getLimit() < 0) {
+            throw new IllegalArgumentException("skip与limit不能为负数");
+        }
+        getBatchSize();
+        getMaxTimeMS();
+        getAllowDiskUse();
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    String getCollection() {
+        return command.getString(kind == Kind.FIND ? "find" : "aggregate");
+    }
+
+    Document getFilter() {
+        return document("filter");
+    }
+
+    Document getProjection() {
+        return document("projection");
+    }
+
+    Document getSort() {
+        return document("sort");
+    }
+
+    Document getHint() {
+        return document("hint");
+    }
+
+    /**
+     * 聚合管道
+     */
+    List<Document> getPipeline() {
+        Object value = command.get("pipeline");
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (!(value instanceof List<?> stages)) {
+            throw new IllegalArgumentException("pipeline必须为数组");
+        }
+        List<Document> pipeline = new ArrayList<>(stages.size());
+        for (Object stage : stages) {
+            if (!(stage instanceof Document document) || document.size() != 1) {
+                throw new IllegalArgumentException("pipeline的每个阶段必须为只有一个键的文档");
+            }
+            pipeline.add(document);
+        }
+        return pipeline;
+    }
+
+    /**
+     * 管道是否以$out或$merge结尾（结果写入集合，不返回文档）
+     */
+    boolean writesOutput() {
+        if (kind != Kind.AGGREGATE) {
+            return false;
+        }
+        List<Document> pipeline = getPipeline();
+        if (pipeline.isEmpty()) {
+            return false;
+        }
+        String last = pipeline.get(pipeline.size() - 1).keySet().iterator().next();
+        return "$out".equals(last) || "$merge".equals(last);
+    }
+
+    long getSkip() {
+        return number("skip", 0L);
+    }
+
+    /**
+     * 返回文档数上限，0表示不限制
+     */
+    long getLimit() {
+        return number("limit", 0L);
+    }
+
+    /**
+     * 游标批大小，未指定时为null（aggregate取cursor.batchSize）
+     */
+    Integer getBatchSize() {
+        Long batchSize = null;
+        Object cursor = command.get("cursor");
+        if (kind == Kind.AGGREGATE && cursor instanceof Document cursorDocument
+                && cursorDocument.get("batchSize") != null) {
+            batchSize = toLong("cursor.batchSize", cursorDocument.get("batchSize"));
+        } else if (command.get("batchSize") != null) {
+            batchSize = number("batchSize", 0L);
+        }
+        if (batchSize == null) {
+            return null;
+        }
+        if (batchSize <= 0 || batchSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("batchSize必须为正整数");
+        }
+        return batchSize.intValue();
+    }
+
+    /**
+     * 服务端执行时间上限（毫秒），0表示不限制
+     */
+    long getMaxTimeMS() {
+        long maxTimeMS = number("maxTimeMS", 0L);
+        if (maxTimeMS < 0) {
+            throw new IllegalArgumentException("maxTimeMS不能为负数");
+        }
+        return maxTimeMS;
+    }
+
+    /**
+     * 是否允许阻塞阶段（排序、分组）使用临时文件，未指定时为null
+     */
+    Boolean getAllowDiskUse() {
+        Object value = command.get("allowDiskUse");
+        if (value != null && !(value instanceof Boolean)) {
+            throw new IllegalArgumentException("allowDiskUse必须为布尔值");
+        }
+        return (Boolean) value;
+    }
+
+    private Document document(String key) {
+        Object value = command.get(key);
+        if (value != null && !(value instanceof Document)) {
+            throw new IllegalArgumentException(key + "必须为文档");
+        }
+        return (Document) value;
+    }
+
+    private long number(String key, long defaultValue) {
+        Object value = command.get(key);
+        return value == null ? defaultValue : toLong(key, value);
+    }
+
+    private static long toLong(String key, Object value) {
+        if (!(value instanceof Number number) || number.doubleValue() != Math.rint(number.doubleValue())) {
+            throw new IllegalArgumentException(key + "必须为整数");
+        }
+        return number.longValue();
+    }
+}
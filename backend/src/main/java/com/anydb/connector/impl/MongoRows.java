@@ -0,0 +1,200 @@
+package com.anydb.connector.impl;
+
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * MongoDB文档到结果行的转换
+ *
+ * 顶层字段作为列（_id在最前，其余按首次出现的顺序）；标量按Java类型返回，ObjectId转为十六进制字符串，
+ * 日期转为Timestamp，Decimal128转为BigDecimal，嵌套文档与数组转为宽松模式的JSON字符串。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class MongoRows {
+
+    static final String ID = "_id";
+
+    static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private MongoRows() {
+    }
+
+    /**
+     * 文档字段的并集作为列
+     */
+    static List<String> columns(Collection<Document> documents) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(ID);
+        for (Document document : documents) {
+            columns.addAll(document.keySet());
+        }
+        return new ArrayList<>(columns);
+    }
+
+    /**
+     * 按列顺序取值，缺少的字段为null
+     */
+    static List<Object> row(Document document, List<String> columns) {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(document.get(columns.get(i)));
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 逐个文档累积的列：新出现的字段追加在末尾，冻结后不再增加（流式推送时列头只能推送一次）
+     */
+    static final class ColumnSet {
+
+        private final List<String> names = new ArrayList<>();
+
+        private final Map<String, Integer> index = new HashMap<>();
+
+        private boolean frozen;
+
+        /**
+         * 文档转换为行；未冻结时先登记新字段，冻结后忽略未知字段
+         */
+        List<Object> row(Document document) {
+            if (!frozen) {
+                for (String key : document.keySet()) {
+                    if (!index.containsKey(key)) {
+                        index.put(key, names.size());
+                        names.add(key);
+                    }
+                }
+            }
+            Object[] values = new Object[names.size()];
+            for (Map.Entry<String, Object> field : document.entrySet()) {
+                Integer i = index.get(field.getKey());
+                if (i != null) {
+                    values[i] = value(field.getValue());
+                }
+            }
+            return Arrays.asList(values);
+        }
+
+        /**
+         * 先于后续字段生成的行补齐末尾的null
+         */
+        void pad(List<List<Object>> rows) {
+            for (int i = 0; i < rows.size(); i++) {
+                List<Object> row = rows.get(i);
+                if (row.size() < names.size()) {
+                    rows.set(i, Arrays.asList(Arrays.copyOf(row.toArray(), names.size())));
+                }
+            }
+        }
+
+        void freeze() {
+            frozen = true;
+        }
+
+        List<String> getNames() {
+            return List.copyOf(names);
+        }
+    }
+
+    static Object value(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Long || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        if (value instanceof Date date) {
+            return new Timestamp(date.getTime());
+        }
+        if (value instanceof Decimal128 decimal) {
+            return decimal.isNaN() || decimal.isInfinite() ? decimal.toString() : decimal.bigDecimalValue();
+        }
+        if (value instanceof Binary binary) {
+            return binary.getData();
+        }
+        if (value instanceof UUID || value instanceof BsonTimestamp) {
+            return value.toString();
+        }
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            return toJson(value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 嵌套文档或数组转为JSON
+     */
+    static String toJson(Object value) {
+        if (value instanceof Document document) {
+            return document.toJson(JSON);
+        }
+        String json = new Document("v", value).toJson(JSON);
+        return json.substring(json.indexOf(':') + 1, json.length() - 1).trim();
+    }
+
+    /**
+     * 值的BSON类型名（与$type操作符的别名一致）
+     */
+    static String typeName(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof ObjectId) {
+            return "objectId";
+        }
+        if (value instanceof String) {
+            return "string";
+        }
+        if (value instanceof Integer) {
+            return "int";
+        }
+        if (value instanceof Long) {
+            return "long";
+        }
+        if (value instanceof Double) {
+            return "double";
+        }
+        if (value instanceof Decimal128) {
+            return "decimal";
+        }
+        if (value instanceof Boolean) {
+            return "bool";
+        }
+        if (value instanceof Date) {
+            return "date";
+        }
+        if (value instanceof Map<?, ?>) {
+            return "object";
+        }
+        if (value instanceof List<?>) {
+            return "array";
+        }
+        if (value instanceof Binary || value instanceof UUID) {
+            return "binData";
+        }
+        if (value instanceof BsonTimestamp) {
+            return "timestamp";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
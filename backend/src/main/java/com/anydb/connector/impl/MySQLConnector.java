@@ -1,11 +1,20 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseOperationException;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Value;
 
 import javax.sql.DataSource;
 import java.sql.*;
@@ -16,6 +25,7 @@ import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * MySQL数据库连接器实现
@@ -42,9 +52,9 @@ import java.util.concurrent.TimeUnit;
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.MYSQL, capabilities = {ConnectorCapability.STREAMING, ConnectorCapability.READ_REPLICAS, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class MySQLConnector implements DatabaseConnector {
+public class MySQLConnector implements ExplainConnector {
     
     /**
      * 线程池用于并发操作管理
@@ -65,6 +75,12 @@ public class MySQLConnector implements DatabaseConnector {
      * 查询超时时间（毫秒）
      */
     private static final int QUERY_TIMEOUT = 60000;
+    
+    /**
+     * 流式查询等待消费端的最长时间（毫秒），会话net_write_timeout不低于该值
+     */
+    @Value("${anydb.stream.credit-timeout:300000}")
+    private long streamStallTimeout = 300_000;
 
     /**
      * 获取支持的数据库类型
@@ -129,7 +145,17 @@ public class MySQLConnector implements DatabaseConnector {
      */
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
-        log.info("执行MySQL查询: {}", sanitizeSQL(sql));
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（MySQL驱动以SQL_SELECT_LIMIT在服务端限制行数，setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
+        String logSql = sanitizeSQL(statement);
+        log.info("执行MySQL查询: {}", logSql);
         
         // 参数验证
         validateConfig(config);
@@ -145,10 +171,11 @@ public class MySQLConnector implements DatabaseConnector {
             conn = createConnection(config);
             stmt = conn.createStatement();
             stmt.setQueryTimeout((int) TimeUnit.MILLISECONDS.toSeconds(QUERY_TIMEOUT));
+            ResultSetExtractor.applyLimits(stmt, limits);
             
             rs = stmt.executeQuery(sql);
             
-            QueryResult result = extractResultSet(rs, startTime);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime, limits);
             
             log.info("MySQL查询执行成功，耗时: {}ms，返回行数: {}", 
                     result.getExecutionTime(), result.getTotal());
@@ -157,17 +184,84 @@ public class MySQLConnector implements DatabaseConnector {
             
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
-            log.error("MySQL查询执行失败，SQL: {}, 耗时: {}ms", sanitizeSQL(sql), executionTime, e);
+            log.error("MySQL查询执行失败，SQL: {}, 耗时: {}ms", logSql, executionTime, e);
             throw new DatabaseOperationException("MySQL查询执行失败: " + e.getMessage(), e);
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
-            log.error("MySQL查询执行异常，SQL: {}, 耗时: {}ms", sanitizeSQL(sql), executionTime, e);
+            log.error("MySQL查询执行异常，SQL: {}, 耗时: {}ms", logSql, executionTime, e);
             throw new DatabaseOperationException("MySQL查询执行异常: " + e.getMessage(), e);
         } finally {
             closeResources(rs, stmt, conn);
         }
     }
 
+    /**
+     * 流式执行SQL查询（逐行读取，按批推送）
+     * 
+     * fetchSize为Integer.MIN_VALUE时驱动不缓冲结果集，服务端边执行边发送；服务端游标（useCursorFetch）
+     * 会在返回第一行之前物化完整结果，不使用。消费端暂停取数期间服务端阻塞在发送上，
+     * 会话net_write_timeout提高到不低于anydb.stream.credit-timeout。
+     * 消费端在语句返回之前取消时终止服务端语句；提前结束读取时先终止语句，避免关闭结果集时读完剩余的行。
+     * 
+     * @param config 数据库配置
+     * @param sql SQL语句
+     * @param batchSize 每批行数
+     * @param sink 结果接收端
+     * @return 推送的总行数
+     * @throws InterruptedException 等待客户端额度时被中断
+     */
+    @Override
+    public long streamQuery(DatabaseConfig config, String sql, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        // 语句已由调用方以脱敏形式记录
+        log.debug("流式执行MySQL查询，批大小: {}", batchSize);
+        
+        // 参数验证
+        validateConfig(config);
+        validateSQL(sql);
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            conn = createConnection(config);
+            raiseNetWriteTimeout(conn);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            
+            AtomicBoolean executing = new AtomicBoolean(true);
+            PreparedStatement running = stmt;
+            sink.onCancellable(() -> {
+                if (executing.get()) {
+                    cancelQuietly(running);
+                }
+            });
+            rs = stmt.executeQuery();
+            executing.set(false);
+            long rows = ResultSetExtractor.stream(rs, batchSize, sink, startTime);
+            if (sink.isCancelled()) {
+                cancelQuietly(stmt);
+            }
+            
+            log.info("MySQL流式查询结束，耗时: {}ms，推送行数: {}{}", 
+                    System.currentTimeMillis() - startTime, rows, sink.isCancelled() ? "（已取消）" : "");
+            return rows;
+            
+        } catch (SQLException e) {
+            if (sink.isCancelled()) {
+                log.info("MySQL流式查询已取消，耗时: {}ms", System.currentTimeMillis() - startTime);
+                return 0;
+            }
+            log.error("MySQL流式查询失败", e);
+            throw new DatabaseOperationException("MySQL流式查询失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+
     /**
      * 执行SQL更新操作
      * 
@@ -178,7 +272,8 @@ public class MySQLConnector implements DatabaseConnector {
      */
     @Override
     public UpdateResult executeUpdate(DatabaseConfig config, String sql) {
-        log.info("执行MySQL更新操作: {}", sanitizeSQL(sql));
+        // 语句已由调用方以脱敏形式记录
+        log.debug("执行MySQL更新操作");
         
         // 参数验证
         validateConfig(config);
@@ -207,11 +302,11 @@ public class MySQLConnector implements DatabaseConnector {
             
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
-            log.error("MySQL更新操作失败，SQL: {}, 耗时: {}ms", sanitizeSQL(sql), executionTime, e);
+            log.error("MySQL更新操作失败，耗时: {}ms", executionTime, e);
             throw new DatabaseOperationException("MySQL更新操作失败: " + e.getMessage(), e);
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
-            log.error("MySQL更新操作异常，SQL: {}, 耗时: {}ms", sanitizeSQL(sql), executionTime, e);
+            log.error("MySQL更新操作异常，耗时: {}ms", executionTime, e);
             throw new DatabaseOperationException("MySQL更新操作异常: " + e.getMessage(), e);
         } finally {
             closeResources(null, stmt, conn);
@@ -468,7 +563,7 @@ public class MySQLConnector implements DatabaseConnector {
             
             rs = stmt.executeQuery(sql.toString());
             
-            QueryResult result = extractResultSet(rs, startTime);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime);
             
             log.info("获取MySQL表数据成功，数据库: {}, 表: {}, 页码: {}, 返回行数: {}, 耗时: {}ms", 
                     database, tableName, page, result.getTotal(), result.getExecutionTime());
@@ -490,6 +585,65 @@ public class MySQLConnector implements DatabaseConnector {
         }
     }
 
+    /**
+     * 查询副本复制延迟：SHOW REPLICA STATUS（8.0.22+），旧版本回退到SHOW SLAVE STATUS
+     */
+    @Override
+    public Long getReplicationLag(DatabaseConfig config) {
+        try (Connection conn = createConnection(config);
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+                return readSecondsBehind(rs, "Seconds_Behind_Source");
+            } catch (SQLSyntaxErrorException e) {
+                try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                    return readSecondsBehind(rs, "Seconds_Behind_Master");
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("查询MySQL复制延迟失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 获取执行计划：EXPLAIN FORMAT=JSON；analyze时使用EXPLAIN ANALYZE（8.0.18+，树形文本，会实际执行语句）
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        String logSql = sanitizeSQL(statement);
+        log.info("获取MySQL执行计划: {}", logSql);
+        
+        // 参数验证
+        validateConfig(config);
+        validateSQL(sql);
+        
+        try (Connection conn = createConnection(config);
+             Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout((int) TimeUnit.MILLISECONDS.toSeconds(QUERY_TIMEOUT));
+            try (ResultSet rs = stmt.executeQuery((analyze ? "EXPLAIN ANALYZE " : "EXPLAIN FORMAT=JSON ") + sql)) {
+                if (!rs.next()) {
+                    throw new DatabaseOperationException("MySQL未返回执行计划");
+                }
+                String output = rs.getString(1);
+                return analyze ? ExplainPlans.fromMySqlTree(output) : ExplainPlans.fromMySqlJson(output);
+            }
+        } catch (SQLException e) {
+            log.debug("获取MySQL执行计划失败，SQL: {}: {}", logSql, e.getMessage());
+            throw new DatabaseOperationException("获取MySQL执行计划失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 读取复制延迟列（非副本或复制线程停止时为null）
+     */
+    private Long readSecondsBehind(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        long seconds = rs.getLong(column);
+        return rs.wasNull() ? null : seconds;
+    }
+    
     /**
      * 创建连接池
      * 
@@ -553,6 +707,18 @@ public class MySQLConnector implements DatabaseConnector {
         
         log.debug("创建MySQL连接，URL: {}, 用户: {}", url, config.getUsername());
         
+        return openConnection(url, properties);
+    }
+
+    /**
+     * 按URL与连接属性打开JDBC连接（测试中由子类替换为嵌入式数据库）
+     * 
+     * @param url JDBC URL
+     * @param properties 连接属性
+     * @return JDBC连接
+     * @throws SQLException 连接异常
+     */
+    protected Connection openConnection(String url, Properties properties) throws SQLException {
         return DriverManager.getConnection(url, properties);
     }
 
@@ -587,8 +753,12 @@ public class MySQLConnector implements DatabaseConnector {
      */
     private Properties buildConnectionProperties(DatabaseConfig config) {
         Properties props = new Properties();
-        props.setProperty("user", config.getUsername());
-        props.setProperty("password", config.getPassword());
+        if (config.getUsername() != null) {
+            props.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            props.setProperty("password", config.getPassword());
+        }
         
         // 连接池相关属性
         props.setProperty("connectTimeout", String.valueOf(CONNECTION_TIMEOUT));
@@ -604,44 +774,6 @@ public class MySQLConnector implements DatabaseConnector {
         return props;
     }
 
-    /**
-     * 提取结果集数据
-     * 
-     * @param rs 结果集
-     * @param startTime 开始时间
-     * @return 查询结果
-     * @throws SQLException SQL异常
-     */
-    private QueryResult extractResultSet(ResultSet rs, long startTime) throws SQLException {
-        QueryResult result = new QueryResult();
-        List<String> columns = new ArrayList<>();
-        List<List<Object>> rows = new ArrayList<>();
-        
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        
-        // 获取列名
-        for (int i = 1; i <= columnCount; i++) {
-            columns.add(metaData.getColumnLabel(i));
-        }
-        
-        // 获取数据行
-        while (rs.next()) {
-            List<Object> row = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                row.add(rs.getObject(i));
-            }
-            rows.add(row);
-        }
-        
-        result.setColumns(columns);
-        result.setRows(rows);
-        result.setTotal(rows.size());
-        result.setExecutionTime(System.currentTimeMillis() - startTime);
-        
-        return result;
-    }
-
     /**
      * 获取列信息
      * 
@@ -663,26 +795,36 @@ public class MySQLConnector implements DatabaseConnector {
             
             List<ColumnInfo> columns = new ArrayList<>();
             while (rs.next()) {
-                ColumnInfo column = new ColumnInfo();
-                column.setName(rs.getString("Field"));
-                column.setType(rs.getString("Type"));
-                column.setComment(rs.getString("Comment"));
-                
-                String nullFlag = rs.getString("Null");
-                column.setNullable("YES".equals(nullFlag));
-                
-                String key = rs.getString("Key");
-                column.setPrimaryKey("PRI".equals(key));
-                
-                column.setDefaultValue(rs.getString("Default"));
-                
-                columns.add(column);
+                columns.add(toColumnInfo(rs));
             }
             
             return columns;
         }
     }
 
+    /**
+     * 将SHOW FULL COLUMNS的当前行映射为列信息
+     * 
+     * @param rs 结果集（已定位到当前行）
+     * @return 列信息
+     * @throws SQLException SQL异常
+     */
+    static ColumnInfo toColumnInfo(ResultSet rs) throws SQLException {
+        ColumnInfo column = new ColumnInfo();
+        column.setName(rs.getString("Field"));
+        column.setType(rs.getString("Type"));
+        column.setComment(rs.getString("Comment"));
+        
+        String nullFlag = rs.getString("Null");
+        column.setNullable("YES".equals(nullFlag));
+        
+        String key = rs.getString("Key");
+        column.setPrimaryKey("PRI".equals(key));
+        
+        column.setDefaultValue(rs.getString("Default"));
+        return column;
+    }
+
     /**
      * 关闭单个连接
      * 
@@ -698,6 +840,27 @@ public class MySQLConnector implements DatabaseConnector {
         }
     }
 
+    /**
+     * 提高会话net_write_timeout，使服务端等待消费端的时间不短于流式查询的额度等待时间
+     */
+    private void raiseNetWriteTimeout(Connection conn) throws SQLException {
+        long seconds = Math.max(1, (streamStallTimeout + 999) / 1000);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET SESSION net_write_timeout = GREATEST(@@SESSION.net_write_timeout, " + seconds + ")");
+        }
+    }
+
+    /**
+     * 终止正在执行的语句，失败只记录日志
+     */
+    private void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            log.debug("终止MySQL语句失败: {}", e.getMessage());
+        }
+    }
+
     /**
      * 关闭多个资源
      * 
@@ -749,7 +912,7 @@ public class MySQLConnector implements DatabaseConnector {
      * @param sql SQL语句
      * @throws IllegalArgumentException SQL无效异常
      */
-    private void validateSQL(String sql) {
+    static void validateSQL(String sql) {
         if (sql == null) {
             throw new IllegalArgumentException("SQL语句不能为空");
         }
@@ -863,32 +1026,24 @@ public class MySQLConnector implements DatabaseConnector {
     }
 
     /**
-     * 清理SQL日志（防止敏感信息泄露）
+     * 清理SQL日志（防止敏感信息泄露）：使用调用方分析得到的脱敏形式并截断
      * 
-     * @param sql 原始SQL
+     * @param statement 语句分析结果
      * @return 清理后的SQL
      */
-    private String sanitizeSQL(String sql) {
-        if (sql == null) {
-            return "null";
-        }
-        
-        String sanitized = sql.trim();
+    static String sanitizeSQL(SqlStatement statement) {
+        String sanitized = statement.getMaskedSql();
         if (sanitized.length() > 200) {
             sanitized = sanitized.substring(0, 200) + "...";
         }
         
-        // 移除可能的密码信息
-        sanitized = sanitized.replaceAll("password\\s*=\\s*['\"][^'\"]*['\"]", "password=***");
-        sanitized = sanitized.replaceAll("pwd\\s*=\\s*['\"][^'\"]*['\"]", "pwd=***");
-        
         return sanitized;
     }
 
     /**
      * MySQL连接池实现
      */
-    private static class MySQLConnectionPool {
+    private static class MySQLConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
@@ -1,25 +1,82 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.connector.support.TableSampling;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
+import com.alibaba.druid.pool.DruidDataSource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Oracle数据库连接器实现
  * 
+ * 连接取自按连接配置缓存的Druid连接池，连接属性中开启驱动隐式语句缓存、
+ * 设置默认行预取与LOB预取；表数据分页在12c及以上使用OFFSET/FETCH，
+ * 低版本回退到ROWNUM嵌套查询，并按页大小设置fetch size，一页数据一次往返取回。
+ * 
+ * 连接选项：
+ * - rowPrefetch：默认行预取数（默认100，驱动默认值10）
+ * - lobPrefetchSize：LOB预取字节数（默认32768，小LOB随行返回）
+ * - statementCacheSize：每个连接的隐式语句缓存大小（默认50）
+ * 
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.ORACLE, capabilities = ConnectorCapability.EXPLAIN)
 @Slf4j
-public class OracleConnector implements DatabaseConnector {
+public class OracleConnector implements ExplainConnector {
+    
+    static final String OPTION_ROW_PREFETCH = "rowPrefetch";
+    
+    static final String OPTION_LOB_PREFETCH_SIZE = "lobPrefetchSize";
+    
+    static final String OPTION_STATEMENT_CACHE_SIZE = "statementCacheSize";
+    
+    private static final int DEFAULT_ROW_PREFETCH = 100;
+    
+    private static final int DEFAULT_LOB_PREFETCH_SIZE = 32 * 1024;
+    
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+    
+    private static final int DEFAULT_POOL_SIZE = 8;
+    
+    /**
+     * 单次往返的最大预取行数，避免超大分页占用过多驱动缓冲
+     */
+    private static final int MAX_FETCH_SIZE = 5000;
+    
+    /**
+     * 支持OFFSET/FETCH语法的最低主版本（12c）
+     */
+    private static final int OFFSET_FETCH_MIN_VERSION = 12;
+    
+    /**
+     * 连接池 - key: 配置ID + 连接参数摘要（凭据或选项变化后使用新连接池）
+     */
+    private final ConcurrentMap<String, DruidDataSource> dataSources = new ConcurrentHashMap<>();
+    
+    /**
+     * 服务端主版本缓存 - key: 同连接池
+     */
+    private final ConcurrentMap<String, Integer> serverVersions = new ConcurrentHashMap<>();
     
     @Override
     public DatabaseType getSupportedType() {
@@ -42,6 +99,15 @@ public class OracleConnector implements DatabaseConnector {
     
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         Connection conn = null;
         Statement stmt = null;
         ResultSet rs = null;
@@ -51,37 +117,72 @@ public class OracleConnector implements DatabaseConnector {
         try {
             conn = getConnection(config);
             stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             rs = stmt.executeQuery(sql);
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
+        } catch (SQLException e) {
+            throw new RuntimeException("Oracle SQL执行失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * 获取执行计划：EXPLAIN PLAN写入PLAN_TABLE后读取，原始文本取自DBMS_XPLAN.DISPLAY
+     * 
+     * 每次使用唯一STATEMENT_ID，读取后删除对应行，避免连接池复用的会话间相互干扰。
+     * 实际执行统计需要GATHER_PLAN_STATISTICS提示与DISPLAY_CURSOR，暂不支持analyze。
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        if (analyze) {
+            throw new UnsupportedOperationException("Oracle不支持ANALYZE执行计划");
+        }
+        String statementId = "anydb" + UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+        Connection conn = null;
+        Statement stmt = null;
+        
+        try {
+            conn = getConnection(config);
+            stmt = conn.createStatement();
+            stmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + sql);
+            try {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT ID, PARENT_ID, OPERATION, OPTIONS, OBJECT_OWNER, OBJECT_NAME, CARDINALITY, COST, BYTES, "
+                            + "ACCESS_PREDICATES, FILTER_PREDICATES FROM PLAN_TABLE WHERE STATEMENT_ID = '"
+                            + statementId + "' ORDER BY ID")) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    while (rs.next()) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            row.put(metaData.getColumnLabel(i).toUpperCase(), rs.getObject(i));
+                        }
+                        rows.add(row);
+                    }
+                }
+                StringBuilder display = new StringBuilder();
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT PLAN_TABLE_OUTPUT FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', '"
+                            + statementId + "', 'TYPICAL'))")) {
+                    while (rs.next()) {
+                        display.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return ExplainPlans.fromOraclePlanTable(rows, display.toString());
+            } finally {
+                stmt.executeUpdate("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = '" + statementId + "'");
+                if (!conn.getAutoCommit()) {
+                    conn.commit();
                 }
-                rows.add(row);
             }
             
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
-            
         } catch (SQLException e) {
-            throw new RuntimeException("Oracle SQL执行失败: " + e.getMessage(), e);
+            throw new RuntimeException("获取Oracle执行计划失败: " + e.getMessage(), e);
         } finally {
-            closeResources(rs, stmt, conn);
+            closeResources(null, stmt, conn);
         }
     }
     
@@ -96,6 +197,10 @@ public class OracleConnector implements DatabaseConnector {
             conn = getConnection(config);
             stmt = conn.createStatement();
             int affectedRows = stmt.executeUpdate(sql);
+            // 连接池归还未提交的连接时会回滚，这里显式提交
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
             
             UpdateResult result = new UpdateResult();
             result.setAffectedRows(affectedRows);
@@ -260,61 +365,42 @@ public class OracleConnector implements DatabaseConnector {
     public QueryResult getTableData(DatabaseConfig config, String database, String tableName, 
                                   int page, int size, String orderBy, String orderDirection) {
         Connection conn = null;
-        Statement stmt = null;
+        PreparedStatement ps = null;
         ResultSet rs = null;
         
         long startTime = System.currentTimeMillis();
         
         try {
             conn = getConnection(config);
-            stmt = conn.createStatement();
-            
-            // Oracle分页查询使用ROWNUM
-            StringBuilder sql = new StringBuilder("SELECT * FROM (");
-            sql.append("SELECT a.*, ROWNUM r FROM (");
-            
-            // 主查询
-            sql.append("SELECT * FROM ").append(tableName);
-            
-            if (orderBy != null && !orderBy.isEmpty()) {
-                sql.append(" ORDER BY ").append(orderBy);
-                if (orderDirection != null && !orderDirection.isEmpty()) {
-                    sql.append(" ").append(orderDirection.toUpperCase());
-                }
+            boolean offsetFetch = supportsOffsetFetch(config, conn);
+            
+            // 分页参数绑定，不同页复用同一条游标（隐式语句缓存命中）
+            ps = conn.prepareStatement(buildPageSql(tableName, orderBy, orderDirection, offsetFetch));
+            long offset = (long) (page - 1) * size;
+            if (offsetFetch) {
+                ps.setLong(1, offset);
+                ps.setInt(2, size);
+            } else {
+                ps.setLong(1, offset + size);
+                ps.setLong(2, offset);
             }
+            ps.setFetchSize(Math.min(Math.max(size, 1), MAX_FETCH_SIZE));
+            rs = ps.executeQuery();
             
-            sql.append(") a WHERE ROWNUM <= ").append(page * size);
-            sql.append(") WHERE r > ").append((page - 1) * size);
-            
-            rs = stmt.executeQuery(sql.toString());
-            
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                String columnName = metaData.getColumnLabel(i);
-                // Oracle中ROWNUM会作为额外的列返回，跳过它
-                if (!"R".equals(columnName)) {
-                    columns.add(columnName);
-                }
+            if (offsetFetch) {
+                return ResultSetExtractor.extract(rs, startTime);
             }
             
-            List<List<Object>> rows = new ArrayList<>();
+            // ROWNUM分页的行号位于最后一列，不返回给调用方
+            int columnCount = rs.getMetaData().getColumnCount() - 1;
+            List<String> columns = ResultSetExtractor.getColumnLabels(rs.getMetaData()).subList(0, columnCount);
+            List<List<Object>> rows = new ArrayList<>(size);
             while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnLabel(i);
-                    // Oracle中ROWNUM会作为额外的列返回，跳过它
-                    if (!"R".equals(columnName)) {
-                        row.add(rs.getObject(i));
-                    }
-                }
-                rows.add(row);
+                rows.add(ResultSetExtractor.readRow(rs, columnCount));
             }
             
             QueryResult result = new QueryResult();
-            result.setColumns(columns);
+            result.setColumns(new ArrayList<>(columns));
             result.setRows(rows);
             result.setTotal(rows.size());
             result.setExecutionTime(System.currentTimeMillis() - startTime);
@@ -323,16 +409,108 @@ public class OracleConnector implements DatabaseConnector {
             
         } catch (SQLException e) {
             throw new RuntimeException("获取Oracle表数据失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+    }
+    
+    /**
+     * 构建分页查询（offsetFetch为true时参数为offset、limit，否则为上界、下界）
+     */
+    static String buildPageSql(String tableName, String orderBy, String orderDirection, boolean offsetFetch) {
+        StringBuilder query = new StringBuilder("SELECT * FROM ").append(tableName);
+        if (orderBy != null && !orderBy.isEmpty()) {
+            query.append(" ORDER BY ").append(orderBy);
+            if (orderDirection != null && !orderDirection.isEmpty()) {
+                query.append(" ").append(orderDirection.toUpperCase());
+            }
+        }
+        
+        if (offsetFetch) {
+            return query.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY").toString();
+        }
+        return "SELECT * FROM (SELECT a.*, ROWNUM anydb_rn FROM (" + query
+            + ") a WHERE ROWNUM <= ?) WHERE anydb_rn > ?";
+    }
+    
+    /**
+     * 服务端是否支持OFFSET/FETCH（按连接池缓存版本探测结果）
+     */
+    private boolean supportsOffsetFetch(DatabaseConfig config, Connection conn) throws SQLException {
+        Integer version = serverVersions.get(poolKey(config));
+        if (version == null) {
+            version = conn.getMetaData().getDatabaseMajorVersion();
+            serverVersions.put(poolKey(config), version);
+        }
+        return version >= OFFSET_FETCH_MIN_VERSION;
+    }
+    
+    /**
+     * 预览表数据：按统计信息num_rows估算比例，使用SAMPLE BLOCK块级采样
+     */
+    @Override
+    public QueryResult previewTableData(DatabaseConfig config, String database, String tableName, int size) {
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            conn = getConnection(config);
+            stmt = conn.createStatement();
+            
+            double percent = TableSampling.percent(estimateRowCount(conn, tableName), size);
+            if (percent > 0) {
+                rs = stmt.executeQuery("SELECT * FROM " + tableName + " SAMPLE BLOCK ("
+                    + TableSampling.format(percent) + ") WHERE ROWNUM <= " + size);
+                QueryResult result = ResultSetExtractor.extract(rs, startTime);
+                if (!result.getRows().isEmpty()) {
+                    result.setSamplingMethod("SAMPLE BLOCK");
+                    result.setSamplingPercent(percent);
+                    return result;
+                }
+                rs.close();
+            }
+            
+            rs = stmt.executeQuery("SELECT * FROM " + tableName + " WHERE ROWNUM <= " + size);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime);
+            result.setSamplingMethod(QueryResult.SAMPLING_NONE);
+            return result;
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("预览Oracle表数据失败: " + e.getMessage(), e);
         } finally {
             closeResources(rs, stmt, conn);
         }
     }
     
+    /**
+     * 从数据字典读取统计行数（OWNER.TABLE形式查ALL_TABLES，否则查USER_TABLES；未收集统计时为0）
+     */
+    private long estimateRowCount(Connection conn, String tableName) throws SQLException {
+        int dot = tableName.indexOf('.');
+        String sql = dot > 0
+            ? "SELECT num_rows FROM all_tables WHERE owner = UPPER(?) AND table_name = UPPER(?)"
+            : "SELECT num_rows FROM user_tables WHERE table_name = UPPER(?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (dot > 0) {
+                ps.setString(1, tableName.substring(0, dot));
+                ps.setString(2, tableName.substring(dot + 1));
+            } else {
+                ps.setString(1, tableName);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
     @Override
     public Object createConnectionPool(DatabaseConfig config) {
         try {
             if (testConnection(config)) {
-                return new OracleConnectionPool(config);
+                return getDataSource(config);
             } else {
                 throw new RuntimeException("创建Oracle连接池失败：连接测试失败");
             }
@@ -341,25 +519,97 @@ public class OracleConnector implements DatabaseConnector {
         }
     }
     
+    /**
+     * 关闭该配置（含各主机节点）的连接池
+     */
+    @Override
+    public void evict(Long configId) {
+        String prefix = configId + "|";
+        dataSources.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(prefix)) {
+                return false;
+            }
+            entry.getValue().close();
+            log.info("关闭Oracle连接池，配置ID: {}", configId);
+            return true;
+        });
+        serverVersions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+    
     @Override
     public void close() {
-        // 清理资源
+        dataSources.values().forEach(DruidDataSource::close);
+        dataSources.clear();
+        serverVersions.clear();
     }
     
     /**
-     * 获取数据库连接
+     * 获取数据库连接（从连接池借出）
      */
     private Connection getConnection(DatabaseConfig config) throws SQLException {
-        String url = config.buildUrl();
+        return getDataSource(config).getConnection();
+    }
+    
+    /**
+     * 获取或创建连接配置对应的连接池
+     */
+    private DruidDataSource getDataSource(DatabaseConfig config) {
+        return dataSources.computeIfAbsent(poolKey(config), key -> {
+            DruidDataSource dataSource = new DruidDataSource();
+            dataSource.setUrl(config.buildUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setConnectProperties(buildConnectionProperties(config));
+            dataSource.setDefaultAutoCommit(false);
+            dataSource.setInitialSize(0);
+            dataSource.setMinIdle(0);
+            dataSource.setMaxActive(config.getPoolSize() != null && config.getPoolSize() > 0
+                ? config.getPoolSize() : DEFAULT_POOL_SIZE);
+            if (config.getTimeout() != null && config.getTimeout() > 0) {
+                dataSource.setMaxWait(config.getTimeout());
+            }
+            dataSource.setValidationQuery("SELECT 1 FROM DUAL");
+            dataSource.setTestWhileIdle(true);
+            // 语句缓存交给驱动的隐式缓存，不再叠加Druid的PreparedStatement缓存
+            dataSource.setPoolPreparedStatements(false);
+            log.info("创建Oracle连接池: {}, 最大连接数: {}", config.getDescription(), dataSource.getMaxActive());
+            return dataSource;
+        });
+    }
+    
+    /**
+     * 驱动连接属性：行预取、LOB预取与隐式语句缓存
+     */
+    static Properties buildConnectionProperties(DatabaseConfig config) {
         Properties props = new Properties();
-        props.setProperty("user", config.getUsername());
-        props.setProperty("password", config.getPassword());
         props.setProperty("oracle.jdbc.defaultReadOnly", "false");
-        props.setProperty("oracle.jdbc.defaultAutoCommit", "false");
-        props.setProperty("useUnicode", "true");
-        props.setProperty("characterEncoding", "UTF-8");
-        
-        return DriverManager.getConnection(url, props);
+        props.setProperty("defaultRowPrefetch",
+            String.valueOf(intOption(config, OPTION_ROW_PREFETCH, DEFAULT_ROW_PREFETCH)));
+        props.setProperty("oracle.jdbc.defaultLobPrefetchSize",
+            String.valueOf(intOption(config, OPTION_LOB_PREFETCH_SIZE, DEFAULT_LOB_PREFETCH_SIZE)));
+        props.setProperty("oracle.jdbc.implicitStatementCacheSize",
+            String.valueOf(intOption(config, OPTION_STATEMENT_CACHE_SIZE, DEFAULT_STATEMENT_CACHE_SIZE)));
+        return props;
+    }
+    
+    private static int intOption(DatabaseConfig config, String name, int defaultValue) {
+        String value = config.getOption(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < 0) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Oracle连接选项" + name + "必须为非负整数: " + value);
+        }
+    }
+    
+    static String poolKey(DatabaseConfig config) {
+        return config.getId() + "|" + config.connectionDigest();
     }
     
     /**
@@ -480,41 +730,4 @@ public class OracleConnector implements DatabaseConnector {
             closeResources(rs, stmt);
         }
     }
-    
-    /**
-     * Oracle连接池实现
-     */
-    private static class OracleConnectionPool {
-        private final DatabaseConfig config;
-        private volatile boolean active = true;
-        
-        public OracleConnectionPool(DatabaseConfig config) {
-            this.config = config;
-        }
-        
-        public Connection getConnection() throws SQLException {
-            if (!active) {
-                throw new SQLException("Oracle连接池已关闭");
-            }
-            
-            String url = config.buildUrl();
-            Properties props = new Properties();
-            props.setProperty("user", config.getUsername());
-            props.setProperty("password", config.getPassword());
-            props.setProperty("oracle.jdbc.defaultReadOnly", "false");
-            props.setProperty("oracle.jdbc.defaultAutoCommit", "false");
-            props.setProperty("useUnicode", "true");
-            props.setProperty("characterEncoding", "UTF-8");
-            
-            return DriverManager.getConnection(url, props);
-        }
-        
-        public void close() {
-            active = false;
-        }
-        
-        public boolean isActive() {
-            return active;
-        }
-    }
 }
@@ -1,13 +1,24 @@
 package com.anydb.connector.impl;
 
 import com.anydb.connector.*;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.connector.support.TableSampling;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
+import com.anydb.sql.StatementType;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.regex.Pattern;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -24,9 +35,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.POSTGRESQL, capabilities = {ConnectorCapability.STREAMING, ConnectorCapability.BULK_EXPORT, ConnectorCapability.BULK_IMPORT, ConnectorCapability.READ_REPLICAS, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class PostgreSQLConnector implements DatabaseConnector {
+public class PostgreSQLConnector implements BulkExportConnector, BulkImportConnector, ExplainConnector {
+    
+    /**
+     * COPY FROM STDIN每次发送的数据块大小
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
     
     /**
      * 获取支持的数据库类型
@@ -76,6 +94,15 @@ public class PostgreSQLConnector implements DatabaseConnector {
      */
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（驱动在执行消息中携带行数上限，服务端按上限停止返回，setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         validateConfig(config);
         validateSql(sql);
         
@@ -90,15 +117,16 @@ public class PostgreSQLConnector implements DatabaseConnector {
             
             conn = getConnection(config);
             stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             
             // PostgreSQL特殊查询处理
-            if (isPostgreSQLSpecialQuery(sql)) {
-                return executePostgreSQLSpecialQuery(stmt, sql);
+            if (isPostgreSQLSpecialQuery(statement)) {
+                return executePostgreSQLSpecialQuery(stmt, sql, limits);
             }
             
             rs = stmt.executeQuery(sql);
             
-            return processResultSet(rs, startTime);
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
         } catch (SQLException e) {
             log.error("PostgreSQL SQL执行失败: {}", e.getMessage());
@@ -121,6 +149,269 @@ public class PostgreSQLConnector implements DatabaseConnector {
         }
     }
     
+    /**
+     * 流式执行SQL查询
+     * 
+     * PostgreSQL驱动只有在关闭自动提交且设置fetchSize时才按批取数（服务端portal），
+     * 否则会一次性读完整个结果集。
+     */
+    @Override
+    public long streamQuery(DatabaseConfig config, String sql, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        validateConfig(config);
+        validateSql(sql);
+        
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            log.debug("流式执行PostgreSQL SQL查询: {}", sql);
+            
+            conn = getConnection(config);
+            conn.setAutoCommit(false);
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(batchSize);
+            
+            rs = stmt.executeQuery(sql);
+            long rows = ResultSetExtractor.stream(rs, batchSize, sink, startTime);
+            
+            rs.close();
+            conn.commit();
+            return rows;
+            
+        } catch (SQLException e) {
+            log.error("PostgreSQL流式查询失败: {}", e.getMessage());
+            rollbackQuietly(conn);
+            throw new DatabaseOperationException(
+                "SQL_EXECUTION_FAILED",
+                "PostgreSQL流式查询失败: " + e.getMessage(),
+                "STREAM_QUERY",
+                e
+            );
+        } catch (InterruptedException e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * 查询备库回放延迟（秒）
+     * 
+     * 已接收的WAL全部回放完时视为无延迟，避免主库空闲时回放时间戳老化造成误判；
+     * 非备库返回null。
+     */
+    @Override
+    public Long getReplicationLag(DatabaseConfig config) {
+        try (Connection conn = getConnection(config);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                 SELECT CASE
+                          WHEN NOT pg_is_in_recovery() THEN NULL
+                          WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                          ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                        END
+                 """)) {
+            if (!rs.next()) {
+                return null;
+            }
+            double seconds = rs.getDouble(1);
+            return rs.wasNull() ? null : (long) Math.ceil(seconds);
+        } catch (SQLException e) {
+            log.debug("查询PostgreSQL复制延迟失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 获取执行计划：EXPLAIN (FORMAT JSON)；analyze时附加ANALYZE、BUFFERS
+     * 
+     * ANALYZE会实际执行语句，因此放在事务中执行并回滚，避免产生副作用。
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        validateConfig(config);
+        validateSql(sql);
+        
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            log.debug("获取PostgreSQL执行计划: {}", sql);
+            
+            conn = getConnection(config);
+            conn.setAutoCommit(false);
+            stmt = conn.createStatement();
+            rs = stmt.executeQuery((analyze ? "EXPLAIN (FORMAT JSON, ANALYZE, BUFFERS) " : "EXPLAIN (FORMAT JSON) ") + sql);
+            if (!rs.next()) {
+                throw new DatabaseOperationException("PostgreSQL未返回执行计划");
+            }
+            String json = rs.getString(1);
+            rs.close();
+            conn.rollback();
+            return ExplainPlans.fromPostgresJson(json);
+            
+        } catch (SQLException e) {
+            log.debug("获取PostgreSQL执行计划失败: {}", e.getMessage());
+            rollbackQuietly(conn);
+            throw new DatabaseOperationException(
+                "SQL_EXECUTION_FAILED",
+                "获取PostgreSQL执行计划失败: " + e.getMessage(),
+                "EXPLAIN",
+                e
+            );
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * COPY导出表数据（COPY ... TO STDOUT），驱动收到的数据块直接写入输出流
+     */
+    @Override
+    public long exportTable(DatabaseConfig config, String database, String tableName,
+                            BulkFormat format, OutputStream out) {
+        validateConfig(config);
+        String sql = buildCopyOutSql(database, tableName, format);
+        
+        Connection conn = null;
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            log.debug("PostgreSQL COPY导出: {}", sql);
+            
+            conn = getConnection(config);
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            long rows = copyManager.copyOut(sql, out);
+            
+            log.info("PostgreSQL COPY导出完成，表: {}, 行数: {}, 耗时: {}ms", 
+                    tableName, rows, System.currentTimeMillis() - startTime);
+            return rows;
+            
+        } catch (SQLException | IOException e) {
+            log.error("PostgreSQL COPY导出失败: {}", e.getMessage());
+            throw new DatabaseOperationException(
+                "BULK_EXPORT_FAILED",
+                "PostgreSQL COPY导出失败: " + e.getMessage(),
+                "EXPORT_TABLE",
+                e
+            );
+        } finally {
+            closeResources(conn);
+        }
+    }
+    
+    /**
+     * COPY导入表数据（COPY ... FROM STDIN），按缓冲区大小分块读取输入流发送
+     */
+    @Override
+    public long importTable(DatabaseConfig config, String database, String tableName, List<String> columns,
+                            BulkFormat format, boolean header, InputStream in) {
+        validateConfig(config);
+        String sql = buildCopyInSql(database, tableName, columns, format, header);
+        
+        Connection conn = null;
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            log.debug("PostgreSQL COPY导入: {}", sql);
+            
+            conn = getConnection(config);
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            long rows = copyManager.copyIn(sql, in, COPY_BUFFER_SIZE);
+            
+            log.info("PostgreSQL COPY导入完成，表: {}, 行数: {}, 耗时: {}ms", 
+                    tableName, rows, System.currentTimeMillis() - startTime);
+            return rows;
+            
+        } catch (SQLException | IOException e) {
+            log.error("PostgreSQL COPY导入失败: {}", e.getMessage());
+            throw new DatabaseOperationException(
+                "BULK_IMPORT_FAILED",
+                "PostgreSQL COPY导入失败: " + e.getMessage(),
+                "IMPORT_TABLE",
+                e
+            );
+        } finally {
+            closeResources(conn);
+        }
+    }
+    
+    /**
+     * 构建COPY TO STDOUT语句
+     */
+    static String buildCopyOutSql(String database, String tableName, BulkFormat format) {
+        StringBuilder sql = new StringBuilder("COPY ").append(qualifiedTableName(database, tableName));
+        sql.append(" TO STDOUT");
+        if (format == BulkFormat.BINARY) {
+            sql.append(" (FORMAT binary)");
+        } else {
+            sql.append(" (FORMAT csv, HEADER true)");
+        }
+        return sql.toString();
+    }
+    
+    /**
+     * 构建COPY FROM STDIN语句
+     */
+    static String buildCopyInSql(String database, String tableName, List<String> columns,
+                                 BulkFormat format, boolean header) {
+        StringBuilder sql = new StringBuilder("COPY ").append(qualifiedTableName(database, tableName));
+        if (columns != null && !columns.isEmpty()) {
+            sql.append(" (");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(requireIdentifier(columns.get(i), "列名"));
+            }
+            sql.append(")");
+        }
+        sql.append(" FROM STDIN");
+        if (format == BulkFormat.BINARY) {
+            sql.append(" (FORMAT binary)");
+        } else {
+            sql.append(" (FORMAT csv, HEADER ").append(header).append(")");
+        }
+        return sql.toString();
+    }
+    
+    /**
+     * 拼接schema.table（COPY语句无法参数化，标识符必须校验）
+     */
+    private static String qualifiedTableName(String database, String tableName) {
+        String table = requireIdentifier(tableName, "表名");
+        if (database != null && !database.trim().isEmpty()) {
+            return requireIdentifier(database, "模式名") + "." + table;
+        }
+        return table;
+    }
+    
+    private static String requireIdentifier(String identifier, String label) {
+        if (identifier == null || !IDENTIFIER_PATTERN.matcher(identifier.trim()).matches()) {
+            throw new IllegalArgumentException(label + "无效: " + identifier);
+        }
+        return identifier.trim();
+    }
+    
+    /**
+     * 回滚事务（忽略异常）
+     */
+    private void rollbackQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                log.debug("回滚PostgreSQL事务失败: {}", e.getMessage());
+            }
+        }
+    }
+    
     /**
      * 执行SQL更新
      */
@@ -381,7 +672,7 @@ public class PostgreSQLConnector implements DatabaseConnector {
             log.debug("执行SQL: {}", sql.toString());
             rs = stmt.executeQuery(sql.toString());
             
-            QueryResult result = processResultSet(rs, startTime);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime);
             
             log.debug("获取到 {} 行数据，耗时: {}ms", result.getRows().size(), result.getExecutionTime());
             return result;
@@ -407,6 +698,79 @@ public class PostgreSQLConnector implements DatabaseConnector {
         }
     }
     
+    /**
+     * 预览表数据：按pg_class.reltuples估算比例，使用TABLESAMPLE SYSTEM块级采样
+     * 
+     * 不带ORDER BY，只读取采样到的数据块；采样为空（如统计信息过期）时退化为第一页。
+     */
+    @Override
+    public QueryResult previewTableData(DatabaseConfig config, String database, String tableName, int size) {
+        validateConfig(config);
+        if (size <= 0) {
+            throw new IllegalArgumentException("页面大小必须大于0");
+        }
+        if (tableName == null || tableName.trim().isEmpty()) {
+            throw new IllegalArgumentException("表名不能为空");
+        }
+        
+        String qualifiedName = database != null && !database.trim().isEmpty() ? database + "." + tableName : tableName;
+        
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            conn = getConnection(config);
+            double percent = TableSampling.percent(estimateRowCount(conn, qualifiedName), size);
+            stmt = conn.createStatement();
+            
+            if (percent > 0) {
+                String sql = "SELECT * FROM " + qualifiedName + " TABLESAMPLE SYSTEM (" + TableSampling.format(percent)
+                    + ") LIMIT " + size;
+                log.debug("预览PostgreSQL表数据: {}", sql);
+                rs = stmt.executeQuery(sql);
+                QueryResult result = ResultSetExtractor.extract(rs, startTime);
+                if (!result.getRows().isEmpty()) {
+                    result.setSamplingMethod("TABLESAMPLE SYSTEM");
+                    result.setSamplingPercent(percent);
+                    return result;
+                }
+                rs.close();
+            }
+            
+            rs = stmt.executeQuery("SELECT * FROM " + qualifiedName + " LIMIT " + size);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime);
+            result.setSamplingMethod(QueryResult.SAMPLING_NONE);
+            return result;
+            
+        } catch (SQLException e) {
+            log.error("预览PostgreSQL表数据失败: {}", e.getMessage());
+            throw new DatabaseOperationException(
+                "QUERY_FAILED",
+                "PostgreSQL预览表数据失败: " + e.getMessage(),
+                "PREVIEW_TABLE_DATA",
+                e
+            );
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * 从pg_class读取统计行数（未ANALYZE的表为-1或0）
+     */
+    private long estimateRowCount(Connection conn, String qualifiedName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)")) {
+            ps.setString(1, qualifiedName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
     // ========== 验证和工具方法 ==========
     
     /**
@@ -441,43 +805,16 @@ public class PostgreSQLConnector implements DatabaseConnector {
     }
     
     /**
-     * 处理结果集
+     * 获取数据库连接
      */
-    private QueryResult processResultSet(ResultSet rs, long startTime) throws SQLException {
-        QueryResult result = new QueryResult();
-        
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        
-        List<String> columns = new ArrayList<>();
-        for (int i = 1; i <= columnCount; i++) {
-            columns.add(metaData.getColumnLabel(i));
-        }
-        
-        List<List<Object>> rows = new ArrayList<>();
-        while (rs.next()) {
-            List<Object> row = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                row.add(rs.getObject(i));
-            }
-            rows.add(row);
-        }
-        
-        result.setColumns(columns);
-        result.setRows(rows);
-        result.setTotal(rows.size());
-        result.setExecutionTime(System.currentTimeMillis() - startTime);
-        
-        return result;
+    private Connection getConnection(DatabaseConfig config) throws SQLException {
+        return openConnection(buildConnectionUrl(config), buildConnectionProperties(config));
     }
     
     /**
-     * 获取数据库连接
+     * 按URL与连接属性打开JDBC连接（测试中由子类替换为嵌入式数据库）
      */
-    private Connection getConnection(DatabaseConfig config) throws SQLException {
-        String url = buildConnectionUrl(config);
-        Properties props = buildConnectionProperties(config);
-        
+    protected Connection openConnection(String url, Properties props) throws SQLException {
         return DriverManager.getConnection(url, props);
     }
     
@@ -503,8 +840,12 @@ public class PostgreSQLConnector implements DatabaseConnector {
      */
     private Properties buildConnectionProperties(DatabaseConfig config) {
         Properties props = new Properties();
-        props.setProperty("user", config.getUsername());
-        props.setProperty("password", config.getPassword());
+        if (config.getUsername() != null) {
+            props.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            props.setProperty("password", config.getPassword());
+        }
         props.setProperty("useSSL", "false");
         props.setProperty("characterEncoding", "UTF-8");
         props.setProperty("loginTimeout", "30");
@@ -528,29 +869,31 @@ public class PostgreSQLConnector implements DatabaseConnector {
     }
     
     /**
-     * 检查是否为PostgreSQL特殊查询
+     * 检查是否为PostgreSQL特殊查询（SHOW或查询系统目录）
      */
-    private boolean isPostgreSQLSpecialQuery(String sql) {
-        if (sql == null || sql.trim().isEmpty()) {
-            return false;
+    private boolean isPostgreSQLSpecialQuery(SqlStatement statement) {
+        if (statement.getType() == StatementType.SHOW) {
+            return true;
+        }
+        for (String table : statement.getTables()) {
+            if (table.regionMatches(true, 0, "pg_", 0, 3)
+                    || table.regionMatches(true, 0, "information_schema.", 0, 19)) {
+                return true;
+            }
         }
-        String lowerSql = sql.trim().toLowerCase();
-        return lowerSql.startsWith("select version()") ||
-               lowerSql.startsWith("show") ||
-               lowerSql.startsWith("pg_") ||
-               lowerSql.contains("information_schema") ||
-               lowerSql.contains("pg_catalog");
+        return false;
     }
     
     /**
      * 执行PostgreSQL特殊查询
      */
-    private QueryResult executePostgreSQLSpecialQuery(Statement stmt, String sql) throws SQLException {
+    private QueryResult executePostgreSQLSpecialQuery(Statement stmt, String sql, ResultLimits limits)
+            throws SQLException {
         long startTime = System.currentTimeMillis();
         
         try {
             ResultSet rs = stmt.executeQuery(sql);
-            return processResultSet(rs, startTime);
+            return ResultSetExtractor.extract(rs, startTime, limits);
         } catch (SQLException e) {
             throw new DatabaseOperationException(
                 "SQL_EXECUTION_FAILED",
@@ -672,7 +1015,7 @@ public class PostgreSQLConnector implements DatabaseConnector {
     /**
      * PostgreSQL连接池实现
      */
-    private static class PostgreSQLConnectionPool {
+    private static class PostgreSQLConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
@@ -1,10 +1,18 @@
 package com.anydb.connector.impl;
 
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.connector.support.TableSampling;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -14,12 +22,22 @@ import java.util.Properties;
 /**
  * SQL Server数据库连接器实现
  * 
+ * 元数据查询直接使用sys目录视图并按object_id关联，表行数取自sys.dm_db_partition_stats
+ * （无VIEW DATABASE STATE权限时回退到sys.partitions）。连接使用adaptive响应缓冲，
+ * 驱动按需从网络读取结果而不是整体缓冲；表数据分页浏览使用服务端游标，
+ * 每次往返按页大小取数。
+ * 
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.SQLSERVER, capabilities = ConnectorCapability.EXPLAIN)
 @Slf4j
-public class SQLServerConnector implements DatabaseConnector {
+public class SQLServerConnector implements ExplainConnector {
+    
+    /**
+     * 单次往返的最大取数行数
+     */
+    private static final int MAX_FETCH_SIZE = 5000;
     
     @Override
     public DatabaseType getSupportedType() {
@@ -42,6 +60,15 @@ public class SQLServerConnector implements DatabaseConnector {
     
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（驱动以SET ROWCOUNT在服务端限制行数，setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         Connection conn = null;
         Statement stmt = null;
         ResultSet rs = null;
@@ -51,37 +78,60 @@ public class SQLServerConnector implements DatabaseConnector {
         try {
             conn = getConnection(config);
             stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             rs = stmt.executeQuery(sql);
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
+        } catch (SQLException e) {
+            throw new RuntimeException("SQL Server SQL执行失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * 获取执行计划：SET SHOWPLAN_XML ON后提交语句，只编译不执行；
+     * analyze时使用SET STATISTICS XML ON实际执行，取结果之后附带的实际执行计划（含实际行数与耗时）
+     * 
+     * 会话设置只对当前连接生效，连接不复用，关闭即失效。
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        Connection conn = null;
+        Statement stmt = null;
+        
+        try {
+            conn = getConnection(config);
+            stmt = conn.createStatement();
+            stmt.execute(analyze ? "SET STATISTICS XML ON" : "SET SHOWPLAN_XML ON");
+            
+            String xml = null;
+            boolean isResultSet = stmt.execute(sql);
+            while (isResultSet || stmt.getUpdateCount() != -1) {
+                if (isResultSet) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        ResultSetMetaData metaData = rs.getMetaData();
+                        boolean showplan = metaData.getColumnCount() == 1
+                            && metaData.getColumnLabel(1).contains("Showplan");
+                        while (rs.next()) {
+                            if (showplan) {
+                                xml = rs.getString(1);
+                            }
+                        }
+                    }
                 }
-                rows.add(row);
+                isResultSet = stmt.getMoreResults();
             }
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
+            if (xml == null) {
+                throw new RuntimeException("SQL Server未返回执行计划");
+            }
+            return ExplainPlans.fromShowplanXml(xml);
             
         } catch (SQLException e) {
-            throw new RuntimeException("SQL Server SQL执行失败: " + e.getMessage(), e);
+            throw new RuntimeException("获取SQL Server执行计划失败: " + e.getMessage(), e);
         } finally {
-            closeResources(rs, stmt, conn);
+            closeResources(null, stmt, conn);
         }
     }
     
@@ -139,120 +189,41 @@ public class SQLServerConnector implements DatabaseConnector {
     @Override
     public List<TableInfo> getTables(DatabaseConfig config, String database) {
         Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
             conn = getConnection(config);
-            stmt = conn.createStatement();
+            useDatabase(conn, database);
             
-            StringBuilder sql = new StringBuilder("""
-                SELECT TABLE_NAME, TABLE_COMMENT, 
-                       CASE WHEN t.is_ms_shipped = 1 THEN 'System Table' ELSE 'User Table' END as TableType,
-                       SUM(p.rows) as RowCounts
-                FROM INFORMATION_SCHEMA.TABLES t
-                LEFT JOIN sys.partitions p ON t.TABLE_NAME = OBJECT_NAME(p.object_id)
-                WHERE TABLE_TYPE = 'BASE TABLE'
-                """);
-            
-            if (database != null && !database.isEmpty()) {
-                // SQL Server中，INFORMATION_SCHEMA.TABLES没有直接的database参数
-                // 需要使用USE database;语句
-                String useDbSql = "USE " + database;
-                Statement useStmt = conn.createStatement();
-                useStmt.execute(useDbSql);
-                useStmt.close();
-            }
-            
-            sql.append(" GROUP BY TABLE_NAME, TABLE_COMMENT, t.is_ms_shipped");
-            sql.append(" ORDER BY TABLE_NAME");
-            
-            rs = stmt.executeQuery(sql.toString());
-            
-            List<TableInfo> tables = new ArrayList<>();
-            while (rs.next()) {
-                TableInfo table = new TableInfo();
-                table.setName(rs.getString("TABLE_NAME"));
-                table.setComment(rs.getString("TABLE_COMMENT"));
-                
-                int rowCount = rs.getInt("RowCounts");
-                if (!rs.wasNull()) {
-                    table.setRowCount(rowCount);
-                } else {
-                    table.setRowCount(0);
-                }
-                
-                tables.add(table);
-            }
-            
-            return tables;
+            return queryTables(conn, null);
             
         } catch (SQLException e) {
             throw new RuntimeException("获取SQL Server表列表失败: " + e.getMessage(), e);
         } finally {
-            closeResources(rs, stmt, conn);
+            closeConnection(conn);
         }
     }
     
     @Override
     public TableInfo getTableInfo(DatabaseConfig config, String database, String tableName) {
         Connection conn = null;
-        Statement stmt = null;
-        ResultSet rs = null;
         
         try {
             conn = getConnection(config);
-            stmt = conn.createStatement();
-            
-            // 确保使用正确的数据库
-            if (database != null && !database.isEmpty()) {
-                String useDbSql = "USE " + database;
-                Statement useStmt = conn.createStatement();
-                useStmt.execute(useDbSql);
-                useStmt.close();
-            }
-            
-            // 获取表基本信息
-            StringBuilder sql = new StringBuilder("""
-                SELECT TABLE_NAME, TABLE_COMMENT,
-                       CASE WHEN t.is_ms_shipped = 1 THEN 'System Table' ELSE 'User Table' END as TableType,
-                       SUM(p.rows) as RowCounts
-                FROM INFORMATION_SCHEMA.TABLES t
-                LEFT JOIN sys.partitions p ON t.TABLE_NAME = OBJECT_NAME(p.object_id)
-                WHERE TABLE_TYPE = 'BASE TABLE' AND TABLE_NAME = ?
-                GROUP BY TABLE_NAME, TABLE_COMMENT, t.is_ms_shipped
-                """);
-            
-            // SQL Server不支持参数化查询，所以手动替换
-            sql = new StringBuilder(sql.toString().replace("TABLE_NAME = ?", "TABLE_NAME = '" + tableName + "'"));
+            useDatabase(conn, database);
             
-            rs = stmt.executeQuery(sql.toString());
-            
-            if (rs.next()) {
-                TableInfo table = new TableInfo();
-                table.setName(rs.getString("TABLE_NAME"));
-                table.setComment(rs.getString("TABLE_COMMENT"));
-                
-                int rowCount = rs.getInt("RowCounts");
-                if (!rs.wasNull()) {
-                    table.setRowCount(rowCount);
-                } else {
-                    table.setRowCount(getTableRowCount(conn, tableName));
-                }
-                
-                // 获取列信息
-                List<ColumnInfo> columns = getColumnInfo(conn, tableName);
-                table.setColumns(columns);
-                
-                return table;
+            List<TableInfo> tables = queryTables(conn, tableName);
+            if (tables.isEmpty()) {
+                return null;
             }
             
-            return null;
+            TableInfo table = tables.get(0);
+            table.setColumns(getColumnInfo(conn, tableName));
+            return table;
             
         } catch (SQLException e) {
             throw new RuntimeException("获取SQL Server表信息失败: " + e.getMessage(), e);
         } finally {
-            closeResources(rs, stmt, conn);
+            closeConnection(conn);
         }
     }
     
@@ -260,24 +231,17 @@ public class SQLServerConnector implements DatabaseConnector {
     public QueryResult getTableData(DatabaseConfig config, String database, String tableName, 
                                   int page, int size, String orderBy, String orderDirection) {
         Connection conn = null;
-        Statement stmt = null;
+        PreparedStatement ps = null;
         ResultSet rs = null;
         
         long startTime = System.currentTimeMillis();
         
         try {
-            conn = getConnection(config);
-            stmt = conn.createStatement();
+            // 服务端游标：大表翻页时结果留在服务端，按fetch size分批取回
+            conn = getConnection(config, true);
+            useDatabase(conn, database);
             
-            // 确保使用正确的数据库
-            if (database != null && !database.isEmpty()) {
-                String useDbSql = "USE " + database;
-                Statement useStmt = conn.createStatement();
-                useStmt.execute(useDbSql);
-                useStmt.close();
-            }
-            
-            // SQL Server分页查询使用OFFSET FETCH
+            // SQL Server分页查询使用OFFSET FETCH，OFFSET要求ORDER BY，未指定排序时按常量排序
             StringBuilder sql = new StringBuilder("SELECT * FROM " + tableName);
             
             if (orderBy != null && !orderBy.isEmpty()) {
@@ -285,40 +249,66 @@ public class SQLServerConnector implements DatabaseConnector {
                 if (orderDirection != null && !orderDirection.isEmpty()) {
                     sql.append(" ").append(orderDirection.toUpperCase());
                 }
+            } else {
+                sql.append(" ORDER BY (SELECT NULL)");
             }
             
-            sql.append(" OFFSET ").append((page - 1) * size).append(" ROWS");
-            sql.append(" FETCH NEXT ").append(size).append(" ROWS ONLY");
+            sql.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+            
+            ps = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setLong(1, (long) (page - 1) * size);
+            ps.setInt(2, size);
+            ps.setFetchSize(Math.min(Math.max(size, 1), MAX_FETCH_SIZE));
+            rs = ps.executeQuery();
             
-            rs = stmt.executeQuery(sql.toString());
+            return ResultSetExtractor.extract(rs, startTime);
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+        } catch (SQLException e) {
+            throw new RuntimeException("获取SQL Server表数据失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, ps, conn);
+        }
+    }
+    
+    /**
+     * 预览表数据：按sys.partitions行数估算比例，使用TABLESAMPLE按页采样
+     */
+    @Override
+    public QueryResult previewTableData(DatabaseConfig config, String database, String tableName, int size) {
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            conn = getConnection(config);
+            stmt = conn.createStatement();
             
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
+            if (database != null && !database.isEmpty()) {
+                stmt.execute("USE " + database);
             }
             
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
+            double percent = TableSampling.percent(estimateRowCount(conn, tableName), size);
+            if (percent > 0) {
+                rs = stmt.executeQuery("SELECT TOP (" + size + ") * FROM " + tableName
+                    + " TABLESAMPLE (" + TableSampling.format(percent) + " PERCENT)");
+                QueryResult result = ResultSetExtractor.extract(rs, startTime);
+                if (!result.getRows().isEmpty()) {
+                    result.setSamplingMethod("TABLESAMPLE");
+                    result.setSamplingPercent(percent);
+                    return result;
                 }
-                rows.add(row);
+                rs.close();
             }
             
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
+            rs = stmt.executeQuery("SELECT TOP (" + size + ") * FROM " + tableName);
+            QueryResult result = ResultSetExtractor.extract(rs, startTime);
+            result.setSamplingMethod(QueryResult.SAMPLING_NONE);
             return result;
             
         } catch (SQLException e) {
-            throw new RuntimeException("获取SQL Server表数据失败: " + e.getMessage(), e);
+            throw new RuntimeException("预览SQL Server表数据失败: " + e.getMessage(), e);
         } finally {
             closeResources(rs, stmt, conn);
         }
@@ -346,17 +336,111 @@ public class SQLServerConnector implements DatabaseConnector {
      * 获取数据库连接
      */
     private Connection getConnection(DatabaseConfig config) throws SQLException {
-        String url = config.buildUrl();
+        return getConnection(config, false);
+    }
+    
+    /**
+     * 获取数据库连接
+     * 
+     * @param serverCursor 是否使用服务端游标（selectMethod=cursor）
+     */
+    private Connection getConnection(DatabaseConfig config, boolean serverCursor) throws SQLException {
+        return DriverManager.getConnection(config.buildUrl(), buildConnectionProperties(config, serverCursor));
+    }
+    
+    /**
+     * 驱动连接属性
+     */
+    static Properties buildConnectionProperties(DatabaseConfig config, boolean serverCursor) {
         Properties props = new Properties();
         props.setProperty("user", config.getUsername());
         props.setProperty("password", config.getPassword());
         props.setProperty("encrypt", "false");
         props.setProperty("loginTimeout", "30");
         props.setProperty("socketTimeout", "300000");
-        props.setProperty("useUnicode", "true");
-        props.setProperty("characterEncoding", "UTF-8");
-        
-        return DriverManager.getConnection(url, props);
+        // 按需读取结果，大结果集不在驱动内整体缓冲
+        props.setProperty("responseBuffering", "adaptive");
+        props.setProperty("selectMethod", serverCursor ? "cursor" : "direct");
+        return props;
+    }
+    
+    /**
+     * 切换当前数据库
+     */
+    private void useDatabase(Connection conn, String database) throws SQLException {
+        if (database != null && !database.isEmpty()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("USE " + database);
+            }
+        }
+    }
+    
+    /**
+     * 查询用户表（tableName为null时返回全部），行数优先取sys.dm_db_partition_stats
+     */
+    private List<TableInfo> queryTables(Connection conn, String tableName) throws SQLException {
+        try {
+            return queryTables(conn, tableName, true);
+        } catch (SQLException e) {
+            // sys.dm_db_partition_stats需要VIEW DATABASE STATE权限
+            log.debug("读取sys.dm_db_partition_stats失败，回退到sys.partitions: {}", e.getMessage());
+            return queryTables(conn, tableName, false);
+        }
+    }
+    
+    private List<TableInfo> queryTables(Connection conn, String tableName, boolean partitionStats)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(buildTableListSql(partitionStats, tableName != null))) {
+            if (tableName != null) {
+                ps.setString(1, tableName);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TableInfo> tables = new ArrayList<>();
+                while (rs.next()) {
+                    TableInfo table = new TableInfo();
+                    String schema = rs.getString("schema_name");
+                    String name = rs.getString("table_name");
+                    table.setName("dbo".equalsIgnoreCase(schema) ? name : schema + "." + name);
+                    table.setComment(rs.getString("table_comment"));
+                    table.setRowCount((int) Math.min(rs.getLong("row_count"), Integer.MAX_VALUE));
+                    Timestamp modifyDate = rs.getTimestamp("modify_date");
+                    if (modifyDate != null) {
+                        table.setUpdateTime(modifyDate.getTime());
+                    }
+                    tables.add(table);
+                }
+                return tables;
+            }
+        }
+    }
+    
+    /**
+     * 构建表列表查询：sys.tables按object_id关联分区行数与MS_Description说明
+     * 
+     * @param partitionStats true使用sys.dm_db_partition_stats，false使用sys.partitions
+     * @param single 是否按OBJECT_ID(?)过滤单表
+     */
+    static String buildTableListSql(boolean partitionStats, boolean single) {
+        String rowSource = partitionStats
+            ? "SELECT object_id, SUM(row_count) AS row_count FROM sys.dm_db_partition_stats"
+            : "SELECT object_id, SUM(rows) AS row_count FROM sys.partitions";
+        StringBuilder sql = new StringBuilder()
+            .append("SELECT s.name AS schema_name, t.name AS table_name, ")
+            .append("CAST(ep.value AS NVARCHAR(4000)) AS table_comment, ")
+            .append("ISNULL(ps.row_count, 0) AS row_count, t.modify_date ")
+            .append("FROM sys.tables t ")
+            .append("JOIN sys.schemas s ON s.schema_id = t.schema_id ")
+            .append("LEFT JOIN (").append(rowSource)
+            .append(" WHERE index_id IN (0, 1) GROUP BY object_id) ps ON ps.object_id = t.object_id ")
+            .append("LEFT JOIN sys.extended_properties ep ON ep.class = 1 AND ep.major_id = t.object_id ")
+            .append("AND ep.minor_id = 0 AND ep.name = 'MS_Description' ")
+            .append("WHERE t.is_ms_shipped = 0");
+        if (single) {
+            sql.append(" AND t.object_id = OBJECT_ID(?)");
+        } else {
+            sql.append(" ORDER BY s.name, t.name");
+        }
+        return sql.toString();
     }
     
     /**
@@ -388,100 +472,71 @@ public class SQLServerConnector implements DatabaseConnector {
     }
     
     /**
-     * 获取列信息
+     * 获取列信息（单条查询关联类型、默认值、说明与主键列）
      */
     private List<ColumnInfo> getColumnInfo(Connection conn, String tableName) throws SQLException {
-        Statement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(String.format("""
-                SELECT COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, 
-                       IS_NULLABLE, COLUMN_DEFAULT, COLUMN_COMMENT
-                FROM INFORMATION_SCHEMA.COLUMNS 
-                WHERE TABLE_NAME = '%s' 
-                ORDER BY ORDINAL_POSITION
-                """, tableName));
-            
-            List<ColumnInfo> columns = new ArrayList<>();
-            while (rs.next()) {
-                ColumnInfo column = new ColumnInfo();
-                column.setName(rs.getString("COLUMN_NAME"));
-                column.setType(rs.getString("DATA_TYPE"));
-                column.setNullable("YES".equals(rs.getString("IS_NULLABLE")));
-                column.setDefaultValue(rs.getString("COLUMN_DEFAULT"));
-                column.setComment(rs.getString("COLUMN_COMMENT"));
-                
-                int maxLength = rs.getInt("CHARACTER_MAXIMUM_LENGTH");
-                if (!rs.wasNull()) {
-                    column.setMaxLength(maxLength);
+        try (PreparedStatement ps = conn.prepareStatement("""
+                SELECT c.name AS column_name, ty.name AS data_type, c.max_length, c.is_nullable,
+                       dc.definition AS default_value, CAST(ep.value AS NVARCHAR(4000)) AS column_comment,
+                       CASE WHEN pk.column_id IS NULL THEN 0 ELSE 1 END AS is_primary_key
+                FROM sys.columns c
+                JOIN sys.types ty ON ty.user_type_id = c.user_type_id
+                LEFT JOIN sys.default_constraints dc ON dc.object_id = c.default_object_id
+                LEFT JOIN sys.extended_properties ep
+                       ON ep.class = 1 AND ep.major_id = c.object_id AND ep.minor_id = c.column_id
+                      AND ep.name = 'MS_Description'
+                LEFT JOIN (
+                    SELECT ic.object_id, ic.column_id
+                    FROM sys.indexes i
+                    JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id
+                    WHERE i.is_primary_key = 1
+                ) pk ON pk.object_id = c.object_id AND pk.column_id = c.column_id
+                WHERE c.object_id = OBJECT_ID(?)
+                ORDER BY c.column_id
+                """)) {
+            ps.setString(1, tableName);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                List<ColumnInfo> columns = new ArrayList<>();
+                while (rs.next()) {
+                    ColumnInfo column = new ColumnInfo();
+                    column.setName(rs.getString("column_name"));
+                    column.setType(rs.getString("data_type"));
+                    column.setNullable(rs.getBoolean("is_nullable"));
+                    column.setDefaultValue(rs.getString("default_value"));
+                    column.setComment(rs.getString("column_comment"));
+                    column.setPrimaryKey(rs.getInt("is_primary_key") == 1);
+                    
+                    // max_length为字节数，-1表示MAX类型
+                    int maxLength = rs.getInt("max_length");
+                    if (maxLength > 0) {
+                        column.setMaxLength(maxLength);
+                    }
+                    
+                    columns.add(column);
                 }
-                
-                // 判断是否为主键
-                Boolean isPrimaryKey = isPrimaryKeyColumn(conn, tableName, column.getName());
-                column.setPrimaryKey(isPrimaryKey);
-                
-                columns.add(column);
+                return columns;
             }
-            
-            return columns;
-            
-        } finally {
-            closeResources(rs, stmt);
-        }
-    }
-    
-    /**
-     * 判断列是否为主键
-     */
-    private boolean isPrimaryKeyColumn(Connection conn, String tableName, String columnName) throws SQLException {
-        Statement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery(String.format("""
-                SELECT COUNT(*) FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE
-                WHERE TABLE_NAME = '%s' AND COLUMN_NAME = '%s'
-                """, tableName, columnName));
-            
-            return rs.next() && rs.getInt(1) > 0;
-            
-        } finally {
-            closeResources(rs, stmt);
         }
     }
     
     /**
-     * 获取表行数
+     * 从sys.partitions读取表行数（堆或聚集索引）
      */
-    private int getTableRowCount(Connection conn, String tableName) {
-        Statement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            stmt = conn.createStatement();
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName);
-            
-            if (rs.next()) {
-                return (int) rs.getLong(1);
+    private long estimateRowCount(Connection conn, String tableName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)")) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
             }
-            
-            return 0;
-            
-        } catch (SQLException e) {
-            log.warn("获取SQL Server表 {} 行数失败: {}", tableName, e.getMessage());
-            return 0;
-        } finally {
-            closeResources(rs, stmt);
         }
     }
     
     /**
      * SQL Server连接池实现
      */
-    private static class SQLServerConnectionPool {
+    private static class SQLServerConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
@@ -494,17 +549,7 @@ public class SQLServerConnector implements DatabaseConnector {
                 throw new SQLException("SQL Server连接池已关闭");
             }
             
-            String url = config.buildUrl();
-            Properties props = new Properties();
-            props.setProperty("user", config.getUsername());
-            props.setProperty("password", config.getPassword());
-            props.setProperty("encrypt", "false");
-            props.setProperty("loginTimeout", "30");
-            props.setProperty("socketTimeout", "300000");
-            props.setProperty("useUnicode", "true");
-            props.setProperty("characterEncoding", "UTF-8");
-            
-            return DriverManager.getConnection(url, props);
+            return DriverManager.getConnection(config.buildUrl(), buildConnectionProperties(config, false));
         }
         
         public void close() {
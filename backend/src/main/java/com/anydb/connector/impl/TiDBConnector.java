@@ -1,25 +1,116 @@
 package com.anydb.connector.impl;
 
+import com.anydb.config.ExportProperties;
+import com.anydb.connector.BulkExportConnector;
+import com.anydb.connector.BulkFormat;
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.ConnectorPlugin;
 import com.anydb.connector.DatabaseConfig;
-import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.DatabaseOperationException;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.ResultLimits;
+import com.anydb.connector.support.CsvWriter;
+import com.anydb.connector.support.ExplainPlans;
+import com.anydb.connector.support.ResultSetExtractor;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlStatement;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * TiDB数据库连接器实现 (与MySQL兼容)
  * 
+ * 只读浏览（表数据、表统计、只读查询）使用读连接，按连接选项设置副本读或过期读，
+ * 将工具产生的读负载从TiKV Raft leader上移走：
+ * - readMode：leader（默认）、follower、leader-and-follower、prefer-leader、
+ *   closest-replicas、closest-adaptive、learner（设置tidb_replica_read），
+ *   或stale（设置tidb_read_staleness，读取若干秒前的快照）
+ * - readStaleness：stale模式下允许的数据延迟秒数（默认5）
+ * - tiflash：true时，聚合类分析查询涉及的表均有可用TiFlash副本时，
+ *   通过tidb_isolation_read_engines将查询下推到TiFlash
+ * 
+ * 批量导出（CSV）按Region切分并行扫描：整数行句柄（_tidb_rowid或聚簇整数主键）的表
+ * 从SHOW TABLE ... REGIONS的起始键解析句柄边界，其他单列主键表用TABLESAMPLE REGIONS()
+ * 取每个Region的首行主键作为边界；相邻Region合并后每个读取线程扫描一段连续范围，
+ * 线程数受anydb.export准入限制约束。各线程经读连接读取，按块写入同一输出流（行序不保证）。
+ * 规划时取一个快照（当前TSO；stale模式为readStaleness秒前的时间点），所有线程设置同一tidb_snapshot，
+ * 导出结果是同一时间点的一致数据。库名与表名经校验并加反引号后拼入语句。
+ * 
  * @author AnyDB Team
  * @version 1.0.0
  */
-@Component
+@ConnectorPlugin(type = DatabaseType.TIDB, capabilities = {ConnectorCapability.BULK_EXPORT, ConnectorCapability.EXPLAIN})
 @Slf4j
-public class TiDBConnector implements DatabaseConnector {
+public class TiDBConnector implements BulkExportConnector, ExplainConnector {
+    
+    static final String OPTION_READ_MODE = "readMode";
+    
+    static final String OPTION_READ_STALENESS = "readStaleness";
+    
+    static final String OPTION_TIFLASH = "tiflash";
+    
+    static final String READ_MODE_STALE = "stale";
+    
+    private static final int DEFAULT_READ_STALENESS = 5;
+    
+    private static final Set<String> REPLICA_READ_MODES = Set.of(
+        "leader", "follower", "leader-and-follower", "prefer-leader",
+        "closest-replicas", "closest-adaptive", "learner");
+    
+    /**
+     * Region起始键中的行句柄：t_{tableId}_r_{handle}
+     */
+    private static final Pattern REGION_ROW_KEY = Pattern.compile("^t_\\d+_r_(-?\\d+)$");
+    
+    private static final String ROW_ID_COLUMN = "_tidb_rowid";
+    
+    private static final Set<String> INTEGER_TYPES = Set.of("tinyint", "smallint", "mediumint", "int", "bigint");
+    
+    /**
+     * 可拼入导出语句的库名与表名
+     */
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[\\p{L}\\p{N}_$]{1,64}");
+    
+    /**
+     * tidb_snapshot取值：TSO或时间点
+     */
+    private static final Pattern SNAPSHOT_PATTERN = Pattern.compile("\\d+|\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}(\\.\\d+)?");
+    
+    /**
+     * 导出线程写出块大小（字符数），写满后加锁写入共享输出流
+     */
+    private static final int EXPORT_CHUNK_SIZE = 256 * 1024;
+    
+    @Autowired(required = false)
+    private ExportProperties exportProperties;
+    
+    /**
+     * 全部并行导出共享的读取线程准入许可
+     */
+    private volatile Semaphore exportPermits;
     
     @Override
     public DatabaseType getSupportedType() {
@@ -45,6 +136,15 @@ public class TiDBConnector implements DatabaseConnector {
     
     @Override
     public QueryResult executeQuery(DatabaseConfig config, String sql) {
+        return executeQuery(config, sql, SqlLexer.analyze(sql, getSupportedType()), ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制执行SQL查询（setMaxRows多取一行判断截断，读取时计算字节预算）
+     */
+    @Override
+    public QueryResult executeQuery(DatabaseConfig config, String sql, SqlStatement statement,
+                                    ResultLimits limits) {
         Connection conn = null;
         Statement stmt = null;
         ResultSet rs = null;
@@ -52,40 +152,16 @@ public class TiDBConnector implements DatabaseConnector {
         long startTime = System.currentTimeMillis();
         
         try {
-            conn = getConnection(config);
-            stmt = conn.createStatement();
-            
-            // 检查是否是TiDB特有的SQL
-            if (sql.trim().toLowerCase().contains("explain")) {
-                return executeExplainQuery(stmt, sql);
+            boolean readOnly = statement.isReadOnly();
+            conn = readOnly ? getReadConnection(config) : getConnection(config);
+            if (readOnly) {
+                applyTiFlashEngine(config, conn, statement);
             }
-            
+            stmt = conn.createStatement();
+            ResultSetExtractor.applyLimits(stmt, limits);
             rs = stmt.executeQuery(sql);
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
-            }
-            
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
-                }
-                rows.add(row);
-            }
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
+            return ResultSetExtractor.extract(rs, startTime, limits);
             
         } catch (SQLException e) {
             throw new RuntimeException("TiDB SQL执行失败: " + e.getMessage(), e);
@@ -94,6 +170,25 @@ public class TiDBConnector implements DatabaseConnector {
         }
     }
     
+    /**
+     * 获取执行计划：EXPLAIN FORMAT = 'verbose'（含estCost）；analyze时使用EXPLAIN ANALYZE（会实际执行语句）
+     * 
+     * 与浏览查询使用同一读连接与TiFlash引擎设置，计划与实际执行路径一致。
+     */
+    @Override
+    public QueryPlan explain(DatabaseConfig config, String sql, SqlStatement statement, boolean analyze) {
+        try (Connection conn = getReadConnection(config)) {
+            applyTiFlashEngine(config, conn, statement);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery((analyze ? "EXPLAIN ANALYZE " : "EXPLAIN FORMAT = 'verbose' ") + sql)) {
+                QueryResult result = ResultSetExtractor.extract(rs, System.currentTimeMillis());
+                return ExplainPlans.fromTiDbRows(result.getColumns(), result.getRows());
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("获取TiDB执行计划失败: " + e.getMessage(), e);
+        }
+    }
+    
     @Override
     public UpdateResult executeUpdate(DatabaseConfig config, String sql) {
         Connection conn = null;
@@ -154,7 +249,7 @@ public class TiDBConnector implements DatabaseConnector {
         ResultSet rs = null;
         
         try {
-            conn = getConnection(config);
+            conn = getReadConnection(config);
             stmt = conn.createStatement();
             
             StringBuilder sql = new StringBuilder("SHOW TABLES");
@@ -199,7 +294,7 @@ public class TiDBConnector implements DatabaseConnector {
         ResultSet rs = null;
         
         try {
-            conn = getConnection(config);
+            conn = getReadConnection(config);
             stmt = conn.createStatement();
             
             // 获取表详细信息
@@ -237,7 +332,7 @@ public class TiDBConnector implements DatabaseConnector {
         long startTime = System.currentTimeMillis();
         
         try {
-            conn = getConnection(config);
+            conn = getReadConnection(config);
             stmt = conn.createStatement();
             
             StringBuilder sql = new StringBuilder("SELECT * FROM ");
@@ -258,38 +353,365 @@ public class TiDBConnector implements DatabaseConnector {
             
             rs = stmt.executeQuery(sql.toString());
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+            return ResultSetExtractor.extract(rs, startTime);
             
-            List<String> columns = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(metaData.getColumnLabel(i));
+        } catch (SQLException e) {
+            throw new RuntimeException("获取TiDB表数据失败: " + e.getMessage(), e);
+        } finally {
+            closeResources(rs, stmt, conn);
+        }
+    }
+    
+    /**
+     * 按Region并行导出表数据（仅CSV）
+     */
+    @Override
+    public long exportTable(DatabaseConfig config, String database, String tableName,
+                            BulkFormat format, OutputStream out) {
+        if (format != BulkFormat.CSV) {
+            throw new IllegalArgumentException("TiDB批量导出仅支持CSV格式");
+        }
+        String table = qualifiedTableName(database, tableName);
+        long startTime = System.currentTimeMillis();
+        
+        List<ScanRange> ranges;
+        String handleColumn;
+        List<String> columns;
+        String snapshot;
+        try (Connection conn = getReadConnection(config)) {
+            snapshot = exportSnapshot(config, conn);
+            HandleInfo handle = resolveHandle(conn, database, tableName);
+            handleColumn = handle != null ? handle.column() : null;
+            List<Object> boundaries = handle == null ? List.of()
+                : handle.integer() ? regionHandleBoundaries(conn, table) : sampledBoundaries(conn, table, handle.column());
+            ranges = planRanges(boundaries, maxWorkersPerExport());
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " LIMIT 0")) {
+                columns = ResultSetExtractor.getColumnLabels(rs.getMetaData());
             }
-            
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
-                }
-                rows.add(row);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("BULK_EXPORT_FAILED", "TiDB导出规划失败: " + e.getMessage(), "EXPORT_TABLE", e);
+        }
+        
+        int workers = acquireExportPermits(ranges.size());
+        log.info("TiDB并行导出，表: {}, 句柄列: {}, 扫描范围: {}, 读取线程: {}, 快照: {}",
+            table, handleColumn, ranges.size(), workers, snapshot);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "tidb-export-" + tableName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            writeChunk(out, columnsHeader(columns));
+            
+            AtomicInteger next = new AtomicInteger();
+            List<Future<Long>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    long rows = 0;
+                    int index;
+                    while ((index = next.getAndIncrement()) < ranges.size()) {
+                        rows += exportRange(config, snapshot, table, handleColumn, ranges.get(index), out);
+                    }
+                    return rows;
+                }));
             }
             
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            out.flush();
             
-            return result;
+            log.info("TiDB并行导出完成，表: {}, 行数: {}, 耗时: {}ms", table, total, System.currentTimeMillis() - startTime);
+            return total;
             
-        } catch (SQLException e) {
-            throw new RuntimeException("获取TiDB表数据失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("BULK_EXPORT_FAILED", "TiDB导出被中断", "EXPORT_TABLE", e);
+        } catch (ExecutionException | IOException | UncheckedIOException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new DatabaseOperationException("BULK_EXPORT_FAILED", "TiDB导出失败: " + cause.getMessage(), "EXPORT_TABLE", cause);
         } finally {
-            closeResources(rs, stmt, conn);
+            executor.shutdownNow();
+            exportPermits().release(workers);
+        }
+    }
+    
+    /**
+     * 在导出快照上扫描单个句柄范围，流式读取并按块写出
+     */
+    private long exportRange(DatabaseConfig config, String snapshot, String table, String handleColumn,
+                             ScanRange range, OutputStream out) throws SQLException {
+        try (Connection conn = getSessionConnection(config, buildExportSessionStatements(config, snapshot));
+             PreparedStatement ps = conn.prepareStatement(buildRangeSql(table, handleColumn, range),
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            int index = 1;
+            if (range.lower() != null) {
+                ps.setObject(index++, range.lower());
+            }
+            if (range.upper() != null) {
+                ps.setObject(index, range.upper());
+            }
+            // MySQL驱动逐行流式读取
+            ps.setFetchSize(Integer.MIN_VALUE);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                int columnCount = rs.getMetaData().getColumnCount();
+                StringBuilder chunk = new StringBuilder(EXPORT_CHUNK_SIZE + 1024);
+                long rows = 0;
+                while (rs.next()) {
+                    CsvWriter.appendRow(chunk, ResultSetExtractor.readRow(rs, columnCount));
+                    rows++;
+                    if (chunk.length() >= EXPORT_CHUNK_SIZE) {
+                        writeChunk(out, chunk);
+                        chunk.setLength(0);
+                    }
+                }
+                writeChunk(out, chunk);
+                return rows;
+            }
         }
     }
     
+    private static void writeChunk(OutputStream out, CharSequence chunk) {
+        if (chunk.length() == 0) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        synchronized (out) {
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    private static StringBuilder columnsHeader(List<String> columns) {
+        StringBuilder header = new StringBuilder();
+        CsvWriter.appendRow(header, columns);
+        return header;
+    }
+    
+    /**
+     * 查询行句柄：非聚簇表为_tidb_rowid，聚簇表为主键（仅单列主键可切分）；无法切分时返回null
+     */
+    private HandleInfo resolveHandle(Connection conn, String database, String tableName) throws SQLException {
+        String pkType = null;
+        List<String[]> pkColumns = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("""
+                SELECT t.TIDB_PK_TYPE, k.COLUMN_NAME, c.DATA_TYPE
+                FROM information_schema.tables t
+                LEFT JOIN information_schema.key_column_usage k
+                       ON k.TABLE_SCHEMA = t.TABLE_SCHEMA AND k.TABLE_NAME = t.TABLE_NAME AND k.CONSTRAINT_NAME = 'PRIMARY'
+                LEFT JOIN information_schema.columns c
+                       ON c.TABLE_SCHEMA = k.TABLE_SCHEMA AND c.TABLE_NAME = k.TABLE_NAME AND c.COLUMN_NAME = k.COLUMN_NAME
+                WHERE t.TABLE_SCHEMA = COALESCE(?, DATABASE()) AND t.TABLE_NAME = ?
+                """)) {
+            ps.setString(1, database != null && !database.isEmpty() ? database : null);
+            ps.setString(2, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    pkType = rs.getString(1);
+                    if (rs.getString(2) != null) {
+                        pkColumns.add(new String[] {rs.getString(2), rs.getString(3)});
+                    }
+                }
+            }
+        }
+        
+        if (!"CLUSTERED".equalsIgnoreCase(pkType)) {
+            return new HandleInfo(ROW_ID_COLUMN, true);
+        }
+        if (pkColumns.size() != 1) {
+            return null;
+        }
+        String[] pk = pkColumns.get(0);
+        return new HandleInfo(pk[0], INTEGER_TYPES.contains(pk[1].toLowerCase(Locale.ROOT)));
+    }
+    
+    /**
+     * 从Region起始键解析整数句柄边界
+     */
+    private List<Object> regionHandleBoundaries(Connection conn, String table) throws SQLException {
+        List<Object> boundaries = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW TABLE " + table + " REGIONS")) {
+            while (rs.next()) {
+                Long handle = parseRegionHandle(rs.getString("START_KEY"));
+                if (handle != null) {
+                    boundaries.add(handle);
+                }
+            }
+        }
+        boundaries.sort((a, b) -> Long.compare((Long) a, (Long) b));
+        return boundaries;
+    }
+    
+    /**
+     * TABLESAMPLE REGIONS()取每个Region首行的主键作为边界
+     */
+    private List<Object> sampledBoundaries(Connection conn, String table, String column) throws SQLException {
+        List<Object> boundaries = new ArrayList<>();
+        String quoted = quoteIdentifier(column);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + quoted + " FROM " + table
+                 + " TABLESAMPLE REGIONS() ORDER BY " + quoted)) {
+            while (rs.next()) {
+                boundaries.add(rs.getObject(1));
+            }
+        }
+        return boundaries;
+    }
+    
+    static Long parseRegionHandle(String startKey) {
+        if (startKey == null) {
+            return null;
+        }
+        Matcher matcher = REGION_ROW_KEY.matcher(startKey.trim());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : null;
+    }
+    
+    /**
+     * 将有序Region边界合并为不超过maxRanges段连续范围（首段下界、末段上界开放）
+     */
+    static List<ScanRange> planRanges(List<Object> boundaries, int maxRanges) {
+        List<Object> distinct = new ArrayList<>();
+        for (Object boundary : boundaries) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(boundary)) {
+                distinct.add(boundary);
+            }
+        }
+        
+        int ranges = Math.max(1, Math.min(distinct.size() + 1, maxRanges));
+        List<ScanRange> plan = new ArrayList<>(ranges);
+        Object lower = null;
+        for (int i = 1; i < ranges; i++) {
+            // 每段包含数量相近的Region
+            Object upper = distinct.get((int) ((long) i * (distinct.size() + 1) / ranges) - 1);
+            plan.add(new ScanRange(lower, upper));
+            lower = upper;
+        }
+        plan.add(new ScanRange(lower, null));
+        return plan;
+    }
+    
+    static String buildRangeSql(String table, String handleColumn, ScanRange range) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table);
+        if (handleColumn == null) {
+            return sql.toString();
+        }
+        String quoted = quoteIdentifier(handleColumn);
+        if (range.lower() != null) {
+            sql.append(" WHERE ").append(quoted).append(" >= ?");
+        }
+        if (range.upper() != null) {
+            sql.append(range.lower() != null ? " AND " : " WHERE ").append(quoted).append(" < ?");
+        }
+        return sql.toString();
+    }
+    
+    private static String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+    
+    /**
+     * 校验并拼接`db`.`table`（SHOW TABLE ... REGIONS与范围查询无法参数化）
+     */
+    static String qualifiedTableName(String database, String tableName) {
+        String table = quoteIdentifier(requireIdentifier(tableName, "表名"));
+        if (database != null && !database.trim().isEmpty()) {
+            return quoteIdentifier(requireIdentifier(database, "数据库名")) + "." + table;
+        }
+        return table;
+    }
+    
+    private static String requireIdentifier(String identifier, String label) {
+        if (identifier == null || !IDENTIFIER_PATTERN.matcher(identifier.trim()).matches()) {
+            throw new IllegalArgumentException(label + "无效: " + identifier);
+        }
+        return identifier.trim();
+    }
+    
+    /**
+     * 取导出快照：stale模式为readStaleness秒前的时间点（与浏览读取的过期程度一致），否则为当前TSO
+     */
+    private static String exportSnapshot(DatabaseConfig config, Connection conn) throws SQLException {
+        Integer staleness = readStaleness(config);
+        try (Statement stmt = conn.createStatement()) {
+            if (staleness != null) {
+                try (ResultSet rs = stmt.executeQuery("SELECT DATE_FORMAT(NOW(6) - INTERVAL " + staleness
+                        + " SECOND, '%Y-%m-%d %H:%i:%s.%f')")) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+            stmt.execute("START TRANSACTION");
+            try (ResultSet rs = stmt.executeQuery("SELECT @@tidb_current_ts")) {
+                rs.next();
+                return rs.getString(1);
+            } finally {
+                stmt.execute("ROLLBACK");
+            }
+        }
+    }
+    
+    /**
+     * 构建导出读取线程的会话设置语句：副本读设置加上同一tidb_snapshot（快照已体现stale模式的过期程度）
+     */
+    static List<String> buildExportSessionStatements(DatabaseConfig config, String snapshot) {
+        if (snapshot == null || !SNAPSHOT_PATTERN.matcher(snapshot).matches()) {
+            throw new IllegalStateException("无效的TiDB导出快照: " + snapshot);
+        }
+        List<String> statements = new ArrayList<>();
+        if (readStaleness(config) == null) {
+            statements.addAll(buildReadSessionStatements(config));
+        }
+        statements.add("SET SESSION tidb_snapshot = '" + snapshot + "'");
+        return statements;
+    }
+    
+    private int maxWorkersPerExport() {
+        return exportProperties != null ? Math.max(1, exportProperties.getMaxWorkersPerExport()) : 1;
+    }
+    
+    private Semaphore exportPermits() {
+        Semaphore permits = exportPermits;
+        if (permits == null) {
+            synchronized (this) {
+                if (exportPermits == null) {
+                    exportPermits = new Semaphore(exportProperties != null
+                        ? Math.max(1, exportProperties.getMaxConcurrentWorkers()) : 1);
+                }
+                permits = exportPermits;
+            }
+        }
+        return permits;
+    }
+    
+    /**
+     * 申请读取线程许可：至少等待一个，其余按当前空闲数尽量申请
+     */
+    private int acquireExportPermits(int wanted) {
+        Semaphore permits = exportPermits();
+        long timeout = exportProperties != null ? exportProperties.getAdmissionTimeout() : 30000L;
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("并行导出读取线程已达上限，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待导出准入被中断", e);
+        }
+        int acquired = 1;
+        while (acquired < wanted && permits.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+    
     @Override
     public Object createConnectionPool(DatabaseConfig config) {
         log.info("为TiDB创建连接池，配置: {}:{}", config.getHost(), config.getPort());
@@ -321,6 +743,112 @@ public class TiDBConnector implements DatabaseConnector {
         return DriverManager.getConnection(url, props);
     }
     
+    /**
+     * 获取只读浏览连接：按readMode设置副本读或过期读会话变量
+     */
+    private Connection getReadConnection(DatabaseConfig config) throws SQLException {
+        return getSessionConnection(config, buildReadSessionStatements(config));
+    }
+    
+    /**
+     * 获取连接并依次执行会话设置语句
+     */
+    private Connection getSessionConnection(DatabaseConfig config, List<String> statements) throws SQLException {
+        Connection conn = getConnection(config);
+        if (statements.isEmpty()) {
+            return conn;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : statements) {
+                stmt.execute(statement);
+            }
+            return conn;
+        } catch (SQLException e) {
+            closeConnection(conn);
+            throw e;
+        }
+    }
+    
+    /**
+     * 构建读连接的会话设置语句
+     */
+    static List<String> buildReadSessionStatements(DatabaseConfig config) {
+        Integer staleness = readStaleness(config);
+        if (staleness != null) {
+            return List.of("SET SESSION tidb_read_staleness = -" + staleness);
+        }
+        String mode = config.getOption(OPTION_READ_MODE);
+        if (mode == null || mode.isBlank()) {
+            return List.of();
+        }
+        mode = mode.trim().toLowerCase(Locale.ROOT);
+        if ("leader".equals(mode)) {
+            return List.of();
+        }
+        if (!REPLICA_READ_MODES.contains(mode)) {
+            throw new IllegalArgumentException("不支持的TiDB读取模式: " + mode
+                + "（可选" + String.join("、", new TreeSet<>(REPLICA_READ_MODES)) + "、" + READ_MODE_STALE + "）");
+        }
+        return List.of("SET SESSION tidb_replica_read = '" + mode + "'");
+    }
+    
+    /**
+     * stale模式允许的数据延迟秒数，非stale模式返回null
+     */
+    private static Integer readStaleness(DatabaseConfig config) {
+        String mode = config.getOption(OPTION_READ_MODE);
+        if (mode == null || !READ_MODE_STALE.equals(mode.trim().toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        int staleness = DEFAULT_READ_STALENESS;
+        String value = config.getOption(OPTION_READ_STALENESS);
+        if (value != null && !value.isBlank()) {
+            try {
+                staleness = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                staleness = -1;
+            }
+            if (staleness <= 0) {
+                throw new IllegalArgumentException("TiDB连接选项" + OPTION_READ_STALENESS + "必须为正整数（秒）: " + value);
+            }
+        }
+        return staleness;
+    }
+    
+    /**
+     * 分析查询下推TiFlash：仅当开启tiflash选项、语句为聚合类查询且涉及的表均有可用TiFlash副本
+     */
+    private void applyTiFlashEngine(DatabaseConfig config, Connection conn, SqlStatement statement) throws SQLException {
+        if (!Boolean.parseBoolean(config.getOption(OPTION_TIFLASH)) || !statement.isAnalytical()) {
+            return;
+        }
+        List<String> tables = statement.getTables();
+        if (tables.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement ps = conn.prepareStatement("""
+                SELECT COUNT(*) FROM information_schema.tiflash_replica
+                WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND AVAILABLE = 1
+                """)) {
+            for (String table : tables) {
+                int dot = table.indexOf('.');
+                ps.setString(1, dot > 0 ? table.substring(0, dot) : null);
+                ps.setString(2, dot > 0 ? table.substring(dot + 1) : table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET SESSION tidb_isolation_read_engines = 'tiflash,tidb'");
+        }
+        log.debug("TiDB分析查询下推TiFlash，涉及表: {}", tables);
+    }
+    
     private void closeConnection(Connection conn) {
         if (conn != null) {
             try {
@@ -343,36 +871,6 @@ public class TiDBConnector implements DatabaseConnector {
         }
     }
     
-    private QueryResult executeExplainQuery(Statement stmt, String sql) throws SQLException {
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            // 执行EXPLAIN查询获取执行计划
-            ResultSet rs = stmt.executeQuery("EXPLAIN " + sql.replaceAll("(?i)^EXPLAIN\\s+", ""));
-            
-            List<String> columns = new ArrayList<>();
-            columns.add("execution_plan");
-            
-            List<List<Object>> rows = new ArrayList<>();
-            while (rs.next()) {
-                List<Object> row = new ArrayList<>();
-                row.add(rs.getString(1)); // 执行计划
-                rows.add(row);
-            }
-            
-            QueryResult result = new QueryResult();
-            result.setColumns(columns);
-            result.setRows(rows);
-            result.setTotal(rows.size());
-            result.setExecutionTime(System.currentTimeMillis() - startTime);
-            
-            return result;
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("执行TiDB EXPLAIN查询失败: " + e.getMessage(), e);
-        }
-    }
-    
     private List<Object> getTableDetailedInfo(Connection conn, String database, String tableName) {
         Statement stmt = null;
         ResultSet rs = null;
@@ -442,7 +940,19 @@ public class TiDBConnector implements DatabaseConnector {
         }
     }
     
-    private static class TiDBConnectionPool {
+    /**
+     * 行句柄扫描范围：[lower, upper)，null表示该端开放
+     */
+    record ScanRange(Object lower, Object upper) {
+    }
+    
+    /**
+     * 行句柄列及是否为整数句柄（整数句柄可从Region键直接解析边界）
+     */
+    private record HandleInfo(String column, boolean integer) {
+    }
+    
+    private static class TiDBConnectionPool implements AutoCloseable {
         private final DatabaseConfig config;
         private volatile boolean active = true;
         
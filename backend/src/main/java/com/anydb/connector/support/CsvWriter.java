@@ -0,0 +1,57 @@
+package com.anydb.connector.support;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * CSV行编码工具（RFC 4180）
+ * 
+ * 含逗号、双引号或换行的值加双引号并转义内部双引号，null输出为空字段，
+ * 二进制值输出为Base64。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class CsvWriter {
+    
+    private CsvWriter() {
+    }
+    
+    /**
+     * 追加一行（以\n结尾）
+     */
+    public static void appendRow(StringBuilder out, List<?> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendValue(out, values.get(i));
+        }
+        out.append('\n');
+    }
+    
+    private static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof byte[] bytes ? Base64.getEncoder().encodeToString(bytes) : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(text);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,696 @@
+package com.anydb.connector.support;
+
+import com.anydb.connector.PlanNode;
+import com.anydb.connector.QueryPlan;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 执行计划归一化工具
+ *
+ * 把各数据库的原生执行计划输出转换为{@link PlanNode}树：
+ * - MySQL/MariaDB：EXPLAIN FORMAT=JSON、ANALYZE FORMAT=JSON，MySQL EXPLAIN ANALYZE的树形文本
+ * - TiDB：EXPLAIN [ANALYZE]的表格输出（按id列的树形前缀还原层级）
+ * - PostgreSQL：EXPLAIN (FORMAT JSON)
+ * - ClickHouse：EXPLAIN PLAN json = 1
+ * - Oracle：PLAN_TABLE行（按ID/PARENT_ID还原层级）
+ * - SQL Server：SHOWPLAN_XML / STATISTICS XML
+ * - MongoDB：find/aggregate的explain输出（queryPlanner、executionStats）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class ExplainPlans {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern MYSQL_TREE_LINE = Pattern.compile("^(\\s*)-> (.*)$");
+
+    private static final Pattern MYSQL_TREE_COST =
+        Pattern.compile("\\(cost=(?:[0-9.e+]+\\.\\.)?([0-9.e+]+) rows=([0-9.e+]+)\\)");
+
+    private static final Pattern MYSQL_TREE_ACTUAL =
+        Pattern.compile("\\(actual time=[0-9.e+]+\\.\\.([0-9.e+]+) rows=([0-9.e+]+) loops=(\\d+)\\)");
+
+    private static final Pattern MYSQL_TREE_OBJECT = Pattern.compile("(?:scan|lookup|search) on ([^\\s(]+)");
+
+    private static final Pattern TIDB_OPERATOR_ID = Pattern.compile("^(\\w+?)_\\d+(?:\\((\\w+)\\))?$");
+
+    private static final Pattern TIDB_TIME = Pattern.compile("(?:^|[{,\\s])time:([0-9.hmsuµn]+)");
+
+    private static final Pattern TIDB_LOOPS = Pattern.compile("loops:(\\d+)");
+
+    private static final Pattern GO_DURATION_PART = Pattern.compile("([0-9.]+)(h|ms|m|s|µs|us|ns)");
+
+    private static final Set<String> POSTGRES_MAPPED_KEYS = Set.of(
+        "Node Type", "Relation Name", "Schema", "Plan Rows", "Total Cost", "Actual Rows",
+        "Actual Total Time", "Actual Loops", "Plans");
+
+    private static final Set<String> CLICKHOUSE_MAPPED_KEYS = Set.of("Node Type", "Description", "Plans", "Indexes");
+
+    private static final Set<String> MONGO_MAPPED_KEYS = Set.of(
+        "stage", "indexName", "nReturned", "executionTimeMillisEstimate", "shardName");
+
+    private ExplainPlans() {
+    }
+
+    // ---------------------------------------------------------------- MySQL / MariaDB
+
+    /**
+     * 解析MySQL/MariaDB的EXPLAIN FORMAT=JSON或MariaDB ANALYZE FORMAT=JSON输出
+     */
+    public static QueryPlan fromMySqlJson(String json) {
+        JsonNode tree = readJson(json);
+        PlanNode root = new PlanNode("Query");
+        walkMySqlJson(tree, root);
+        QueryPlan plan = new QueryPlan(single(root), QueryPlan.FORMAT_JSON, json);
+        plan.setAnalyzed(tree.findValue("r_rows") != null);
+        return plan;
+    }
+
+    private static void walkMySqlJson(JsonNode object, PlanNode parent) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            if (value.isArray()) {
+                for (JsonNode element : value) {
+                    if (element.isObject()) {
+                        walkMySqlJson(element, parent);
+                    }
+                }
+            } else if (!value.isObject()) {
+                continue;
+            } else if (name.equals("table")) {
+                PlanNode node = mySqlTableNode(value);
+                parent.addChild(node);
+                walkMySqlJson(value, node);
+            } else if (name.equals("query_block")) {
+                PlanNode node = new PlanNode("Query block #" + value.path("select_id").asText("1"));
+                node.setEstimatedCost(number(value.path("cost_info").get("query_cost")));
+                node.setActualTimeMs(number(value.get("r_total_time_ms")));
+                parent.addChild(node);
+                walkMySqlJson(value, node);
+            } else if (value.findValue("table") != null || value.findValue("query_block") != null) {
+                PlanNode node = new PlanNode(name);
+                putScalarDetails(node, value, Set.of());
+                parent.addChild(node);
+                walkMySqlJson(value, node);
+            }
+        }
+    }
+
+    private static PlanNode mySqlTableNode(JsonNode table) {
+        String accessType = table.path("access_type").asText("");
+        PlanNode node = new PlanNode(switch (accessType) {
+            case "ALL" -> "Full table scan";
+            case "index" -> "Full index scan";
+            case "range" -> "Index range scan";
+            case "ref", "eq_ref", "ref_or_null", "fulltext" -> "Index lookup";
+            case "const", "system" -> "Single-row lookup";
+            case "" -> "Table access";
+            default -> "Table access (" + accessType + ")";
+        });
+        node.setObject(text(table.get("table_name")));
+        Double produced = number(table.get("rows_produced_per_join"));
+        Double examined = number(table.get("rows_examined_per_scan"));
+        node.setEstimatedRows(produced != null ? produced : examined != null ? examined : number(table.get("rows")));
+        Double prefixCost = number(table.path("cost_info").get("prefix_cost"));
+        node.setEstimatedCost(prefixCost != null ? prefixCost : number(table.get("cost")));
+        node.setActualRows(number(table.get("r_rows")));
+        node.setActualTimeMs(number(table.get("r_total_time_ms")));
+        Double loops = number(table.get("r_loops"));
+        node.setLoops(loops != null ? loops.longValue() : null);
+
+        node.putDetail("accessType", text(table.get("access_type")));
+        node.putDetail("key", text(table.get("key")));
+        node.putDetail("rowsExamined", examined);
+        node.putDetail("filtered", number(table.get("filtered")));
+        node.putDetail("condition", text(table.get("attached_condition")));
+        if (table.path("using_index").asBoolean(false)) {
+            node.putDetail("usingIndex", true);
+        }
+        if (table.has("possible_keys")) {
+            node.putDetail("possibleKeys", MAPPER.convertValue(table.get("possible_keys"), List.class));
+        }
+        return node;
+    }
+
+    /**
+     * 解析MySQL EXPLAIN ANALYZE / EXPLAIN FORMAT=TREE的树形文本
+     */
+    public static QueryPlan fromMySqlTree(String text) {
+        TreeBuilder tree = new TreeBuilder();
+        boolean analyzed = false;
+        for (String line : text.split("\n")) {
+            Matcher matcher = MYSQL_TREE_LINE.matcher(line);
+            if (!matcher.matches()) {
+                continue;
+            }
+            String content = matcher.group(2);
+            int end = content.length();
+            for (String marker : new String[] {"  (cost=", " (cost=", " (actual ", " (never executed)"}) {
+                int index = content.indexOf(marker);
+                if (index >= 0 && index < end) {
+                    end = index;
+                }
+            }
+            PlanNode node = new PlanNode(content.substring(0, end).trim());
+            Matcher object = MYSQL_TREE_OBJECT.matcher(node.getOperation());
+            if (object.find()) {
+                node.setObject(object.group(1));
+            }
+            Matcher cost = MYSQL_TREE_COST.matcher(content);
+            if (cost.find()) {
+                node.setEstimatedCost(Double.parseDouble(cost.group(1)));
+                node.setEstimatedRows(Double.parseDouble(cost.group(2)));
+            }
+            Matcher actual = MYSQL_TREE_ACTUAL.matcher(content);
+            if (actual.find()) {
+                analyzed = true;
+                node.setActualTimeMs(Double.parseDouble(actual.group(1)));
+                node.setActualRows(Double.parseDouble(actual.group(2)));
+                node.setLoops(Long.parseLong(actual.group(3)));
+            } else if (content.contains("(never executed)")) {
+                node.setLoops(0L);
+            }
+            tree.add(matcher.group(1).length(), node);
+        }
+        QueryPlan plan = new QueryPlan(tree.root(), QueryPlan.FORMAT_TEXT, text);
+        plan.setAnalyzed(analyzed);
+        return plan;
+    }
+
+    // ---------------------------------------------------------------- TiDB
+
+    /**
+     * 解析TiDB EXPLAIN [ANALYZE] [FORMAT = 'verbose']的表格输出
+     *
+     * @param columns 列名（id、estRows、estCost、actRows、task、access object、execution info、operator info等）
+     */
+    public static QueryPlan fromTiDbRows(List<String> columns, List<List<Object>> rows) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            index.put(columns.get(i).toLowerCase(), i);
+        }
+        TreeBuilder tree = new TreeBuilder();
+        StringBuilder raw = new StringBuilder(String.join("\t", columns)).append('\n');
+        boolean analyzed = index.containsKey("actrows");
+        for (List<Object> row : rows) {
+            for (int i = 0; i < row.size(); i++) {
+                raw.append(i > 0 ? "\t" : "").append(row.get(i) != null ? row.get(i) : "");
+            }
+            raw.append('\n');
+
+            String id = cell(row, index, "id");
+            if (id == null) {
+                continue;
+            }
+            int depth = 0;
+            while (depth < id.length() && " │├└─".indexOf(id.charAt(depth)) >= 0) {
+                depth++;
+            }
+            String operatorId = id.substring(depth);
+            PlanNode node = new PlanNode(operatorId);
+            Matcher matcher = TIDB_OPERATOR_ID.matcher(operatorId);
+            if (matcher.matches()) {
+                node.setOperation(matcher.group(1));
+                node.putDetail("id", operatorId);
+                node.putDetail("role", matcher.group(2));
+            }
+            node.setObject(emptyToNull(cell(row, index, "access object")));
+            node.setEstimatedRows(parseDouble(cell(row, index, "estrows")));
+            node.setEstimatedCost(parseDouble(cell(row, index, "estcost")));
+            node.setActualRows(parseDouble(cell(row, index, "actrows")));
+            node.putDetail("task", emptyToNull(cell(row, index, "task")));
+            node.putDetail("operatorInfo", emptyToNull(cell(row, index, "operator info")));
+
+            String executionInfo = emptyToNull(cell(row, index, "execution info"));
+            if (executionInfo != null) {
+                node.putDetail("executionInfo", executionInfo);
+                Matcher time = TIDB_TIME.matcher(executionInfo);
+                if (time.find()) {
+                    node.setActualTimeMs(parseGoDuration(time.group(1)));
+                }
+                Matcher loops = TIDB_LOOPS.matcher(executionInfo);
+                if (loops.find()) {
+                    node.setLoops(Long.parseLong(loops.group(1)));
+                }
+            }
+            node.putDetail("memory", emptyToNull(cell(row, index, "memory")));
+            node.putDetail("disk", emptyToNull(cell(row, index, "disk")));
+            tree.add(depth, node);
+        }
+        QueryPlan plan = new QueryPlan(tree.root(), QueryPlan.FORMAT_TEXT, raw.toString());
+        plan.setAnalyzed(analyzed);
+        return plan;
+    }
+
+    // ---------------------------------------------------------------- PostgreSQL
+
+    /**
+     * 解析PostgreSQL EXPLAIN (FORMAT JSON[, ANALYZE])输出
+     */
+    public static QueryPlan fromPostgresJson(String json) {
+        JsonNode tree = readJson(json);
+        JsonNode top = tree.isArray() ? tree.path(0) : tree;
+        QueryPlan plan = new QueryPlan(postgresNode(top.path("Plan")), QueryPlan.FORMAT_JSON, json);
+        plan.setPlanningTimeMs(number(top.get("Planning Time")));
+        plan.setExecutionTimeMs(number(top.get("Execution Time")));
+        plan.setAnalyzed(top.has("Execution Time"));
+        return plan;
+    }
+
+    private static PlanNode postgresNode(JsonNode plan) {
+        PlanNode node = new PlanNode(plan.path("Node Type").asText("Plan"));
+        String relation = text(plan.get("Relation Name"));
+        String schema = text(plan.get("Schema"));
+        node.setObject(relation != null && schema != null ? schema + "." + relation : relation);
+        node.setEstimatedRows(number(plan.get("Plan Rows")));
+        node.setEstimatedCost(number(plan.get("Total Cost")));
+        node.setActualRows(number(plan.get("Actual Rows")));
+        node.setActualTimeMs(number(plan.get("Actual Total Time")));
+        Double loops = number(plan.get("Actual Loops"));
+        node.setLoops(loops != null ? loops.longValue() : null);
+        putScalarDetails(node, plan, POSTGRES_MAPPED_KEYS);
+        for (JsonNode child : plan.path("Plans")) {
+            node.addChild(postgresNode(child));
+        }
+        return node;
+    }
+
+    // ---------------------------------------------------------------- ClickHouse
+
+    /**
+     * 解析ClickHouse EXPLAIN PLAN json = 1输出
+     */
+    public static QueryPlan fromClickHouseJson(String json) {
+        JsonNode tree = readJson(json);
+        JsonNode top = tree.isArray() ? tree.path(0) : tree;
+        return new QueryPlan(clickHouseNode(top.path("Plan")), QueryPlan.FORMAT_JSON, json);
+    }
+
+    private static PlanNode clickHouseNode(JsonNode plan) {
+        String type = plan.path("Node Type").asText("Plan");
+        PlanNode node = new PlanNode(type);
+        String description = text(plan.get("Description"));
+        if (type.startsWith("ReadFrom") && description != null) {
+            node.setObject(description);
+        } else {
+            node.putDetail("description", description);
+        }
+        if (plan.has("Indexes")) {
+            node.putDetail("indexes", MAPPER.convertValue(plan.get("Indexes"), List.class));
+        }
+        putScalarDetails(node, plan, CLICKHOUSE_MAPPED_KEYS);
+        for (JsonNode child : plan.path("Plans")) {
+            node.addChild(clickHouseNode(child));
+        }
+        return node;
+    }
+
+    // ---------------------------------------------------------------- MongoDB
+
+    /**
+     * 解析MongoDB explain输出（JSON）
+     *
+     * find与下推到查询层的聚合为queryPlanner.winningPlan（executionStats时为executionStats.executionStages）阶段树；
+     * 聚合管道的各阶段按顺序串成一条链，$cursor阶段展开为其查询计划；
+     * 分片集群的各分片计划作为合并节点的子节点（明细shard为分片名）。MongoDB不提供估算行数与代价。
+     */
+    public static QueryPlan fromMongoExplain(String json) {
+        JsonNode tree = readJson(json);
+        QueryPlan plan = new QueryPlan(mongoExplain(tree), QueryPlan.FORMAT_JSON, json);
+        plan.setAnalyzed(tree.findValue("executionStats") != null);
+        Double executionTime = number(tree.path("executionStats").get("executionTimeMillis"));
+        plan.setExecutionTimeMs(executionTime != null || !plan.isAnalyzed() ? executionTime
+            : plan.getRoot().getActualTimeMs());
+        return plan;
+    }
+
+    private static PlanNode mongoExplain(JsonNode explain) {
+        if (explain.path("stages").isArray()) {
+            PlanNode previous = null;
+            for (JsonNode element : explain.get("stages")) {
+                String name = element.fieldNames().hasNext() ? element.fieldNames().next() : "Stage";
+                PlanNode node;
+                if ("$cursor".equals(name)) {
+                    node = mongoQuery(element.get(name));
+                } else {
+                    node = new PlanNode(name);
+                    node.setActualRows(number(element.get("nReturned")));
+                    node.setActualTimeMs(number(element.get("executionTimeMillisEstimate")));
+                    node.putDetail("spec", element.get(name).toString());
+                }
+                if (previous != null) {
+                    node.addChild(previous);
+                }
+                previous = node;
+            }
+            return previous != null ? previous : new PlanNode("Pipeline");
+        }
+        if (explain.path("shards").isObject()) {
+            PlanNode root = new PlanNode(explain.path("mergeType").asText("SHARD_MERGE"));
+            Iterator<Map.Entry<String, JsonNode>> shards = explain.get("shards").fields();
+            while (shards.hasNext()) {
+                Map.Entry<String, JsonNode> shard = shards.next();
+                PlanNode child = mongoExplain(shard.getValue());
+                child.putDetail("shard", shard.getKey());
+                root.addChild(child);
+            }
+            return root;
+        }
+        return mongoQuery(explain);
+    }
+
+    private static PlanNode mongoQuery(JsonNode explain) {
+        String namespace = text(explain.path("queryPlanner").get("namespace"));
+        JsonNode stages = explain.path("executionStats").get("executionStages");
+        if (stages == null) {
+            stages = explain.path("queryPlanner").path("winningPlan");
+        }
+        return mongoStage(stages, namespace);
+    }
+
+    private static PlanNode mongoStage(JsonNode stage, String namespace) {
+        if (stage.has("queryPlan")) {
+            // 基于槽位的执行引擎（SBE）把阶段树放在queryPlan下
+            stage = stage.get("queryPlan");
+        }
+        String operation = stage.path("stage").asText("Plan");
+        PlanNode node = new PlanNode(operation);
+        String indexName = text(stage.get("indexName"));
+        node.setObject(indexName != null ? indexName : "COLLSCAN".equals(operation) ? namespace : null);
+        node.setActualRows(number(stage.get("nReturned")));
+        node.setActualTimeMs(number(stage.get("executionTimeMillisEstimate")));
+        putScalarDetails(node, stage, MONGO_MAPPED_KEYS);
+        node.putDetail("filter", stage.has("filter") ? stage.get("filter").toString() : null);
+        node.putDetail("keyPattern", stage.has("keyPattern") ? stage.get("keyPattern").toString() : null);
+        if (stage.has("inputStage")) {
+            node.addChild(mongoStage(stage.get("inputStage"), namespace));
+        }
+        for (JsonNode input : stage.path("inputStages")) {
+            node.addChild(mongoStage(input, namespace));
+        }
+        for (JsonNode shard : stage.path("shards")) {
+            JsonNode shardStages = shard.has("executionStages") ? shard.get("executionStages") : shard.path("winningPlan");
+            PlanNode child = mongoStage(shardStages, namespace);
+            child.putDetail("shard", text(shard.get("shardName")));
+            node.addChild(child);
+        }
+        return node;
+    }
+
+    // ---------------------------------------------------------------- Oracle
+
+    /**
+     * 由Oracle PLAN_TABLE行构建计划树
+     *
+     * @param rows 按ID排序的行，列名大写（ID、PARENT_ID、OPERATION、OPTIONS、OBJECT_OWNER、
+     *             OBJECT_NAME、CARDINALITY、COST、BYTES、ACCESS_PREDICATES、FILTER_PREDICATES）
+     * @param display DBMS_XPLAN.DISPLAY的文本输出
+     */
+    public static QueryPlan fromOraclePlanTable(List<Map<String, Object>> rows, String display) {
+        Map<Long, PlanNode> nodes = new HashMap<>();
+        PlanNode root = null;
+        for (Map<String, Object> row : rows) {
+            String operation = String.valueOf(row.get("OPERATION"));
+            Object options = row.get("OPTIONS");
+            PlanNode node = new PlanNode(options != null ? operation + " " + options : operation);
+            Object owner = row.get("OBJECT_OWNER");
+            Object name = row.get("OBJECT_NAME");
+            if (name != null) {
+                node.setObject(owner != null ? owner + "." + name : name.toString());
+            }
+            node.setEstimatedRows(number(row.get("CARDINALITY")));
+            node.setEstimatedCost(number(row.get("COST")));
+            node.putDetail("bytes", number(row.get("BYTES")));
+            node.putDetail("accessPredicates", row.get("ACCESS_PREDICATES"));
+            node.putDetail("filterPredicates", row.get("FILTER_PREDICATES"));
+
+            Double id = number(row.get("ID"));
+            Double parentId = number(row.get("PARENT_ID"));
+            if (id != null) {
+                nodes.put(id.longValue(), node);
+            }
+            PlanNode parent = parentId != null ? nodes.get(parentId.longValue()) : null;
+            if (parent != null) {
+                parent.addChild(node);
+            } else if (root == null) {
+                root = node;
+            }
+        }
+        return new QueryPlan(root, QueryPlan.FORMAT_TEXT, display);
+    }
+
+    // ---------------------------------------------------------------- SQL Server
+
+    /**
+     * 解析SQL Server SHOWPLAN_XML / STATISTICS XML输出（后者包含实际行数与耗时）
+     */
+    public static QueryPlan fromShowplanXml(String xml) {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setExpandEntityReferences(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            // 错误通过异常返回，不输出到标准错误
+            builder.setErrorHandler(new DefaultHandler());
+            document = builder.parse(new InputSource(new StringReader(xml)));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("执行计划XML解析失败: " + e.getMessage(), e);
+        }
+
+        NodeList statements = document.getElementsByTagNameNS("*", "StmtSimple");
+        PlanNode root = new PlanNode("Batch");
+        boolean[] analyzed = new boolean[1];
+        for (int i = 0; i < statements.getLength(); i++) {
+            Element statement = (Element) statements.item(i);
+            PlanNode node = new PlanNode(attribute(statement, "StatementType", "Statement"));
+            node.setEstimatedRows(number(attribute(statement, "StatementEstRows", null)));
+            node.setEstimatedCost(number(attribute(statement, "StatementSubTreeCost", null)));
+            root.addChild(node);
+            walkShowplan(statement, node, analyzed);
+        }
+
+        QueryPlan plan = new QueryPlan(single(root), QueryPlan.FORMAT_XML, xml);
+        plan.setAnalyzed(analyzed[0]);
+        NodeList timeStats = document.getElementsByTagNameNS("*", "QueryTimeStats");
+        if (timeStats.getLength() > 0) {
+            plan.setExecutionTimeMs(number(attribute((Element) timeStats.item(0), "ElapsedTime", null)));
+        }
+        return plan;
+    }
+
+    private static void walkShowplan(Element element, PlanNode parent, boolean[] analyzed) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof Element childElement)) {
+                continue;
+            }
+            switch (childElement.getLocalName()) {
+                case "RelOp" -> {
+                    PlanNode node = new PlanNode(attribute(childElement, "PhysicalOp", "RelOp"));
+                    String logicalOp = attribute(childElement, "LogicalOp", null);
+                    if (logicalOp != null && !logicalOp.equals(node.getOperation())) {
+                        node.putDetail("logicalOp", logicalOp);
+                    }
+                    node.setEstimatedRows(number(attribute(childElement, "EstimateRows", null)));
+                    node.setEstimatedCost(number(attribute(childElement, "EstimatedTotalSubtreeCost", null)));
+                    parent.addChild(node);
+                    walkShowplan(childElement, node, analyzed);
+                }
+                case "Object" -> {
+                    if (parent.getObject() == null) {
+                        String table = stripBrackets(attribute(childElement, "Table", null));
+                        String schema = stripBrackets(attribute(childElement, "Schema", null));
+                        parent.setObject(table != null && schema != null ? schema + "." + table : table);
+                        parent.putDetail("index", stripBrackets(attribute(childElement, "Index", null)));
+                    }
+                }
+                case "RunTimeCountersPerThread" -> {
+                    analyzed[0] = true;
+                    Double rows = number(attribute(childElement, "ActualRows", null));
+                    Double elapsed = number(attribute(childElement, "ActualElapsedms", null));
+                    Double executions = number(attribute(childElement, "ActualExecutions", null));
+                    if (rows != null) {
+                        parent.setActualRows((parent.getActualRows() != null ? parent.getActualRows() : 0) + rows);
+                    }
+                    if (elapsed != null && (parent.getActualTimeMs() == null || elapsed > parent.getActualTimeMs())) {
+                        parent.setActualTimeMs(elapsed);
+                    }
+                    if (executions != null) {
+                        parent.setLoops((parent.getLoops() != null ? parent.getLoops() : 0) + executions.longValue());
+                    }
+                }
+                default -> walkShowplan(childElement, parent, analyzed);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 通用
+
+    /**
+     * 按缩进深度组装节点：深度大于栈顶节点的为其子节点
+     */
+    private static final class TreeBuilder {
+
+        private final Deque<PlanNode> nodes = new ArrayDeque<>();
+
+        private final Deque<Integer> depths = new ArrayDeque<>();
+
+        private PlanNode root;
+
+        void add(int depth, PlanNode node) {
+            while (!depths.isEmpty() && depths.peek() >= depth) {
+                depths.pop();
+                nodes.pop();
+            }
+            if (nodes.isEmpty()) {
+                if (root == null) {
+                    root = node;
+                } else {
+                    // 多个顶层节点时挂到虚拟根节点下
+                    if (!"Plan".equals(root.getOperation()) || root.getEstimatedRows() != null) {
+                        PlanNode wrapper = new PlanNode("Plan");
+                        wrapper.addChild(root);
+                        root = wrapper;
+                    }
+                    root.addChild(node);
+                }
+            } else {
+                nodes.peek().addChild(node);
+            }
+            nodes.push(node);
+            depths.push(depth);
+        }
+
+        PlanNode root() {
+            return root;
+        }
+    }
+
+    private static PlanNode single(PlanNode root) {
+        return root.getChildren().size() == 1 ? root.getChildren().get(0) : root;
+    }
+
+    private static void putScalarDetails(PlanNode node, JsonNode object, Set<String> excluded) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (excluded.contains(field.getKey()) || value.isContainerNode() || value.isNull()) {
+                continue;
+            }
+            node.putDetail(field.getKey(), value.isNumber() ? value.numberValue()
+                : value.isBoolean() ? (Object) value.booleanValue() : value.asText());
+        }
+    }
+
+    private static JsonNode readJson(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("执行计划JSON解析失败: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String cell(List<Object> row, Map<String, Integer> index, String column) {
+        Integer i = index.get(column);
+        if (i == null || i >= row.size() || row.get(i) == null) {
+            return null;
+        }
+        return row.get(i).toString();
+    }
+
+    private static String text(JsonNode value) {
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Double number(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        return value.isNumber() ? value.doubleValue() : parseDouble(value.asText());
+    }
+
+    private static Double number(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        return value != null ? parseDouble(value.toString()) : null;
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析Go时长文本（如1.5ms、2m3.1s、850µs），返回毫秒
+     */
+    static Double parseGoDuration(String value) {
+        Matcher matcher = GO_DURATION_PART.matcher(value);
+        double millis = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1000;
+                case "ms" -> amount;
+                case "µs", "us" -> amount / 1000;
+                default -> amount / 1_000_000;
+            };
+        }
+        return matched ? millis : null;
+    }
+
+    private static String attribute(Element element, String name, String defaultValue) {
+        String value = element.getAttribute(name);
+        return value.isEmpty() ? defaultValue : value;
+    }
+
+    private static String stripBrackets(String value) {
+        if (value != null && value.length() >= 2 && value.startsWith("[") && value.endsWith("]")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
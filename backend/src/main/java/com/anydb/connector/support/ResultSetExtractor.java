@@ -0,0 +1,137 @@
+package com.anydb.connector.support;
+
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JDBC结果集提取工具
+ * 
+ * 各JDBC连接器共用的结果集转换逻辑，行列表按列数预分配容量。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class ResultSetExtractor {
+    
+    private ResultSetExtractor() {
+    }
+    
+    /**
+     * 读取结果集全部数据
+     * 
+     * @param rs 结果集
+     * @param startTime 开始时间
+     * @return 查询结果
+     * @throws SQLException SQL异常
+     */
+    public static QueryResult extract(ResultSet rs, long startTime) throws SQLException {
+        return extract(rs, startTime, ResultLimits.NONE);
+    }
+    
+    /**
+     * 按结果集限制读取：先跳过skipRows行，读满行数上限或超过字节预算时停止并标记截断
+     * 
+     * @param rs 结果集（建议已按{@link ResultLimits#getFetchLimit()}设置setMaxRows）
+     * @param startTime 开始时间
+     * @param limits 结果集限制
+     * @return 查询结果
+     * @throws SQLException SQL异常
+     */
+    public static QueryResult extract(ResultSet rs, long startTime, ResultLimits limits) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        
+        ResultLimits.Collector collector = limits.collector();
+        while (rs.next()) {
+            if (!collector.skip() && !collector.offer(readRow(rs, columnCount))) {
+                break;
+            }
+        }
+        
+        QueryResult result = new QueryResult();
+        result.setColumns(getColumnLabels(metaData));
+        collector.fill(result);
+        result.setExecutionTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+    
+    /**
+     * 按结果集限制设置语句：行数上限（多取一行判断截断）与超时
+     */
+    public static void applyLimits(Statement stmt, ResultLimits limits) throws SQLException {
+        if (limits.getFetchLimit() > 0) {
+            stmt.setMaxRows(limits.getFetchLimit());
+        }
+        if (limits.getQueryTimeoutSeconds() > 0) {
+            stmt.setQueryTimeout(limits.getQueryTimeoutSeconds());
+        }
+    }
+    
+    /**
+     * 流式读取结果集，每满一批推送一次（驱动需已按批大小设置fetchSize）
+     * 
+     * 接收端取消后停止读取，由调用方负责取消语句和关闭资源。
+     * 
+     * @return 推送的总行数
+     */
+    public static long stream(ResultSet rs, int batchSize, QueryStreamSink sink, long startTime)
+            throws SQLException, InterruptedException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        sink.onColumns(getColumnLabels(metaData));
+        
+        long rowsRead = 0;
+        List<List<Object>> batch = new ArrayList<>(batchSize);
+        while (!sink.isCancelled() && rs.next()) {
+            batch.add(readRow(rs, columnCount));
+            if (batch.size() == batchSize) {
+                rowsRead += flush(batch, sink, rowsRead, startTime);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty() && !sink.isCancelled()) {
+            rowsRead += flush(batch, sink, rowsRead, startTime);
+        }
+        return rowsRead;
+    }
+    
+    private static int flush(List<List<Object>> batch, QueryStreamSink sink, long rowsRead, long startTime)
+            throws InterruptedException {
+        sink.onRows(batch);
+        sink.onProgress(new QueryProgress(rowsRead + batch.size(), System.currentTimeMillis() - startTime));
+        return batch.size();
+    }
+    
+    /**
+     * 读取列标签
+     */
+    public static List<String> getColumnLabels(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        return columns;
+    }
+    
+    /**
+     * 读取当前行
+     */
+    public static List<Object> readRow(ResultSet rs, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return Arrays.asList(values);
+    }
+}
@@ -0,0 +1,52 @@
+package com.anydb.connector.support;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * 表数据预览采样比例计算
+ * 
+ * 按统计行数估算采样百分比，使采样结果约为页大小的{@link #OVERSAMPLING}倍，
+ * 抵消块级采样的不均匀；表足够小（或没有统计信息）时不采样，直接读取第一页。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class TableSampling {
+    
+    /**
+     * 过采样倍数
+     */
+    public static final int OVERSAMPLING = 10;
+    
+    /**
+     * 最小采样百分比（Oracle SAMPLE下限为0.000001）
+     */
+    private static final double MIN_PERCENT = 0.0001;
+    
+    private TableSampling() {
+    }
+    
+    /**
+     * 计算采样百分比
+     * 
+     * @param estimatedRows 统计行数，未知时传0或负数
+     * @param size 页大小
+     * @return 采样百分比，范围(0, 100)；不需要采样时返回0
+     */
+    public static double percent(long estimatedRows, int size) {
+        long wanted = (long) size * OVERSAMPLING;
+        if (estimatedRows <= 0 || estimatedRows <= wanted) {
+            return 0;
+        }
+        double percent = wanted * 100.0 / estimatedRows;
+        return Math.max(percent, MIN_PERCENT);
+    }
+    
+    /**
+     * 格式化为SQL字面量（保留4位有效数字，不使用科学计数法）
+     */
+    public static String format(double value) {
+        return new BigDecimal(value).round(new MathContext(4)).stripTrailingZeros().toPlainString();
+    }
+}
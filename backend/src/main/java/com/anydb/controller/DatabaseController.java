@@ -1,17 +1,28 @@
 package com.anydb.controller;
 
+import com.anydb.connector.BulkFormat;
+import com.anydb.connector.ConnectorCapability;
 import com.anydb.connector.DatabaseConfig;
 import com.anydb.connector.DatabaseType;
+import com.anydb.service.DatabaseConfigService;
 import com.anydb.service.DatabaseService;
+import com.anydb.service.QueryGuardException;
+import com.anydb.service.ResultSessionService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 数据库管理控制器
@@ -34,6 +45,12 @@ public class DatabaseController {
     @Autowired
     private DatabaseService databaseService;
     
+    @Autowired
+    private DatabaseConfigService databaseConfigService;
+    
+    @Autowired
+    private ResultSessionService resultSessionService;
+    
     /**
      * 获取支持的数据库类型列表
      */
@@ -44,6 +61,14 @@ public class DatabaseController {
         return ResponseEntity.ok(types);
     }
     
+    /**
+     * 获取各数据库类型连接器声明的能力
+     */
+    @GetMapping("/capabilities")
+    public ResponseEntity<Map<DatabaseType, Set<ConnectorCapability>>> getConnectorCapabilities() {
+        return ResponseEntity.ok(databaseService.getConnectorCapabilities());
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("API is working!");
@@ -75,6 +100,126 @@ public class DatabaseController {
         }
     }
     
+    /**
+     * 获取数据库配置列表
+     */
+    @GetMapping("/configs")
+    public ResponseEntity<Object> listConfigs() {
+        try {
+            List<DatabaseConfig> configs = databaseConfigService.listConfigs().stream()
+                .map(this::maskPassword)
+                .toList();
+            log.info("获取数据库配置列表，数量: {}", configs.size());
+            return ResponseEntity.ok(configs);
+        } catch (Exception e) {
+            log.error("获取数据库配置列表失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取数据库配置列表失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 获取数据库配置
+     */
+    @GetMapping("/configs/{configId}")
+    public ResponseEntity<Object> getConfig(@PathVariable Long configId) {
+        try {
+            return ResponseEntity.ok(databaseConfigService.getConfigForEdit(configId));
+        } catch (Exception e) {
+            log.error("获取数据库配置失败，配置ID: {}", configId, e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取数据库配置失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 新增数据库配置
+     */
+    @PostMapping("/configs")
+    public ResponseEntity<Map<String, Object>> createConfig(@RequestBody DatabaseConfig config) {
+        try {
+            log.info("新增数据库配置: {} - {}", config.getType(), config.getHost());
+            
+            DatabaseConfig saved = databaseConfigService.createConfig(config);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "配置保存成功");
+            result.put("config", maskPassword(saved));
+            
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("新增数据库配置失败", e);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "配置保存失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(result);
+        }
+    }
+    
+    /**
+     * 更新数据库配置
+     */
+    @PutMapping("/configs/{configId}")
+    public ResponseEntity<Map<String, Object>> updateConfig(
+            @PathVariable Long configId,
+            @RequestBody DatabaseConfig config) {
+        try {
+            log.info("更新数据库配置，配置ID: {}", configId);
+            
+            DatabaseConfig saved = databaseConfigService.updateConfig(configId, config);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "配置更新成功");
+            result.put("config", maskPassword(saved));
+            
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("更新数据库配置失败，配置ID: {}", configId, e);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "配置更新失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(result);
+        }
+    }
+    
+    /**
+     * 删除数据库配置
+     */
+    @DeleteMapping("/configs/{configId}")
+    public ResponseEntity<Map<String, Object>> deleteConfig(@PathVariable Long configId) {
+        try {
+            log.info("删除数据库配置，配置ID: {}", configId);
+            
+            databaseConfigService.deleteConfig(configId);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "配置删除成功");
+            
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("删除数据库配置失败，配置ID: {}", configId, e);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "配置删除失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(result);
+        }
+    }
+    
     /**
      * 创建数据库连接池（按需）
      */
@@ -150,6 +295,9 @@ public class DatabaseController {
     
     /**
      * 执行SQL查询
+     * 
+     * 估算扫描量超过数据源阈值时返回error与guard（估算值、阈值、处置方式），
+     * confirmable为true时可带confirm=true重新提交。
      */
     @PostMapping("/{configId}/execute-query")
     public ResponseEntity<Object> executeQuery(
@@ -160,12 +308,15 @@ public class DatabaseController {
             if (sql == null || sql.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "SQL语句不能为空"));
             }
+            boolean confirmed = Boolean.parseBoolean(request.get("confirm"));
             
             log.info("执行SQL查询，配置ID: {}, SQL: {}", configId, sql);
             
-            var result = databaseService.executeQuery(configId, sql);
+            var result = databaseService.executeQuery(configId, sql, confirmed, request.get("continuation"));
             
             return ResponseEntity.ok(result);
+        } catch (QueryGuardException e) {
+            return guardError(configId, e);
         } catch (Exception e) {
             log.error("执行SQL查询失败", e);
             
@@ -176,6 +327,134 @@ public class DatabaseController {
         }
     }
     
+    /**
+     * 执行查询并完整保存结果（请求体：sql，confirm可选），返回结果ID与概要，之后按窗口读取
+     * 
+     * 只接受只读查询；代价检查拦截时的返回与执行SQL查询相同。
+     */
+    @PostMapping("/{configId}/spooled-results")
+    public ResponseEntity<Object> spoolQuery(
+            @PathVariable Long configId, 
+            @RequestBody Map<String, String> request) {
+        try {
+            String sql = request.get("sql");
+            if (sql == null || sql.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "SQL语句不能为空"));
+            }
+            
+            boolean confirmed = Boolean.parseBoolean(request.get("confirm"));
+            
+            log.info("执行并保存查询结果，配置ID: {}", configId);
+            
+            return ResponseEntity.ok(databaseService.spoolQuery(configId, sql, confirmed).toMap());
+        } catch (QueryGuardException e) {
+            return guardError(configId, e);
+        } catch (Exception e) {
+            log.error("执行并保存查询结果失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "SQL执行失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 读取已保存结果的窗口
+     */
+    @GetMapping("/spooled-results/{resultId}/rows")
+    public ResponseEntity<Object> getSpooledRows(
+            @PathVariable String resultId,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(required = false, defaultValue = "ASC") String orderDirection) {
+        try {
+            return ResponseEntity.ok(databaseService.getSpooledRows(resultId, offset, limit, orderBy, orderDirection));
+        } catch (Exception e) {
+            log.error("读取查询结果失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "读取查询结果失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 删除已保存的结果
+     */
+    @DeleteMapping("/spooled-results/{resultId}")
+    public ResponseEntity<Object> removeSpooledResult(@PathVariable String resultId) {
+        databaseService.removeSpooledResult(resultId);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+    
+    /**
+     * 打开结果会话（请求体：sql，windowSize与confirm可选），返回会话ID与第一个窗口
+     * 
+     * 只接受只读查询；代价检查拦截时的返回与执行SQL查询相同。
+     */
+    @PostMapping("/{configId}/result-sessions")
+    public ResponseEntity<Object> openResultSession(
+            @PathVariable Long configId, 
+            @RequestBody Map<String, String> request) {
+        try {
+            String sql = request.get("sql");
+            if (sql == null || sql.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "SQL语句不能为空"));
+            }
+            String windowSize = request.get("windowSize");
+            int size = windowSize != null && !windowSize.isBlank() ? Integer.parseInt(windowSize.trim()) : 100;
+            
+            boolean confirmed = Boolean.parseBoolean(request.get("confirm"));
+            
+            log.info("打开结果会话，配置ID: {}", configId);
+            
+            return ResponseEntity.ok(resultSessionService.open(configId, sql, size, confirmed));
+        } catch (QueryGuardException e) {
+            return guardError(configId, e);
+        } catch (Exception e) {
+            log.error("打开结果会话失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "SQL执行失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 读取结果会话的窗口（按原始顺序时等待窗口内的行到达）
+     */
+    @GetMapping("/result-sessions/{sessionId}/rows")
+    public ResponseEntity<Object> fetchResultWindow(
+            @PathVariable String sessionId,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(required = false, defaultValue = "ASC") String orderDirection) {
+        try {
+            return ResponseEntity.ok(resultSessionService.fetch(sessionId, offset, limit, orderBy, orderDirection));
+        } catch (Exception e) {
+            log.error("读取结果会话失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "读取结果会话失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 关闭结果会话
+     */
+    @DeleteMapping("/result-sessions/{sessionId}")
+    public ResponseEntity<Object> closeResultSession(@PathVariable String sessionId) {
+        resultSessionService.close(sessionId);
+        return ResponseEntity.ok(Map.of("success", true));
+    }
+    
     /**
      * 执行SQL更新
      */
@@ -204,6 +483,33 @@ public class DatabaseController {
         }
     }
     
+    /**
+     * 获取执行计划（请求体：sql，analyze可选，为true时实际执行只读语句）
+     */
+    @PostMapping("/{configId}/explain")
+    public ResponseEntity<Object> explain(
+            @PathVariable Long configId, 
+            @RequestBody Map<String, Object> request) {
+        try {
+            Object sql = request.get("sql");
+            if (sql == null || sql.toString().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "SQL语句不能为空"));
+            }
+            boolean analyze = Boolean.parseBoolean(String.valueOf(request.get("analyze")));
+            
+            log.info("获取执行计划，配置ID: {}, analyze: {}", configId, analyze);
+            
+            return ResponseEntity.ok(databaseService.explain(configId, sql.toString(), analyze));
+        } catch (Exception e) {
+            log.error("获取执行计划失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取执行计划失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
     /**
      * 获取数据库列表
      */
@@ -274,6 +580,8 @@ public class DatabaseController {
     
     /**
      * 获取表数据（分页）
+     * 
+     * preview=true时忽略page/orderBy，使用数据库原生采样返回一页预览数据
      */
     @GetMapping("/{configId}/table-data")
     public ResponseEntity<Object> getTableData(
@@ -283,8 +591,14 @@ public class DatabaseController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(required = false) String orderBy,
-            @RequestParam(required = false, defaultValue = "ASC") String orderDirection) {
+            @RequestParam(required = false, defaultValue = "ASC") String orderDirection,
+            @RequestParam(defaultValue = "false") boolean preview) {
         try {
+            if (preview) {
+                log.info("预览表数据，配置ID: {}, 数据库: {}, 表: {}, 行数: {}", configId, database, tableName, size);
+                return ResponseEntity.ok(databaseService.previewTableData(configId, database, tableName, size));
+            }
+            
             log.info("获取表数据，配置ID: {}, 数据库: {}, 表: {}, 页码: {}, 每页: {}", 
                     configId, database, tableName, page, size);
             
@@ -301,4 +615,183 @@ public class DatabaseController {
             return ResponseEntity.ok(error);
         }
     }
+    
+    /**
+     * 批量导出表数据（PostgreSQL COPY TO STDOUT、TiDB按Region并行扫描）
+     * 
+     * 数据由驱动直接写入响应体，不在内存中缓冲；导出开始前校验能力与参数，
+     * 开始写出后发生的错误只能中断响应并记录日志
+     */
+    @GetMapping("/{configId}/export")
+    public ResponseEntity<?> exportTable(
+            @PathVariable Long configId,
+            @RequestParam(required = false) String database,
+            @RequestParam String tableName,
+            @RequestParam(defaultValue = "csv") String format) {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.fromName(format);
+            if (!databaseService.supportsCapability(configId, ConnectorCapability.BULK_EXPORT)) {
+                throw new IllegalStateException("该数据库不支持批量导出");
+            }
+        } catch (Exception e) {
+            log.error("导出表数据失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "导出表数据失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+        
+        log.info("导出表数据，配置ID: {}, 数据库: {}, 表: {}, 格式: {}", configId, database, tableName, bulkFormat);
+        
+        StreamingResponseBody body = out -> {
+            try {
+                databaseService.exportTable(configId, database, tableName, bulkFormat, out);
+            } catch (RuntimeException e) {
+                log.error("导出表数据中断，配置ID: {}, 表: {}", configId, tableName, e);
+                throw e;
+            }
+        };
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(tableName + "." + bulkFormat.getExtension())
+                .build()
+                .toString())
+            .contentType(MediaType.parseMediaType(bulkFormat.getContentType()))
+            .body(body);
+    }
+    
+    /**
+     * 批量导入表数据（PostgreSQL COPY FROM STDIN）
+     * 
+     * 请求体即为CSV或二进制COPY数据，直接转发给数据库，不在内存中缓冲
+     */
+    @PostMapping("/{configId}/import")
+    public ResponseEntity<Map<String, Object>> importTable(
+            @PathVariable Long configId,
+            @RequestParam(required = false) String database,
+            @RequestParam String tableName,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "true") boolean header,
+            @RequestParam(required = false) List<String> columns,
+            HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            log.info("导入表数据，配置ID: {}, 数据库: {}, 表: {}, 格式: {}", configId, database, tableName, format);
+            
+            long rows = databaseService.importTable(configId, database, tableName, columns,
+                    BulkFormat.fromName(format), header, request.getInputStream());
+            
+            response.put("success", true);
+            response.put("message", "导入成功");
+            response.put("rows", rows);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("导入表数据失败", e);
+            
+            response.put("success", false);
+            response.put("error", "导入表数据失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(response);
+        }
+    }
+    
+    /**
+     * 获取多主机的负载与隔离状态
+     */
+    @GetMapping("/{configId}/hosts")
+    public ResponseEntity<Object> getHostStatus(@PathVariable Long configId) {
+        try {
+            return ResponseEntity.ok(databaseService.getHostStatus(configId));
+        } catch (Exception e) {
+            log.error("获取主机状态失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取主机状态失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 获取只读副本的路由状态（健康、执行中请求数、复制延迟）
+     */
+    @GetMapping("/{configId}/replicas")
+    public ResponseEntity<Object> getReplicaStatus(@PathVariable Long configId) {
+        try {
+            return ResponseEntity.ok(databaseService.getReplicaStatus(configId));
+        } catch (Exception e) {
+            log.error("获取副本状态失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取副本状态失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 获取由本服务发起、仍在执行的服务端查询
+     */
+    @GetMapping("/{configId}/queries")
+    public ResponseEntity<Object> getRunningQueries(@PathVariable Long configId) {
+        try {
+            return ResponseEntity.ok(databaseService.getRunningQueries(configId));
+        } catch (Exception e) {
+            log.error("获取运行中查询失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取运行中查询失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 获取服务端查询进度
+     */
+    @GetMapping("/{configId}/queries/{queryId}/progress")
+    public ResponseEntity<Object> getQueryProgress(@PathVariable Long configId, @PathVariable String queryId) {
+        try {
+            var progress = databaseService.getQueryProgress(configId, queryId);
+            if (progress == null) {
+                return ResponseEntity.ok(Map.of("queryId", queryId, "finished", true));
+            }
+            return ResponseEntity.ok(progress);
+        } catch (Exception e) {
+            log.error("获取查询进度失败", e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "获取查询进度失败: " + e.getMessage());
+            
+            return ResponseEntity.ok(error);
+        }
+    }
+    
+    /**
+     * 代价检查拦截的返回：error、guard（估算值、阈值、处置方式）与confirmable
+     */
+    private ResponseEntity<Object> guardError(Long configId, QueryGuardException e) {
+        log.warn("SQL查询被代价检查拦截，配置ID: {}: {}", configId, e.getMessage());
+        
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        error.put("guard", e.getVerdict().toMap());
+        error.put("confirmable", e.isConfirmable());
+        
+        return ResponseEntity.ok(error);
+    }
+    
+    /**
+     * 隐藏密码后返回配置
+     */
+    private DatabaseConfig maskPassword(DatabaseConfig config) {
+        DatabaseConfig masked = config.copy();
+        masked.setPassword(null);
+        return masked;
+    }
 }
@@ -0,0 +1,313 @@
+package com.anydb.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+/**
+ * 数据库连接配置持久化实体
+ *
+ * 与 {@link com.anydb.connector.DatabaseConfig} 一一对应，
+ * parameters/options 以JSON文本形式存储。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "anydb_database_config")
+@EntityListeners(AuditingEntityListener.class)
+public class DatabaseConfigEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 连接名称
+     */
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    /**
+     * 数据库类型代码（DatabaseType.code）
+     */
+    @Column(name = "type", nullable = false, length = 32)
+    private String type;
+
+    /**
+     * 主机地址
+     */
+    @Column(name = "host", length = 255)
+    private String host;
+
+    /**
+     * 端口号
+     */
+    @Column(name = "port")
+    private Integer port;
+
+    /**
+     * 数据库名
+     */
+    @Column(name = "database_name", length = 128)
+    private String databaseName;
+
+    /**
+     * 用户名
+     */
+    @Column(name = "username", length = 128)
+    private String username;
+
+    /**
+     * 密码
+     */
+    @Column(name = "password", length = 512)
+    private String password;
+
+    /**
+     * 参数配置（JSON）
+     */
+    @Lob
+    @Column(name = "parameters", columnDefinition = "TEXT")
+    private String parameters;
+
+    /**
+     * 连接选项（JSON）
+     */
+    @Lob
+    @Column(name = "options", columnDefinition = "TEXT")
+    private String options;
+
+    /**
+     * 备用主机（JSON数组）
+     */
+    @Lob
+    @Column(name = "hosts", columnDefinition = "TEXT")
+    private String hosts;
+
+    /**
+     * 多主机负载均衡策略
+     */
+    @Column(name = "load_balance_policy", length = 32)
+    private String loadBalancePolicy;
+
+    /**
+     * 只读副本（JSON数组）
+     */
+    @Lob
+    @Column(name = "replicas", columnDefinition = "TEXT")
+    private String replicas;
+
+    /**
+     * 允许读取副本的最大复制延迟（秒）
+     */
+    @Column(name = "max_replication_lag")
+    private Integer maxReplicationLag;
+
+    /**
+     * 连接超时时间（毫秒）
+     */
+    @Column(name = "timeout")
+    private Integer timeout;
+
+    /**
+     * 连接池大小
+     */
+    @Column(name = "pool_size")
+    private Integer poolSize;
+
+    /**
+     * 备注
+     */
+    @Column(name = "remark", length = 500)
+    private String remark;
+
+    /**
+     * 是否启用
+     */
+    @Column(name = "enabled", nullable = false)
+    private Boolean enabled = true;
+
+    /**
+     * 创建时间
+     */
+    @CreatedDate
+    @Column(name = "create_time", updatable = false)
+    private Long createTime;
+
+    /**
+     * 更新时间
+     */
+    @LastModifiedDate
+    @Column(name = "update_time")
+    private Long updateTime;
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public Integer getPort() {
+        return port;
+    }
+
+    public void setPort(Integer port) {
+        this.port = port;
+    }
+
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public String getOptions() {
+        return options;
+    }
+
+    public void setOptions(String options) {
+        this.options = options;
+    }
+
+    public String getHosts() {
+        return hosts;
+    }
+
+    public void setHosts(String hosts) {
+        this.hosts = hosts;
+    }
+
+    public String getLoadBalancePolicy() {
+        return loadBalancePolicy;
+    }
+
+    public void setLoadBalancePolicy(String loadBalancePolicy) {
+        this.loadBalancePolicy = loadBalancePolicy;
+    }
+
+    public String getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(String replicas) {
+        this.replicas = replicas;
+    }
+
+    public Integer getMaxReplicationLag() {
+        return maxReplicationLag;
+    }
+
+    public void setMaxReplicationLag(Integer maxReplicationLag) {
+        this.maxReplicationLag = maxReplicationLag;
+    }
+
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(Integer poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public void setRemark(String remark) {
+        this.remark = remark;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Long getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Long createTime) {
+        this.createTime = createTime;
+    }
+
+    public Long getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Long updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,22 @@
+package com.anydb.repository;
+
+import com.anydb.entity.DatabaseConfigEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 数据库连接配置数据访问接口
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Repository
+public interface DatabaseConfigRepository extends JpaRepository<DatabaseConfigEntity, Long> {
+
+    /**
+     * 按名称排序获取全部配置
+     */
+    List<DatabaseConfigEntity> findAllByOrderByNameAsc();
+}
@@ -0,0 +1,204 @@
+package com.anydb.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 凭据加密器 - AES-GCM + 本地密钥文件
+ *
+ * 密文格式：{@code enc:v1:} + Base64(IV(12字节) || 密文 || GCM标签)。
+ * 不带前缀的值视为历史明文，解密时原样返回。
+ * 密钥文件首次使用时加载，不存在则生成（权限600，写入临时文件后原子重命名）。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class CredentialCipher {
+
+    /**
+     * 密文前缀
+     */
+    private static final String PREFIX = "enc:v1:";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int KEY_BITS = 256;
+
+    private static final int IV_BYTES = 12;
+
+    private static final int TAG_BITS = 128;
+
+    private final Path keyFile;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile SecretKey key;
+
+    public CredentialCipher(@Value("${anydb.security.key-file:data/anydb-secret.key}") String keyFile) {
+        this.keyFile = Paths.get(keyFile);
+    }
+
+    /**
+     * 加密明文，null原样返回
+     */
+    public String encrypt(String plaintext) {
+        if (plaintext == null) {
+            return null;
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, getKey(), new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+
+            ByteBuffer buffer = ByteBuffer.allocate(iv.length + encrypted.length);
+            buffer.put(iv).put(encrypted);
+            return PREFIX + Base64.getEncoder().encodeToString(buffer.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("凭据加密失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 解密密文，null和历史明文原样返回
+     */
+    public String decrypt(String value) {
+        if (value == null || !isEncrypted(value)) {
+            return value;
+        }
+        try {
+            byte[] payload = Base64.getDecoder().decode(value.substring(PREFIX.length()));
+            if (payload.length <= IV_BYTES) {
+                throw new IllegalStateException("凭据密文长度无效");
+            }
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, getKey(), new GCMParameterSpec(TAG_BITS, payload, 0, IV_BYTES));
+            byte[] decrypted = cipher.doFinal(payload, IV_BYTES, payload.length - IV_BYTES);
+            return new String(decrypted, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("凭据解密失败，请检查密钥文件: " + keyFile, e);
+        }
+    }
+
+    /**
+     * 是否为本加密器生成的密文
+     */
+    public boolean isEncrypted(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    /**
+     * 获取密钥（首次使用时加载或生成）
+     */
+    private SecretKey getKey() {
+        SecretKey current = key;
+        if (current == null) {
+            synchronized (this) {
+                current = key;
+                if (current == null) {
+                    current = loadOrCreateKey();
+                    key = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private SecretKey loadOrCreateKey() {
+        try {
+            if (!Files.exists(keyFile)) {
+                createKeyFile();
+            }
+            byte[] encoded = Base64.getDecoder().decode(Files.readString(keyFile, StandardCharsets.US_ASCII).trim());
+            if (encoded.length != KEY_BITS / 8) {
+                throw new IllegalStateException("密钥文件长度无效: " + keyFile);
+            }
+            return new SecretKeySpec(encoded, "AES");
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("读取密钥文件失败: " + keyFile, e);
+        }
+    }
+
+    /**
+     * 生成密钥文件：先写入同目录下权限为600的临时文件，再原子地发布为密钥文件
+     *
+     * 发布使用硬链接：目标已存在时失败而不覆盖，多实例并发启动时只有第一个写入者生效，
+     * 读取方不会读到写了一半的密钥。不支持硬链接的文件系统退化为原子重命名（目标存在时可能被覆盖）。
+     */
+    private void createKeyFile() throws IOException {
+        String encoded;
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(KEY_BITS, random);
+            encoded = Base64.getEncoder().encodeToString(generator.generateKey().getEncoded());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("生成凭据密钥失败: " + e.getMessage(), e);
+        }
+
+        Path parent = keyFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = createRestrictedTempFile(parent);
+        try {
+            Files.writeString(temp, encoded, StandardCharsets.US_ASCII, StandardOpenOption.WRITE);
+            publish(temp);
+            log.info("已生成新的凭据密钥文件: {}", keyFile.toAbsolutePath());
+        } catch (FileAlreadyExistsException e) {
+            log.debug("密钥文件已由其他进程创建: {}", keyFile);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void publish(Path temp) throws IOException {
+        try {
+            Files.createLink(keyFile, temp);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            if (Files.exists(keyFile)) {
+                throw new FileAlreadyExistsException(keyFile.toString());
+            }
+            Files.move(temp, keyFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * 创建权限为600的临时文件；文件系统不支持POSIX权限时退化为普通临时文件
+     */
+    private Path createRestrictedTempFile(Path directory) throws IOException {
+        String prefix = "." + keyFile.getFileName() + ".";
+        try {
+            return Files.createTempFile(directory, prefix, ".tmp",
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            log.warn("文件系统不支持POSIX权限，无法限制密钥文件权限: {}", keyFile);
+            return Files.createTempFile(directory, prefix, ".tmp");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.anydb.service;
 
+import com.anydb.connector.ConnectorCapability;
 import com.anydb.connector.DatabaseConfig;
 import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.DatabaseConnectorFactory;
 import com.anydb.connector.DatabaseType;
-import com.anydb.connector.impl.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -18,6 +21,7 @@ import java.util.concurrent.ConcurrentMap;
  * 2. 启动时不连接任何外部数据库
  * 3. 统一管理所有数据库连接池
  * 4. 提供连接健康检查和清理机制
+ * 5. 连接器统一由DatabaseConnectorFactory按需加载
  * 
  * @author AnyDB Team
  * @version 1.0.0
@@ -32,28 +36,16 @@ public class ConnectionManager {
     private final ConcurrentMap<Long, Object> connectionPools = new ConcurrentHashMap<>();
     
     /**
-     * 连接器工厂映射 - DatabaseType -> DatabaseConnector实例
+     * 连接器注册表（连接器首次使用时才实例化）
      */
-    private final ConcurrentMap<DatabaseType, DatabaseConnector> connectorFactories = new ConcurrentHashMap<>();
-    
-    /**
-     * 构造函数 - 注册所有支持的数据库连接器
-     */
-    public ConnectionManager() {
-        // 注册数据库连接器工厂
-        registerConnector(DatabaseType.MYSQL, new MySQLConnector());
-        registerConnector(DatabaseType.POSTGRESQL, new PostgreSQLConnector());
-        registerConnector(DatabaseType.REDIS, new RedisConnector());
-        // 其他连接器可以按需注册
-        
-        log.info("连接管理器初始化完成，支持 {} 种数据库连接器", connectorFactories.size());
-    }
+    @Autowired
+    private DatabaseConnectorFactory connectorFactory;
     
     /**
      * 注册数据库连接器
      */
     public void registerConnector(DatabaseType type, DatabaseConnector connector) {
-        connectorFactories.put(type, connector);
+        connectorFactory.registerConnector(type, connector);
         log.info("注册数据库连接器: {}", type.getDisplayName());
     }
     
@@ -114,30 +106,51 @@ public class ConnectionManager {
     }
     
     /**
-     * 关闭连接池
+     * 关闭连接池，并让已加载的连接器释放为该配置缓存的连接资源
      */
     public void closeConnectionPool(Long configId) {
         Object pool = connectionPools.remove(configId);
+        if (pool instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("关闭连接池异常，配置ID: {}, 错误: {}", configId, e.getMessage());
+            }
+        }
+        for (DatabaseConnector connector : connectorFactory.getLoadedConnectors()) {
+            try {
+                connector.evict(configId);
+            } catch (RuntimeException e) {
+                log.warn("{}连接器释放连接资源异常，配置ID: {}, 错误: {}",
+                    connector.getSupportedType().getDisplayName(), configId, e.getMessage());
+            }
+        }
         if (pool != null) {
-            // TODO: 实现连接池关闭逻辑
             log.info("关闭连接池成功，配置ID: {}", configId);
         } else {
-            log.warn("要关闭的连接池不存在，配置ID: {}", configId);
+            log.debug("未登记连接池，已释放连接器缓存的连接资源，配置ID: {}", configId);
         }
     }
     
     /**
-     * 获取连接器实例
+     * 获取连接器实例（不支持的类型返回null）
      */
     public DatabaseConnector getConnector(DatabaseType type) {
-        return connectorFactories.get(type);
+        return connectorFactory.isSupported(type) ? connectorFactory.getConnector(type) : null;
+    }
+    
+    /**
+     * 获取指定类型连接器声明的能力（不会实例化连接器）
+     */
+    public Set<ConnectorCapability> getCapabilities(DatabaseType type) {
+        return connectorFactory.getCapabilities(type);
     }
     
     /**
      * 获取支持的所有数据库类型
      */
     public DatabaseType[] getSupportedTypes() {
-        return connectorFactories.keySet().toArray(new DatabaseType[0]);
+        return connectorFactory.getSupportedTypes();
     }
     
     /**
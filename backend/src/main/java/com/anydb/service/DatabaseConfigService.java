@@ -0,0 +1,362 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.HostEndpoint;
+import com.anydb.connector.LoadBalancePolicy;
+import com.anydb.entity.DatabaseConfigEntity;
+import com.anydb.repository.DatabaseConfigRepository;
+import com.anydb.security.CredentialCipher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 数据库配置服务 - 持久化存储 + 内存读穿透缓存
+ *
+ * 核心功能：
+ * 1. 数据库配置的增删改查（持久化到MySQL）
+ * 2. 按配置ID缓存已加载的配置，请求路径上的配置查找只命中内存
+ * 3. 配置更新/删除时失效缓存并关闭旧连接池
+ * 4. 密码以AES-GCM密文存储，解密结果按密文缓存并有过期时间，
+ *    解密开销只在缓存过期后的首次使用（通常是创建连接池）时发生
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class DatabaseConfigService {
+
+    private static final TypeReference<Map<String, Object>> PARAMETERS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<Map<String, String>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<List<HostEndpoint>> ENDPOINTS_TYPE = new TypeReference<>() {};
+
+    /**
+     * 配置缓存 - key: 数据库配置ID, value: 已加载的配置（不含明文密码）
+     */
+    private final ConcurrentMap<Long, CachedConfig> configCache = new ConcurrentHashMap<>();
+
+    /**
+     * 明文密码缓存 - key: 密码密文, value: 明文及过期时间
+     *
+     * 以密文为key，配置更新后新密文（随机IV）不会命中旧条目。
+     */
+    private final ConcurrentMap<String, CachedSecret> secretCache = new ConcurrentHashMap<>();
+
+    /**
+     * 明文密码缓存有效期（毫秒）
+     */
+    @Value("${anydb.security.secret-cache-ttl:600000}")
+    private long secretCacheTtl;
+
+    @Autowired
+    private DatabaseConfigRepository configRepository;
+
+    @Autowired
+    private ConnectionManager connectionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CredentialCipher credentialCipher;
+
+    @Autowired
+    private HostBalancer hostBalancer;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private PlanCache planCache;
+
+    /**
+     * 获取数据库配置（读穿透缓存）
+     *
+     * computeIfAbsent在加载期间持有该key的锁，与失效操作串行，
+     * 不会把更新前读到的旧配置写回缓存。返回的是副本，调用方可自由修改。
+     */
+    public DatabaseConfig getDatabaseConfig(Long configId) {
+        if (configId == null) {
+            throw new IllegalArgumentException("配置ID不能为空");
+        }
+
+        CachedConfig cached = configCache.computeIfAbsent(configId, this::loadConfig);
+        if (cached == null) {
+            throw new IllegalArgumentException("数据库配置不存在，配置ID: " + configId);
+        }
+        if (Boolean.FALSE.equals(cached.config().getEnabled())) {
+            throw new IllegalStateException("数据库配置已禁用，配置ID: " + configId);
+        }
+
+        DatabaseConfig config = cached.config().copy();
+        config.setPassword(resolvePassword(cached.encryptedPassword()));
+        return config;
+    }
+
+    /**
+     * 获取数据库配置用于查看与编辑：已禁用的配置也返回，不解密密码（返回的配置不含密码）
+     */
+    public DatabaseConfig getConfigForEdit(Long configId) {
+        if (configId == null) {
+            throw new IllegalArgumentException("配置ID不能为空");
+        }
+
+        CachedConfig cached = configCache.computeIfAbsent(configId, this::loadConfig);
+        if (cached == null) {
+            throw new IllegalArgumentException("数据库配置不存在，配置ID: " + configId);
+        }
+        return cached.config().copy();
+    }
+
+    /**
+     * 获取所有数据库配置
+     */
+    public List<DatabaseConfig> listConfigs() {
+        return configRepository.findAllByOrderByNameAsc().stream()
+            .map(this::toConfig)
+            .toList();
+    }
+
+    /**
+     * 新增数据库配置
+     */
+    public DatabaseConfig createConfig(DatabaseConfig config) {
+        validateConfig(config);
+
+        DatabaseConfigEntity entity = new DatabaseConfigEntity();
+        copyToEntity(config, entity);
+        entity = configRepository.save(entity);
+
+        log.info("新增数据库配置成功，配置ID: {}, 类型: {}", entity.getId(), config.getType());
+        return toConfig(entity);
+    }
+
+    /**
+     * 更新数据库配置
+     */
+    public DatabaseConfig updateConfig(Long configId, DatabaseConfig config) {
+        validateConfig(config);
+
+        DatabaseConfigEntity entity = configRepository.findById(configId)
+            .orElseThrow(() -> new IllegalArgumentException("数据库配置不存在，配置ID: " + configId));
+
+        // 未提交密码时保留原密码密文
+        String originalPassword = entity.getPassword();
+        copyToEntity(config, entity);
+        if (config.getPassword() == null) {
+            entity.setPassword(originalPassword);
+        }
+        entity = configRepository.save(entity);
+
+        evict(configId);
+        log.info("更新数据库配置成功，配置ID: {}", configId);
+        return toConfig(entity);
+    }
+
+    /**
+     * 删除数据库配置
+     */
+    public void deleteConfig(Long configId) {
+        if (!configRepository.existsById(configId)) {
+            throw new IllegalArgumentException("数据库配置不存在，配置ID: " + configId);
+        }
+
+        configRepository.deleteById(configId);
+        evict(configId);
+        log.info("删除数据库配置成功，配置ID: {}", configId);
+    }
+
+    /**
+     * 失效配置缓存，并关闭基于旧配置创建的连接池
+     */
+    public void evict(Long configId) {
+        CachedConfig cached = configCache.remove(configId);
+        if (cached != null && cached.encryptedPassword() != null) {
+            secretCache.remove(cached.encryptedPassword());
+        }
+        connectionManager.closeConnectionPool(configId);
+        hostBalancer.evict(configId);
+        replicaRouter.evict(configId);
+        planCache.evict(configId);
+        log.debug("数据库配置缓存已失效，配置ID: {}", configId);
+    }
+
+    /**
+     * 获取缓存的配置数量
+     */
+    public int getCachedConfigCount() {
+        return configCache.size();
+    }
+
+    /**
+     * 清理过期的明文密码，避免明文长期驻留内存
+     */
+    @Scheduled(fixedDelayString = "${anydb.security.secret-cache-ttl:600000}")
+    public void purgeExpiredSecrets() {
+        long now = System.currentTimeMillis();
+        secretCache.values().removeIf(secret -> secret.expiresAt() <= now);
+    }
+
+    /**
+     * 从持久化存储加载配置（缓存未命中时调用）
+     */
+    private CachedConfig loadConfig(Long configId) {
+        log.debug("数据库配置缓存未命中，从存储加载，配置ID: {}", configId);
+        return configRepository.findById(configId)
+            .map(entity -> new CachedConfig(toConfig(entity), entity.getPassword()))
+            .orElse(null);
+    }
+
+    /**
+     * 解析明文密码（优先命中未过期的解密缓存）
+     */
+    private String resolvePassword(String encryptedPassword) {
+        if (encryptedPassword == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        CachedSecret secret = secretCache.get(encryptedPassword);
+        if (secret != null && secret.expiresAt() > now) {
+            return secret.value();
+        }
+
+        String password = credentialCipher.decrypt(encryptedPassword);
+        secretCache.put(encryptedPassword, new CachedSecret(password, now + secretCacheTtl));
+        return password;
+    }
+
+    /**
+     * 验证数据库配置
+     */
+    private void validateConfig(DatabaseConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("数据库配置不能为空");
+        }
+        if (config.getType() == null) {
+            throw new IllegalArgumentException("数据库类型不能为空");
+        }
+        if (config.getName() == null || config.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("连接名称不能为空");
+        }
+        if (config.getHost() == null || config.getHost().trim().isEmpty()) {
+            throw new IllegalArgumentException("主机地址不能为空");
+        }
+        if (config.hasHosts()) {
+            for (HostEndpoint host : config.getHosts()) {
+                if (host == null || host.getHost() == null || host.getHost().trim().isEmpty()) {
+                    throw new IllegalArgumentException("备用主机地址不能为空");
+                }
+            }
+        }
+        if (config.hasReplicas()) {
+            for (HostEndpoint replica : config.getReplicas()) {
+                if (replica == null || replica.getHost() == null || replica.getHost().trim().isEmpty()) {
+                    throw new IllegalArgumentException("副本主机地址不能为空");
+                }
+            }
+        }
+        if (config.getMaxReplicationLag() != null && config.getMaxReplicationLag() < 0) {
+            throw new IllegalArgumentException("最大复制延迟不能为负数");
+        }
+    }
+
+    /**
+     * 实体转换为配置（不含密码）
+     */
+    private DatabaseConfig toConfig(DatabaseConfigEntity entity) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setId(entity.getId());
+        config.setName(entity.getName());
+        config.setType(DatabaseType.fromCode(entity.getType()));
+        config.setHost(entity.getHost());
+        config.setPort(entity.getPort());
+        config.setDatabase(entity.getDatabaseName());
+        config.setUsername(entity.getUsername());
+        config.setParameters(readJson(entity.getParameters(), PARAMETERS_TYPE));
+        config.setOptions(readJson(entity.getOptions(), OPTIONS_TYPE));
+        config.setHosts(readJson(entity.getHosts(), ENDPOINTS_TYPE));
+        config.setLoadBalancePolicy(entity.getLoadBalancePolicy() != null
+            ? LoadBalancePolicy.valueOf(entity.getLoadBalancePolicy()) : null);
+        config.setReplicas(readJson(entity.getReplicas(), ENDPOINTS_TYPE));
+        config.setMaxReplicationLag(entity.getMaxReplicationLag());
+        config.setTimeout(entity.getTimeout());
+        config.setPoolSize(entity.getPoolSize());
+        config.setRemark(entity.getRemark());
+        config.setEnabled(entity.getEnabled());
+        config.setCreateTime(entity.getCreateTime());
+        config.setUpdateTime(entity.getUpdateTime());
+        return config;
+    }
+
+    /**
+     * 配置复制到实体
+     */
+    private void copyToEntity(DatabaseConfig config, DatabaseConfigEntity entity) {
+        entity.setName(config.getName());
+        entity.setType(config.getType().getCode());
+        entity.setHost(config.getHost());
+        entity.setPort(config.getPort());
+        entity.setDatabaseName(config.getDatabase());
+        entity.setUsername(config.getUsername());
+        entity.setPassword(credentialCipher.encrypt(config.getPassword()));
+        entity.setParameters(writeJson(config.getParameters()));
+        entity.setOptions(writeJson(config.getOptions()));
+        entity.setHosts(config.hasHosts() ? writeJson(config.getHosts()) : null);
+        entity.setLoadBalancePolicy(config.getLoadBalancePolicy() != null ? config.getLoadBalancePolicy().name() : null);
+        entity.setReplicas(config.hasReplicas() ? writeJson(config.getReplicas()) : null);
+        entity.setMaxReplicationLag(config.getMaxReplicationLag());
+        entity.setTimeout(config.getTimeout());
+        entity.setPoolSize(config.getPoolSize());
+        entity.setRemark(config.getRemark());
+        entity.setEnabled(config.getEnabled() == null || config.getEnabled());
+    }
+
+    private <T> T readJson(String json, TypeReference<T> type) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("数据库配置JSON字段解析失败: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        if (value == null || value instanceof Map<?, ?> map && map.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("数据库配置JSON字段序列化失败: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 缓存的配置及其密码密文
+     */
+    private record CachedConfig(DatabaseConfig config, String encryptedPassword) {
+    }
+
+    /**
+     * 缓存的明文密码
+     */
+    private record CachedSecret(String value, long expiresAt) {
+    }
+}
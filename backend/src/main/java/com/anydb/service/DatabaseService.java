@@ -1,13 +1,38 @@
 package com.anydb.service;
 
+import com.anydb.connector.BulkExportConnector;
+import com.anydb.connector.BulkFormat;
+import com.anydb.connector.BulkImportConnector;
+import com.anydb.connector.ConnectorCapability;
 import com.anydb.connector.DatabaseConfig;
 import com.anydb.connector.DatabaseConnector;
 import com.anydb.connector.DatabaseType;
+import com.anydb.connector.ExplainConnector;
+import com.anydb.connector.QueryPlan;
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+import com.anydb.spool.ResultSpoolManager;
+import com.anydb.spool.SpooledResult;
+import com.anydb.sql.SqlLexer;
+import com.anydb.sql.SqlLimits;
+import com.anydb.sql.SqlStatement;
+import com.anydb.sql.StatementType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * 数据库服务 - 使用ConnectionManager实现按需连接
@@ -16,6 +41,16 @@ import java.util.*;
  * 1. 不在启动时连接任何外部数据库
  * 2. 使用ConnectionManager统一管理连接
  * 3. 按需创建连接池
+ * 4. 数据库配置从DatabaseConfigService获取（持久化 + 内存缓存）
+ * 5. 按连接器声明的能力（ConnectorCapability）选择执行路径
+ * 6. 配置了只读副本时，只读查询与表数据浏览经ReplicaRouter发往副本
+ * 7. 配置了备用主机时，主库操作经HostBalancer负载均衡并在连接故障时切换
+ * 8. SQL经SqlLexer单次分析，日志使用脱敏形式，路由按语句类型，慢查询按指纹记录
+ * 9. 执行计划归一化为PlanNode树，估算计划按指纹缓存（PlanCache）
+ * 10. 交互式SELECT执行前经QueryGuard按估算计划检查扫描量，超限时拒绝、要求确认或追加LIMIT
+ * 11. 交互式查询结果按行数与字节预算截断（ResultLimits），截断时返回续取标识
+ * 12. 大结果可完整保存（超过内存阈值落盘，见ResultSpoolManager），之后按窗口与排序反复读取；
+ *     流式读取与保存结果只接受只读查询，同样经代价检查，并按maxStreamRows限制行数
  * 
  * @author AnyDB Team
  * @version 1.0.0
@@ -27,6 +62,51 @@ public class DatabaseService {
     @Autowired
     private ConnectionManager connectionManager;
     
+    @Autowired
+    private DatabaseConfigService databaseConfigService;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    @Autowired
+    private HostBalancer hostBalancer;
+    
+    @Autowired
+    private PlanCache planCache;
+    
+    @Autowired
+    private QueryGuard queryGuard;
+    
+    @Autowired
+    private ResultSpoolManager resultSpoolManager;
+    
+    @Value("${anydb.sql.slow-query-threshold:3000}")
+    private long slowQueryThreshold;
+    
+    @Value("${anydb.sql.max-result-size:1000}")
+    private int maxResultSize;
+    
+    @Value("${anydb.sql.max-result-bytes:67108864}")
+    private long maxResultBytes;
+    
+    @Value("${anydb.sql.timeout:30000}")
+    private long queryTimeout;
+    
+    @Value("${anydb.stream.batch-size:500}")
+    private int spoolBatchSize;
+    
+    @Value("${anydb.stream.max-rows:1000000}")
+    private long maxStreamRows;
+    
+    @Value("${anydb.sql.continuation-secret:}")
+    private String continuationSecret;
+    
+    private static final byte[] RANDOM_CONTINUATION_KEY = new byte[32];
+    
+    static {
+        new SecureRandom().nextBytes(RANDOM_CONTINUATION_KEY);
+    }
+    
     /**
      * 获取支持的数据库类型
      */
@@ -34,6 +114,25 @@ public class DatabaseService {
         return Arrays.asList(connectionManager.getSupportedTypes());
     }
     
+    /**
+     * 获取各数据库类型连接器声明的能力
+     */
+    public Map<DatabaseType, Set<ConnectorCapability>> getConnectorCapabilities() {
+        Map<DatabaseType, Set<ConnectorCapability>> capabilities = new EnumMap<>(DatabaseType.class);
+        for (DatabaseType type : connectionManager.getSupportedTypes()) {
+            capabilities.put(type, connectionManager.getCapabilities(type));
+        }
+        return capabilities;
+    }
+    
+    /**
+     * 检查目标数据库的连接器是否支持某项能力
+     */
+    public boolean supportsCapability(Long configId, ConnectorCapability capability) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        return connectionManager.getCapabilities(config.getType()).contains(capability);
+    }
+    
     /**
      * 测试数据库连接
      */
@@ -91,6 +190,94 @@ public class DatabaseService {
      * 执行SQL查询
      */
     public DatabaseConnector.QueryResult executeQuery(Long configId, String sql) {
+        return executeQuery(configId, sql, false);
+    }
+    
+    /**
+     * 执行交互式SQL查询，SELECT先经代价检查
+     * 
+     * @param confirmed 客户端已确认执行超过阈值的查询（不绕过REJECT）
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     */
+    public DatabaseConnector.QueryResult executeQuery(Long configId, String sql, boolean confirmed) {
+        return executeQuery(configId, sql, confirmed, null);
+    }
+    
+    /**
+     * 执行交互式SQL查询，结果按行数与字节预算截断
+     * 
+     * 顶层没有行数限制的只读SELECT在方言支持时追加LIMIT/OFFSET（多取一行判断截断），
+     * 否则由驱动setMaxRows与读取时的计数截断。续取时重新执行语句并从上次返回的位置继续，
+     * 期间数据变化可能导致行重复或遗漏。
+     * 
+     * @param continuation 上次截断结果返回的续取标识，首次执行为null（续取时不再做代价检查）
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     */
+    public DatabaseConnector.QueryResult executeQuery(Long configId, String sql, boolean confirmed,
+                                                      String continuation) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        DatabaseConnector connector = connectionManager.getConnector(config.getType());
+        
+        if (connector == null) {
+            throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
+        }
+        
+        SqlStatement statement = SqlLexer.analyze(sql, config.getType());
+        log.info("执行SQL查询: {}", statement.getMaskedSql());
+        long offset = continuation != null ? decodeContinuation(continuation, configId, sql) : 0;
+        QueryGuard.Verdict verdict = offset == 0 ? guard(configId, config, connector, statement, sql, confirmed) : null;
+        ResultLimits limits = resultLimits(config, offset);
+        String target = sql;
+        if (verdict != null) {
+            target = SqlLimits.applyLimit(config.getType(), SqlLimits.stripTrailingSemicolons(sql), verdict.limit(), 0);
+            log.warn("查询估算扫描量超过阈值，已追加行数限制{}，配置ID: {}, 估算行数: {}, 估算代价: {}",
+                verdict.limit(), configId, verdict.estimatedRows(), verdict.estimatedCost());
+        } else if (limits.getMaxRows() > 0 && statement.getType() == StatementType.SELECT && statement.isReadOnly()
+                && !statement.hasRowLimit()) {
+            String limited = SqlLimits.applyLimit(config.getType(), SqlLimits.stripTrailingSemicolons(sql),
+                limits.getMaxRows() + 1L, offset);
+            if (limited != null) {
+                target = limited;
+                limits = limits.withoutSkip();
+            }
+        }
+        
+        String finalSql = target;
+        ResultLimits finalLimits = limits;
+        boolean readOnly = statement.isReadOnly();
+        DatabaseConnector.QueryResult result = read(config, connector, readOnly && usesReplicas(config), readOnly,
+            c -> connector.executeQuery(c, finalSql, statement, finalLimits));
+        if (verdict != null) {
+            result.setAppliedLimit(verdict.limit());
+        }
+        if (result.isTruncated() && result.getRows() != null) {
+            result.setContinuation(encodeContinuation(configId, offset + result.getRows().size(), sql));
+        }
+        logIfSlow(configId, statement, result.getExecutionTime());
+        return result;
+    }
+    
+    /**
+     * 流式执行SQL查询（列头、数据批次和进度依次推送给接收端）
+     * 
+     * @param confirmed 客户端已确认执行超过阈值的查询（不绕过REJECT）
+     * @return 推送的总行数
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     * @throws InterruptedException 等待消费端额度时被中断
+     */
+    public long streamQuery(Long configId, String sql, boolean confirmed, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        return streamQuery(prepareStream(configId, sql, confirmed), batchSize, sink);
+    }
+    
+    /**
+     * 流式读取前的检查：只接受只读语句，SELECT经代价检查（超限且可追加LIMIT时改写语句）
+     * 
+     * 结果会话在请求线程上检查，后台线程再执行，代价检查的拒绝与确认要求直接返回给客户端。
+     * 
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     */
+    StreamTarget prepareStream(Long configId, String sql, boolean confirmed) {
         DatabaseConfig config = getDatabaseConfig(configId);
         DatabaseConnector connector = connectionManager.getConnector(config.getType());
         
@@ -98,8 +285,120 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        log.info("执行SQL查询: {}", sql);
-        return connector.executeQuery(config, sql);
+        SqlStatement statement = SqlLexer.analyze(sql, config.getType());
+        // MongoDB与Redis的查询路径只接受读取命令
+        if (!statement.isReadOnly() && config.getType() != DatabaseType.MONGODB
+                && config.getType() != DatabaseType.REDIS) {
+            throw new IllegalArgumentException("流式读取与保存结果只支持只读查询，写入语句请通过执行更新提交");
+        }
+        QueryGuard.Verdict verdict = guard(configId, config, connector, statement, sql, confirmed);
+        String target = sql;
+        if (verdict != null) {
+            target = SqlLimits.applyLimit(config.getType(), SqlLimits.stripTrailingSemicolons(sql), verdict.limit(), 0);
+            log.warn("查询估算扫描量超过阈值，已追加行数限制{}，配置ID: {}, 估算行数: {}, 估算代价: {}",
+                verdict.limit(), configId, verdict.estimatedRows(), verdict.estimatedCost());
+        }
+        return new StreamTarget(config, connector, statement, target, limitOption(config, "maxStreamRows", maxStreamRows));
+    }
+    
+    /**
+     * 流式执行已检查的查询，超过行数上限后停止读取并通知{@link QueryStreamSink#onTruncated(long)}
+     * 
+     * 未声明{@link ConnectorCapability#STREAMING}的连接器按行数上限完整执行后分批推送。
+     */
+    long streamQuery(StreamTarget target, int batchSize, QueryStreamSink sink) throws InterruptedException {
+        log.info("流式执行SQL查询: {}, 批大小: {}", target.statement().getMaskedSql(), batchSize);
+        QueryStreamSink output = target.maxRows() > 0 ? new RowCapSink(sink, target.maxRows()) : sink;
+        DatabaseConnector connector = target.connector();
+        boolean streaming = connector.getCapabilities().contains(ConnectorCapability.STREAMING);
+        // 已推送的批次无法撤回，流式查询不在其他主机重试
+        long rows = hostBalancer.execute(target.config(), connector, false, c -> streaming
+            ? connector.streamQuery(c, target.sql(), batchSize, output)
+            : bufferedStream(c, target, batchSize, output));
+        if (output instanceof RowCapSink capped && capped.isTruncated()) {
+            log.warn("流式查询达到行数上限{}，已停止读取，配置ID: {}", target.maxRows(), target.config().getId());
+            return target.maxRows();
+        }
+        return rows;
+    }
+    
+    /**
+     * 完整执行查询后分批推送：驱动最多读取行数上限加一行，多出的一行由行数上限判断截断
+     */
+    private long bufferedStream(DatabaseConfig config, StreamTarget target, int batchSize, QueryStreamSink sink)
+            throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        int maxRows = target.maxRows() > 0 ? (int) Math.min(Integer.MAX_VALUE - 1, target.maxRows() + 1) : 0;
+        ResultLimits limits = new ResultLimits(maxRows, 0, 0, resultLimits(config, 0).getQueryTimeoutSeconds());
+        DatabaseConnector.QueryResult result = target.connector().executeQuery(config, target.sql(), target.statement(), limits);
+        sink.onColumns(result.getColumns());
+        
+        List<List<Object>> rows = result.getRows() != null ? result.getRows() : List.of();
+        long rowsRead = 0;
+        for (int from = 0; from < rows.size() && !sink.isCancelled(); from += batchSize) {
+            List<List<Object>> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            sink.onRows(batch);
+            rowsRead += batch.size();
+            sink.onProgress(new QueryProgress(rowsRead, System.currentTimeMillis() - startTime));
+        }
+        return rowsRead;
+    }
+    
+    /**
+     * 执行查询并完整保存结果（超过内存阈值时写入落盘文件），之后可按窗口与排序反复读取而无需重新执行
+     * 
+     * @param confirmed 客户端已确认执行超过阈值的查询（不绕过REJECT）
+     * @return 已读取完成的结果
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     * @throws InterruptedException 读取时被中断
+     */
+    public SpooledResult spoolQuery(Long configId, String sql, boolean confirmed) throws InterruptedException {
+        StreamTarget target = prepareStream(configId, sql, confirmed);
+        SpooledResult result = resultSpoolManager.create(configId);
+        long startTime = System.currentTimeMillis();
+        try {
+            long rows = streamQuery(target, spoolBatchSize, result);
+            result.finish(System.currentTimeMillis() - startTime);
+            log.info("查询结果已保存，配置ID: {}, 结果ID: {}, 行数: {}, 超过行数上限: {}, 落盘: {}",
+                configId, result.getId(), rows, result.isTruncated(), result.isSpilled());
+        } catch (InterruptedException | RuntimeException e) {
+            resultSpoolManager.remove(result.getId());
+            throw e;
+        }
+        return result;
+    }
+    
+    /**
+     * 读取已保存结果的窗口
+     * 
+     * @param orderBy 排序列名，为空时按原始顺序（落盘结果首次按某列排序时进行外部排序）
+     */
+    public DatabaseConnector.QueryResult getSpooledRows(String resultId, long offset, int limit,
+                                                        String orderBy, String orderDirection) {
+        return resultSpoolManager.get(resultId).window(offset, limit, orderBy, orderDirection);
+    }
+    
+    /**
+     * 删除已保存的结果
+     */
+    public void removeSpooledResult(String resultId) {
+        resultSpoolManager.remove(resultId);
+    }
+    
+    /**
+     * 获取由本服务发起、仍在服务端执行的查询
+     */
+    public List<QueryProgress> getRunningQueries(Long configId) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        return requireCapability(config, ConnectorCapability.PROGRESS).getRunningQueries(config);
+    }
+    
+    /**
+     * 获取服务端查询进度，查询已结束时返回null
+     */
+    public QueryProgress getQueryProgress(Long configId, String queryId) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        return requireCapability(config, ConnectorCapability.PROGRESS).getQueryProgress(config, queryId);
     }
     
     /**
@@ -113,8 +412,214 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        log.info("执行SQL更新: {}", sql);
-        return connector.executeUpdate(config, sql);
+        SqlStatement statement = SqlLexer.analyze(sql, config.getType());
+        log.info("执行SQL更新: {}", statement.getMaskedSql());
+        DatabaseConnector.UpdateResult result =
+            hostBalancer.execute(config, connector, false, target -> connector.executeUpdate(target, sql));
+        if (statement.getType() == StatementType.DDL) {
+            // 表结构或索引变化后缓存的计划不再可信
+            planCache.evict(configId);
+        }
+        logIfSlow(configId, statement, result.getExecutionTime());
+        return result;
+    }
+    
+    /**
+     * 获取语句的执行计划
+     * 
+     * 估算计划按语句指纹缓存；analyze会实际执行语句，仅允许只读语句且结果不缓存。
+     * 
+     * @return plan（QueryPlan）、cached（是否命中缓存）、fingerprint（语句指纹）
+     */
+    public Map<String, Object> explain(Long configId, String sql, boolean analyze) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        ExplainConnector connector = (ExplainConnector) requireCapability(config, ConnectorCapability.EXPLAIN);
+        
+        SqlStatement statement = SqlLexer.analyze(sql, config.getType());
+        if (statement.getType() == StatementType.EMPTY) {
+            throw new IllegalArgumentException("SQL语句不能为空");
+        }
+        if (statement.isMultiStatement()) {
+            throw new IllegalArgumentException("执行计划只支持单条语句");
+        }
+        if (statement.getType() == StatementType.EXPLAIN) {
+            throw new IllegalArgumentException("请直接提交要分析的语句，无需EXPLAIN前缀");
+        }
+        // MongoDB的查询为JSON命令，explain(executionStats)只执行查询部分，不写入数据
+        if (analyze && !statement.isReadOnly() && config.getType() != DatabaseType.MONGODB) {
+            throw new IllegalArgumentException("ANALYZE会实际执行语句，只允许只读语句");
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fingerprint", statement.getFingerprint());
+        if (analyze) {
+            log.info("获取执行计划: {}, analyze: true", statement.getMaskedSql());
+            String target = SqlLimits.stripTrailingSemicolons(sql);
+            result.put("cached", false);
+            result.put("plan", hostBalancer.execute(config, connector, true, c -> connector.explain(c, target, statement, true)));
+        } else {
+            boolean cached = planCache.get(configId, statement.getFingerprint()) != null;
+            result.put("cached", cached);
+            result.put("plan", estimatedPlan(configId, config, connector, statement, sql));
+        }
+        return result;
+    }
+    
+    /**
+     * 获取估算执行计划（按语句指纹缓存）
+     */
+    private QueryPlan estimatedPlan(Long configId, DatabaseConfig config, ExplainConnector connector,
+                                    SqlStatement statement, String sql) {
+        QueryPlan plan = planCache.get(configId, statement.getFingerprint());
+        if (plan == null) {
+            String target = SqlLimits.stripTrailingSemicolons(sql);
+            log.info("获取执行计划: {}", statement.getMaskedSql());
+            plan = hostBalancer.execute(config, connector, true, c -> connector.explain(c, target, statement, false));
+            planCache.put(configId, statement.getFingerprint(), plan);
+        }
+        return plan;
+    }
+    
+    /**
+     * 按全局配置与数据源连接选项（maxResultRows、maxResultBytes、queryTimeout毫秒，0表示不限制）构造结果集限制
+     */
+    private ResultLimits resultLimits(DatabaseConfig config, long offset) {
+        long rows = limitOption(config, "maxResultRows", maxResultSize);
+        long bytes = limitOption(config, "maxResultBytes", maxResultBytes);
+        long timeout = limitOption(config, "queryTimeout", queryTimeout);
+        int timeoutSeconds = (int) Math.min(Integer.MAX_VALUE, (timeout + 999) / 1000);
+        return new ResultLimits((int) Math.min(Integer.MAX_VALUE - 1, rows), bytes, offset, timeoutSeconds);
+    }
+    
+    private static long limitOption(DatabaseConfig config, String option, long defaultValue) {
+        String value = config.getOption(option);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.trim());
+            if (result < 0) {
+                throw new NumberFormatException();
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("连接选项" + option + "必须为非负整数: " + value);
+        }
+    }
+    
+    /**
+     * 续取标识：已返回行数与语句文本摘要，附HMAC签名
+     * 
+     * 续取时不再做代价检查，签名防止客户端伪造标识绕过检查；摘要取自完整语句文本而非去掉字面量的指纹，
+     * 防止低代价语句的标识被用于只有字面量不同的高代价语句，或用于其他数据源。
+     */
+    private String encodeContinuation(Long configId, long offset, String sql) {
+        String payload = offset + ":" + configId + ":" + sqlDigest(sql);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(signContinuation(payload));
+    }
+    
+    private long decodeContinuation(String continuation, Long configId, String sql) {
+        String token = continuation.trim();
+        int dot = token.indexOf('.');
+        String payload;
+        byte[] signature;
+        try {
+            if (dot <= 0) {
+                throw new IllegalArgumentException();
+            }
+            payload = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的续取标识: " + continuation);
+        }
+        if (!MessageDigest.isEqual(signature, signContinuation(payload))) {
+            throw new IllegalArgumentException("无效的续取标识: " + continuation);
+        }
+        String[] parts = payload.split(":", 3);
+        long offset;
+        try {
+            offset = parts.length == 3 ? Long.parseLong(parts[0]) : -1;
+        } catch (NumberFormatException e) {
+            offset = -1;
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("无效的续取标识: " + continuation);
+        }
+        if (!parts[1].equals(String.valueOf(configId))
+                || !parts[2].equals(sqlDigest(sql))) {
+            throw new IllegalArgumentException("续取标识与语句不匹配");
+        }
+        return offset;
+    }
+    
+    /**
+     * 去掉首尾空白与末尾分号后的语句文本的SHA-256摘要
+     */
+    private static String sqlDigest(String sql) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(SqlLimits.stripTrailingSemicolons(sql).trim().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+    
+    /**
+     * HMAC-SHA256签名；未配置anydb.sql.continuation-secret时使用进程内随机密钥（重启后旧标识失效）
+     */
+    private byte[] signContinuation(String payload) {
+        try {
+            byte[] key = continuationSecret != null && !continuationSecret.isBlank()
+                ? continuationSecret.getBytes(StandardCharsets.UTF_8) : RANDOM_CONTINUATION_KEY;
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("续取标识签名失败", e);
+        }
+    }
+    
+    /**
+     * 代价检查：估算扫描量超过阈值时按处置方式拒绝、要求确认，或返回需要追加行数限制的结论
+     * 
+     * 连接器不支持执行计划或获取计划失败时不拦截（语句本身的错误由执行时报告）。
+     * 
+     * @return 需要追加行数限制时返回检查结论，否则返回null
+     */
+    private QueryGuard.Verdict guard(Long configId, DatabaseConfig config, DatabaseConnector connector,
+                                     SqlStatement statement, String sql, boolean confirmed) {
+        if (!queryGuard.applies(config, statement) || !connector.getCapabilities().contains(ConnectorCapability.EXPLAIN)) {
+            return null;
+        }
+        ExplainConnector explainer = (ExplainConnector) connector;
+        QueryPlan plan;
+        try {
+            // 按原始语句获取计划，不使用按指纹缓存的计划：字面量不同时估算扫描量可能相差几个数量级
+            String target = SqlLimits.stripTrailingSemicolons(sql);
+            plan = hostBalancer.execute(config, connector, true, c -> explainer.explain(c, target, statement, false));
+        } catch (RuntimeException e) {
+            log.debug("获取执行计划失败，跳过代价检查: {}", e.getMessage());
+            return null;
+        }
+        QueryGuard.Verdict verdict = queryGuard.evaluate(config, plan);
+        if (verdict == null) {
+            return null;
+        }
+        if (verdict.action() == QueryGuard.Action.REJECT) {
+            log.warn("查询估算扫描量超过阈值，已拒绝，配置ID: {}, 指纹: {}", configId, statement.getFingerprint());
+            throw new QueryGuardException("查询估算扫描量超过数据源阈值，已拒绝执行", verdict);
+        }
+        if (confirmed) {
+            return null;
+        }
+        if (verdict.action() == QueryGuard.Action.LIMIT && !statement.hasRowLimit()
+                && SqlLimits.supportsLimit(config.getType())) {
+            return verdict;
+        }
+        throw new QueryGuardException("查询估算扫描量超过数据源阈值，确认后可重新提交执行", verdict);
     }
     
     /**
@@ -128,7 +633,7 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        return connector.getDatabases(config);
+        return hostBalancer.execute(config, connector, true, connector::getDatabases);
     }
     
     /**
@@ -142,7 +647,7 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        return connector.getTables(config, database);
+        return hostBalancer.execute(config, connector, true, target -> connector.getTables(target, database));
     }
     
     /**
@@ -156,7 +661,8 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        return connector.getTableInfo(config, database, tableName);
+        return hostBalancer.execute(config, connector, true,
+            target -> connector.getTableInfo(target, database, tableName));
     }
     
     /**
@@ -171,27 +677,185 @@ public class DatabaseService {
             throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
         }
         
-        return connector.getTableData(config, database, tableName, page, size, orderBy, orderDirection);
+        return read(config, connector, usesReplicas(config), true,
+            target -> connector.getTableData(target, database, tableName, page, size, orderBy, orderDirection));
+    }
+    
+    /**
+     * 预览表数据（原生采样，不排序）
+     */
+    public DatabaseConnector.QueryResult previewTableData(Long configId, String database, String tableName, int size) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        DatabaseConnector connector = connectionManager.getConnector(config.getType());
+        
+        if (connector == null) {
+            throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
+        }
+        
+        return read(config, connector, usesReplicas(config), true,
+            target -> connector.previewTableData(target, database, tableName, size));
     }
     
     /**
-     * 获取数据库配置（TODO: 实际应该从MySQL持久化存储中获取）
+     * 批量导出表数据，数据直接写入输出流
+     *
+     * @return 导出行数
+     */
+    public long exportTable(Long configId, String database, String tableName, BulkFormat format, OutputStream out) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        BulkExportConnector connector = (BulkExportConnector) requireCapability(config, ConnectorCapability.BULK_EXPORT);
+        return hostBalancer.execute(config, connector, false,
+            target -> connector.exportTable(target, database, tableName, format, out));
+    }
+    
+    /**
+     * 批量导入表数据，数据直接从输入流读取
+     *
+     * @return 导入行数
+     */
+    public long importTable(Long configId, String database, String tableName, List<String> columns,
+                            BulkFormat format, boolean header, InputStream in) {
+        DatabaseConfig config = getDatabaseConfig(configId);
+        BulkImportConnector connector = (BulkImportConnector) requireCapability(config, ConnectorCapability.BULK_IMPORT);
+        return hostBalancer.execute(config, connector, false,
+            target -> connector.importTable(target, database, tableName, columns, format, header, in));
+    }
+    
+    /**
+     * 获取只读副本的路由状态
+     */
+    public List<Map<String, Object>> getReplicaStatus(Long configId) {
+        return replicaRouter.getReplicaStatus(getDatabaseConfig(configId));
+    }
+    
+    /**
+     * 获取多主机的负载与隔离状态
+     */
+    public List<Map<String, Object>> getHostStatus(Long configId) {
+        return hostBalancer.getHostStatus(getDatabaseConfig(configId));
+    }
+    
+    /**
+     * 执行时间超过阈值时按语句指纹记录慢查询
+     */
+    private void logIfSlow(Long configId, SqlStatement statement, Long executionTime) {
+        if (slowQueryThreshold > 0 && executionTime != null && executionTime >= slowQueryThreshold) {
+            log.warn("慢查询，配置ID: {}, 耗时: {}ms, 类型: {}, 表: {}, 指纹: {}",
+                configId, executionTime, statement.getType(), statement.getTables(), statement.getFingerprint());
+        }
+    }
+    
+    /**
+     * 执行读操作：toReplica为true时优先发往只读副本，主库执行经HostBalancer选择主机
+     */
+    private <T> T read(DatabaseConfig config, DatabaseConnector connector, boolean toReplica, boolean retryable,
+                       Function<DatabaseConfig, T> action) {
+        if (toReplica) {
+            return replicaRouter.routeRead(config, connector, action,
+                () -> hostBalancer.execute(config, connector, retryable, action::apply));
+        }
+        return hostBalancer.execute(config, connector, retryable, action::apply);
+    }
+    
+    /**
+     * 是否按读写分离路由（配置了副本且连接器支持副本路由）
+     */
+    private boolean usesReplicas(DatabaseConfig config) {
+        return config.hasReplicas()
+            && connectionManager.getCapabilities(config.getType()).contains(ConnectorCapability.READ_REPLICAS);
+    }
+    
+    /**
+     * 获取连接器并校验其支持指定能力（声明了能力的连接器已在登记时校验实现了对应接口）
+     */
+    private DatabaseConnector requireCapability(DatabaseConfig config, ConnectorCapability capability) {
+        DatabaseConnector connector = connectionManager.getConnector(config.getType());
+        if (connector == null) {
+            throw new IllegalArgumentException("不支持的数据库类型: " + config.getType());
+        }
+        if (!connector.getCapabilities().contains(capability)) {
+            throw new IllegalStateException(config.getType().getDisplayName() + "连接器不支持" + capability);
+        }
+        return connector;
+    }
+    
+    /**
+     * 获取数据库配置（从持久化存储读取，内存缓存命中）
      */
     private DatabaseConfig getDatabaseConfig(Long configId) {
-        // TODO: 从MySQL数据库中获取实际的数据库配置
-        // 这里返回临时配置，实际项目中需要实现持久化存储
-        
-        // 临时模拟数据库配置
-        DatabaseConfig config = new DatabaseConfig();
-        config.setId(configId);
-        config.setType(DatabaseType.MYSQL);
-        config.setHost("localhost");
-        config.setPort(3306);
-        config.setDatabase("test");
-        config.setUsername("root");
-        config.setPassword("password");
-        
-        log.warn("使用临时数据库配置，实际项目中应该从MySQL持久化存储中获取，配置ID: {}", configId);
-        return config;
-    }
-}
\ No newline at end of file
+        return databaseConfigService.getDatabaseConfig(configId);
+    }
+    
+    /**
+     * 已检查的流式查询
+     * 
+     * @param sql 实际执行的语句（代价检查要求追加行数限制时为改写后的语句）
+     * @param maxRows 行数上限，0表示不限制
+     */
+    record StreamTarget(DatabaseConfig config, DatabaseConnector connector, SqlStatement statement,
+                        String sql, long maxRows) {
+    }
+    
+    /**
+     * 行数上限：超出部分不推送并通知接收端结果被截断，之后报告已取消，连接器随之停止读取
+     * 
+     * 恰好读到上限时继续读取下一批，读到多余的行才算截断。
+     */
+    private static final class RowCapSink implements QueryStreamSink {
+        
+        private final QueryStreamSink delegate;
+        
+        private final long maxRows;
+        
+        private long rows;
+        
+        private boolean truncated;
+        
+        RowCapSink(QueryStreamSink delegate, long maxRows) {
+            this.delegate = delegate;
+            this.maxRows = maxRows;
+        }
+        
+        @Override
+        public void onColumns(List<String> columns) {
+            delegate.onColumns(columns);
+        }
+        
+        @Override
+        public void onRows(List<List<Object>> batch) throws InterruptedException {
+            long remaining = maxRows - rows;
+            if (batch.size() > remaining) {
+                if (remaining > 0) {
+                    rows = maxRows;
+                    delegate.onRows(batch.subList(0, (int) remaining));
+                }
+                if (!truncated) {
+                    truncated = true;
+                    delegate.onTruncated(maxRows);
+                }
+                return;
+            }
+            rows += batch.size();
+            delegate.onRows(batch);
+        }
+        
+        @Override
+        public void onProgress(QueryProgress progress) {
+            delegate.onProgress(progress);
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return isTruncated() || delegate.isCancelled();
+        }
+        
+        @Override
+        public void onCancellable(Runnable canceller) {
+            delegate.onCancellable(canceller);
+        }
+        
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.HostEndpoint;
+import com.anydb.connector.LoadBalancePolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多主机负载均衡与故障切换
+ *
+ * 配置了备用主机时，每次请求按负载均衡策略在未隔离的主机中选择一个执行。
+ * 主机出现连接类故障即被隔离，之后的请求不再等待其连接超时；可重试的请求
+ * （只读操作）立即在下一个主机上重试一次。隔离中的主机由后台任务定期探测，
+ * 连接测试通过后恢复。所有主机都被隔离时按隔离先后顺序仍尝试，避免全部不可用。
+ * LATENCY_WEIGHTED使用的延迟是后台连接测试的往返时间，不含请求本身的执行时间，
+ * 慢查询不会让所在主机显得更慢。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class HostBalancer {
+
+    /**
+     * 延迟滑动平均的新样本权重
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    /**
+     * 未隔离主机的延迟测量间隔（毫秒）
+     */
+    @Value("${anydb.failover.latency-probe-interval:30000}")
+    private long latencyProbeInterval = 30_000;
+
+    /**
+     * 主机状态 - key: 配置ID@主机:端口
+     */
+    private final ConcurrentMap<String, HostState> states = new ConcurrentHashMap<>();
+
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    /**
+     * 在主机上执行的操作
+     */
+    @FunctionalInterface
+    public interface HostAction<T, E extends Exception> {
+        T apply(DatabaseConfig target) throws E;
+    }
+
+    /**
+     * 按策略选择主机执行，连接故障时隔离该主机
+     *
+     * @param retryable 是否可在另一主机上重试（非幂等的写操作、已开始推送的流式查询不可重试）
+     */
+    public <T, E extends Exception> T execute(DatabaseConfig config, DatabaseConnector connector,
+                                              boolean retryable, HostAction<T, E> action) throws E {
+        if (!config.hasHosts()) {
+            return action.apply(config);
+        }
+
+        List<HostState> candidates = candidates(config, connector);
+        int attempts = retryable ? Math.min(2, candidates.size()) : 1;
+        for (int i = 0; ; i++) {
+            HostState host = candidates.get(i);
+            host.inFlight.incrementAndGet();
+            try {
+                return action.apply(host.target);
+            } catch (RuntimeException e) {
+                if (!ReplicaRouter.isConnectionFailure(e)) {
+                    throw e;
+                }
+                quarantine(host, e);
+                if (i + 1 >= attempts) {
+                    throw e;
+                }
+                log.warn("主机连接失败，切换到: {}", candidates.get(i + 1).target.getDescription());
+            } finally {
+                host.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 获取配置下各主机的状态
+     */
+    public List<Map<String, Object>> getHostStatus(DatabaseConfig config) {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (HostEndpoint endpoint : config.getHostEndpoints()) {
+            HostState state = states.get(key(config, endpoint));
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("host", endpoint.getHost());
+            item.put("port", endpoint.getPort() != null ? endpoint.getPort() : config.getPort());
+            item.put("quarantined", state != null && state.quarantinedAt > 0);
+            item.put("inFlight", state != null ? state.inFlight.get() : 0);
+            item.put("averageLatencyMs", state != null && state.latencyMs > 0 ? Math.round(state.latencyMs) : null);
+            status.add(item);
+        }
+        return status;
+    }
+
+    /**
+     * 探测隔离中的主机，连接测试通过后恢复；按延迟加权的配置每隔latency-probe-interval测量一次未隔离主机的延迟
+     */
+    @Scheduled(fixedDelayString = "${anydb.failover.probe-interval:5000}")
+    public void probeQuarantinedHosts() {
+        long now = System.currentTimeMillis();
+        for (HostState state : states.values()) {
+            if (state.connector == null) {
+                continue;
+            }
+            if (state.quarantinedAt == 0) {
+                if (state.target.getLoadBalancePolicy() != LoadBalancePolicy.LATENCY_WEIGHTED
+                        || now - state.latencyProbedAt < latencyProbeInterval) {
+                    continue;
+                }
+                state.latencyProbedAt = now;
+                probe(state);
+            } else if (probe(state)) {
+                state.quarantinedAt = 0;
+                log.info("主机探测恢复，解除隔离: {}", state.target.getDescription());
+            }
+        }
+    }
+
+    /**
+     * 连接测试，通过时记录往返时间
+     */
+    private boolean probe(HostState state) {
+        long startTime = System.nanoTime();
+        boolean healthy;
+        try {
+            healthy = state.connector.testConnection(state.target);
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        if (healthy) {
+            state.recordLatency((System.nanoTime() - startTime) / 1_000_000.0);
+        }
+        return healthy;
+    }
+
+    /**
+     * 清除配置的主机状态（配置更新或删除时调用）
+     */
+    public void evict(Long configId) {
+        String prefix = configId + "@";
+        states.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * 按策略排序的候选主机：未隔离主机在前，隔离主机按隔离先后在后
+     */
+    private List<HostState> candidates(DatabaseConfig config, DatabaseConnector connector) {
+        List<HostState> healthy = new ArrayList<>();
+        List<HostState> quarantined = new ArrayList<>();
+        for (HostEndpoint endpoint : config.getHostEndpoints()) {
+            HostState state = states.computeIfAbsent(key(config, endpoint),
+                key -> new HostState(config.forEndpoint(endpoint)));
+            state.connector = connector;
+            (state.quarantinedAt > 0 ? quarantined : healthy).add(state);
+        }
+
+        order(healthy, config.getLoadBalancePolicy() != null ? config.getLoadBalancePolicy() : LoadBalancePolicy.FAILOVER);
+        quarantined.sort(Comparator.comparingLong(state -> state.quarantinedAt));
+        healthy.addAll(quarantined);
+        return healthy;
+    }
+
+    private void order(List<HostState> hosts, LoadBalancePolicy policy) {
+        if (hosts.size() < 2) {
+            return;
+        }
+        switch (policy) {
+            case ROUND_ROBIN -> rotate(hosts, Math.floorMod(rotation.getAndIncrement(), hosts.size()));
+            case LEAST_CONNECTIONS -> {
+                rotate(hosts, Math.floorMod(rotation.getAndIncrement(), hosts.size()));
+                hosts.sort(Comparator.comparingInt(state -> state.inFlight.get()));
+            }
+            case LATENCY_WEIGHTED -> rotate(hosts, weightedPick(hosts));
+            case FAILOVER -> {
+                // 保持配置顺序
+            }
+        }
+    }
+
+    /**
+     * 按1/平均延迟加权随机选择首选主机，尚无延迟样本的主机按已知最快主机计
+     */
+    private int weightedPick(List<HostState> hosts) {
+        double fastest = hosts.stream().mapToDouble(state -> state.latencyMs).filter(latency -> latency > 0)
+            .min().orElse(1.0);
+        double[] weights = new double[hosts.size()];
+        double total = 0;
+        for (int i = 0; i < hosts.size(); i++) {
+            double latency = hosts.get(i).latencyMs > 0 ? hosts.get(i).latencyMs : fastest;
+            weights[i] = 1.0 / Math.max(latency, 0.1);
+            total += weights[i];
+        }
+        double pick = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void rotate(List<HostState> hosts, int first) {
+        List<HostState> rotated = new ArrayList<>(hosts.subList(first, hosts.size()));
+        rotated.addAll(hosts.subList(0, first));
+        hosts.clear();
+        hosts.addAll(rotated);
+    }
+
+    private void quarantine(HostState host, RuntimeException error) {
+        if (host.quarantinedAt == 0) {
+            host.quarantinedAt = System.currentTimeMillis();
+            log.warn("主机连接失败，已隔离: {}, 错误: {}", host.target.getDescription(), error.getMessage());
+        }
+    }
+
+    private static String key(DatabaseConfig config, HostEndpoint endpoint) {
+        int port = endpoint.getPort() != null ? endpoint.getPort() : config.getPort();
+        return config.getId() + "@" + endpoint.getHost() + ":" + port;
+    }
+
+    /**
+     * 单个主机的负载、延迟与隔离状态
+     */
+    private static class HostState {
+
+        private final DatabaseConfig target;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private volatile DatabaseConnector connector;
+
+        private volatile double latencyMs;
+
+        /**
+         * 最近一次测量未隔离主机延迟的时间
+         */
+        private volatile long latencyProbedAt;
+
+        /**
+         * 隔离开始时间，0表示未隔离
+         */
+        private volatile long quarantinedAt;
+
+        HostState(DatabaseConfig target) {
+            this.target = target;
+        }
+
+        void recordLatency(double sample) {
+            double current = latencyMs;
+            latencyMs = current <= 0 ? sample : current + LATENCY_SMOOTHING * (sample - current);
+        }
+    }
+}
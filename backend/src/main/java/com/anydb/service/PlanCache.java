@@ -0,0 +1,87 @@
+package com.anydb.service;
+
+import com.anydb.connector.QueryPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 执行计划缓存
+ *
+ * 按“配置ID + 语句指纹”缓存估算计划（不含ANALYZE结果），字面量不同的同构语句共用一份计划。
+ * 超过容量时淘汰最久未访问的条目；条目超过存活时间或配置变更、执行DDL后失效。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+public class PlanCache {
+
+    @Value("${anydb.explain.cache-size:500}")
+    private int maxEntries = 500;
+
+    @Value("${anydb.explain.cache-ttl:600000}")
+    private long ttl = 600000;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * 获取缓存的计划，不存在或已过期返回null
+     */
+    public synchronized QueryPlan get(Long configId, String fingerprint) {
+        String key = key(configId, fingerprint);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.createdAt() > ttl) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.plan();
+    }
+
+    public synchronized void put(Long configId, String fingerprint, QueryPlan plan) {
+        entries.put(key(configId, fingerprint), new Entry(plan, System.currentTimeMillis()));
+    }
+
+    /**
+     * 清除配置的全部计划（配置更新、删除或执行DDL后调用）
+     */
+    public synchronized void evict(Long configId) {
+        String prefix = configId + "|";
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    private static String key(Long configId, String fingerprint) {
+        return configId + "|" + fingerprint;
+    }
+
+    private record Entry(QueryPlan plan, long createdAt) {
+    }
+}
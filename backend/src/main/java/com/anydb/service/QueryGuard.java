@@ -0,0 +1,202 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.PlanNode;
+import com.anydb.connector.QueryPlan;
+import com.anydb.sql.SqlStatement;
+import com.anydb.sql.StatementType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 查询代价检查
+ *
+ * 交互式SELECT执行前按该语句的估算执行计划（不使用按指纹缓存的计划）判断扫描量：计划树中最大估算行数或最大估算代价
+ * 超过阈值时，按处置方式拒绝、要求确认或自动追加行数限制。Limit节点下的子树读够行数即停止，
+ * 其估算值不超过该Limit节点自身的估算值。
+ * 阈值与处置方式取全局配置（anydb.guard.*），数据源可用连接选项覆盖：
+ * guardMaxRows、guardMaxCost（0表示不检查该项）、guardAction（reject/confirm/limit）、guardLimit。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+public class QueryGuard {
+
+    static final String OPTION_MAX_ROWS = "guardMaxRows";
+
+    static final String OPTION_MAX_COST = "guardMaxCost";
+
+    static final String OPTION_ACTION = "guardAction";
+
+    static final String OPTION_LIMIT = "guardLimit";
+
+    /**
+     * 超过阈值时的处置方式
+     */
+    public enum Action {
+
+        /**
+         * 拒绝执行
+         */
+        REJECT,
+
+        /**
+         * 要求客户端确认后重新提交
+         */
+        CONFIRM,
+
+        /**
+         * 自动追加行数限制后执行；语句已有顶层限制或方言无法安全改写（见SqlLimits）时按CONFIRM处理
+         */
+        LIMIT
+    }
+
+    @Value("${anydb.guard.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${anydb.guard.max-rows:10000000}")
+    private long maxRows = 10_000_000;
+
+    @Value("${anydb.guard.max-cost:0}")
+    private double maxCost;
+
+    @Value("${anydb.guard.action:CONFIRM}")
+    private Action action = Action.CONFIRM;
+
+    @Value("${anydb.guard.limit:1000}")
+    private int limit = 1000;
+
+    /**
+     * 检查结论
+     *
+     * @param estimatedRows 计划树中最大的估算行数（按Limit节点封顶），未知为null
+     * @param estimatedCost 计划树中最大的估算代价（按Limit节点封顶），未知为null
+     */
+    public record Verdict(Action action, Double estimatedRows, Double estimatedCost, long maxRows, double maxCost,
+                          int limit) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("action", action);
+            map.put("estimatedRows", estimatedRows);
+            map.put("estimatedCost", estimatedCost);
+            map.put("maxRows", maxRows);
+            map.put("maxCost", maxCost);
+            return map;
+        }
+    }
+
+    /**
+     * 是否需要检查：已启用、单条只读SELECT且数据源设置了阈值
+     */
+    public boolean applies(DatabaseConfig config, SqlStatement statement) {
+        return enabled && statement.getType() == StatementType.SELECT && statement.isReadOnly()
+            && (maxRows(config) > 0 || maxCost(config) > 0);
+    }
+
+    /**
+     * 按执行计划判断是否超过阈值，未超过或计划中没有估算值时返回null
+     */
+    public Verdict evaluate(DatabaseConfig config, QueryPlan plan) {
+        if (plan == null || plan.getRoot() == null) {
+            return null;
+        }
+        Double rows = max(plan.getRoot(), true, null);
+        Double cost = max(plan.getRoot(), false, null);
+        long rowLimit = maxRows(config);
+        double costLimit = maxCost(config);
+        boolean exceeded = (rowLimit > 0 && rows != null && rows > rowLimit)
+            || (costLimit > 0 && cost != null && cost > costLimit);
+        return exceeded ? new Verdict(action(config), rows, cost, rowLimit, costLimit, limit(config)) : null;
+    }
+
+    /**
+     * 子树中最大的估算值，不超过cap（最近的上层Limit节点的估算值，没有为null）
+     */
+    private static Double max(PlanNode node, boolean rows, Double cap) {
+        Double max = rows ? node.getEstimatedRows() : node.getEstimatedCost();
+        if (max != null && cap != null && max > cap) {
+            max = cap;
+        }
+        Double childCap = isLimit(node) && max != null ? max : cap;
+        for (PlanNode child : node.getChildren()) {
+            Double value = max(child, rows, childCap);
+            if (value != null && (max == null || value > max)) {
+                max = value;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 行数限制节点：PostgreSQL/ClickHouse的Limit、Oracle的COUNT STOPKEY
+     */
+    private static boolean isLimit(PlanNode node) {
+        String operation = node.getOperation();
+        if (operation == null) {
+            return false;
+        }
+        String normalized = operation.trim().toUpperCase(Locale.ROOT);
+        return normalized.equals("LIMIT") || normalized.contains("STOPKEY");
+    }
+
+    private long maxRows(DatabaseConfig config) {
+        String value = config.getOption(OPTION_MAX_ROWS);
+        return value != null && !value.isBlank() ? parse(OPTION_MAX_ROWS, value).longValue() : maxRows;
+    }
+
+    private double maxCost(DatabaseConfig config) {
+        String value = config.getOption(OPTION_MAX_COST);
+        return value != null && !value.isBlank() ? parse(OPTION_MAX_COST, value) : maxCost;
+    }
+
+    private int limit(DatabaseConfig config) {
+        String value = config.getOption(OPTION_LIMIT);
+        int result = value != null && !value.isBlank() ? parse(OPTION_LIMIT, value).intValue() : limit;
+        if (result <= 0) {
+            throw new IllegalArgumentException("连接选项" + OPTION_LIMIT + "必须为正整数: " + value);
+        }
+        return result;
+    }
+
+    private Action action(DatabaseConfig config) {
+        String value = config.getOption(OPTION_ACTION);
+        if (value == null || value.isBlank()) {
+            return action;
+        }
+        try {
+            return Action.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("连接选项" + OPTION_ACTION + "必须为reject、confirm或limit: " + value);
+        }
+    }
+
+    private static Double parse(String option, String value) {
+        try {
+            double result = Double.parseDouble(value.trim());
+            if (result < 0) {
+                throw new NumberFormatException();
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("连接选项" + option + "必须为非负数: " + value);
+        }
+    }
+
+    void setMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    void setMaxCost(double maxCost) {
+        this.maxCost = maxCost;
+    }
+
+    void setAction(Action action) {
+        this.action = action;
+    }
+}
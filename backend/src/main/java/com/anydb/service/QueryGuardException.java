@@ -0,0 +1,28 @@
+package com.anydb.service;
+
+/**
+ * 查询被代价检查拦截（拒绝执行或需要确认）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class QueryGuardException extends RuntimeException {
+
+    private final QueryGuard.Verdict verdict;
+
+    public QueryGuardException(String message, QueryGuard.Verdict verdict) {
+        super(message);
+        this.verdict = verdict;
+    }
+
+    public QueryGuard.Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * 是否可以在确认后重新提交执行
+     */
+    public boolean isConfirmable() {
+        return verdict.action() != QueryGuard.Action.REJECT;
+    }
+}
@@ -0,0 +1,223 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.HostEndpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离路由
+ *
+ * 只读语句（SELECT/SHOW/EXPLAIN/DESC及不含写操作的WITH）发往当前执行中请求最少的健康副本，
+ * 其余语句（DML/DDL、事务控制、加锁读、SELECT INTO、多语句）始终发往主库。
+ * 配置了最大复制延迟时，延迟未知或超限的副本不参与路由：延迟由后台任务按间隔探测，
+ * 请求线程只读取探测结果，探测失败的副本按连接故障摘除。
+ * 副本出现连接类故障时摘除一段时间并改由主库执行本次请求；SQL本身的错误直接抛出。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ReplicaRouter {
+
+    @Value("${anydb.routing.unhealthy-backoff:30000}")
+    private long unhealthyBackoff;
+
+    /**
+     * 副本状态 - key: 配置ID@主机:端口
+     */
+    private final ConcurrentMap<String, ReplicaState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 相同负载副本间轮转的起点
+     */
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    /**
+     * 在选中的副本上执行只读操作，无可用副本或副本连接失败时在主库执行
+     */
+    public <T> T routeRead(DatabaseConfig config, DatabaseConnector connector, Function<DatabaseConfig, T> action) {
+        return routeRead(config, connector, action, () -> action.apply(config));
+    }
+
+    /**
+     * 在选中的副本上执行只读操作，无可用副本或副本连接失败时执行主库操作
+     *
+     * @param onPrimary 主库执行方式（如经HostBalancer在多个主机间切换）
+     */
+    public <T> T routeRead(DatabaseConfig config, DatabaseConnector connector, Function<DatabaseConfig, T> action,
+                           Supplier<T> onPrimary) {
+        ReplicaState replica = selectReplica(config, connector);
+        if (replica != null) {
+            replica.inFlight.incrementAndGet();
+            try {
+                return action.apply(config.forEndpoint(replica.endpoint));
+            } catch (RuntimeException e) {
+                if (!isConnectionFailure(e)) {
+                    throw e;
+                }
+                replica.unhealthyUntil = System.currentTimeMillis() + unhealthyBackoff;
+                log.warn("副本连接失败，暂时摘除并改由主库执行，副本: {}, 错误: {}", replica.endpoint, e.getMessage());
+            } finally {
+                replica.inFlight.decrementAndGet();
+            }
+        }
+        return onPrimary.get();
+    }
+
+    /**
+     * 获取配置下各副本的路由状态
+     */
+    public List<Map<String, Object>> getReplicaStatus(DatabaseConfig config) {
+        List<Map<String, Object>> status = new ArrayList<>();
+        if (!config.hasReplicas()) {
+            return status;
+        }
+        long now = System.currentTimeMillis();
+        for (HostEndpoint endpoint : config.getReplicas()) {
+            ReplicaState state = state(config, endpoint);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("host", endpoint.getHost());
+            item.put("port", endpoint.getPort() != null ? endpoint.getPort() : config.getPort());
+            item.put("healthy", state.unhealthyUntil <= now);
+            item.put("inFlight", state.inFlight.get());
+            item.put("replicationLag", state.lag);
+            status.add(item);
+        }
+        return status;
+    }
+
+    /**
+     * 探测已参与路由的副本的复制延迟；探测失败的副本摘除一段时间，延迟记为未知
+     */
+    @Scheduled(fixedDelayString = "${anydb.routing.lag-check-interval:5000}")
+    public void probeReplicationLag() {
+        for (ReplicaState state : states.values()) {
+            DatabaseConfig config = state.config;
+            if (config == null || config.getMaxReplicationLag() == null) {
+                continue;
+            }
+            try {
+                state.lag = state.connector.getReplicationLag(config.forEndpoint(state.endpoint));
+            } catch (RuntimeException e) {
+                state.lag = null;
+                state.unhealthyUntil = System.currentTimeMillis() + unhealthyBackoff;
+                log.warn("查询副本复制延迟失败，暂时摘除，副本: {}, 错误: {}", state.endpoint, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清除配置的副本状态（配置更新或删除时调用）
+     */
+    public void evict(Long configId) {
+        String prefix = configId + "@";
+        states.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * 选择执行中请求最少的可用副本（负载相同时轮转），无可用副本返回null
+     */
+    private ReplicaState selectReplica(DatabaseConfig config, DatabaseConnector connector) {
+        List<HostEndpoint> replicas = config.getReplicas();
+        int size = replicas.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        long now = System.currentTimeMillis();
+
+        ReplicaState selected = null;
+        for (int i = 0; i < size; i++) {
+            HostEndpoint endpoint = replicas.get((start + i) % size);
+            ReplicaState state = state(config, endpoint);
+            state.config = config;
+            state.connector = connector;
+            if (state.unhealthyUntil > now || !withinLag(config, state)) {
+                continue;
+            }
+            if (selected == null || state.inFlight.get() < selected.inFlight.get()) {
+                selected = state;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 最近一次探测的延迟是否在上限内（尚未探测时视为未知，不参与路由）
+     */
+    private static boolean withinLag(DatabaseConfig config, ReplicaState state) {
+        Integer maxLag = config.getMaxReplicationLag();
+        if (maxLag == null) {
+            return true;
+        }
+        Long lag = state.lag;
+        return lag != null && lag <= maxLag;
+    }
+
+    private ReplicaState state(DatabaseConfig config, HostEndpoint endpoint) {
+        int port = endpoint.getPort() != null ? endpoint.getPort() : config.getPort();
+        String key = config.getId() + "@" + endpoint.getHost() + ":" + port;
+        return states.computeIfAbsent(key, k -> new ReplicaState(endpoint));
+    }
+
+    /**
+     * 是否为连接类故障（连接拒绝、断开、超时，SQLState 08xxx）
+     */
+    static boolean isConnectionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单个副本的负载、健康与延迟状态（config与connector为最近一次路由时的值，供后台探测使用）
+     */
+    private static class ReplicaState {
+
+        private final HostEndpoint endpoint;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private volatile long unhealthyUntil;
+
+        private volatile Long lag;
+
+        private volatile DatabaseConfig config;
+
+        private volatile DatabaseConnector connector;
+
+        ReplicaState(HostEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.spool.ResultSpoolManager;
+import com.anydb.spool.SpooledResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 查询结果会话服务
+ *
+ * 打开会话时在请求线程上检查语句（只读与代价检查，见DatabaseService#streamQuery），
+ * 再在后台线程流式执行查询，结果写入SpooledResult（超过内存阈值落盘），
+ * 第一个窗口到达（或查询结束）后立即返回会话ID与该窗口；之后按需读取任意窗口，
+ * 窗口尚未到达时最多等待fetch-timeout。后台读取持有服务端游标直到读完，
+ * 浏览器与服务端内存占用只与窗口大小有关。会话按最后访问时间过期（anydb.spool.ttl），删除会话时终止读取。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class ResultSessionService {
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private ResultSpoolManager resultSpoolManager;
+
+    @Value("${anydb.stream.batch-size:500}")
+    private int batchSize;
+
+    @Value("${anydb.session.max-concurrent-reads:16}")
+    private int maxConcurrentReads;
+
+    @Value("${anydb.session.fetch-timeout:30000}")
+    private long fetchTimeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, maxConcurrentReads, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "result-session-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 打开会话：检查语句后后台执行查询，返回会话ID与第一个窗口
+     *
+     * @param confirmed 客户端已确认执行超过阈值的查询（不绕过REJECT）
+     * @throws QueryGuardException 估算扫描量超过阈值且处置方式为拒绝或需要确认
+     * @throws IllegalStateException 后台读取并发数已达上限，或查询在返回任何行之前失败
+     * @throws InterruptedException 等待第一个窗口时被中断
+     */
+    public Map<String, Object> open(Long configId, String sql, int windowSize, boolean confirmed)
+            throws InterruptedException {
+        DatabaseService.StreamTarget target = databaseService.prepareStream(configId, sql, confirmed);
+        SpooledResult result = resultSpoolManager.create(configId);
+        try {
+            executor.execute(() -> read(target, result));
+        } catch (RejectedExecutionException e) {
+            resultSpoolManager.remove(result.getId());
+            throw new IllegalStateException("结果会话后台读取并发数已达上限: " + maxConcurrentReads);
+        }
+
+        Map<String, Object> window;
+        try {
+            window = fetch(result.getId(), 0, windowSize, null, null);
+        } catch (InterruptedException | RuntimeException e) {
+            resultSpoolManager.remove(result.getId());
+            throw e;
+        }
+        if (result.getError() != null && result.getRowCount() == 0) {
+            resultSpoolManager.remove(result.getId());
+            throw new IllegalStateException(result.getError());
+        }
+        log.info("打开结果会话，配置ID: {}, 会话ID: {}", configId, result.getId());
+        return window;
+    }
+
+    /**
+     * 读取窗口；按原始顺序读取时等待窗口内的行到达（最多fetch-timeout），排序读取需等待查询结束
+     *
+     * @return 会话ID、窗口行、当前已读取的总行数total、是否读取完成finished与是否超过行数上限truncated
+     * @throws InterruptedException 等待时被中断
+     */
+    public Map<String, Object> fetch(String sessionId, long offset, int limit, String orderBy, String orderDirection)
+            throws InterruptedException {
+        SpooledResult result = resultSpoolManager.get(sessionId);
+        if (orderBy == null || orderBy.isBlank()) {
+            result.awaitRows(offset + Math.max(1, limit), fetchTimeout);
+        }
+        DatabaseConnector.QueryResult window = result.window(offset, limit, orderBy, orderDirection);
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sessionId", sessionId);
+        map.put("offset", offset);
+        map.put("columns", window.getColumns());
+        map.put("rows", window.getRows());
+        map.put("total", window.getTotal());
+        map.put("finished", result.isFinished());
+        map.put("truncated", result.isTruncated());
+        map.put("spilled", result.isSpilled());
+        map.put("executionTime", window.getExecutionTime());
+        if (result.getError() != null) {
+            map.put("error", result.getError());
+        }
+        return map;
+    }
+
+    /**
+     * 关闭会话：终止后台读取并释放结果
+     */
+    public void close(String sessionId) {
+        resultSpoolManager.remove(sessionId);
+    }
+
+    private void read(DatabaseService.StreamTarget target, SpooledResult result) {
+        long startTime = System.currentTimeMillis();
+        try {
+            databaseService.streamQuery(target, batchSize, result);
+            if (!result.isCancelled()) {
+                result.finish(System.currentTimeMillis() - startTime);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.fail("读取被中断");
+        } catch (RuntimeException e) {
+            if (!result.isCancelled()) {
+                log.warn("结果会话读取失败，会话ID: {}: {}", result.getId(), e.getMessage());
+            }
+            result.fail(e.getMessage());
+        }
+    }
+}
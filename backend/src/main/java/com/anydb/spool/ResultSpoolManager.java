@@ -0,0 +1,247 @@
+package com.anydb.spool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 查询结果落盘管理
+ *
+ * 管理全部SpooledResult：落盘文件统一放在anydb.spool.dir目录，超过存活时间（按最后访问计）的结果定时清理；
+ * 全部落盘文件的总大小不超过anydb.spool.max-disk-bytes，空间不足时先淘汰最久未访问的已完成结果，
+ * 仍不足则写入失败。同时存在的结果数不超过anydb.spool.max-results（每个结果最多在内存中保留
+ * memory-rows行、memory-bytes字节），达到上限时同样先淘汰最久未访问的已完成结果，仍不足则拒绝新建。
+ * 启动时清除上次运行遗留的文件。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ResultSpoolManager {
+
+    private static final String FILE_PREFIX = "result-";
+
+    private static final String FILE_SUFFIX = ".spool";
+
+    @Value("${anydb.spool.dir:${java.io.tmpdir}/anydb-spool}")
+    private String directory = System.getProperty("java.io.tmpdir") + "/anydb-spool";
+
+    @Value("${anydb.spool.memory-rows:100000}")
+    private int memoryRows = 100000;
+
+    @Value("${anydb.spool.memory-bytes:67108864}")
+    private long memoryBytes = 64L << 20;
+
+    @Value("${anydb.spool.max-disk-bytes:10737418240}")
+    private long maxDiskBytes = 10L << 30;
+
+    @Value("${anydb.spool.ttl:1800000}")
+    private long ttl = 1800000;
+
+    @Value("${anydb.spool.max-window:10000}")
+    private int maxWindow = 10000;
+
+    @Value("${anydb.spool.max-results:64}")
+    private int maxResults = 64;
+
+    /**
+     * 结果 - key: 结果ID
+     */
+    private final ConcurrentMap<String, SpooledResult> results = new ConcurrentHashMap<>();
+
+    private final SpoolFile.Budget budget = new SpoolFile.Budget() {
+        @Override
+        public void reserve(long bytes) {
+            reserveDisk(bytes);
+        }
+
+        @Override
+        public void release(long bytes) {
+            releaseDisk(bytes);
+        }
+    };
+
+    private Path root;
+
+    private long diskUsage;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(root, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        new ArrayList<>(results.keySet()).forEach(this::remove);
+    }
+
+    /**
+     * 创建接收查询结果的空结果：结果数达到上限时淘汰最久未访问的已完成结果
+     *
+     * @throws IllegalStateException 结果数已达上限且没有可淘汰的已完成结果
+     */
+    public SpooledResult create(Long configId) {
+        SpooledResult result = new SpooledResult(UUID.randomUUID().toString(), configId, this);
+        while (true) {
+            synchronized (this) {
+                if (results.size() < maxResults) {
+                    results.put(result.getId(), result);
+                    return result;
+                }
+            }
+            Optional<SpooledResult> oldest = results.values().stream()
+                .filter(SpooledResult::isFinished)
+                .min(Comparator.comparingLong(SpooledResult::getLastAccessTime));
+            if (oldest.isEmpty()) {
+                throw new IllegalStateException("查询结果数已达上限(" + maxResults + ")，请关闭不再使用的结果");
+            }
+            SpooledResult victim = oldest.get();
+            if (results.remove(victim.getId(), victim)) {
+                log.info("查询结果数已达上限，淘汰最久未访问的查询结果: {}", victim.getId());
+                victim.close();
+            }
+        }
+    }
+
+    /**
+     * 获取结果
+     *
+     * @throws IllegalArgumentException 结果不存在或已过期
+     */
+    public SpooledResult get(String resultId) {
+        SpooledResult result = results.get(resultId);
+        if (result == null) {
+            throw new IllegalArgumentException("结果不存在或已过期: " + resultId);
+        }
+        return result;
+    }
+
+    /**
+     * 删除结果并释放落盘文件
+     */
+    public void remove(String resultId) {
+        SpooledResult result = results.remove(resultId);
+        if (result != null) {
+            result.close();
+        }
+    }
+
+    /**
+     * 清理超过存活时间的结果
+     */
+    @Scheduled(fixedDelayString = "${anydb.spool.cleanup-interval:60000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        for (SpooledResult result : results.values()) {
+            if (now - result.getLastAccessTime() > ttl) {
+                log.debug("查询结果已过期，释放落盘文件: {}", result.getId());
+                remove(result.getId());
+            }
+        }
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public synchronized long getDiskUsage() {
+        return diskUsage;
+    }
+
+    /**
+     * 新建落盘文件
+     */
+    SpoolFile newFile(int columnCount) {
+        try {
+            return new SpoolFile(Files.createTempFile(root, FILE_PREFIX, FILE_SUFFIX), columnCount, budget);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建落盘文件失败", e);
+        }
+    }
+
+    /**
+     * 预留磁盘空间：超过上限时逐个淘汰最久未访问的已完成结果
+     * 
+     * 挑选与淘汰都在锁外进行，避免与持有排序锁、等待预留空间的结果互相等待。
+     */
+    private void reserveDisk(long bytes) {
+        while (true) {
+            synchronized (this) {
+                if (diskUsage + bytes <= maxDiskBytes) {
+                    diskUsage += bytes;
+                    return;
+                }
+            }
+            Optional<SpooledResult> oldest = results.values().stream()
+                .filter(result -> result.isFinished() && result.getDiskBytes() > 0)
+                .min(Comparator.comparingLong(SpooledResult::getLastAccessTime));
+            if (oldest.isEmpty()) {
+                throw new IllegalStateException("查询结果落盘空间已达上限(" + maxDiskBytes + "字节)");
+            }
+            SpooledResult victim = oldest.get();
+            if (results.remove(victim.getId(), victim)) {
+                log.info("落盘空间不足，淘汰最久未访问的查询结果: {}", victim.getId());
+                victim.close();
+            }
+        }
+    }
+
+    private synchronized void releaseDisk(long bytes) {
+        diskUsage -= bytes;
+    }
+
+    int getMemoryRows() {
+        return memoryRows;
+    }
+
+    long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    int getMaxWindow() {
+        return maxWindow;
+    }
+
+    void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    void setMemoryRows(int memoryRows) {
+        this.memoryRows = memoryRows;
+    }
+
+    void setMaxDiskBytes(long maxDiskBytes) {
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+}
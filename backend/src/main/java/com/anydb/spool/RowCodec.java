@@ -0,0 +1,172 @@
+package com.anydb.spool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 落盘行编码
+ *
+ * 每个值为“类型标记 + 定长或带长度的内容”。整数、浮点、布尔、定点数、字节数组、
+ * JDBC日期时间类型按原类型还原；其他类型（如驱动自定义对象）按toString()保存为字符串。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class RowCodec {
+
+    private static final byte NULL = 0;
+
+    private static final byte STRING = 1;
+
+    private static final byte LONG = 2;
+
+    private static final byte INT = 3;
+
+    private static final byte DOUBLE = 4;
+
+    private static final byte FLOAT = 5;
+
+    private static final byte BOOLEAN = 6;
+
+    private static final byte DECIMAL = 7;
+
+    private static final byte BIG_INTEGER = 8;
+
+    private static final byte BYTES = 9;
+
+    private static final byte TIMESTAMP = 10;
+
+    private static final byte DATE = 11;
+
+    private static final byte TIME = 12;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+    private final DataOutputStream out = new DataOutputStream(buffer);
+
+    /**
+     * 编码一行，返回的数组在下次调用前有效
+     */
+    byte[] encode(List<Object> row) throws IOException {
+        buffer.reset();
+        for (Object value : row) {
+            write(value);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private void write(Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeByte(LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Integer number) {
+            out.writeByte(INT);
+            out.writeInt(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte(FLOAT);
+            out.writeFloat(number);
+        } else if (value instanceof Boolean flag) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(flag);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(DECIMAL);
+            writeString(decimal.toString());
+        } else if (value instanceof BigInteger integer) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(integer.toByteArray());
+        } else if (value instanceof byte[] data) {
+            out.writeByte(BYTES);
+            writeBytes(data);
+        } else if (value instanceof Timestamp timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(DATE);
+            out.writeLong(date.toLocalDate().toEpochDay());
+        } else if (value instanceof Time time) {
+            out.writeByte(TIME);
+            out.writeLong(time.getTime());
+        } else {
+            out.writeByte(STRING);
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String text) throws IOException {
+        writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] data) throws IOException {
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    /**
+     * 从缓冲区当前位置解码一行
+     */
+    static List<Object> decode(ByteBuffer in, int columnCount) {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = read(in);
+        }
+        return Arrays.asList(values);
+    }
+
+    private static Object read(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case LONG:
+                return in.getLong();
+            case INT:
+                return in.getInt();
+            case DOUBLE:
+                return in.getDouble();
+            case FLOAT:
+                return in.getFloat();
+            case BOOLEAN:
+                return in.get() != 0;
+            case DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case BYTES:
+                return readBytes(in);
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.getLong());
+                timestamp.setNanos(in.getInt());
+                return timestamp;
+            case DATE:
+                return java.sql.Date.valueOf(java.time.LocalDate.ofEpochDay(in.getLong()));
+            case TIME:
+                return new Time(in.getLong());
+            default:
+                throw new IllegalStateException("落盘文件已损坏，未知的值类型: " + tag);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] data = new byte[in.getInt()];
+        in.get(data);
+        return data;
+    }
+}
@@ -0,0 +1,176 @@
+package com.anydb.spool;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 结果行排序
+ *
+ * 落盘结果使用外部归并排序：按内存阈值分块读入、块内稳定排序后写成有序段，再多路归并
+ * （段数超过MAX_FAN_IN时分轮归并），相等的行保持原有顺序。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class RowSorter {
+
+    /**
+     * 单轮归并的最大段数
+     */
+    static final int MAX_FAN_IN = 64;
+
+    /**
+     * 新建落盘文件
+     */
+    @FunctionalInterface
+    interface FileFactory {
+
+        SpoolFile create() throws IOException;
+    }
+
+    private RowSorter() {
+    }
+
+    /**
+     * 按列排序的比较器：空值在前（降序时在后），数值跨类型按大小比较，其余同类型按自然顺序、不同类型按字符串比较
+     */
+    static Comparator<List<Object>> byColumn(int column, boolean descending) {
+        Comparator<List<Object>> order = (a, b) -> compareValues(a.get(column), b.get(column));
+        return descending ? order.reversed() : order;
+    }
+
+    @SuppressWarnings("unchecked")
+    static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        if (a instanceof Number x && b instanceof Number y && a.getClass() != b.getClass()) {
+            if (x instanceof Double || x instanceof Float || y instanceof Double || y instanceof Float) {
+                return Double.compare(x.doubleValue(), y.doubleValue());
+            }
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+        }
+        if (a instanceof byte[] x && b instanceof byte[] y) {
+            return Arrays.compareUnsigned(x, y);
+        }
+        if (a.getClass() == b.getClass() && a instanceof Comparable) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    /**
+     * 外部排序，返回新的有序落盘文件（源文件不变）
+     *
+     * @param chunkRows 每个有序段的行数（即排序时内存中最多保留的行数）
+     */
+    static SpoolFile sort(SpoolFile source, Comparator<List<Object>> order, int chunkRows, FileFactory files)
+            throws IOException {
+        List<SpoolFile> runs = new ArrayList<>();
+        try {
+            SpoolFile.Cursor cursor = source.cursor(SpoolFile.PAGE_ROWS * 16);
+            List<List<Object>> chunk = new ArrayList<>();
+            while (cursor.hasNext()) {
+                chunk.add(cursor.next());
+                if (chunk.size() >= chunkRows) {
+                    runs.add(writeRun(chunk, order, files));
+                    chunk = new ArrayList<>();
+                }
+            }
+            if (!chunk.isEmpty() || runs.isEmpty()) {
+                runs.add(writeRun(chunk, order, files));
+            }
+
+            while (runs.size() > 1) {
+                List<SpoolFile> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                    List<SpoolFile> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+                    merged.add(group.size() == 1 ? group.get(0) : merge(group, order, chunkRows, files));
+                }
+                for (SpoolFile run : runs) {
+                    if (!merged.contains(run)) {
+                        run.close();
+                    }
+                }
+                runs = merged;
+            }
+            return runs.remove(0);
+        } finally {
+            runs.forEach(SpoolFile::close);
+        }
+    }
+
+    private static SpoolFile writeRun(List<List<Object>> chunk, Comparator<List<Object>> order, FileFactory files)
+            throws IOException {
+        chunk.sort(order);
+        SpoolFile run = files.create();
+        try {
+            for (List<Object> row : chunk) {
+                run.append(row);
+            }
+            run.finish();
+            return run;
+        } catch (IOException | RuntimeException e) {
+            run.close();
+            throw e;
+        }
+    }
+
+    private static SpoolFile merge(List<SpoolFile> runs, Comparator<List<Object>> order, int chunkRows,
+                                   FileFactory files) throws IOException {
+        int batchRows = Math.max(64, chunkRows / runs.size());
+        PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> {
+            int result = order.compare(a.row, b.row);
+            return result != 0 ? result : Integer.compare(a.run, b.run);
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            SpoolFile.Cursor cursor = runs.get(i).cursor(batchRows);
+            if (cursor.hasNext()) {
+                heads.add(new Head(i, cursor, cursor.next()));
+            }
+        }
+
+        SpoolFile target = files.create();
+        try {
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                target.append(head.row);
+                if (head.cursor.hasNext()) {
+                    head.row = head.cursor.next();
+                    heads.add(head);
+                }
+            }
+            target.finish();
+            return target;
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            throw e;
+        }
+    }
+
+    private static final class Head {
+
+        private final int run;
+
+        private final SpoolFile.Cursor cursor;
+
+        private List<Object> row;
+
+        private Head(int run, SpoolFile.Cursor cursor, List<Object> row) {
+            this.run = run;
+            this.cursor = cursor;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.anydb.spool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 已读取完成的结果行存储（内存或落盘文件）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+interface RowStore extends AutoCloseable {
+
+    long getRowCount();
+
+    /**
+     * 占用的磁盘字节数，内存存储为0
+     */
+    long getSizeBytes();
+
+    /**
+     * 读取[from, from + count)窗口
+     */
+    List<List<Object>> read(long from, int count) throws IOException;
+
+    @Override
+    void close();
+
+    /**
+     * 内存存储
+     */
+    static RowStore of(List<List<Object>> rows) {
+        return new RowStore() {
+
+            @Override
+            public long getRowCount() {
+                return rows.size();
+            }
+
+            @Override
+            public long getSizeBytes() {
+                return 0;
+            }
+
+            @Override
+            public List<List<Object>> read(long from, int count) {
+                if (from < 0 || from >= rows.size()) {
+                    return new ArrayList<>();
+                }
+                return new ArrayList<>(rows.subList((int) from, (int) Math.min(rows.size(), from + count)));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,244 @@
+package com.anydb.spool;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 落盘行文件
+ *
+ * 写入阶段按顺序追加编码后的行，每PAGE_ROWS行记录一次页起始偏移（稀疏索引，5000万行约5万个偏移）；
+ * 读取时按窗口所在的页把文件区间映射到内存（mmap）解码，读取任意窗口只需映射覆盖它的若干页。
+ * 写入中也可读取已刷出的行，调用方需保证读取与追加、刷出互斥。
+ * 磁盘占用按块向预算预留，超过预算时写入失败。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class SpoolFile implements RowStore {
+
+    /**
+     * 每页行数
+     */
+    static final int PAGE_ROWS = 1024;
+
+    /**
+     * 每次向预算预留的字节数
+     */
+    private static final long RESERVE_CHUNK = 1L << 20;
+
+    /**
+     * 磁盘预算
+     */
+    interface Budget {
+
+        /**
+         * 预留字节数，超过上限时抛出IllegalStateException
+         */
+        void reserve(long bytes);
+
+        void release(long bytes);
+    }
+
+    private final Path path;
+
+    private final int columnCount;
+
+    private final Budget budget;
+
+    private final RowCodec codec = new RowCodec();
+
+    private OutputStream out;
+
+    private FileChannel channel;
+
+    private long[] pageOffsets = new long[64];
+
+    private long rowCount;
+
+    private long size;
+
+    private long reserved;
+
+    private boolean deleted;
+
+    SpoolFile(Path path, int columnCount, Budget budget) throws IOException {
+        this.path = path;
+        this.columnCount = columnCount;
+        this.budget = budget;
+        this.out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE), 1 << 16);
+    }
+
+    /**
+     * 追加一行
+     */
+    void append(List<Object> row) throws IOException {
+        if (out == null) {
+            throw new IllegalStateException("落盘文件已完成写入");
+        }
+        byte[] data = codec.encode(row);
+        while (size + data.length > reserved) {
+            budget.reserve(RESERVE_CHUNK);
+            reserved += RESERVE_CHUNK;
+        }
+        if (rowCount % PAGE_ROWS == 0) {
+            int page = (int) (rowCount / PAGE_ROWS);
+            if (page == pageOffsets.length) {
+                pageOffsets = Arrays.copyOf(pageOffsets, page * 2);
+            }
+            pageOffsets[page] = size;
+        }
+        out.write(data);
+        size += data.length;
+        rowCount++;
+    }
+
+    /**
+     * 刷出已追加的行，之后可读取
+     */
+    void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * 结束写入并以只读方式打开，归还多预留的磁盘预算
+     */
+    void finish() throws IOException {
+        if (out == null) {
+            return;
+        }
+        out.close();
+        out = null;
+        openChannel();
+        budget.release(reserved - size);
+        reserved = size;
+    }
+
+    private void openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public long getSizeBytes() {
+        return size;
+    }
+
+    /**
+     * 读取[from, from + count)窗口：映射覆盖窗口的页，跳过首页中窗口之前的行（写入中需先刷出）
+     */
+    @Override
+    public List<List<Object>> read(long from, int count) throws IOException {
+        if (deleted) {
+            throw new IllegalStateException("落盘文件已删除");
+        }
+        openChannel();
+        long to = Math.min(rowCount, from + count);
+        if (from < 0 || from >= to) {
+            return new ArrayList<>();
+        }
+        int firstPage = (int) (from / PAGE_ROWS);
+        int lastPage = (int) ((to - 1) / PAGE_ROWS);
+        long start = pageOffsets[firstPage];
+        long end = (long) (lastPage + 1) * PAGE_ROWS < rowCount ? pageOffsets[lastPage + 1] : size;
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("读取窗口过大");
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        for (long row = (long) firstPage * PAGE_ROWS; row < from; row++) {
+            RowCodec.decode(buffer, columnCount);
+        }
+        List<List<Object>> rows = new ArrayList<>((int) (to - from));
+        for (long row = from; row < to; row++) {
+            rows.add(RowCodec.decode(buffer, columnCount));
+        }
+        return rows;
+    }
+
+    /**
+     * 从头顺序读取的游标（排序、归并使用）
+     *
+     * @param batchRows 每次映射读取的行数
+     */
+    Cursor cursor(int batchRows) {
+        return new Cursor(batchRows);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (deleted) {
+            return;
+        }
+        deleted = true;
+        try {
+            if (out != null) {
+                out.close();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new IllegalStateException("删除落盘文件失败: " + path, e);
+        } finally {
+            budget.release(reserved);
+            reserved = 0;
+        }
+    }
+
+    /**
+     * 顺序游标：每次映射batchRows行
+     */
+    final class Cursor {
+
+        private final int batchRows;
+
+        private List<List<Object>> batch = List.of();
+
+        private int index;
+
+        private long position;
+
+        private Cursor(int batchRows) {
+            this.batchRows = batchRows;
+        }
+
+        boolean hasNext() throws IOException {
+            if (index < batch.size()) {
+                return true;
+            }
+            if (position >= rowCount) {
+                return false;
+            }
+            batch = read(position, batchRows);
+            position += batch.size();
+            index = 0;
+            return !batch.isEmpty();
+        }
+
+        List<Object> next() throws IOException {
+            if (!hasNext()) {
+                throw new IllegalStateException("游标已读完");
+            }
+            return batch.get(index++);
+        }
+    }
+}
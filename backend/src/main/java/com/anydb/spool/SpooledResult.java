@@ -0,0 +1,415 @@
+package com.anydb.spool;
+
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 可分页读取的完整查询结果
+ *
+ * 作为流式接收端接收查询结果：行数或估算字节数超过内存阈值前保存在内存中，超过后全部写入落盘文件，
+ * 之后的批次直接追加到文件。读取过程中即可按原始顺序读取已到达的窗口（可等待指定行数到达）；
+ * 读取完成后可按任意窗口、任意列排序反复读取，无需重新执行查询。
+ * 落盘结果的排序使用外部归并排序，每种排序只计算一次并同样落盘。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public class SpooledResult implements QueryStreamSink {
+
+    private final String id;
+
+    private final Long configId;
+
+    private final ResultSpoolManager manager;
+
+    private final long createdAt = System.currentTimeMillis();
+
+    private volatile long lastAccessTime = createdAt;
+
+    private List<String> columns = List.of();
+
+    private List<List<Object>> memoryRows = new ArrayList<>();
+
+    private long memoryBytes;
+
+    private volatile SpoolFile file;
+
+    private volatile RowStore store;
+
+    /**
+     * 已缓存的排序结果占用的磁盘字节数
+     */
+    private volatile long sortedBytes;
+
+    private Long executionTime;
+
+    private volatile String error;
+
+    private volatile boolean closed;
+
+    private volatile boolean truncated;
+
+    private volatile Runnable canceller;
+
+    /**
+     * 排序后的结果 - key: 列序号:方向
+     */
+    private final Map<String, RowStore> sorted = new HashMap<>();
+
+    private final Object sortLock = new Object();
+
+    SpooledResult(String id, Long configId, ResultSpoolManager manager) {
+        this.id = id;
+        this.configId = configId;
+        this.manager = manager;
+    }
+
+    @Override
+    public void onColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * 追加一批行；每批写完后刷出，读取中的窗口可见，并唤醒等待行到达的读取方
+     */
+    @Override
+    public synchronized void onRows(List<List<Object>> rows) {
+        checkOpen();
+        try {
+            if (file != null) {
+                for (List<Object> row : rows) {
+                    file.append(row);
+                }
+            } else {
+                for (List<Object> row : rows) {
+                    memoryRows.add(row);
+                    memoryBytes += ResultLimits.estimateBytes(row);
+                }
+                if (memoryRows.size() > manager.getMemoryRows() || memoryBytes > manager.getMemoryBytes()) {
+                    spill();
+                }
+            }
+            if (file != null) {
+                file.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入落盘文件失败", e);
+        } finally {
+            notifyAll();
+        }
+    }
+
+    @Override
+    public void onProgress(QueryProgress progress) {
+        lastAccessTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return closed;
+    }
+
+    @Override
+    public void onTruncated(long maxRows) {
+        truncated = true;
+    }
+
+    @Override
+    public void onCancellable(Runnable canceller) {
+        this.canceller = canceller;
+        if (closed) {
+            canceller.run();
+        }
+    }
+
+    /**
+     * 内存中的行全部写入落盘文件
+     */
+    private void spill() throws IOException {
+        file = manager.newFile(columns.size());
+        for (List<Object> row : memoryRows) {
+            file.append(row);
+        }
+        memoryRows = null;
+        memoryBytes = 0;
+    }
+
+    /**
+     * 读取完成，之后才能按窗口读取
+     */
+    public synchronized void finish(Long executionTime) {
+        checkOpen();
+        this.executionTime = executionTime;
+        if (file != null) {
+            try {
+                file.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入落盘文件失败", e);
+            }
+            store = file;
+        } else {
+            store = RowStore.of(memoryRows);
+            memoryRows = null;
+        }
+        notifyAll();
+    }
+
+    /**
+     * 读取失败：保留已读取的行并结束读取，之后的窗口请求返回已有的行与错误信息
+     */
+    public synchronized void fail(String message) {
+        if (closed || store != null) {
+            return;
+        }
+        error = message;
+        try {
+            finish(executionTime);
+        } catch (RuntimeException e) {
+            store = RowStore.of(List.of());
+            notifyAll();
+        }
+    }
+
+    /**
+     * 等待读取到至少rows行（或读取结束、结果被删除、超时）
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public synchronized void awaitRows(long rows, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (!closed && store == null && getRowCount() < rows && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 读取窗口
+     *
+     * @param offset 起始行（从0开始）
+     * @param limit 行数
+     * @param orderBy 排序列名，为空时按原始顺序
+     * @param direction ASC或DESC
+     */
+    public QueryResult window(long offset, int limit, String orderBy, String direction) {
+        if (limit <= 0 || limit > manager.getMaxWindow()) {
+            throw new IllegalArgumentException("读取行数必须在1到" + manager.getMaxWindow() + "之间");
+        }
+        lastAccessTime = System.currentTimeMillis();
+        RowStore rows = orderBy == null || orderBy.isBlank() ? currentStore() : sortedStore(orderBy, direction);
+        lastAccessTime = System.currentTimeMillis();
+        try {
+            QueryResult result = new QueryResult();
+            result.setColumns(columns);
+            result.setRows(rows.read(Math.max(0, offset), limit));
+            result.setTotal((int) Math.min(Integer.MAX_VALUE, rows.getRowCount()));
+            result.setExecutionTime(executionTime);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取落盘文件失败", e);
+        }
+    }
+
+    private RowStore sortedStore(String orderBy, String direction) {
+        int column = columns.indexOf(orderBy);
+        if (column < 0) {
+            throw new IllegalArgumentException("排序列不存在: " + orderBy);
+        }
+        boolean descending = direction != null && "DESC".equals(direction.trim().toUpperCase(Locale.ROOT));
+        RowStore source = finishedStore();
+        String key = column + ":" + (descending ? "DESC" : "ASC");
+        synchronized (sortLock) {
+            checkOpen();
+            RowStore result = sorted.get(key);
+            if (result != null) {
+                return result;
+            }
+            try {
+                if (source instanceof SpoolFile spoolFile) {
+                    result = RowSorter.sort(spoolFile, RowSorter.byColumn(column, descending),
+                        manager.getMemoryRows(), () -> manager.newFile(columns.size()));
+                } else {
+                    List<List<Object>> rows = source.read(0, (int) source.getRowCount());
+                    rows.sort(RowSorter.byColumn(column, descending));
+                    result = RowStore.of(rows);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("排序查询结果失败", e);
+            }
+            if (closed) {
+                // 排序期间因落盘空间不足被淘汰
+                result.close();
+                checkOpen();
+            }
+            sorted.put(key, result);
+            sortedBytes += result.getSizeBytes();
+            return result;
+        }
+    }
+
+    private synchronized RowStore finishedStore() {
+        checkOpen();
+        if (store == null) {
+            throw new IllegalStateException("结果读取完成后才能排序: " + id);
+        }
+        return store;
+    }
+
+    /**
+     * 当前可读的行：读取完成后为最终存储，读取中为已到达部分的视图（与写入互斥）
+     */
+    private synchronized RowStore currentStore() {
+        checkOpen();
+        return store != null ? store : partial;
+    }
+
+    private final RowStore partial = new RowStore() {
+
+        @Override
+        public long getRowCount() {
+            return SpooledResult.this.getRowCount();
+        }
+
+        @Override
+        public long getSizeBytes() {
+            return 0;
+        }
+
+        @Override
+        public List<List<Object>> read(long from, int count) throws IOException {
+            synchronized (SpooledResult.this) {
+                checkOpen();
+                if (store != null) {
+                    return store.read(from, count);
+                }
+                return file != null ? file.read(from, count) : RowStore.of(memoryRows).read(from, count);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("结果已过期或已删除: " + id);
+        }
+    }
+
+    /**
+     * 释放内存与落盘文件并终止仍在执行的语句（由ResultSpoolManager调用）
+     */
+    void close() {
+        closed = true;
+        Runnable current = canceller;
+        if (current != null) {
+            current.run();
+        }
+        synchronized (sortLock) {
+            sorted.values().forEach(RowStore::close);
+            sorted.clear();
+            sortedBytes = 0;
+        }
+        synchronized (this) {
+            if (file != null) {
+                file.close();
+            }
+            memoryRows = null;
+            store = null;
+            notifyAll();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getConfigId() {
+        return configId;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public synchronized long getRowCount() {
+        if (store != null) {
+            return store.getRowCount();
+        }
+        if (file != null) {
+            return file.getRowCount();
+        }
+        return memoryRows != null ? memoryRows.size() : 0;
+    }
+
+    public boolean isFinished() {
+        return store != null;
+    }
+
+    /**
+     * 读取失败的原因，未失败为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 结果是否超过行数上限而被截断
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * 占用的磁盘字节数（含已缓存的排序结果），不加锁，供淘汰时挑选
+     */
+    public long getDiskBytes() {
+        SpoolFile spoolFile = file;
+        return (spoolFile != null ? spoolFile.getSizeBytes() : 0) + sortedBytes;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * 结果概要
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("resultId", id);
+        map.put("configId", configId);
+        map.put("columns", columns);
+        map.put("total", getRowCount());
+        map.put("finished", isFinished());
+        map.put("truncated", isTruncated());
+        map.put("spilled", isSpilled());
+        map.put("diskBytes", getDiskBytes());
+        map.put("executionTime", executionTime);
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,850 @@
+package com.anydb.sql;
+
+import com.anydb.connector.DatabaseType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SQL词法分析器
+ *
+ * 单次扫描SQL文本，同时得到语句类型、引用的表、语句指纹与脱敏日志形式，
+ * 供日志、读写路由、缓存键和慢查询统计共用，避免每个请求在热路径上
+ * 反复执行正则和toLowerCase复制。
+ *
+ * 识别注释、字符串、引号标识符和参数占位符，只做词法级判断，不构建语法树。
+ * 方言差异：
+ * - MySQL系（MySQL、MariaDB、TiDB、OceanBase）：反引号标识符、#注释、反斜杠转义、双引号字符串，
+ *   可执行注释（以/*!、/*M!或/*T!开头的注释）的内容按代码分析，数据库会执行其中的内容
+ * - ClickHouse：反引号标识符、反斜杠转义
+ * - SQL Server：方括号标识符
+ * - PostgreSQL：美元引号字符串（$$...$$）
+ * - 未指定方言：反引号标识符、#注释
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class SqlLexer {
+
+    private SqlLexer() {
+    }
+
+    /**
+     * 按通用规则分析SQL
+     */
+    public static SqlStatement analyze(String sql) {
+        return analyze(sql, null);
+    }
+
+    /**
+     * 按方言分析SQL
+     *
+     * @param dialect 数据库类型，null时按通用规则
+     */
+    public static SqlStatement analyze(String sql, DatabaseType dialect) {
+        if (sql == null || sql.isEmpty()) {
+            return SqlStatement.EMPTY;
+        }
+        return new Scanner(sql, dialect).scan();
+    }
+
+    /**
+     * 词法分析关注的关键字
+     */
+    private enum Keyword {
+        SELECT(StatementType.SELECT), VALUES(StatementType.SELECT), TABLE(StatementType.SELECT),
+        WITH, SHOW(StatementType.SHOW), DESC(StatementType.DESCRIBE), DESCRIBE(StatementType.DESCRIBE),
+        EXPLAIN(StatementType.EXPLAIN),
+        INSERT(StatementType.INSERT), REPLACE(StatementType.INSERT, true), UPSERT(StatementType.INSERT),
+        UPDATE(StatementType.UPDATE), DELETE(StatementType.DELETE), MERGE(StatementType.MERGE),
+        CREATE(StatementType.DDL), ALTER(StatementType.DDL), DROP(StatementType.DDL),
+        TRUNCATE(StatementType.DDL), RENAME(StatementType.DDL), COMMENT(StatementType.DDL),
+        GRANT(StatementType.DCL), REVOKE(StatementType.DCL),
+        BEGIN(StatementType.TRANSACTION), START(StatementType.TRANSACTION), COMMIT(StatementType.TRANSACTION),
+        ROLLBACK(StatementType.TRANSACTION), SAVEPOINT(StatementType.TRANSACTION),
+        RELEASE(StatementType.TRANSACTION),
+        SET(StatementType.SET), USE(StatementType.USE),
+        CALL(StatementType.CALL), EXEC(StatementType.CALL), EXECUTE(StatementType.CALL),
+        SYSTEM(StatementType.SYSTEM),
+        COUNT(null, true), SUM(null, true), AVG(null, true), MIN(null, true), MAX(null, true),
+        FROM, JOIN, INTO, IF, NOT, EXISTS, ONLY, LATERAL, GROUP, BY, OVER,
+        FOR, LOCK, IN, SHARE, NO, KEY, ANALYZE, TOP,
+        WHERE, ORDER, HAVING, LIMIT, ON, USING, UNION, EXCEPT, INTERSECT, WINDOW, OFFSET, FETCH, RETURNING;
+
+        private static final Keyword[][] BY_INITIAL = new Keyword[26][];
+
+        static {
+            List<List<Keyword>> buckets = new ArrayList<>();
+            for (int i = 0; i < 26; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (Keyword keyword : values()) {
+                buckets.get(keyword.name().charAt(0) - 'A').add(keyword);
+            }
+            for (int i = 0; i < 26; i++) {
+                BY_INITIAL[i] = buckets.get(i).toArray(new Keyword[0]);
+            }
+        }
+
+        /**
+         * 作为语句首词时的语句类型
+         */
+        private final StatementType statementType;
+
+        /**
+         * 是否为函数名（紧跟括号时不加空格）
+         */
+        private final boolean function;
+
+        Keyword() {
+            this(null, false);
+        }
+
+        Keyword(StatementType statementType) {
+            this(statementType, false);
+        }
+
+        Keyword(StatementType statementType, boolean function) {
+            this.statementType = statementType;
+            this.function = function;
+        }
+
+        /**
+         * 按原文区间查找关键字（不区分大小写，不创建子串）
+         */
+        static Keyword lookup(String sql, int start, int end) {
+            int initial = (sql.charAt(start) | 0x20) - 'a';
+            if (initial < 0 || initial >= 26) {
+                return null;
+            }
+            int length = end - start;
+            for (Keyword keyword : BY_INITIAL[initial]) {
+                String name = keyword.name();
+                if (name.length() == length && sql.regionMatches(true, start, name, 0, length)) {
+                    return keyword;
+                }
+            }
+            return null;
+        }
+    }
+
+    private enum Kind {
+        NONE, WORD, IDENTIFIER, LITERAL, OPEN, CLOSE, COMMA, DOT, OPERATOR
+    }
+
+    /**
+     * 单次扫描的状态
+     */
+    private static final class Scanner {
+
+        private static final String OPERATOR_CHARS = "<>=!|&+-*/%^~:";
+
+        private final String sql;
+
+        private final int length;
+
+        private final boolean backtickQuotes;
+
+        private final boolean hashComments;
+
+        private final boolean backslashEscapes;
+
+        private final boolean doubleQuotedStrings;
+
+        private final boolean bracketIdentifiers;
+
+        private final boolean dollarQuotes;
+
+        private final boolean executableComments;
+
+        /**
+         * 是否位于可执行注释内（遇到注释结束符时结束）
+         */
+        private boolean inExecutableComment;
+
+        private final StringBuilder fingerprint;
+
+        private final StringBuilder masked;
+
+        private int pos;
+
+        private int depth;
+
+        private Kind lastKind = Kind.NONE;
+
+        /**
+         * 上一个词法单元为关键字时的关键字
+         */
+        private Keyword previousKeyword;
+
+        /**
+         * 上一个单元为字面量，随后的逗号可能是字面量列表的分隔符
+         */
+        private boolean literalRun;
+
+        /**
+         * 指纹末尾是字面量列表中的逗号，下一个字面量并入?+
+         */
+        private boolean listComma;
+
+        private StatementType type;
+
+        /**
+         * WITH语句尚未遇到主查询动词
+         */
+        private boolean awaitingMainVerb;
+
+        private boolean statementEnded;
+
+        private boolean multiStatement;
+
+        private boolean writes;
+
+        private boolean into;
+
+        private boolean lockingRead;
+
+        private boolean analyze;
+
+        private boolean aggregate;
+
+        /**
+         * 顶层带LIMIT、FETCH FIRST或SELECT TOP行数限制
+         */
+        private boolean rowLimit;
+
+        /**
+         * REPLACE后未紧跟括号时为写操作（紧跟括号为字符串函数）
+         */
+        private boolean pendingReplace;
+
+        private boolean expectTable;
+
+        /**
+         * 期望的表来自FROM/JOIN（紧跟括号时为表函数，不计入）
+         */
+        private boolean tableFromClause;
+
+        /**
+         * FROM列表所在的括号层级，-1表示不在FROM列表中
+         */
+        private int fromDepth = -1;
+
+        private String pendingTable;
+
+        private boolean pendingFunctionTable;
+
+        private Set<String> tables;
+
+        Scanner(String sql, DatabaseType dialect) {
+            this.sql = sql;
+            this.length = sql.length();
+            boolean mysqlFamily = dialect == DatabaseType.MYSQL || dialect == DatabaseType.MARIADB
+                || dialect == DatabaseType.TIDB || dialect == DatabaseType.OCEANBASE;
+            this.backtickQuotes = dialect == null || mysqlFamily || dialect == DatabaseType.CLICKHOUSE;
+            this.hashComments = dialect == null || mysqlFamily;
+            this.backslashEscapes = mysqlFamily || dialect == DatabaseType.CLICKHOUSE;
+            this.doubleQuotedStrings = mysqlFamily;
+            this.bracketIdentifiers = dialect == DatabaseType.SQLSERVER;
+            this.dollarQuotes = dialect == DatabaseType.POSTGRESQL;
+            this.executableComments = mysqlFamily;
+            this.fingerprint = new StringBuilder(length);
+            this.masked = new StringBuilder(length);
+        }
+
+        SqlStatement scan() {
+            while (pos < length) {
+                char c = sql.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                } else if (inExecutableComment && c == '*' && pos + 1 < length && sql.charAt(pos + 1) == '/') {
+                    pos += 2;
+                    inExecutableComment = false;
+                } else if (executableComments && !inExecutableComment && executableCommentStart(pos)) {
+                    inExecutableComment = true;
+                } else if (isCommentStart(pos)) {
+                    skipComment();
+                } else if (c == ';') {
+                    pos++;
+                    statementEnded = lastKind != Kind.NONE;
+                } else if (c == '\'') {
+                    int start = pos;
+                    pos = skipQuoted(pos, '\'', backslashEscapes);
+                    literal(start, true);
+                } else if (c == '"' && doubleQuotedStrings) {
+                    int start = pos;
+                    pos = skipQuoted(pos, '"', backslashEscapes);
+                    literal(start, true);
+                } else if (isQuoteStart(c)) {
+                    if (expectTable) {
+                        tableName();
+                    } else {
+                        identifier();
+                    }
+                } else if (c == '$') {
+                    dollar();
+                } else if (c == '?') {
+                    literal(pos++, false);
+                } else if (isDigit(c) || (c == '.' && pos + 1 < length && isDigit(sql.charAt(pos + 1))
+                        && lastKind != Kind.WORD && lastKind != Kind.IDENTIFIER && lastKind != Kind.CLOSE)) {
+                    number();
+                } else if (isIdentifierStart(c)) {
+                    word();
+                } else if (c == '@') {
+                    variable();
+                } else if (c == '(') {
+                    punctuation(Kind.OPEN);
+                } else if (c == ')') {
+                    punctuation(Kind.CLOSE);
+                } else if (c == ',') {
+                    punctuation(Kind.COMMA);
+                } else if (c == '.') {
+                    punctuation(Kind.DOT);
+                } else {
+                    operator();
+                }
+            }
+            flushPendingTable();
+
+            if (type == null) {
+                type = awaitingMainVerb ? StatementType.OTHER : StatementType.EMPTY;
+            }
+            List<String> tableList = tables == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(tables));
+            return new SqlStatement(type, tableList, fingerprint.toString(), masked.toString(),
+                multiStatement, writes, into, lockingRead, analyze, aggregate, rowLimit);
+        }
+
+        // ---------------------------------------------------------------- 词法单元
+
+        private void word() {
+            int start = pos;
+            int end = start + 1;
+            while (end < length && isIdentifierPart(sql.charAt(end))) {
+                end++;
+            }
+            // N'...'、X'...'、B'...'、E'...'前缀字符串
+            if (end - start == 1 && end < length && sql.charAt(end) == '\''
+                    && "NnXxBbEe".indexOf(sql.charAt(start)) >= 0) {
+                pos = skipQuoted(end, '\'', backslashEscapes || (sql.charAt(start) | 0x20) == 'e');
+                literal(start, true);
+                return;
+            }
+
+            Keyword keyword = Keyword.lookup(sql, start, end);
+            if (expectTable && !isTableModifier(keyword)) {
+                tableName();
+                return;
+            }
+
+            appendSpace(begin(Kind.WORD), true);
+            appendLowerCase(fingerprint, start, end);
+            masked.append(sql, start, end);
+            pos = end;
+            classify(keyword);
+            finish(Kind.WORD, keyword);
+        }
+
+        private void identifier() {
+            int start = pos;
+            pos = skipIdentifierPart(pos);
+            appendSpace(begin(Kind.IDENTIFIER), true);
+            fingerprint.append(sql, start, pos);
+            masked.append(sql, start, pos);
+            finish(Kind.IDENTIFIER, null);
+        }
+
+        /**
+         * 读取表名（可带schema前缀，各段可加引号）
+         */
+        private void tableName() {
+            appendSpace(begin(Kind.WORD), true);
+            StringBuilder name = new StringBuilder();
+            while (true) {
+                int start = pos;
+                pos = skipIdentifierPart(pos);
+                if (isQuoteStart(sql.charAt(start))) {
+                    name.append(sql, start + 1, Math.max(start + 1, pos - 1));
+                    fingerprint.append(sql, start, pos);
+                } else {
+                    name.append(sql, start, pos);
+                    appendLowerCase(fingerprint, start, pos);
+                }
+                masked.append(sql, start, pos);
+
+                if (pos + 1 < length && sql.charAt(pos) == '.'
+                        && (isIdentifierStart(sql.charAt(pos + 1)) || isQuoteStart(sql.charAt(pos + 1)))) {
+                    name.append('.');
+                    fingerprint.append('.');
+                    masked.append('.');
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            pendingTable = name.toString();
+            pendingFunctionTable = tableFromClause;
+            expectTable = false;
+            finish(Kind.WORD, null);
+        }
+
+        private void variable() {
+            int start = pos;
+            while (pos < length && sql.charAt(pos) == '@') {
+                pos++;
+            }
+            while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+                pos++;
+            }
+            appendSpace(begin(Kind.WORD), true);
+            appendLowerCase(fingerprint, start, pos);
+            masked.append(sql, start, pos);
+            finish(Kind.WORD, null);
+        }
+
+        /**
+         * PostgreSQL美元引号字符串或$n参数占位符
+         */
+        private void dollar() {
+            int start = pos;
+            int end = dollarQuotes ? dollarQuoteEnd(pos) : -1;
+            if (end > 0) {
+                pos = end;
+                literal(start, true);
+            } else if (pos + 1 < length && isDigit(sql.charAt(pos + 1))) {
+                pos++;
+                while (pos < length && isDigit(sql.charAt(pos))) {
+                    pos++;
+                }
+                literal(start, false);
+            } else {
+                operator();
+            }
+        }
+
+        private void number() {
+            int start = pos++;
+            while (pos < length) {
+                char c = sql.charAt(pos);
+                if (isIdentifierPart(c) || c == '.') {
+                    pos++;
+                } else if ((c == '+' || c == '-') && (sql.charAt(pos - 1) | 0x20) == 'e'
+                        && pos + 1 < length && isDigit(sql.charAt(pos + 1))) {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            literal(start, false);
+        }
+
+        /**
+         * 字面量：指纹中替换为?（字面量列表折叠为?+），日志中字符串替换为'***'
+         */
+        private void literal(int start, boolean string) {
+            boolean space = begin(Kind.LITERAL);
+            if (listComma) {
+                fingerprint.setLength(fingerprint.length() - 1);
+                if (fingerprint.charAt(fingerprint.length() - 1) != '+') {
+                    fingerprint.append('+');
+                }
+            } else {
+                appendSpace(space, false);
+                fingerprint.append('?');
+            }
+            if (space) {
+                masked.append(' ');
+            }
+            if (string) {
+                masked.append("'***'");
+            } else {
+                masked.append(sql, start, pos);
+            }
+            finish(Kind.LITERAL, null);
+            literalRun = true;
+        }
+
+        private void punctuation(Kind kind) {
+            char c = sql.charAt(pos++);
+            boolean wasLiteral = literalRun;
+            appendSpace(begin(kind), true);
+            fingerprint.append(c);
+            masked.append(c);
+
+            switch (kind) {
+                case OPEN:
+                    // 左括号后为子查询或列表，不再是表名
+                    expectTable = false;
+                    depth++;
+                    break;
+                case CLOSE:
+                    depth = Math.max(0, depth - 1);
+                    if (fromDepth > depth) {
+                        fromDepth = -1;
+                    }
+                    break;
+                case COMMA:
+                    if (fromDepth >= 0 && fromDepth == depth) {
+                        expectTable = true;
+                        tableFromClause = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            finish(kind, null);
+            listComma = kind == Kind.COMMA && wasLiteral;
+        }
+
+        private void operator() {
+            int start = pos++;
+            if (OPERATOR_CHARS.indexOf(sql.charAt(start)) >= 0) {
+                while (pos < length && OPERATOR_CHARS.indexOf(sql.charAt(pos)) >= 0 && !isCommentStart(pos)) {
+                    pos++;
+                }
+            }
+            appendSpace(begin(Kind.OPERATOR), true);
+            fingerprint.append(sql, start, pos);
+            masked.append(sql, start, pos);
+            finish(Kind.OPERATOR, null);
+        }
+
+        // ---------------------------------------------------------------- 语句分类
+
+        /**
+         * 按关键字更新语句类型、写操作、加锁读、表引用等状态
+         */
+        private void classify(Keyword keyword) {
+            if (type == null && !awaitingMainVerb) {
+                if (keyword == Keyword.WITH) {
+                    awaitingMainVerb = true;
+                    return;
+                }
+                type = keyword != null && keyword.statementType != null ? keyword.statementType : StatementType.OTHER;
+                if (keyword == Keyword.UPDATE || keyword == Keyword.DESC || keyword == Keyword.DESCRIBE
+                        || keyword == Keyword.TRUNCATE) {
+                    expectTable = true;
+                    tableFromClause = false;
+                }
+            } else if (awaitingMainVerb && depth == 0 && keyword != null && keyword.statementType != null) {
+                awaitingMainVerb = false;
+                type = keyword.statementType;
+                if (keyword == Keyword.UPDATE) {
+                    expectTable = true;
+                    tableFromClause = false;
+                }
+            }
+            if (keyword == null) {
+                return;
+            }
+
+            switch (keyword) {
+                case FROM:
+                    expectTable = true;
+                    tableFromClause = true;
+                    fromDepth = depth;
+                    break;
+                case JOIN:
+                    expectTable = true;
+                    tableFromClause = true;
+                    break;
+                case INTO:
+                    into = true;
+                    expectTable = true;
+                    tableFromClause = false;
+                    break;
+                case TABLE:
+                    expectTable = true;
+                    tableFromClause = false;
+                    break;
+                case INSERT:
+                case DELETE:
+                case MERGE:
+                case UPSERT:
+                    writes = true;
+                    break;
+                case UPDATE:
+                    if (previousKeyword == Keyword.FOR) {
+                        lockingRead = true;
+                    } else {
+                        writes = true;
+                    }
+                    break;
+                case REPLACE:
+                    pendingReplace = true;
+                    break;
+                case NO:
+                case KEY:
+                    if (previousKeyword == Keyword.FOR) {
+                        lockingRead = true;
+                    }
+                    break;
+                case SHARE:
+                    if (previousKeyword == Keyword.FOR || previousKeyword == Keyword.IN) {
+                        lockingRead = true;
+                    }
+                    break;
+                case ANALYZE:
+                    analyze = true;
+                    break;
+                case BY:
+                    if (previousKeyword == Keyword.GROUP) {
+                        aggregate = true;
+                    }
+                    break;
+                case TOP:
+                    if (previousKeyword == Keyword.SELECT) {
+                        rowLimit |= depth == 0;
+                    }
+                    break;
+                case LIMIT:
+                case FETCH:
+                case OFFSET:
+                    if (depth == 0 && type == StatementType.SELECT) {
+                        rowLimit = true;
+                    }
+                    fromDepth = -1;
+                    break;
+                case WHERE:
+                case GROUP:
+                case ORDER:
+                case HAVING:
+                    fromDepth = -1;
+                    break;
+                case ON:
+                case USING:
+                case UNION:
+                case EXCEPT:
+                case INTERSECT:
+                case WINDOW:
+                case RETURNING:
+                case SET:
+                case VALUES:
+                case SELECT:
+                case FOR:
+                case LOCK:
+                    fromDepth = -1;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 表名前可出现的修饰词（TABLE IF NOT EXISTS、FROM ONLY、JOIN LATERAL等）
+         */
+        private static boolean isTableModifier(Keyword keyword) {
+            return keyword == Keyword.IF || keyword == Keyword.NOT || keyword == Keyword.EXISTS
+                || keyword == Keyword.ONLY || keyword == Keyword.LATERAL || keyword == Keyword.TABLE;
+        }
+
+        /**
+         * 词法单元开始：处理多语句分隔和依赖下一个单元的待定状态，返回是否需要前置空格
+         */
+        private boolean begin(Kind kind) {
+            if (statementEnded) {
+                statementEnded = false;
+                multiStatement = true;
+                fingerprint.append(';');
+                masked.append(';');
+                lastKind = Kind.OPERATOR;
+                previousKeyword = null;
+                listComma = false;
+                literalRun = false;
+            }
+            if (pendingTable != null) {
+                if (!(kind == Kind.OPEN && pendingFunctionTable)) {
+                    addTable(pendingTable);
+                }
+                pendingTable = null;
+            }
+            if (pendingReplace) {
+                writes |= kind != Kind.OPEN;
+                pendingReplace = false;
+            }
+            if (kind == Kind.OPEN && previousKeyword != null) {
+                switch (previousKeyword) {
+                    case COUNT, SUM, AVG, MIN, MAX, OVER -> aggregate = true;
+                    default -> {
+                    }
+                }
+            }
+            return needsSpace(kind);
+        }
+
+        private void finish(Kind kind, Keyword keyword) {
+            lastKind = kind;
+            previousKeyword = keyword;
+            literalRun = false;
+            listComma = false;
+        }
+
+        /**
+         * 规整空白：逗号、右括号、点号前和左括号、点号后不加空格，函数名与左括号相连
+         */
+        private boolean needsSpace(Kind kind) {
+            if (lastKind == Kind.NONE || lastKind == Kind.OPEN || lastKind == Kind.DOT) {
+                return false;
+            }
+            switch (kind) {
+                case COMMA:
+                case CLOSE:
+                case DOT:
+                    return false;
+                case OPEN:
+                    return !((lastKind == Kind.WORD || lastKind == Kind.IDENTIFIER)
+                        && (previousKeyword == null || previousKeyword.function));
+                default:
+                    return true;
+            }
+        }
+
+        private void appendSpace(boolean space, boolean both) {
+            if (space) {
+                fingerprint.append(' ');
+                if (both) {
+                    masked.append(' ');
+                }
+            }
+        }
+
+        private void appendLowerCase(StringBuilder target, int start, int end) {
+            for (int i = start; i < end; i++) {
+                target.append(Character.toLowerCase(sql.charAt(i)));
+            }
+        }
+
+        private void addTable(String table) {
+            if (tables == null) {
+                tables = new LinkedHashSet<>();
+            }
+            tables.add(table);
+        }
+
+        private void flushPendingTable() {
+            if (pendingTable != null) {
+                addTable(pendingTable);
+                pendingTable = null;
+            }
+        }
+
+        // ---------------------------------------------------------------- 字符判断
+
+        private boolean isCommentStart(int i) {
+            char c = sql.charAt(i);
+            if (c == '#') {
+                return hashComments;
+            }
+            if (i + 1 >= length) {
+                return false;
+            }
+            char next = sql.charAt(i + 1);
+            return (c == '-' && next == '-') || (c == '/' && next == '*');
+        }
+
+        /**
+         * 可执行注释开始（/*!、MariaDB的/*M!、TiDB的/*T!）时跳过标记与可选的版本号并返回true
+         */
+        private boolean executableCommentStart(int i) {
+            if (i + 2 >= length || sql.charAt(i) != '/' || sql.charAt(i + 1) != '*') {
+                return false;
+            }
+            int marker = i + 2;
+            char c = sql.charAt(marker);
+            if ((c == 'M' || c == 'T') && marker + 1 < length && sql.charAt(marker + 1) == '!') {
+                marker++;
+            } else if (c != '!') {
+                return false;
+            }
+            int end = marker + 1;
+            while (end < length && isDigit(sql.charAt(end)) && end - marker <= 6) {
+                end++;
+            }
+            // 版本号为5到6位数字，其他数字属于注释内的代码
+            pos = end - marker - 1 >= 5 ? end : marker + 1;
+            return true;
+        }
+
+        private void skipComment() {
+            if (sql.charAt(pos) == '/') {
+                int end = sql.indexOf("*/", pos + 2);
+                pos = end < 0 ? length : end + 2;
+            } else {
+                int end = sql.indexOf('\n', pos);
+                pos = end < 0 ? length : end + 1;
+            }
+        }
+
+        /**
+         * 跳过引号包围的内容（重复引号为转义），返回结束引号之后的位置
+         */
+        private int skipQuoted(int start, char quote, boolean escapes) {
+            int i = start + 1;
+            while (i < length) {
+                char c = sql.charAt(i);
+                if (escapes && c == '\\') {
+                    i += 2;
+                } else if (c == quote) {
+                    if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                        i += 2;
+                    } else {
+                        return i + 1;
+                    }
+                } else {
+                    i++;
+                }
+            }
+            return length;
+        }
+
+        private int skipIdentifierPart(int start) {
+            char c = sql.charAt(start);
+            if (isQuoteStart(c)) {
+                return skipQuoted(start, c == '[' ? ']' : c, false);
+            }
+            int i = start + 1;
+            while (i < length && isIdentifierPart(sql.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * PostgreSQL美元引号（$$或$tag$）的结束位置，不是美元引号时返回-1
+         */
+        private int dollarQuoteEnd(int start) {
+            int i = start + 1;
+            while (i < length && sql.charAt(i) != '$') {
+                char c = sql.charAt(i);
+                if (!(Character.isLetter(c) || c == '_' || (i > start + 1 && isDigit(c)))) {
+                    return -1;
+                }
+                i++;
+            }
+            if (i >= length) {
+                return -1;
+            }
+            String tag = sql.substring(start, i + 1);
+            int end = sql.indexOf(tag, i + 1);
+            return end < 0 ? length : end + tag.length();
+        }
+
+        private boolean isQuoteStart(char c) {
+            return (c == '"' && !doubleQuotedStrings) || (c == '`' && backtickQuotes) || (c == '[' && bracketIdentifiers);
+        }
+
+        private boolean isIdentifierStart(char c) {
+            return Character.isLetter(c) || c == '_' || (c == '#' && !hashComments);
+        }
+
+        private boolean isIdentifierPart(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$' || (c == '#' && !hashComments);
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+}
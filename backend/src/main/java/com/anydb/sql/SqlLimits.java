@@ -0,0 +1,67 @@
+package com.anydb.sql;
+
+import com.anydb.connector.DatabaseType;
+
+import java.util.regex.Pattern;
+
+/**
+ * 按方言为查询追加行数限制与偏移
+ *
+ * MySQL系、PostgreSQL直接追加LIMIT/OFFSET（另起一行，避免被末尾的行注释吞掉）；
+ * ClickHouse语句可能以SETTINGS结尾，包成子查询；以FORMAT子句结尾时不改写（子查询中不允许FORMAT）；
+ * Oracle 11g不支持FETCH FIRST，用ROWNUM包装保留内层排序（仅支持无偏移）；
+ * SQL Server子查询不允许单独的ORDER BY，不改写。
+ * 调用方需保证语句为单条SELECT、已去除末尾分号且顶层没有行数限制或偏移（见SqlStatement#hasRowLimit）。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class SqlLimits {
+
+    /**
+     * ClickHouse语句末尾的FORMAT子句
+     */
+    private static final Pattern TRAILING_FORMAT = Pattern.compile("(?i)\\bFORMAT\\s+\\w+\\s*$");
+
+    private SqlLimits() {
+    }
+
+    /**
+     * 追加行数限制与偏移，方言无法安全改写时返回null
+     */
+    public static String applyLimit(DatabaseType type, String sql, long limit, long offset) {
+        String suffix = " LIMIT " + limit + (offset > 0 ? " OFFSET " + offset : "");
+        switch (type) {
+            case MYSQL:
+            case MARIADB:
+            case TIDB:
+            case OCEANBASE:
+            case POSTGRESQL:
+                return sql + "\n" + suffix.trim();
+            case CLICKHOUSE:
+                return TRAILING_FORMAT.matcher(sql).find() ? null : "SELECT * FROM (\n" + sql + "\n)" + suffix;
+            case ORACLE:
+                return offset > 0 ? null : "SELECT * FROM (\n" + sql + "\n) WHERE ROWNUM <= " + limit;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 方言是否支持追加行数限制（不带偏移）
+     */
+    public static boolean supportsLimit(DatabaseType type) {
+        return applyLimit(type, "", 1, 0) != null;
+    }
+
+    /**
+     * 去除语句末尾的分号（追加子句或EXPLAIN前缀拼接后分号会导致语法错误）
+     */
+    public static String stripTrailingSemicolons(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+}
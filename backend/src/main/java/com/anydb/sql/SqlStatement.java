@@ -0,0 +1,129 @@
+package com.anydb.sql;
+
+import java.util.List;
+
+/**
+ * SQL词法分析结果
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public final class SqlStatement {
+
+    static final SqlStatement EMPTY =
+        new SqlStatement(StatementType.EMPTY, List.of(), "", "", false, false, false, false, false, false, false);
+
+    private final StatementType type;
+
+    private final List<String> tables;
+
+    private final String fingerprint;
+
+    private final String maskedSql;
+
+    private final boolean multiStatement;
+
+    private final boolean writes;
+
+    private final boolean into;
+
+    private final boolean lockingRead;
+
+    private final boolean analyze;
+
+    private final boolean aggregate;
+
+    private final boolean rowLimit;
+
+    SqlStatement(StatementType type, List<String> tables, String fingerprint, String maskedSql,
+                 boolean multiStatement, boolean writes, boolean into, boolean lockingRead,
+                 boolean analyze, boolean aggregate, boolean rowLimit) {
+        this.type = type;
+        this.tables = tables;
+        this.fingerprint = fingerprint;
+        this.maskedSql = maskedSql;
+        this.multiStatement = multiStatement;
+        this.writes = writes;
+        this.into = into;
+        this.lockingRead = lockingRead;
+        this.analyze = analyze;
+        this.aggregate = aggregate;
+        this.rowLimit = rowLimit;
+    }
+
+    public StatementType getType() {
+        return type;
+    }
+
+    /**
+     * FROM/JOIN/INTO/UPDATE/TABLE后引用的表（去除引号，保留schema前缀，按出现顺序去重）
+     */
+    public List<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * 语句指纹：字面量与参数替换为?、连续字面量列表折叠为?+、注释去除、
+     * 空白规整、未加引号的关键字和标识符小写。字面量不同的同构语句指纹相同
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * 脱敏日志形式：字符串字面量替换为'***'、注释去除、空白规整
+     */
+    public String getMaskedSql() {
+        return maskedSql;
+    }
+
+    /**
+     * 是否包含多条语句
+     */
+    public boolean isMultiStatement() {
+        return multiStatement;
+    }
+
+    /**
+     * 是否为加锁读（FOR UPDATE、FOR SHARE、LOCK IN SHARE MODE等）
+     */
+    public boolean isLockingRead() {
+        return lockingRead;
+    }
+
+    /**
+     * 是否可以发往只读副本：单条SHOW/DESCRIBE，或不含写操作、SELECT INTO、
+     * 加锁读和EXPLAIN ANALYZE的单条查询/EXPLAIN
+     */
+    public boolean isReadOnly() {
+        if (multiStatement) {
+            return false;
+        }
+        switch (type) {
+            case SHOW:
+            case DESCRIBE:
+                return true;
+            case SELECT:
+            case EXPLAIN:
+                return !writes && !into && !lockingRead && !analyze;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 是否为聚合类分析查询（GROUP BY、聚合函数或窗口函数）
+     */
+    public boolean isAnalytical() {
+        return type == StatementType.SELECT && aggregate;
+    }
+
+    /**
+     * 顶层是否带行数限制或偏移（LIMIT、OFFSET、FETCH FIRST/NEXT或SELECT TOP），子查询中的限制不计入
+     * 
+     * 只有OFFSET的语句也计入：追加的LIMIT/OFFSET会与原有的OFFSET冲突。
+     */
+    public boolean hasRowLimit() {
+        return rowLimit;
+    }
+}
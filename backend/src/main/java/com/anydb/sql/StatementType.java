@@ -0,0 +1,71 @@
+package com.anydb.sql;
+
+/**
+ * SQL语句类型（按语句首个关键字判定，WITH语句按主查询的动词判定）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+public enum StatementType {
+
+    /**
+     * 查询（SELECT、VALUES、TABLE）
+     */
+    SELECT,
+
+    SHOW,
+
+    /**
+     * 表结构描述（DESC、DESCRIBE）
+     */
+    DESCRIBE,
+
+    EXPLAIN,
+
+    /**
+     * 插入（INSERT、REPLACE、UPSERT）
+     */
+    INSERT,
+
+    UPDATE,
+
+    DELETE,
+
+    MERGE,
+
+    /**
+     * 结构变更（CREATE、ALTER、DROP、TRUNCATE、RENAME、COMMENT）
+     */
+    DDL,
+
+    /**
+     * 权限控制（GRANT、REVOKE）
+     */
+    DCL,
+
+    /**
+     * 事务控制（BEGIN、START、COMMIT、ROLLBACK、SAVEPOINT、RELEASE）
+     */
+    TRANSACTION,
+
+    SET,
+
+    USE,
+
+    /**
+     * 存储过程调用（CALL、EXEC、EXECUTE）
+     */
+    CALL,
+
+    /**
+     * ClickHouse SYSTEM语句
+     */
+    SYSTEM,
+
+    OTHER,
+
+    /**
+     * 空语句（仅含空白或注释）
+     */
+    EMPTY
+}
@@ -0,0 +1,381 @@
+package com.anydb.websocket;
+
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.service.DatabaseService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 查询结果流式推送处理器
+ *
+ * 客户端消息：
+ * <pre>
+ * {"type":"execute","queryId":"q1","configId":1,"sql":"SELECT ...","batchSize":500,"credits":2}
+ * {"type":"request","queryId":"q1","credits":1}
+ * {"type":"cancel","queryId":"q1"}
+ * </pre>
+ * 服务端消息类型：columns、rows、progress、complete、error。
+ * 只接受只读查询；代价检查要求确认时返回error，客户端可在execute中带"confirm":true重新提交。
+ *
+ * 背压：每条rows消息消耗一个额度，额度用完后读取线程停止取数，
+ * 直到客户端通过request补充额度；超过credit-timeout仍未补充则终止查询。
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class QueryStreamWebSocketHandler extends TextWebSocketHandler {
+
+    /**
+     * 单次request允许补充的最大额度
+     */
+    private static final int MAX_CREDITS_PER_REQUEST = 10_000;
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${anydb.stream.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${anydb.stream.max-batch-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${anydb.stream.max-concurrent-queries:32}")
+    private int maxConcurrentQueries;
+
+    @Value("${anydb.stream.credit-timeout:300000}")
+    private long creditTimeout;
+
+    @Value("${anydb.stream.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${anydb.stream.send-buffer-size:4194304}")
+    private int sendBufferSize;
+
+    /**
+     * 会话（已包装为线程安全发送） - key: 会话ID
+     */
+    private final ConcurrentMap<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 运行中的查询 - key: 会话ID, value: 查询ID到查询的映射
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, StreamingQuery>> queries = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, maxConcurrentQueries, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "query-stream-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queries.values().forEach(sessionQueries -> sessionQueries.values().forEach(StreamingQuery::cancel));
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(),
+            new ConcurrentWebSocketSessionDecorator(session, sendTimeLimit, sendBufferSize));
+        queries.put(session.getId(), new ConcurrentHashMap<>());
+        log.debug("查询流WebSocket连接建立: {}", session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        ConcurrentMap<String, StreamingQuery> sessionQueries = queries.remove(session.getId());
+        if (sessionQueries != null) {
+            sessionQueries.values().forEach(StreamingQuery::cancel);
+        }
+        log.debug("查询流WebSocket连接关闭: {}, 状态: {}", session.getId(), status);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        WebSocketSession target = sessions.getOrDefault(session.getId(), session);
+        String queryId = null;
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            queryId = request.path("queryId").asText(null);
+            if (queryId == null || queryId.isEmpty()) {
+                throw new IllegalArgumentException("queryId不能为空");
+            }
+
+            String type = request.path("type").asText("");
+            switch (type) {
+                case "execute" -> execute(session.getId(), target, queryId, request);
+                case "request" -> requireQuery(session.getId(), queryId).grant(readCredits(request));
+                case "cancel" -> requireQuery(session.getId(), queryId).cancel();
+                default -> throw new IllegalArgumentException("不支持的消息类型: " + type);
+            }
+        } catch (JsonProcessingException e) {
+            sendError(target, null, "消息格式错误: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            sendError(target, queryId, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取运行中的查询数量
+     */
+    public int getRunningQueryCount() {
+        return queries.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * 提交流式查询
+     */
+    private void execute(String sessionId, WebSocketSession session, String queryId, JsonNode request) {
+        long configId = request.path("configId").asLong(0);
+        String sql = request.path("sql").asText("");
+        if (configId <= 0) {
+            throw new IllegalArgumentException("configId不能为空");
+        }
+        if (sql.trim().isEmpty()) {
+            throw new IllegalArgumentException("SQL语句不能为空");
+        }
+
+        int batchSize = request.path("batchSize").asInt(defaultBatchSize);
+        if (batchSize <= 0 || batchSize > maxBatchSize) {
+            throw new IllegalArgumentException("batchSize必须在1到" + maxBatchSize + "之间");
+        }
+        int credits = request.has("credits") ? readCredits(request) : 1;
+        boolean confirmed = request.path("confirm").asBoolean(false);
+
+        ConcurrentMap<String, StreamingQuery> sessionQueries = queries.get(sessionId);
+        if (sessionQueries == null) {
+            throw new IllegalStateException("WebSocket会话已关闭");
+        }
+        StreamingQuery query = new StreamingQuery(session, queryId, credits);
+        if (sessionQueries.putIfAbsent(queryId, query) != null) {
+            throw new IllegalArgumentException("查询ID已存在: " + queryId);
+        }
+
+        try {
+            executor.execute(() -> run(sessionQueries, query, configId, sql, confirmed, batchSize));
+        } catch (RejectedExecutionException e) {
+            sessionQueries.remove(queryId);
+            throw new IllegalStateException("流式查询并发数已达上限: " + maxConcurrentQueries);
+        }
+    }
+
+    private void run(Map<String, StreamingQuery> sessionQueries, StreamingQuery query,
+                     long configId, String sql, boolean confirmed, int batchSize) {
+        long startTime = System.currentTimeMillis();
+        try {
+            long rows = databaseService.streamQuery(configId, sql, confirmed, batchSize, query);
+
+            Map<String, Object> complete = message("complete", query.queryId);
+            complete.put("rowsRead", rows);
+            complete.put("elapsedMs", System.currentTimeMillis() - startTime);
+            complete.put("cancelled", query.isCancelled());
+            complete.put("truncated", query.truncated);
+            send(query.session, complete);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(query.session, query.queryId, "流式查询已中断");
+        } catch (Exception e) {
+            log.warn("流式查询失败，查询ID: {}, 错误: {}", query.queryId, e.getMessage());
+            sendError(query.session, query.queryId, e.getMessage());
+        } finally {
+            sessionQueries.remove(query.queryId);
+        }
+    }
+
+    private StreamingQuery requireQuery(String sessionId, String queryId) {
+        Map<String, StreamingQuery> sessionQueries = queries.get(sessionId);
+        StreamingQuery query = sessionQueries != null ? sessionQueries.get(queryId) : null;
+        if (query == null) {
+            throw new IllegalArgumentException("查询不存在或已结束: " + queryId);
+        }
+        return query;
+    }
+
+    private int readCredits(JsonNode request) {
+        int credits = request.path("credits").asInt(0);
+        if (credits <= 0 || credits > MAX_CREDITS_PER_REQUEST) {
+            throw new IllegalArgumentException("credits必须在1到" + MAX_CREDITS_PER_REQUEST + "之间");
+        }
+        return credits;
+    }
+
+    private Map<String, Object> message(String type, String queryId) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.put("queryId", queryId);
+        return message;
+    }
+
+    private void sendError(WebSocketSession session, String queryId, String error) {
+        Map<String, Object> message = message("error", queryId);
+        message.put("error", error);
+        send(session, message);
+    }
+
+    /**
+     * 发送消息，失败返回false（连接已断开或发送缓冲超限）
+     */
+    private boolean send(WebSocketSession session, Map<String, Object> message) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("WebSocket消息发送失败，会话: {}, 错误: {}", session.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 单个流式查询：额度信号量 + 取消标志
+     */
+    private class StreamingQuery implements QueryStreamSink {
+
+        private final WebSocketSession session;
+
+        private final String queryId;
+
+        private final Semaphore credits;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean truncated;
+
+        private volatile Runnable canceller;
+
+        private long seq;
+
+        StreamingQuery(WebSocketSession session, String queryId, int initialCredits) {
+            this.session = session;
+            this.queryId = queryId;
+            this.credits = new Semaphore(initialCredits);
+        }
+
+        void grant(int amount) {
+            credits.release(amount);
+        }
+
+        void cancel() {
+            cancelled = true;
+            // 唤醒等待额度的读取线程
+            credits.release();
+            Runnable current = canceller;
+            if (current != null) {
+                current.run();
+            }
+        }
+
+        @Override
+        public void onColumns(List<String> columns) {
+            Map<String, Object> message = message("columns", queryId);
+            message.put("columns", columns);
+            if (!send(session, message)) {
+                cancelled = true;
+            }
+        }
+
+        @Override
+        public void onRows(List<List<Object>> rows) throws InterruptedException {
+            if (!credits.tryAcquire(creditTimeout, TimeUnit.MILLISECONDS)) {
+                cancelled = true;
+                throw new IllegalStateException("等待客户端额度超时，查询已终止");
+            }
+            if (cancelled) {
+                return;
+            }
+
+            Map<String, Object> message = message("rows", queryId);
+            message.put("seq", seq++);
+            message.put("rows", rows);
+            if (!send(session, message)) {
+                cancelled = true;
+            }
+        }
+
+        @Override
+        public void onProgress(QueryProgress progress) {
+            if (cancelled) {
+                return;
+            }
+            Map<String, Object> message = message("progress", queryId);
+            if (progress.getQueryId() != null) {
+                message.put("serverQueryId", progress.getQueryId());
+            }
+            message.put("rowsRead", progress.getRowsRead());
+            message.put("elapsedMs", progress.getElapsedMs());
+            if (progress.getReadRows() != null) {
+                message.put("readRows", progress.getReadRows());
+            }
+            if (progress.getReadBytes() != null) {
+                message.put("readBytes", progress.getReadBytes());
+            }
+            if (progress.getTotalRowsToRead() != null) {
+                message.put("totalRowsToRead", progress.getTotalRowsToRead());
+            }
+            if (progress.getMemoryUsage() != null) {
+                message.put("memoryUsage", progress.getMemoryUsage());
+            }
+            send(session, message);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void onTruncated(long maxRows) {
+            truncated = true;
+        }
+
+        @Override
+        public void onCancellable(Runnable canceller) {
+            this.canceller = canceller;
+            if (cancelled) {
+                canceller.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.anydb.connector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 数据库连接器工厂单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class DatabaseConnectorFactoryTest {
+
+    private DatabaseConnectorFactory connectorFactory;
+
+    @BeforeEach
+    void setUp() {
+        connectorFactory = new DatabaseConnectorFactory();
+        ReflectionTestUtils.setField(connectorFactory, "beanFactory", new DefaultListableBeanFactory());
+    }
+
+    @Test
+    void testGetConnector_FirstUse() {
+        assertTrue(connectorFactory.isSupported(DatabaseType.MYSQL));
+        assertFalse(connectorFactory.isLoaded(DatabaseType.MYSQL));
+
+        DatabaseConnector first = connectorFactory.getConnector(DatabaseType.MYSQL);
+        DatabaseConnector second = connectorFactory.getConnector("mysql");
+
+        assertSame(first, second);
+        assertEquals(DatabaseType.MYSQL, first.getSupportedType());
+        assertTrue(connectorFactory.isLoaded(DatabaseType.MYSQL));
+        assertFalse(connectorFactory.isLoaded(DatabaseType.POSTGRESQL));
+    }
+
+    @Test
+    void testInitialize() {
+        assertEquals(10, connectorFactory.getSupportedTypes().length);
+        assertTrue(connectorFactory.isSupported(DatabaseType.CLICKHOUSE));
+        assertNotNull(connectorFactory.getCapabilities(DatabaseType.ORACLE));
+        assertFalse(connectorFactory.isLoaded(DatabaseType.ORACLE));
+    }
+
+    @Test
+    void testRegisterConnector_CapabilityNotImplemented() {
+        DatabaseConnector connector = mock(DatabaseConnector.class);
+        when(connector.getCapabilities()).thenReturn(EnumSet.of(ConnectorCapability.EXPLAIN));
+
+        assertThrows(IllegalArgumentException.class, () -> connectorFactory.registerConnector(DatabaseType.ETCD, connector));
+        assertFalse(connectorFactory.isSupported(DatabaseType.ETCD));
+        assertFalse(connectorFactory.getCapabilities(DatabaseType.TIDB).contains(ConnectorCapability.BULK_IMPORT));
+    }
+
+    @Test
+    void testGetConnector_TypeNotRegistered() {
+        assertFalse(connectorFactory.isSupported(DatabaseType.ETCD));
+        assertThrows(UnsupportedOperationException.class, () -> connectorFactory.getConnector(DatabaseType.ETCD));
+    }
+}
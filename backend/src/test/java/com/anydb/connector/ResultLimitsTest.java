@@ -0,0 +1,72 @@
+package com.anydb.connector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 结果集限制单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ResultLimitsTest {
+
+    @Test
+    void testGetFetchLimit() {
+        assertEquals(0, ResultLimits.NONE.getFetchLimit());
+        assertEquals(111, new ResultLimits(10, 0, 100, 0).getFetchLimit());
+        assertEquals(11, new ResultLimits(10, 0, 100, 0).withoutSkip().getFetchLimit());
+    }
+
+    @Test
+    void testCollector_MaxRows() {
+        ResultLimits.Collector collector = new ResultLimits(2, 0, 1, 0).collector();
+        List<Object> accepted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            if (collector.skip()) {
+                continue;
+            }
+            if (!collector.offer(List.of(i))) {
+                break;
+            }
+            accepted.add(i);
+        }
+
+        assertEquals(List.of(1, 2), accepted);
+        assertTrue(collector.isTruncated());
+    }
+
+    @Test
+    void testCollector_MaxBytes() {
+        List<Object> row = List.of("x".repeat(100));
+        long rowBytes = ResultLimits.estimateBytes(row);
+        ResultLimits.Collector collector = new ResultLimits(0, rowBytes * 2, 0, 0).collector();
+
+        assertTrue(collector.offer(row));
+        assertTrue(collector.offer(row));
+        assertFalse(collector.offer(row));
+        assertEquals(2, collector.getRows().size());
+        assertTrue(collector.isTruncated());
+
+        ResultLimits.Collector tiny = new ResultLimits(0, 1, 0, 0).collector();
+        assertTrue(tiny.offer(row));
+        assertFalse(tiny.offer(row));
+    }
+
+    @Test
+    void testApply() {
+        DatabaseConnector.QueryResult result = new DatabaseConnector.QueryResult();
+        result.setRows(new ArrayList<>(List.of(List.of(1), List.of(2), List.of(3))));
+        result.setTotal(3);
+
+        new ResultLimits(2, 0, 0, 0).apply(result);
+
+        assertEquals(2, result.getTotal());
+        assertTrue(result.isTruncated());
+        assertFalse(ResultLimits.NONE.apply(result).getRows().isEmpty());
+    }
+}
@@ -0,0 +1,245 @@
+package com.anydb.connector.impl;
+
+import com.anydb.config.ClickHouseProperties;
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import com.anydb.connector.DatabaseOperationException;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClickHouse连接器HTTP查询路径、设置档案与进度查询单元测试（本地HTTP服务模拟ClickHouse）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ClickHouseConnectorTest {
+
+    private static final String QUERY_ID = "anydb-123e4567-e89b-12d3-a456-426614174000";
+
+    private HttpServer server;
+
+    private final Map<String, String> lastRequest = new ConcurrentHashMap<>();
+
+    private final ClickHouseConnector connector = new ClickHouseConnector();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String sql = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            lastRequest.put("query", exchange.getRequestURI().getRawQuery());
+            lastRequest.put("sql", sql);
+            lastRequest.put("user", exchange.getRequestHeaders().getFirst("X-ClickHouse-User"));
+
+            byte[] body;
+            int status = 200;
+            if (sql.contains("system.processes")) {
+                body = new RowBinaryWriter()
+                    .header(new String[] {"query_id", "read_rows", "read_bytes", "total_rows_approx", "memory_usage", "elapsed"},
+                        new String[] {"String", "UInt64", "UInt64", "UInt64", "Int64", "Float64"})
+                    .string(QUERY_ID).int64(1000).int64(64000).int64(5000).int64(1 << 20)
+                    .int64(Double.doubleToLongBits(1.5))
+                    .toByteArray();
+            } else if (sql.contains("system.tables")) {
+                body = new RowBinaryWriter()
+                    .header(new String[] {"sampling_key", "total_rows"}, new String[] {"String", "Nullable(UInt64)"})
+                    .string(sql.contains("'events'") ? "intHash32(id)" : "").int8(0).int64(1_000_000)
+                    .toByteArray();
+            } else if (sql.contains("missing_table")) {
+                status = 404;
+                body = "Code: 60. DB::Exception: Table default.missing_table does not exist".getBytes(StandardCharsets.UTF_8);
+            } else {
+                RowBinaryWriter writer = new RowBinaryWriter()
+                    .header(new String[] {"number", "label"}, new String[] {"UInt32", "String"});
+                for (int i = 0; i < 5; i++) {
+                    writer.int32(i).string("n" + i);
+                }
+                body = writer.toByteArray();
+            }
+
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testExecuteQuery_HttpTransport() {
+        QueryResult result = connector.executeQuery(createConfig(), "SELECT number, label FROM numbers(5);");
+
+        assertEquals(List.of("number", "label"), result.getColumns());
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(4L, "n4"), result.getRows().get(4));
+        assertEquals("SELECT number, label FROM numbers(5)", lastRequest.get("sql"));
+        assertTrue(lastRequest.get("query").contains("default_format=RowBinaryWithNamesAndTypes"));
+        assertTrue(lastRequest.get("query").contains("enable_http_compression=1"));
+        assertTrue(lastRequest.get("query").contains("database=analytics"));
+        assertEquals("default", lastRequest.get("user"));
+    }
+
+    @Test
+    void testExecuteQuery_ServerError() {
+        DatabaseConfig config = createConfig();
+        config.setOption("compression", "none");
+
+        DatabaseOperationException e = assertThrows(DatabaseOperationException.class,
+            () -> connector.executeQuery(config, "SELECT * FROM missing_table"));
+        assertTrue(e.getMessage().contains("missing_table does not exist"));
+        assertFalse(lastRequest.get("query").contains("enable_http_compression"));
+    }
+
+    @Test
+    void testStreamQuery_BatchSize() throws InterruptedException {
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Long> progress = new ArrayList<>();
+        QueryStreamSink sink = new QueryStreamSink() {
+            @Override
+            public void onColumns(List<String> columns) {
+                assertEquals(List.of("number", "label"), columns);
+            }
+
+            @Override
+            public void onRows(List<List<Object>> rows) {
+                batchSizes.add(rows.size());
+            }
+
+            @Override
+            public void onProgress(QueryProgress queryProgress) {
+                progress.add(queryProgress.getRowsRead());
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+
+        long rows = connector.streamQuery(createConfig(), "SELECT number, label FROM numbers(5)", 2, sink);
+
+        assertEquals(5, rows);
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(List.of(2L, 4L, 5L), progress);
+    }
+
+    @Test
+    void testExecuteQuery_SettingsProfiles() {
+        ReflectionTestUtils.setField(connector, "properties", bindProperties());
+        DatabaseConfig config = createConfig();
+        config.setOption(ClickHouseConnector.OPTION_SETTINGS_PROFILE, "analytics");
+
+        connector.executeQuery(config, "SELECT 1");
+
+        String query = lastRequest.get("query");
+        assertTrue(query.contains("max_threads=16"));
+        assertTrue(query.contains("max_memory_usage=20000000000"));
+        assertTrue(query.contains("priority=1"));
+        assertTrue(query.contains("query_id=" + ClickHouseConnector.QUERY_ID_PREFIX));
+    }
+
+    @Test
+    void testResolveSettings_UserProfile() {
+        ReflectionTestUtils.setField(connector, "properties", bindProperties());
+        DatabaseConfig config = createConfig();
+        config.setUsername("etl");
+        config.setOption(ClickHouseConnector.OPTION_SETTINGS_PROFILE, "analytics");
+
+        Map<String, String> settings = connector.resolveSettings(config);
+
+        assertEquals("2", settings.get("max_threads"));
+        assertEquals("20000000000", settings.get("max_memory_usage"));
+        assertEquals("1", settings.get("priority"));
+    }
+
+    @Test
+    void testGetQueryProgress() {
+        QueryProgress progress = connector.getQueryProgress(createConfig(), QUERY_ID);
+
+        assertEquals(QUERY_ID, progress.getQueryId());
+        assertEquals(1000L, progress.getReadRows());
+        assertEquals(5000L, progress.getTotalRowsToRead());
+        assertEquals(1500L, progress.getElapsedMs());
+        assertTrue(lastRequest.get("sql").contains("query_id = '" + QUERY_ID + "'"));
+        assertThrows(IllegalArgumentException.class, () -> connector.getQueryProgress(createConfig(), "x' OR 1=1"));
+    }
+
+    @Test
+    void testPreviewTableData_SamplingKey() {
+        QueryResult result = connector.previewTableData(createConfig(), "analytics", "events", 50);
+
+        assertEquals("SAMPLE", result.getSamplingMethod());
+        assertEquals(0.05, result.getSamplingPercent(), 1e-9);
+        assertEquals("SELECT * FROM analytics.events SAMPLE 0.0005 LIMIT 50", lastRequest.get("sql"));
+    }
+
+    @Test
+    void testPreviewTableData_NoSamplingKey() {
+        QueryResult result = connector.previewTableData(createConfig(), "analytics", "logs", 50);
+
+        assertEquals(QueryResult.SAMPLING_NONE, result.getSamplingMethod());
+        assertNull(result.getSamplingPercent());
+        assertEquals("SELECT * FROM analytics.logs LIMIT 50", lastRequest.get("sql"));
+    }
+
+    /**
+     * 按application.yml的键格式绑定配置，确认下划线设置名原样保留
+     */
+    private ClickHouseProperties bindProperties() {
+        Map<String, String> source = new HashMap<>();
+        source.put("anydb.clickhouse.default-profile", "interactive");
+        source.put("anydb.clickhouse.profiles.interactive.max_threads", "4");
+        source.put("anydb.clickhouse.profiles.interactive.priority", "1");
+        source.put("anydb.clickhouse.profiles.analytics.max_threads", "16");
+        source.put("anydb.clickhouse.profiles.analytics.max_memory_usage", "20000000000");
+        source.put("anydb.clickhouse.profiles.etl.max_threads", "2");
+        source.put("anydb.clickhouse.user-profiles.etl", "etl");
+        return new Binder(new MapConfigurationPropertySource(source))
+            .bind("anydb.clickhouse", ClickHouseProperties.class)
+            .get();
+    }
+
+    private DatabaseConfig createConfig() {
+        DatabaseConfig config = new DatabaseConfig(1L, DatabaseType.CLICKHOUSE, "127.0.0.1", server.getAddress().getPort());
+        config.setDatabase("analytics");
+        config.setUsername("default");
+        config.setPassword("");
+        return config;
+    }
+}
@@ -0,0 +1,104 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClickHouse HTTP客户端单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ClickHouseHttpClientTest {
+
+    private static final String TRAILER =
+        "Code: 241. DB::Exception: Memory limit exceeded. (MEMORY_LIMIT_EXCEEDED) (version 23.8.1.1)\n";
+
+    @Test
+    void testReadRow_ExceptionTrailer() throws IOException {
+        byte[] rows = new RowBinaryWriter()
+            .header(new String[] {"id", "name"}, new String[] {"UInt64", "String"})
+            .int64(1).string("alice")
+            .toByteArray();
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(trailerStream(rows, TRAILER));
+
+        assertTrue(reader.hasNext());
+        assertEquals(List.of(1L, "alice"), reader.readRow());
+        IOException error = assertThrows(IOException.class, () -> {
+            while (reader.hasNext()) {
+                reader.readRow();
+            }
+        });
+        assertTrue(error.getMessage().contains("Code: 241. DB::Exception: Memory limit exceeded."));
+    }
+
+    @Test
+    void testReader_ExceptionBeforeHeader() {
+        IOException error = assertThrows(IOException.class,
+            () -> new ClickHouseRowBinaryReader(trailerStream(new byte[0], TRAILER)));
+
+        assertTrue(error.getMessage().contains("MEMORY_LIMIT_EXCEEDED"));
+    }
+
+    @Test
+    void testReadRow_ExceptionTextInData() throws IOException {
+        byte[] rows = new RowBinaryWriter()
+            .header(new String[] {"exception"}, new String[] {"String"})
+            .string("Code: 60. DB::Exception: Table default.t does not exist. (UNKNOWN_TABLE)")
+            .toByteArray();
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(trailerStream(rows, ""));
+
+        assertTrue(reader.hasNext());
+        assertEquals(List.of("Code: 60. DB::Exception: Table default.t does not exist. (UNKNOWN_TABLE)"),
+            reader.readRow());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testReadRow_ExceptionTextAtEnd() throws IOException {
+        byte[] rows = new RowBinaryWriter()
+            .header(new String[] {"message"}, new String[] {"String"})
+            .string(TRAILER)
+            .toByteArray();
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(trailerStream(rows, ""));
+
+        assertTrue(reader.hasNext());
+        assertEquals(List.of(TRAILER), reader.readRow());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testResolveRequestTimeout() {
+        DatabaseConfig config = new DatabaseConfig(1L, DatabaseType.CLICKHOUSE, "localhost", 8123);
+
+        assertEquals(Duration.ofMinutes(5), ClickHouseHttpClient.resolveRequestTimeout(config, Map.of()));
+        assertEquals(Duration.ofSeconds(40),
+            ClickHouseHttpClient.resolveRequestTimeout(config, Map.of("max_execution_time", "30")));
+
+        config.setOption(ClickHouseHttpClient.OPTION_REQUEST_TIMEOUT, "2000");
+        assertEquals(Duration.ofMillis(2000),
+            ClickHouseHttpClient.resolveRequestTimeout(config, Map.of("max_execution_time", "30")));
+
+        config.setOption(ClickHouseHttpClient.OPTION_REQUEST_TIMEOUT, "0");
+        assertThrows(IllegalArgumentException.class, () -> ClickHouseHttpClient.resolveRequestTimeout(config, Map.of()));
+    }
+
+    private static InputStream trailerStream(byte[] rows, String trailer) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(rows);
+        body.write(trailer.getBytes(StandardCharsets.UTF_8));
+        return new ClickHouseHttpClient.ExceptionTrailerInputStream(new ByteArrayInputStream(body.toByteArray()));
+    }
+}
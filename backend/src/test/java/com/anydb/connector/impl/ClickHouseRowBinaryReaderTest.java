@@ -0,0 +1,81 @@
+package com.anydb.connector.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClickHouse RowBinary解码器单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ClickHouseRowBinaryReaderTest {
+
+    @Test
+    void testReadRow_ScalarTypes() throws IOException {
+        byte[] payload = new RowBinaryWriter()
+            .header(new String[] {"id", "name", "score", "day", "ts", "amount", "level"},
+                new String[] {"UInt64", "LowCardinality(String)", "Float64", "Date", "DateTime64(3, 'UTC')",
+                    "Decimal(10, 2)", "Enum8('low' = 1, 'high' = 2)"})
+            .int64(42).string("alice").int64(Double.doubleToLongBits(1.5)).int16(19000)
+            .int64(1_700_000_000_123L).int64(12345).int8(2)
+            .toByteArray();
+
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(new ByteArrayInputStream(payload));
+
+        assertEquals(List.of("id", "name", "score", "day", "ts", "amount", "level"), reader.getColumns());
+        assertTrue(reader.hasNext());
+        List<Object> row = reader.readRow();
+        assertEquals(42L, row.get(0));
+        assertEquals("alice", row.get(1));
+        assertEquals(1.5, row.get(2));
+        assertEquals(Date.valueOf(LocalDate.ofEpochDay(19000)), row.get(3));
+        assertEquals(new Timestamp(1_700_000_000_123L), row.get(4));
+        assertEquals(new BigDecimal("123.45"), row.get(5));
+        assertEquals("high", row.get(6));
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testReadRow_CompositeTypes() throws IOException {
+        byte[] payload = new RowBinaryWriter()
+            .header(new String[] {"tags", "note", "attrs", "pair"},
+                new String[] {"Array(Int32)", "Nullable(String)", "Map(String, UInt8)", "Tuple(id UInt16, name String)"})
+            .varInt(2).int32(7).int32(-1)
+            .int8(1)
+            .varInt(1).string("k").int8(200)
+            .int16(65535).string("x")
+            .toByteArray();
+
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(new ByteArrayInputStream(payload));
+        List<Object> row = reader.readRow();
+
+        assertEquals(List.of(7, -1), row.get(0));
+        assertNull(row.get(1));
+        assertEquals(Map.of("k", 200), row.get(2));
+        assertEquals(List.of(65535, "x"), row.get(3));
+    }
+
+    @Test
+    void testReader_EmptyBody() throws IOException {
+        ClickHouseRowBinaryReader reader = new ClickHouseRowBinaryReader(new ByteArrayInputStream(new byte[0]));
+
+        assertTrue(reader.getColumns().isEmpty());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testDecoderFor_UnsupportedType() {
+        assertThrows(IllegalStateException.class, () -> ClickHouseRowBinaryReader.decoderFor("AggregateFunction(uniq, UInt64)"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.HostEndpoint;
+import com.mongodb.client.MongoClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MongoDB连接器客户端缓存单元测试（客户端延迟连接，无需服务端）
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class MongoDBConnectorTest {
+
+    private final MongoDBConnector connector = new MongoDBConnector();
+
+    @AfterEach
+    void tearDown() {
+        connector.close();
+    }
+
+    @Test
+    void testGetClient_CredentialsOrHostsChanged() {
+        DatabaseConfig config = new DatabaseConfig(7L, DatabaseType.MONGODB, "localhost", 27017);
+        config.setUsername("app");
+        config.setPassword("secret");
+        MongoClient client = connector.getClient(config);
+
+        assertSame(client, connector.getClient(config.copy()));
+        assertFalse(MongoDBConnector.clientKey(config).contains("secret"));
+
+        DatabaseConfig changedPassword = config.copy();
+        changedPassword.setPassword("rotated");
+        assertNotSame(client, connector.getClient(changedPassword));
+
+        DatabaseConfig changedHosts = config.copy();
+        changedHosts.setHosts(List.of(new HostEndpoint("mongo-2", 27017)));
+        assertNotEquals(MongoDBConnector.clientKey(config), MongoDBConnector.clientKey(changedHosts));
+    }
+
+    @Test
+    void testEvict() {
+        DatabaseConfig config = new DatabaseConfig(7L, DatabaseType.MONGODB, "localhost", 27017);
+        DatabaseConfig other = new DatabaseConfig(8L, DatabaseType.MONGODB, "localhost", 27017);
+        MongoClient client = connector.getClient(config);
+        MongoClient otherClient = connector.getClient(other);
+
+        connector.evict(7L);
+
+        assertNotSame(client, connector.getClient(config));
+        assertSame(otherClient, connector.getClient(other));
+    }
+}
@@ -0,0 +1,65 @@
+package com.anydb.connector.impl;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MongoDB查询规格单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class MongoQueryTest {
+
+    @Test
+    void testParse_Find() {
+        MongoQuery query = MongoQuery.parse("""
+            {"find": "users", "filter": {"age": {"$gt": 30}}, "sort": {"age": -1}, "limit": 10,
+             "maxTimeMS": 5000, "batchSize": 200}
+            """);
+
+        assertEquals(MongoQuery.Kind.FIND, query.getKind());
+        assertEquals("users", query.getCollection());
+        assertEquals(30, query.getFilter().get("age", Document.class).get("$gt"));
+        assertEquals(10, query.getLimit());
+        assertEquals(5000, query.getMaxTimeMS());
+        assertEquals(200, query.getBatchSize());
+        assertNull(query.getAllowDiskUse());
+    }
+
+    @Test
+    void testParse_Aggregate() {
+        MongoQuery query = MongoQuery.parse("""
+            {"aggregate": "orders", "pipeline": [{"$match": {"status": "paid"}}, {"$sort": {"total": -1}}],
+             "allowDiskUse": false, "cursor": {"batchSize": 50}}
+            """);
+
+        assertEquals(MongoQuery.Kind.AGGREGATE, query.getKind());
+        assertEquals(2, query.getPipeline().size());
+        assertFalse(query.writesOutput());
+        assertFalse(query.getAllowDiskUse());
+        assertEquals(50, query.getBatchSize());
+    }
+
+    @Test
+    void testParse_NonQueryCommand() {
+        assertThrows(IllegalArgumentException.class, () -> MongoQuery.parse("{\"count\": \"users\"}"));
+        assertThrows(IllegalArgumentException.class, () -> MongoQuery.parse("{\"dropDatabase\": 1}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> MongoQuery.parse("{\"aggregate\": 1, \"pipeline\": [{\"$currentOp\": {}}]}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> MongoQuery.parse("{\"aggregate\": \"orders\", \"pipeline\": [{\"$out\": \"copy\"}]}"));
+    }
+
+    @Test
+    void testParse_InvalidSpec() {
+        assertThrows(IllegalArgumentException.class, () -> MongoQuery.parse("db.users.find()"));
+        assertThrows(IllegalArgumentException.class, () -> MongoQuery.parse("{\"find\": \"users\", \"limit\": -1}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> MongoQuery.parse("{\"aggregate\": \"orders\", \"pipeline\": {\"$match\": {}}}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> MongoQuery.parse("{\"find\": \"users\", \"filter\": \"age > 30\"}"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.anydb.connector.impl;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MongoDB文档转换单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class MongoRowsTest {
+
+    @Test
+    void testColumns() {
+        List<Document> documents = List.of(
+            new Document("name", "a").append("_id", 1),
+            new Document("_id", 2).append("age", 30).append("name", "b"));
+
+        List<String> columns = MongoRows.columns(documents);
+
+        assertEquals(List.of("_id", "name", "age"), columns);
+        assertEquals(Arrays.asList(1, "a", null), MongoRows.row(documents.get(0), columns));
+    }
+
+    @Test
+    void testValue() {
+        ObjectId id = new ObjectId();
+        Date date = new Date(1700000000000L);
+
+        assertEquals(id.toHexString(), MongoRows.value(id));
+        assertEquals(new Timestamp(date.getTime()), MongoRows.value(date));
+        assertEquals(new BigDecimal("12.50"), MongoRows.value(new Decimal128(new BigDecimal("12.50"))));
+        assertEquals("NaN", MongoRows.value(Decimal128.NaN));
+        assertEquals("{\"a\": 1}", MongoRows.value(new Document("a", 1)));
+        assertEquals("[1, \"x\"]", MongoRows.value(List.of(1, "x")));
+    }
+
+    @Test
+    void testTypeName() {
+        assertEquals("objectId", MongoRows.typeName(new ObjectId()));
+        assertEquals("decimal", MongoRows.typeName(Decimal128.POSITIVE_ZERO));
+        assertEquals("object", MongoRows.typeName(new Document()));
+        assertEquals("array", MongoRows.typeName(List.of()));
+        assertEquals("null", MongoRows.typeName(null));
+    }
+
+    @Test
+    void testColumnSet_Frozen() {
+        MongoRows.ColumnSet columns = new MongoRows.ColumnSet();
+        List<List<Object>> rows = new ArrayList<>();
+        rows.add(columns.row(new Document("a", 1)));
+        rows.add(columns.row(new Document("b", 2).append("a", 3)));
+        columns.pad(rows);
+
+        assertEquals(List.of("a", "b"), columns.getNames());
+        assertEquals(Arrays.asList(1, null), rows.get(0));
+        assertEquals(Arrays.asList(3, 2), rows.get(1));
+
+        columns.freeze();
+        assertEquals(Arrays.asList(4, null), columns.row(new Document("a", 4).append("c", 5)));
+        assertEquals(List.of("a", "b"), columns.getNames());
+    }
+}
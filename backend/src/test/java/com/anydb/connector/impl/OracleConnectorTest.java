@@ -0,0 +1,66 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Oracle连接器分页语句与连接属性单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class OracleConnectorTest {
+
+    @Test
+    void testBuildPageSql() {
+        assertEquals("SELECT * FROM EMP ORDER BY ID DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+            OracleConnector.buildPageSql("EMP", "ID", "desc", true));
+        assertEquals("SELECT * FROM EMP OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+            OracleConnector.buildPageSql("EMP", null, null, true));
+    }
+
+    @Test
+    void testBuildPageSql_OlderServer() {
+        assertEquals("SELECT * FROM (SELECT a.*, ROWNUM anydb_rn FROM (SELECT * FROM EMP ORDER BY ID ASC) a"
+                + " WHERE ROWNUM <= ?) WHERE anydb_rn > ?",
+            OracleConnector.buildPageSql("EMP", "ID", "ASC", false));
+    }
+
+    @Test
+    void testBuildConnectionProperties() {
+        DatabaseConfig config = new DatabaseConfig(1L, DatabaseType.ORACLE, "localhost", 1521);
+        Properties props = OracleConnector.buildConnectionProperties(config);
+        assertEquals("100", props.getProperty("defaultRowPrefetch"));
+        assertEquals("32768", props.getProperty("oracle.jdbc.defaultLobPrefetchSize"));
+        assertEquals("50", props.getProperty("oracle.jdbc.implicitStatementCacheSize"));
+
+        config.setOption(OracleConnector.OPTION_ROW_PREFETCH, "1000");
+        assertEquals("1000", OracleConnector.buildConnectionProperties(config).getProperty("defaultRowPrefetch"));
+
+        config.setOption(OracleConnector.OPTION_STATEMENT_CACHE_SIZE, "-1");
+        assertThrows(IllegalArgumentException.class, () -> OracleConnector.buildConnectionProperties(config));
+    }
+
+    @Test
+    void testPoolKey_CredentialsOrOptionsChanged() {
+        DatabaseConfig config = new DatabaseConfig(7L, DatabaseType.ORACLE, "localhost", 1521);
+        config.setUsername("scott");
+        config.setPassword("tiger");
+        String key = OracleConnector.poolKey(config);
+
+        assertTrue(key.startsWith("7|"));
+        assertFalse(key.contains("tiger"));
+        assertEquals(key, OracleConnector.poolKey(config.copy()));
+
+        config.setPassword("lion");
+        assertNotEquals(key, OracleConnector.poolKey(config));
+        String passwordKey = OracleConnector.poolKey(config);
+        config.setOption(OracleConnector.OPTION_ROW_PREFETCH, "500");
+        assertNotEquals(passwordKey, OracleConnector.poolKey(config));
+    }
+}
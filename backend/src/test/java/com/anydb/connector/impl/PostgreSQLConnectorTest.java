@@ -0,0 +1,50 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.BulkFormat;
+import com.anydb.connector.ConnectorCapability;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL连接器COPY语句构建单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class PostgreSQLConnectorTest {
+
+    @Test
+    void testBuildCopyOutSql() {
+        assertEquals("COPY public.orders TO STDOUT (FORMAT csv, HEADER true)",
+            PostgreSQLConnector.buildCopyOutSql("public", "orders", BulkFormat.CSV));
+        assertEquals("COPY orders TO STDOUT (FORMAT binary)",
+            PostgreSQLConnector.buildCopyOutSql(null, "orders", BulkFormat.BINARY));
+    }
+
+    @Test
+    void testBuildCopyInSql() {
+        assertEquals("COPY sales.orders (id, amount) FROM STDIN (FORMAT csv, HEADER false)",
+            PostgreSQLConnector.buildCopyInSql("sales", "orders", List.of("id", "amount"), BulkFormat.CSV, false));
+        assertEquals("COPY orders FROM STDIN (FORMAT binary)",
+            PostgreSQLConnector.buildCopyInSql("", "orders", null, BulkFormat.BINARY, true));
+    }
+
+    @Test
+    void testBuildCopySql_UnsafeIdentifier() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PostgreSQLConnector.buildCopyOutSql("public", "orders; DROP TABLE x", BulkFormat.CSV));
+        assertThrows(IllegalArgumentException.class,
+            () -> PostgreSQLConnector.buildCopyOutSql("pub\"lic", "orders", BulkFormat.CSV));
+        assertThrows(IllegalArgumentException.class,
+            () -> PostgreSQLConnector.buildCopyInSql("public", "orders", List.of("id", "1col"), BulkFormat.CSV, true));
+    }
+
+    @Test
+    void testGetCapabilities() {
+        assertTrue(new PostgreSQLConnector().getCapabilities().contains(ConnectorCapability.BULK_EXPORT));
+        assertTrue(new PostgreSQLConnector().getCapabilities().contains(ConnectorCapability.BULK_IMPORT));
+    }
+}
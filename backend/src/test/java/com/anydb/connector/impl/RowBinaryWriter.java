@@ -0,0 +1,70 @@
+package com.anydb.connector.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 测试用RowBinary编码器
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class RowBinaryWriter {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    RowBinaryWriter header(String[] names, String[] types) {
+        varInt(names.length);
+        for (String name : names) {
+            string(name);
+        }
+        for (String type : types) {
+            string(type);
+        }
+        return this;
+    }
+
+    RowBinaryWriter varInt(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+        return this;
+    }
+
+    RowBinaryWriter int8(int value) {
+        out.write(value);
+        return this;
+    }
+
+    RowBinaryWriter int16(int value) {
+        return littleEndian(value, 2);
+    }
+
+    RowBinaryWriter int32(long value) {
+        return littleEndian(value, 4);
+    }
+
+    RowBinaryWriter int64(long value) {
+        return littleEndian(value, 8);
+    }
+
+    RowBinaryWriter string(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        varInt(bytes.length);
+        out.write(bytes, 0, bytes.length);
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private RowBinaryWriter littleEndian(long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xFF);
+        }
+        return this;
+    }
+}
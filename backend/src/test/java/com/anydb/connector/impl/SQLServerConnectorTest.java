@@ -0,0 +1,44 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL Server连接器元数据语句与连接属性单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class SQLServerConnectorTest {
+
+    @Test
+    void testBuildTableListSql() {
+        String sql = SQLServerConnector.buildTableListSql(true, false);
+        assertTrue(sql.contains("FROM sys.dm_db_partition_stats"));
+        assertTrue(sql.contains("ps.object_id = t.object_id"));
+        assertTrue(sql.endsWith("ORDER BY s.name, t.name"));
+        assertFalse(sql.contains("OBJECT_NAME("));
+
+        String single = SQLServerConnector.buildTableListSql(false, true);
+        assertTrue(single.contains("FROM sys.partitions"));
+        assertTrue(single.endsWith("AND t.object_id = OBJECT_ID(?)"));
+    }
+
+    @Test
+    void testBuildConnectionProperties() {
+        DatabaseConfig config = new DatabaseConfig(1L, DatabaseType.SQLSERVER, "localhost", 1433);
+        config.setUsername("sa");
+        config.setPassword("secret");
+
+        Properties direct = SQLServerConnector.buildConnectionProperties(config, false);
+        assertEquals("adaptive", direct.getProperty("responseBuffering"));
+        assertEquals("direct", direct.getProperty("selectMethod"));
+
+        assertEquals("cursor", SQLServerConnector.buildConnectionProperties(config, true).getProperty("selectMethod"));
+    }
+}
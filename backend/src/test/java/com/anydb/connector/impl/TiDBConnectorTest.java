@@ -0,0 +1,109 @@
+package com.anydb.connector.impl;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TiDB连接器副本读、过期读与TiFlash下推判断单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class TiDBConnectorTest {
+
+    private DatabaseConfig config(String readMode) {
+        DatabaseConfig config = new DatabaseConfig(1L, DatabaseType.TIDB, "localhost", 4000);
+        if (readMode != null) {
+            config.setOption(TiDBConnector.OPTION_READ_MODE, readMode);
+        }
+        return config;
+    }
+
+    @Test
+    void testBuildReadSessionStatements() {
+        assertEquals(List.of(), TiDBConnector.buildReadSessionStatements(config(null)));
+        assertEquals(List.of(), TiDBConnector.buildReadSessionStatements(config("leader")));
+        assertEquals(List.of("SET SESSION tidb_replica_read = 'follower'"),
+            TiDBConnector.buildReadSessionStatements(config("Follower")));
+        assertThrows(IllegalArgumentException.class,
+            () -> TiDBConnector.buildReadSessionStatements(config("'; DROP TABLE t; --")));
+    }
+
+    @Test
+    void testBuildReadSessionStatements_Stale() {
+        DatabaseConfig config = config("stale");
+        assertEquals(List.of("SET SESSION tidb_read_staleness = -5"), TiDBConnector.buildReadSessionStatements(config));
+
+        config.setOption(TiDBConnector.OPTION_READ_STALENESS, "30");
+        assertEquals(List.of("SET SESSION tidb_read_staleness = -30"), TiDBConnector.buildReadSessionStatements(config));
+
+        config.setOption(TiDBConnector.OPTION_READ_STALENESS, "0");
+        assertThrows(IllegalArgumentException.class, () -> TiDBConnector.buildReadSessionStatements(config));
+    }
+
+    @Test
+    void testBuildExportSessionStatements() {
+        assertEquals(List.of("SET SESSION tidb_snapshot = '451234567890123456'"),
+            TiDBConnector.buildExportSessionStatements(config(null), "451234567890123456"));
+        assertEquals(List.of("SET SESSION tidb_replica_read = 'follower'", "SET SESSION tidb_snapshot = '451234567890123456'"),
+            TiDBConnector.buildExportSessionStatements(config("follower"), "451234567890123456"));
+        // 快照已是过期时间点，不再叠加tidb_read_staleness
+        assertEquals(List.of("SET SESSION tidb_snapshot = '2026-10-19 08:00:00.000000'"),
+            TiDBConnector.buildExportSessionStatements(config("stale"), "2026-10-19 08:00:00.000000"));
+        assertThrows(IllegalStateException.class,
+            () -> TiDBConnector.buildExportSessionStatements(config(null), "0'; DROP TABLE t; --"));
+    }
+
+    @Test
+    void testQualifiedTableName() {
+        assertEquals("`shop`.`orders`", TiDBConnector.qualifiedTableName("shop", "orders"));
+        assertEquals("`订单`", TiDBConnector.qualifiedTableName(null, " 订单 "));
+        assertThrows(IllegalArgumentException.class, () -> TiDBConnector.qualifiedTableName(null, "t REGIONS; DROP TABLE t"));
+        assertThrows(IllegalArgumentException.class, () -> TiDBConnector.qualifiedTableName("shop`", "orders"));
+        assertThrows(IllegalArgumentException.class, () -> TiDBConnector.qualifiedTableName("shop", ""));
+    }
+
+    @Test
+    void testParseRegionHandle() {
+        assertEquals(1000L, TiDBConnector.parseRegionHandle("t_75_r_1000"));
+        assertEquals(-5L, TiDBConnector.parseRegionHandle("t_75_r_-5"));
+        assertNull(TiDBConnector.parseRegionHandle("t_75_"));
+        assertNull(TiDBConnector.parseRegionHandle("t_75_i_1_0380000000000000"));
+    }
+
+    @Test
+    void testPlanRanges() {
+        List<Object> boundaries = new ArrayList<>();
+        for (long i = 1; i <= 7; i++) {
+            boundaries.add(i * 100);
+        }
+
+        // 8个Region合并为4段，每段2个Region
+        List<TiDBConnector.ScanRange> ranges = TiDBConnector.planRanges(boundaries, 4);
+        assertEquals(List.of(
+            new TiDBConnector.ScanRange(null, 200L),
+            new TiDBConnector.ScanRange(200L, 400L),
+            new TiDBConnector.ScanRange(400L, 600L),
+            new TiDBConnector.ScanRange(600L, null)), ranges);
+
+        // Region少于线程数时每个Region一段
+        assertEquals(3, TiDBConnector.planRanges(List.of(100L, 200L), 8).size());
+        assertEquals(List.of(new TiDBConnector.ScanRange(null, null)), TiDBConnector.planRanges(List.of(), 8));
+    }
+
+    @Test
+    void testBuildRangeSql() {
+        assertEquals("SELECT * FROM `shop`.`orders` WHERE `_tidb_rowid` >= ? AND `_tidb_rowid` < ?",
+            TiDBConnector.buildRangeSql("`shop`.`orders`", "_tidb_rowid", new TiDBConnector.ScanRange(1L, 2L)));
+        assertEquals("SELECT * FROM orders WHERE `id` < ?",
+            TiDBConnector.buildRangeSql("orders", "id", new TiDBConnector.ScanRange(null, 2L)));
+        assertEquals("SELECT * FROM orders",
+            TiDBConnector.buildRangeSql("orders", null, new TiDBConnector.ScanRange(null, null)));
+    }
+}
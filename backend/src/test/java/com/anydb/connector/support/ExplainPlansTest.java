@@ -0,0 +1,310 @@
+package com.anydb.connector.support;
+
+import com.anydb.connector.PlanNode;
+import com.anydb.connector.QueryPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 执行计划归一化单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ExplainPlansTest {
+
+    @Test
+    void testFromMySqlJson_NestedLoop() {
+        String json = """
+            {"query_block": {"select_id": 1, "cost_info": {"query_cost": "12.50"},
+              "nested_loop": [
+                {"table": {"table_name": "o", "access_type": "ALL", "rows_examined_per_scan": 100,
+                  "rows_produced_per_join": 10, "filtered": "10.00", "cost_info": {"prefix_cost": "10.25"},
+                  "attached_condition": "(`shop`.`o`.`status` = 'paid')"}},
+                {"table": {"table_name": "c", "access_type": "eq_ref", "key": "PRIMARY",
+                  "rows_examined_per_scan": 1, "rows_produced_per_join": 10,
+                  "cost_info": {"prefix_cost": "12.50"}}}
+              ]}}
+            """;
+        QueryPlan plan = ExplainPlans.fromMySqlJson(json);
+
+        PlanNode root = plan.getRoot();
+        assertEquals("Query block #1", root.getOperation());
+        assertEquals(12.5, root.getEstimatedCost());
+        assertEquals(2, root.getChildren().size());
+        PlanNode scan = root.getChildren().get(0);
+        assertEquals("Full table scan", scan.getOperation());
+        assertEquals("o", scan.getObject());
+        assertEquals(10.0, scan.getEstimatedRows());
+        assertEquals(100.0, scan.getDetails().get("rowsExamined"));
+        assertEquals("Index lookup", root.getChildren().get(1).getOperation());
+        assertEquals("PRIMARY", root.getChildren().get(1).getDetails().get("key"));
+        assertFalse(plan.isAnalyzed());
+    }
+
+    @Test
+    void testFromMySqlJson_MariaDbAnalyze() {
+        String json = """
+            {"query_block": {"select_id": 1, "r_total_time_ms": 0.52,
+              "table": {"table_name": "t", "access_type": "range", "key": "idx_a", "rows": 40,
+                "r_rows": 37, "r_loops": 1, "r_total_time_ms": 0.31}}}
+            """;
+        QueryPlan plan = ExplainPlans.fromMySqlJson(json);
+
+        PlanNode table = plan.getRoot().getChildren().get(0);
+        assertTrue(plan.isAnalyzed());
+        assertEquals("Index range scan", table.getOperation());
+        assertEquals(40.0, table.getEstimatedRows());
+        assertEquals(37.0, table.getActualRows());
+        assertEquals(0.31, table.getActualTimeMs());
+        assertEquals(1L, table.getLoops());
+    }
+
+    @Test
+    void testFromMySqlTree_ExplainAnalyze() {
+        String text = """
+            -> Nested loop inner join  (cost=4.70 rows=10) (actual time=0.05..0.12 rows=10 loops=1)
+                -> Table scan on o  (cost=1.25 rows=10) (actual time=0.03..0.05 rows=10 loops=1)
+                -> Single-row index lookup on c using PRIMARY (id=o.cid)  (cost=0.26 rows=1) (actual time=0.004..0.004 rows=1 loops=10)
+            """;
+        QueryPlan plan = ExplainPlans.fromMySqlTree(text);
+
+        PlanNode join = plan.getRoot();
+        assertTrue(plan.isAnalyzed());
+        assertEquals("Nested loop inner join", join.getOperation());
+        assertEquals(4.7, join.getEstimatedCost());
+        assertEquals(2, join.getChildren().size());
+        PlanNode lookup = join.getChildren().get(1);
+        assertEquals("c", lookup.getObject());
+        assertEquals(1.0, lookup.getEstimatedRows());
+        assertEquals(10L, lookup.getLoops());
+        assertEquals("o", join.getChildren().get(0).getObject());
+    }
+
+    @Test
+    void testFromTiDbRows() {
+        List<String> columns = List.of("id", "estRows", "actRows", "task", "access object", "execution info",
+            "operator info", "memory", "disk");
+        List<List<Object>> rows = List.of(
+            Arrays.asList("IndexLookUp_10", "10.00", "8", "root", "", "time:1.2ms, loops:2", "", "9.1 KB", "N/A"),
+            Arrays.asList("├─IndexRangeScan_8(Build)", "10.00", "8", "cop[tikv]", "table:t, index:idx_a(a)",
+                "tikv_task:{time:0s, loops:1}", "range:[1,1]", "N/A", "N/A"),
+            Arrays.asList("└─TableRowIDScan_9(Probe)", "10.00", "8", "cop[tikv]", "table:t",
+                "time:850µs, loops:1", "keep order:false", "N/A", "N/A"));
+        QueryPlan plan = ExplainPlans.fromTiDbRows(columns, rows);
+
+        PlanNode root = plan.getRoot();
+        assertTrue(plan.isAnalyzed());
+        assertEquals("IndexLookUp", root.getOperation());
+        assertEquals(1.2, root.getActualTimeMs(), 1e-9);
+        assertEquals(2L, root.getLoops());
+        assertEquals(2, root.getChildren().size());
+        PlanNode probe = root.getChildren().get(1);
+        assertEquals("TableRowIDScan", probe.getOperation());
+        assertEquals("Probe", probe.getDetails().get("role"));
+        assertEquals("table:t", probe.getObject());
+        assertEquals(0.85, probe.getActualTimeMs(), 1e-9);
+        assertEquals(8.0, probe.getActualRows());
+        assertEquals(2.5 * 60_000 + 1, ExplainPlans.parseGoDuration("2m30.001s"), 1e-6);
+    }
+
+    @Test
+    void testFromPostgresJson_Analyze() {
+        String json = """
+            [{"Plan": {"Node Type": "Hash Join", "Join Type": "Inner", "Total Cost": 35.5, "Plan Rows": 120,
+                "Actual Rows": 118, "Actual Total Time": 0.9, "Actual Loops": 1,
+                "Plans": [
+                  {"Node Type": "Seq Scan", "Relation Name": "orders", "Schema": "public", "Total Cost": 20.0,
+                   "Plan Rows": 1000, "Filter": "(status = 'paid'::text)", "Actual Rows": 990,
+                   "Actual Total Time": 0.4, "Actual Loops": 1},
+                  {"Node Type": "Hash", "Total Cost": 10.0, "Plan Rows": 50}
+                ]},
+              "Planning Time": 0.12, "Execution Time": 1.05}]
+            """;
+        QueryPlan plan = ExplainPlans.fromPostgresJson(json);
+
+        PlanNode join = plan.getRoot();
+        assertTrue(plan.isAnalyzed());
+        assertEquals(0.12, plan.getPlanningTimeMs());
+        assertEquals(1.05, plan.getExecutionTimeMs());
+        assertEquals("Hash Join", join.getOperation());
+        assertEquals("Inner", join.getDetails().get("Join Type"));
+        PlanNode scan = join.getChildren().get(0);
+        assertEquals("public.orders", scan.getObject());
+        assertEquals(1000.0, scan.getEstimatedRows());
+        assertEquals(990.0, scan.getActualRows());
+        assertEquals("(status = 'paid'::text)", scan.getDetails().get("Filter"));
+        assertNull(join.getChildren().get(1).getActualRows());
+    }
+
+    @Test
+    void testFromClickHouseJson() {
+        String json = """
+            [{"Plan": {"Node Type": "Expression", "Description": "(Projection + Before ORDER BY)",
+                "Plans": [{"Node Type": "ReadFromMergeTree", "Description": "default.hits",
+                  "Indexes": [{"Type": "PrimaryKey", "Keys": ["CounterID"], "Initial Granules": 1000,
+                    "Selected Granules": 12}]}]}}]
+            """;
+        QueryPlan plan = ExplainPlans.fromClickHouseJson(json);
+
+        PlanNode root = plan.getRoot();
+        assertEquals("Expression", root.getOperation());
+        assertEquals("(Projection + Before ORDER BY)", root.getDetails().get("description"));
+        PlanNode read = root.getChildren().get(0);
+        assertEquals("default.hits", read.getObject());
+        assertEquals(1, ((List<?>) read.getDetails().get("indexes")).size());
+    }
+
+    @Test
+    void testFromOraclePlanTable() {
+        QueryPlan plan = ExplainPlans.fromOraclePlanTable(List.of(
+            oracleRow(0, null, "SELECT STATEMENT", null, null, null, 3, 2),
+            oracleRow(1, 0, "TABLE ACCESS", "BY INDEX ROWID", "HR", "EMPLOYEES", 3, 2),
+            oracleRow(2, 1, "INDEX", "RANGE SCAN", "HR", "EMP_DEPT_IX", 3, 1)), "Plan hash value: 1\n");
+
+        PlanNode root = plan.getRoot();
+        assertEquals("SELECT STATEMENT", root.getOperation());
+        PlanNode access = root.getChildren().get(0);
+        assertEquals("TABLE ACCESS BY INDEX ROWID", access.getOperation());
+        assertEquals("HR.EMPLOYEES", access.getObject());
+        assertEquals("HR.EMP_DEPT_IX", access.getChildren().get(0).getObject());
+        assertEquals(1.0, access.getChildren().get(0).getEstimatedCost());
+        assertEquals("Plan hash value: 1\n", plan.getRaw());
+    }
+
+    @Test
+    void testFromShowplanXml_ActualPlan() {
+        String xml = """
+            <ShowPlanXML xmlns="http://schemas.microsoft.com/sqlserver/2004/07/showplan" Version="1.5">
+              <BatchSequence><Batch><Statements>
+                <StmtSimple StatementType="SELECT" StatementEstRows="5" StatementSubTreeCost="0.0066">
+                  <QueryPlan>
+                    <QueryTimeStats CpuTime="1" ElapsedTime="3"/>
+                    <RelOp PhysicalOp="Nested Loops" LogicalOp="Inner Join" EstimateRows="5"
+                           EstimatedTotalSubtreeCost="0.0066">
+                      <RunTimeInformation>
+                        <RunTimeCountersPerThread Thread="0" ActualRows="5" ActualExecutions="1" ActualElapsedms="2"/>
+                      </RunTimeInformation>
+                      <NestedLoops>
+                        <RelOp PhysicalOp="Index Seek" LogicalOp="Index Seek" EstimateRows="5"
+                               EstimatedTotalSubtreeCost="0.0033">
+                          <RunTimeInformation>
+                            <RunTimeCountersPerThread Thread="1" ActualRows="3" ActualExecutions="1" ActualElapsedms="1"/>
+                            <RunTimeCountersPerThread Thread="2" ActualRows="2" ActualExecutions="1" ActualElapsedms="2"/>
+                          </RunTimeInformation>
+                          <IndexScan>
+                            <Object Database="[shop]" Schema="[dbo]" Table="[Orders]" Index="[IX_Orders_Customer]"/>
+                          </IndexScan>
+                        </RelOp>
+                      </NestedLoops>
+                    </RelOp>
+                  </QueryPlan>
+                </StmtSimple>
+              </Statements></Batch></BatchSequence>
+            </ShowPlanXML>
+            """;
+        QueryPlan plan = ExplainPlans.fromShowplanXml(xml);
+
+        PlanNode statement = plan.getRoot();
+        assertTrue(plan.isAnalyzed());
+        assertEquals(3.0, plan.getExecutionTimeMs());
+        assertEquals("SELECT", statement.getOperation());
+        PlanNode join = statement.getChildren().get(0);
+        assertEquals("Nested Loops", join.getOperation());
+        assertEquals("Inner Join", join.getDetails().get("logicalOp"));
+        PlanNode seek = join.getChildren().get(0);
+        assertEquals("dbo.Orders", seek.getObject());
+        assertEquals("IX_Orders_Customer", seek.getDetails().get("index"));
+        assertEquals(5.0, seek.getActualRows());
+        assertEquals(2.0, seek.getActualTimeMs());
+        assertEquals(2L, seek.getLoops());
+    }
+
+    @Test
+    void testFromShowplanXml_Doctype() {
+        String xml = "<!DOCTYPE x [<!ENTITY e SYSTEM \"file:///etc/passwd\">]><ShowPlanXML>&e;</ShowPlanXML>";
+        assertThrows(IllegalArgumentException.class, () -> ExplainPlans.fromShowplanXml(xml));
+    }
+
+    @Test
+    void testFromMongoExplain_Find() {
+        String json = """
+            {"queryPlanner": {"namespace": "shop.orders",
+               "winningPlan": {"stage": "FETCH", "inputStage": {"stage": "IXSCAN", "indexName": "status_1"}}},
+             "executionStats": {"nReturned": 12, "executionTimeMillis": 3, "totalDocsExamined": 12,
+               "executionStages": {"stage": "FETCH", "nReturned": 12, "executionTimeMillisEstimate": 2,
+                 "docsExamined": 12, "filter": {"total": {"$gt": 100}},
+                 "inputStage": {"stage": "IXSCAN", "indexName": "status_1", "keyPattern": {"status": 1},
+                   "nReturned": 40, "executionTimeMillisEstimate": 1, "keysExamined": 40}}}}
+            """;
+        QueryPlan plan = ExplainPlans.fromMongoExplain(json);
+
+        assertTrue(plan.isAnalyzed());
+        assertEquals(3.0, plan.getExecutionTimeMs());
+        PlanNode fetch = plan.getRoot();
+        assertEquals("FETCH", fetch.getOperation());
+        assertEquals(12.0, fetch.getActualRows());
+        assertEquals("{\"total\":{\"$gt\":100}}", fetch.getDetails().get("filter"));
+        PlanNode scan = fetch.getChildren().get(0);
+        assertEquals("IXSCAN", scan.getOperation());
+        assertEquals("status_1", scan.getObject());
+        assertEquals(40, scan.getDetails().get("keysExamined"));
+    }
+
+    @Test
+    void testFromMongoExplain_Pipeline() {
+        String json = """
+            {"stages": [
+              {"$cursor": {"queryPlanner": {"namespace": "shop.orders",
+                 "winningPlan": {"stage": "COLLSCAN", "direction": "forward"}}}},
+              {"$group": {"_id": "$status", "n": {"$sum": 1}}},
+              {"$sort": {"sortKey": {"n": -1}}}]}
+            """;
+        QueryPlan plan = ExplainPlans.fromMongoExplain(json);
+
+        assertFalse(plan.isAnalyzed());
+        PlanNode sort = plan.getRoot();
+        assertEquals("$sort", sort.getOperation());
+        PlanNode group = sort.getChildren().get(0);
+        assertEquals("$group", group.getOperation());
+        PlanNode scan = group.getChildren().get(0);
+        assertEquals("COLLSCAN", scan.getOperation());
+        assertEquals("shop.orders", scan.getObject());
+    }
+
+    @Test
+    void testFromMongoExplain_Sharded() {
+        String json = """
+            {"queryPlanner": {"winningPlan": {"stage": "SHARD_MERGE", "shards": [
+              {"shardName": "rs0", "winningPlan": {"queryPlan": {"stage": "COLLSCAN"}}},
+              {"shardName": "rs1", "winningPlan": {"stage": "IXSCAN", "indexName": "_id_"}}]}}}
+            """;
+        PlanNode merge = ExplainPlans.fromMongoExplain(json).getRoot();
+
+        assertEquals("SHARD_MERGE", merge.getOperation());
+        assertEquals(2, merge.getChildren().size());
+        assertEquals("COLLSCAN", merge.getChildren().get(0).getOperation());
+        assertEquals("rs0", merge.getChildren().get(0).getDetails().get("shard"));
+        assertEquals("_id_", merge.getChildren().get(1).getObject());
+    }
+
+    private static Map<String, Object> oracleRow(int id, Integer parentId, String operation, String options,
+                                                 String owner, String name, int cardinality, int cost) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("ID", id);
+        row.put("PARENT_ID", parentId);
+        row.put("OPERATION", operation);
+        row.put("OPTIONS", options);
+        row.put("OBJECT_OWNER", owner);
+        row.put("OBJECT_NAME", name);
+        row.put("CARDINALITY", cardinality);
+        row.put("COST", cost);
+        return row;
+    }
+}
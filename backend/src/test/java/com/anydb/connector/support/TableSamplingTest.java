@@ -0,0 +1,32 @@
+package com.anydb.connector.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预览采样比例计算单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class TableSamplingTest {
+
+    @Test
+    void testPercent_LargeTable() {
+        assertEquals(0.05, TableSampling.percent(1_000_000, 50), 1e-9);
+        assertEquals("0.05", TableSampling.format(TableSampling.percent(1_000_000, 50)));
+    }
+
+    @Test
+    void testPercent_SmallOrUnknownTable() {
+        assertEquals(0, TableSampling.percent(400, 50));
+        assertEquals(0, TableSampling.percent(-1, 50));
+    }
+
+    @Test
+    void testFormat_TinyPercent() {
+        assertEquals("0.0001", TableSampling.format(TableSampling.percent(Long.MAX_VALUE, 1)));
+        assertEquals("0.3333", TableSampling.format(1.0 / 3));
+    }
+}
@@ -0,0 +1,201 @@
+package com.anydb.loadtest;
+
+import com.anydb.connector.DatabaseConnectorFactory;
+import com.anydb.connector.DatabaseType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据库API端到端压测
+ * 
+ * 启动完整后端，元数据库与被管理的数据库均使用H2（MySQL/PostgreSQL兼容模式，连接器替换为H2Connectors），
+ * Redis使用进程内的FakeRedisServer，不依赖任何外部服务。
+ * 
+ * 运行：mvn -Ploadtest test [-Dloadtest.users=32 -Dloadtest.duration=60 -Dloadtest.warmup=10]
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:anydb;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.druid.filters=stat",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+    // H2不支持MySQL/PostgreSQL的EXPLAIN格式，不做代价检查
+    "anydb.guard.enabled=false",
+    "logging.level.com.anydb=warn",
+    "logging.level.com.anydb.loadtest=info",
+    "logging.level.org.springframework.security=warn"
+})
+class DatabaseApiLoadTest {
+    
+    private static final String MYSQL_URL = H2Connectors.MYSQL_URL;
+    
+    private static final String POSTGRESQL_URL = H2Connectors.POSTGRESQL_URL;
+    
+    private static final int ORDER_ROWS = 10_000;
+    
+    private static FakeRedisServer redisServer;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DatabaseConnectorFactory connectorFactory;
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    
+    @DynamicPropertySource
+    static void securityProperties(DynamicPropertyRegistry registry) throws Exception {
+        Path keyFile = Files.createTempDirectory("anydb-loadtest").resolve("anydb-secret.key");
+        registry.add("anydb.security.key-file", keyFile::toString);
+    }
+    
+    @BeforeAll
+    static void startStandIns() throws Exception {
+        seed(MYSQL_URL, "loadtest");
+        seed(POSTGRESQL_URL, "public");
+        try (Connection conn = DriverManager.getConnection(POSTGRESQL_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            // H2未提供pg_catalog.pg_tables，用information_schema模拟
+            stmt.execute("CREATE VIEW IF NOT EXISTS pg_tables AS SELECT table_schema AS schemaname, "
+                + "table_name AS tablename FROM information_schema.tables WHERE table_type = 'BASE TABLE'");
+        }
+        
+        redisServer = new FakeRedisServer();
+        for (int i = 0; i < 100; i++) {
+            redisServer.put("session:" + i, "{\"user\":" + i + "}");
+        }
+    }
+    
+    @AfterAll
+    static void stopStandIns() throws Exception {
+        if (redisServer != null) {
+            redisServer.close();
+        }
+    }
+    
+    @Test
+    void testDatabaseApiUnderConcurrentLoad() throws Exception {
+        connectorFactory.registerConnector(DatabaseType.MYSQL, H2Connectors.MySql.class);
+        connectorFactory.registerConnector(DatabaseType.POSTGRESQL, H2Connectors.PostgreSql.class);
+        long mysqlId = createConfig("MYSQL", 3306);
+        long postgresId = createConfig("POSTGRESQL", 5432);
+        long redisId = createConfig("REDIS", redisServer.getPort());
+        
+        List<LoadTestRunner.Scenario> scenarios = List.of(
+            scenario("mysql execute-query", i -> post(mysqlId, "/execute-query",
+                Map.of("sql", "SELECT id, customer, amount, status FROM loadtest.orders WHERE id BETWEEN "
+                    + (i % 9000 + 1) + " AND " + (i % 9000 + 100)))),
+            scenario("mysql table-data", i -> get(mysqlId,
+                "/table-data?database=loadtest&tableName=orders&size=50&orderBy=id&page=" + (i % 200 + 1))),
+            scenario("postgresql execute-query", i -> post(postgresId, "/execute-query",
+                Map.of("sql", "SELECT status, COUNT(*) AS cnt FROM orders GROUP BY status"))),
+            scenario("postgresql tables", i -> get(postgresId, "/tables?database=public")),
+            scenario("redis tables", i -> get(redisId, "/tables")),
+            scenario("redis execute-query", i -> post(redisId, "/execute-query", Map.of("sql", "GET session:" + (i % 100))))
+        );
+        
+        LoadTestRunner runner = new LoadTestRunner(httpClient,
+            Integer.getInteger("loadtest.users", 16),
+            Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 5)),
+            Duration.ofSeconds(Integer.getInteger("loadtest.duration", 20)));
+        LoadTestRunner.Report report = runner.run(scenarios);
+        
+        assertEquals(0, report.totalErrors(), "压测期间存在失败请求");
+        report.scenarios().values().forEach(stats -> assertTrue(stats.requests() > 0, stats.name() + " 未执行"));
+    }
+    
+    private LoadTestRunner.Scenario scenario(String name, java.util.function.IntFunction<HttpRequest> request) {
+        return new LoadTestRunner.Scenario(name, request, response -> response.body().startsWith("{\"error\""));
+    }
+    
+    private long createConfig(String type, int port) throws Exception {
+        Map<String, Object> config = new java.util.HashMap<>();
+        config.put("name", "loadtest-" + type.toLowerCase());
+        config.put("type", type);
+        config.put("host", "127.0.0.1");
+        config.put("port", port);
+        config.put("username", "sa");
+        config.put("password", "");
+        
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/configs"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(config)))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertTrue(body.path("success").asBoolean(), response.body());
+        return body.path("config").path("id").asLong();
+    }
+    
+    private HttpRequest get(long configId, String path) {
+        return HttpRequest.newBuilder(uri("/" + configId + path)).GET().build();
+    }
+    
+    private HttpRequest post(long configId, String path, Map<String, String> body) {
+        try {
+            return HttpRequest.newBuilder(uri("/" + configId + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + "/api/api/databases" + path);
+    }
+    
+    private static void seed(String url, String schema) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + schema + ".orders (id BIGINT PRIMARY KEY, customer VARCHAR(64), "
+                + "amount DECIMAL(12, 2), status VARCHAR(16), created_at TIMESTAMP)");
+            stmt.execute("DELETE FROM " + schema + ".orders");
+            // SYSTEM_RANGE的列名固定为大写X，DATABASE_TO_LOWER下需加引号
+            String n = "\"X\"";
+            stmt.execute("INSERT INTO " + schema + ".orders SELECT " + n + ", CONCAT('customer-', MOD(" + n + ", 500)), "
+                + "MOD(" + n + ", 1000) * 1.25, "
+                + "CASE MOD(" + n + ", 3) WHEN 0 THEN 'paid' WHEN 1 THEN 'shipped' ELSE 'created' END, "
+                + "DATEADD('SECOND', " + n + ", TIMESTAMP '2024-01-01 00:00:00') FROM SYSTEM_RANGE(1, " + ORDER_ROWS + ")");
+        }
+    }
+}
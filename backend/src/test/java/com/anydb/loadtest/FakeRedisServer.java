@@ -0,0 +1,179 @@
+package com.anydb.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 进程内Redis协议（RESP2）模拟服务
+ * 
+ * 只实现RedisConnector在压测中用到的字符串命令子集，数据保存在内存Map中，不支持过期。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class FakeRedisServer implements AutoCloseable {
+    
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+    
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-redis");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final ServerSocket serverSocket;
+    
+    public FakeRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        executor.execute(this::acceptLoop);
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public void put(String key, String value) {
+        data.put(key, value);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Fake Redis接受连接失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                handle(command, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Fake Redis连接关闭: {}", e.getMessage());
+        }
+    }
+    
+    private void handle(List<String> command, OutputStream out) throws IOException {
+        String name = command.get(0).toUpperCase();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "AUTH", "SELECT", "CLIENT", "SET" -> {
+                if ("SET".equals(name)) {
+                    data.put(command.get(1), command.get(2));
+                }
+                simple(out, "OK");
+            }
+            case "GET" -> bulk(out, data.get(command.get(1)));
+            case "TYPE" -> simple(out, data.containsKey(command.get(1)) ? "string" : "none");
+            case "TTL" -> integer(out, data.containsKey(command.get(1)) ? -1 : -2);
+            case "DEL" -> integer(out, data.remove(command.get(1)) != null ? 1 : 0);
+            case "DBSIZE" -> integer(out, data.size());
+            case "KEYS" -> array(out, new ArrayList<>(data.keySet()));
+            case "SCAN" -> {
+                // 一次返回全部key，游标固定为0
+                out.write(("*2\r\n").getBytes(StandardCharsets.US_ASCII));
+                bulk(out, "0");
+                array(out, new ArrayList<>(data.keySet()));
+            }
+            case "INFO" -> bulk(out, "# Server\r\nredis_version:7.0.0-fake\r\n");
+            default -> error(out, "ERR unknown command '" + command.get(0) + "'");
+        }
+    }
+    
+    private List<String> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+        if (first != '*') {
+            throw new IOException("不支持的RESP请求类型: " + (char) first);
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<String> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("RESP请求格式错误");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] bytes = in.readNBytes(length);
+            in.readNBytes(2);
+            parts.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return parts;
+    }
+    
+    private String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new IOException("连接已关闭");
+            }
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+    
+    private void simple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void error(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private void bulk(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private void array(OutputStream out, List<String> values) throws IOException {
+        out.write(("*" + values.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (String value : values) {
+            bulk(out, value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.anydb.loadtest;
+
+import com.anydb.connector.impl.MySQLConnector;
+import com.anydb.connector.impl.PostgreSQLConnector;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * 压测用连接器：沿用MySQL/PostgreSQL连接器的全部逻辑，只把连接替换为H2兼容模式的内存库
+ * 
+ * 由压测在启动后通过DatabaseConnectorFactory.registerConnector替换生产连接器，
+ * 生产代码不接受任意JDBC URL。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+final class H2Connectors {
+    
+    static final String MYSQL_URL = "jdbc:h2:mem:loadtest_mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    
+    static final String POSTGRESQL_URL =
+        "jdbc:h2:mem:loadtest_pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    
+    private H2Connectors() {
+    }
+    
+    /**
+     * 只传递认证信息，H2不识别MySQL/PostgreSQL驱动的连接属性
+     */
+    private static Connection open(String url, Properties properties) throws SQLException {
+        return DriverManager.getConnection(url, properties.getProperty("user", ""),
+            properties.getProperty("password", ""));
+    }
+    
+    static class MySql extends MySQLConnector {
+        
+        @Override
+        protected Connection openConnection(String url, Properties properties) throws SQLException {
+            return open(MYSQL_URL, properties);
+        }
+    }
+    
+    static class PostgreSql extends PostgreSQLConnector {
+        
+        @Override
+        protected Connection openConnection(String url, Properties props) throws SQLException {
+            return open(POSTGRESQL_URL, props);
+        }
+    }
+}
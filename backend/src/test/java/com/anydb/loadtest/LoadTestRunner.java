@@ -0,0 +1,226 @@
+package com.anydb.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * 简单的闭环压测执行器
+ * 
+ * 每个虚拟用户是一个线程，按顺序轮流执行各场景；预热期结束后开始记录每个请求的延迟。
+ * 分配速率取JVM内所有存活线程的已分配字节数之差，包含服务端线程。
+ * 
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class LoadTestRunner {
+    
+    private final HttpClient httpClient;
+    
+    private final int users;
+    
+    private final Duration warmup;
+    
+    private final Duration duration;
+    
+    public LoadTestRunner(HttpClient httpClient, int users, Duration warmup, Duration duration) {
+        this.httpClient = httpClient;
+        this.users = users;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+    
+    /**
+     * 压测场景
+     * 
+     * @param name 场景名称
+     * @param request 按迭代序号生成请求
+     * @param failed 判断响应是否为业务失败
+     */
+    public record Scenario(String name, IntFunction<HttpRequest> request, Predicate<HttpResponse<String>> failed) {
+    }
+    
+    /**
+     * 场景统计结果
+     */
+    public record ScenarioStats(String name, long requests, long errors, double throughput,
+                                double p50Millis, double p99Millis, double p999Millis) {
+    }
+    
+    /**
+     * 压测报告
+     */
+    public record Report(Map<String, ScenarioStats> scenarios, double allocationMbPerSecond) {
+        
+        public long totalErrors() {
+            return scenarios.values().stream().mapToLong(ScenarioStats::errors).sum();
+        }
+    }
+    
+    /**
+     * 执行压测
+     */
+    public Report run(List<Scenario> scenarios) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        List<Recorder> recorders = new ArrayList<>();
+        AtomicBoolean[] errorLogged = new AtomicBoolean[scenarios.size()];
+        Arrays.setAll(errorLogged, i -> new AtomicBoolean());
+        CountDownLatch done = new CountDownLatch(users);
+        
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        
+        for (int u = 0; u < users; u++) {
+            Recorder recorder = new Recorder(scenarios.size());
+            recorders.add(recorder);
+            int offset = u;
+            executor.execute(() -> {
+                try {
+                    runUser(scenarios, recorder, errorLogged, offset, measureStart, end);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        Thread.sleep(Math.max(0, (measureStart - System.nanoTime()) / 1_000_000));
+        long allocatedBefore = allocatedBytes();
+        done.await();
+        long allocatedAfter = allocatedBytes();
+        executor.shutdown();
+        
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+        for (int s = 0; s < scenarios.size(); s++) {
+            stats.put(scenarios.get(s).name(), summarize(scenarios.get(s).name(), recorders, s, seconds));
+        }
+        Report report = new Report(stats, (allocatedAfter - allocatedBefore) / 1024.0 / 1024.0 / seconds);
+        print(report);
+        return report;
+    }
+    
+    private void runUser(List<Scenario> scenarios, Recorder recorder, AtomicBoolean[] errorLogged,
+                         int offset, long measureStart, long end) {
+        int iteration = 0;
+        while (true) {
+            long begin = System.nanoTime();
+            if (begin >= end) {
+                return;
+            }
+            int index = (offset + iteration) % scenarios.size();
+            Scenario scenario = scenarios.get(index);
+            boolean error;
+            try {
+                HttpResponse<String> response = httpClient.send(scenario.request().apply(iteration),
+                    HttpResponse.BodyHandlers.ofString());
+                error = response.statusCode() >= 400 || scenario.failed().test(response);
+                if (error && errorLogged[index].compareAndSet(false, true)) {
+                    log.warn("场景 {} 请求失败: {} {}", scenario.name(), response.statusCode(), response.body());
+                }
+            } catch (Exception e) {
+                error = true;
+                if (errorLogged[index].compareAndSet(false, true)) {
+                    log.warn("场景 {} 请求异常: {}", scenario.name(), e.getMessage());
+                }
+            }
+            if (begin >= measureStart) {
+                recorder.record(index, System.nanoTime() - begin, error);
+            }
+            iteration++;
+        }
+    }
+    
+    private ScenarioStats summarize(String name, List<Recorder> recorders, int index, double seconds) {
+        int total = 0;
+        long errors = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.counts[index];
+            errors += recorder.errors[index];
+        }
+        long[] latencies = new long[total];
+        int pos = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies[index], 0, latencies, pos, recorder.counts[index]);
+            pos += recorder.counts[index];
+        }
+        Arrays.sort(latencies);
+        return new ScenarioStats(name, total, errors, total / seconds,
+            percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+    
+    private double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+    
+    private long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds()))
+            .filter(bytes -> bytes > 0)
+            .sum();
+    }
+    
+    private void print(Report report) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n压测结果（%d个虚拟用户，预热%ds，测量%ds）%n",
+            users, warmup.toSeconds(), duration.toSeconds()));
+        out.append(String.format("%-28s %10s %8s %12s %10s %10s %10s%n",
+            "场景", "请求数", "错误", "吞吐(req/s)", "p50(ms)", "p99(ms)", "p999(ms)"));
+        for (ScenarioStats stats : report.scenarios().values()) {
+            out.append(String.format("%-28s %10d %8d %12.1f %10.2f %10.2f %10.2f%n",
+                stats.name(), stats.requests(), stats.errors(), stats.throughput(),
+                stats.p50Millis(), stats.p99Millis(), stats.p999Millis()));
+        }
+        out.append(String.format("分配速率（JVM内全部线程）: %.1f MB/s", report.allocationMbPerSecond()));
+        log.info(out.toString());
+    }
+    
+    /**
+     * 单个虚拟用户的延迟记录（仅由该用户线程写入）
+     */
+    private static final class Recorder {
+        
+        private final long[][] latencies;
+        
+        private final int[] counts;
+        
+        private final long[] errors;
+        
+        private Recorder(int scenarios) {
+            latencies = new long[scenarios][1024];
+            counts = new int[scenarios];
+            errors = new long[scenarios];
+        }
+        
+        private void record(int scenario, long nanos, boolean error) {
+            if (counts[scenario] == latencies[scenario].length) {
+                latencies[scenario] = Arrays.copyOf(latencies[scenario], counts[scenario] * 2);
+            }
+            latencies[scenario][counts[scenario]++] = nanos;
+            if (error) {
+                errors[scenario]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.anydb.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 凭据加密器单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class CredentialCipherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testEncrypt() {
+        CredentialCipher cipher = new CredentialCipher(tempDir.resolve("secret.key").toString());
+
+        String encrypted = cipher.encrypt("P@88w0rd");
+
+        assertTrue(cipher.isEncrypted(encrypted));
+        assertFalse(encrypted.contains("P@88w0rd"));
+        assertEquals("P@88w0rd", cipher.decrypt(encrypted));
+        assertNotEquals(encrypted, cipher.encrypt("P@88w0rd"));
+    }
+
+    @Test
+    void testDecrypt_KeyFileReused() {
+        Path keyFile = tempDir.resolve("shared.key");
+        String encrypted = new CredentialCipher(keyFile.toString()).encrypt("secret");
+
+        assertTrue(Files.exists(keyFile));
+        assertEquals("secret", new CredentialCipher(keyFile.toString()).decrypt(encrypted));
+    }
+
+    @Test
+    void testEncrypt_ConcurrentKeyCreation() throws Exception {
+        Path keyFile = tempDir.resolve("keys").resolve("concurrent.key");
+        int starters = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(starters);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> encrypted = new ArrayList<>();
+        try {
+            for (int i = 0; i < starters; i++) {
+                encrypted.add(executor.submit(() -> {
+                    start.await();
+                    return new CredentialCipher(keyFile.toString()).encrypt("secret");
+                }));
+            }
+            start.countDown();
+
+            CredentialCipher reader = new CredentialCipher(keyFile.toString());
+            for (Future<String> value : encrypted) {
+                assertEquals("secret", reader.decrypt(value.get(10, TimeUnit.SECONDS)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> files = Files.list(keyFile.getParent())) {
+            assertEquals(List.of(keyFile), files.toList());
+        }
+        if (Files.getFileStore(keyFile).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(keyFile));
+        }
+    }
+
+    @Test
+    void testDecrypt_LegacyPlaintext() {
+        CredentialCipher cipher = new CredentialCipher(tempDir.resolve("legacy.key").toString());
+
+        assertEquals("plain", cipher.decrypt("plain"));
+        assertNull(cipher.decrypt(null));
+    }
+
+    @Test
+    void testDecrypt_Tampered() {
+        CredentialCipher cipher = new CredentialCipher(tempDir.resolve("tamper.key").toString());
+        String encrypted = cipher.encrypt("secret");
+        String tampered = encrypted.substring(0, encrypted.length() - 4) + "AAAA";
+
+        assertThrows(IllegalStateException.class, () -> cipher.decrypt(tampered));
+    }
+}
@@ -0,0 +1,140 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import com.anydb.entity.DatabaseConfigEntity;
+import com.anydb.repository.DatabaseConfigRepository;
+import com.anydb.security.CredentialCipher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 数据库配置服务单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseConfigServiceTest {
+
+    @Mock
+    private DatabaseConfigRepository configRepository;
+
+    @Mock
+    private ConnectionManager connectionManager;
+
+    @Mock
+    private HostBalancer hostBalancer;
+
+    @Mock
+    private ReplicaRouter replicaRouter;
+
+    @Mock
+    private PlanCache planCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private CredentialCipher credentialCipher = new CredentialCipher(
+        Path.of(System.getProperty("java.io.tmpdir"), "anydb-test-" + UUID.randomUUID() + ".key").toString());
+
+    @InjectMocks
+    private DatabaseConfigService configService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(configService, "secretCacheTtl", 60_000L);
+    }
+
+    @Test
+    void testGetDatabaseConfig_Cached() {
+        DatabaseConfigEntity entity = createEntity(1L, "db-a");
+        when(configRepository.findById(1L)).thenReturn(Optional.of(entity));
+
+        DatabaseConfig first = configService.getDatabaseConfig(1L);
+        DatabaseConfig second = configService.getDatabaseConfig(1L);
+
+        assertEquals("db-a", first.getName());
+        assertEquals(DatabaseType.MYSQL, first.getType());
+        assertEquals("utf8mb4", first.getOption("charset"));
+        assertEquals("secret", second.getPassword());
+        assertNotSame(first, second);
+        verify(configRepository, times(1)).findById(1L);
+        verify(credentialCipher, times(1)).decrypt(anyString());
+    }
+
+    @Test
+    void testGetDatabaseConfig_NotFound() {
+        when(configRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> configService.getDatabaseConfig(2L));
+        assertEquals(0, configService.getCachedConfigCount());
+    }
+
+    @Test
+    void testGetConfigForEdit_Disabled() {
+        DatabaseConfigEntity entity = createEntity(4L, "db-disabled");
+        entity.setEnabled(false);
+        when(configRepository.findById(4L)).thenReturn(Optional.of(entity));
+
+        DatabaseConfig config = configService.getConfigForEdit(4L);
+
+        assertEquals("db-disabled", config.getName());
+        assertFalse(config.getEnabled());
+        assertNull(config.getPassword());
+        assertThrows(IllegalStateException.class, () -> configService.getDatabaseConfig(4L));
+        verify(credentialCipher, never()).decrypt(anyString());
+    }
+
+    @Test
+    void testUpdateConfig_Cached() {
+        DatabaseConfigEntity entity = createEntity(3L, "db-old");
+        when(configRepository.findById(3L)).thenReturn(Optional.of(entity));
+        when(configRepository.save(any(DatabaseConfigEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        configService.getDatabaseConfig(3L);
+
+        DatabaseConfig update = new DatabaseConfig(3L, DatabaseType.MYSQL, "10.0.0.2", 3306);
+        update.setName("db-new");
+        update.setUsername("root");
+        configService.updateConfig(3L, update);
+
+        DatabaseConfig reloaded = configService.getDatabaseConfig(3L);
+        assertEquals("db-new", reloaded.getName());
+        assertEquals("secret", reloaded.getPassword());
+        assertTrue(credentialCipher.isEncrypted(entity.getPassword()));
+        verify(connectionManager).closeConnectionPool(3L);
+    }
+
+    private DatabaseConfigEntity createEntity(Long id, String name) {
+        DatabaseConfigEntity entity = new DatabaseConfigEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setType("mysql");
+        entity.setHost("localhost");
+        entity.setPort(3306);
+        entity.setDatabaseName("test");
+        entity.setUsername("root");
+        entity.setPassword(credentialCipher.encrypt("secret"));
+        entity.setOptions("{\"charset\":\"utf8mb4\"}");
+        entity.setEnabled(true);
+        return entity;
+    }
+}
@@ -0,0 +1,182 @@
+package com.anydb.service;
+
+import com.anydb.connector.ConnectorCapability;
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.connector.ResultLimits;
+import com.anydb.sql.SqlLexer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 数据库服务单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class DatabaseServiceTest {
+
+    private final DatabaseService databaseService = new DatabaseService();
+
+    private final String sql = "SELECT * FROM orders WHERE id = 1";
+
+    @Test
+    void testContinuation_RoundTrip() {
+        String token = encode(1L, 1000);
+
+        assertEquals(1000L, decode(token, 1L, sql));
+        assertEquals(1000L, decode(token, 1L, sql + ";"));
+    }
+
+    @Test
+    void testContinuation_ForgedOffset() {
+        String token = encode(1L, 1000);
+        String forgedPayload = "1:1:" + new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+            StandardCharsets.UTF_8).split(":", 3)[2];
+        String forged = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(forgedPayload.getBytes(StandardCharsets.UTF_8)) + token.substring(token.indexOf('.'));
+
+        assertThrows(IllegalArgumentException.class, () -> decode(forged, 1L, sql));
+        assertThrows(IllegalArgumentException.class, () -> decode(forgedPayload, 1L, sql));
+    }
+
+    @Test
+    void testContinuation_OtherStatementOrConfig() {
+        String token = encode(1L, 1000);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> decode(token, 1L, "SELECT * FROM users"));
+        assertThrows(IllegalArgumentException.class,
+            () -> decode(token, 1L, "SELECT * FROM orders WHERE id = 2"));
+        assertThrows(IllegalArgumentException.class, () -> decode(token, 2L, sql));
+    }
+
+    @Test
+    void testPrepareStream_WriteStatement() {
+        DatabaseConfigService databaseConfigService = mock(DatabaseConfigService.class);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        ReflectionTestUtils.setField(databaseService, "databaseConfigService", databaseConfigService);
+        ReflectionTestUtils.setField(databaseService, "connectionManager", connectionManager);
+        when(databaseConfigService.getDatabaseConfig(1L))
+            .thenReturn(new DatabaseConfig(1L, DatabaseType.MYSQL, "localhost", 3306));
+        when(connectionManager.getConnector(DatabaseType.MYSQL)).thenReturn(mock(DatabaseConnector.class));
+
+        assertThrows(IllegalArgumentException.class, () -> databaseService.prepareStream(1L, "DELETE FROM t", false));
+        assertThrows(IllegalArgumentException.class,
+            () -> databaseService.prepareStream(1L, "SELECT * FROM t FOR UPDATE", false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamQuery_MaxRows() throws Exception {
+        HostBalancer hostBalancer = mock(HostBalancer.class);
+        ReflectionTestUtils.setField(databaseService, "hostBalancer", hostBalancer);
+        when(hostBalancer.execute(any(), any(), anyBoolean(), any())).thenAnswer(invocation ->
+            ((HostBalancer.HostAction<Object, Exception>) invocation.getArgument(3)).apply(invocation.getArgument(0)));
+        DatabaseConnector connector = mock(DatabaseConnector.class);
+        when(connector.getCapabilities()).thenReturn(EnumSet.of(ConnectorCapability.STREAMING));
+        when(connector.streamQuery(any(), anyString(), anyInt(), any())).thenAnswer(invocation -> {
+            QueryStreamSink sink = invocation.getArgument(3);
+            sink.onColumns(List.of("id"));
+            long rows = 0;
+            for (int i = 0; i < 10 && !sink.isCancelled(); i++) {
+                sink.onRows(List.of(List.of(rows), List.of(rows + 1)));
+                rows += 2;
+            }
+            return rows;
+        });
+        List<List<Object>> received = new ArrayList<>();
+        QueryStreamSink sink = mock(QueryStreamSink.class);
+        doAnswer(invocation -> received.addAll(invocation.getArgument(0))).when(sink).onRows(any());
+
+        DatabaseService.StreamTarget target = new DatabaseService.StreamTarget(
+            new DatabaseConfig(1L, DatabaseType.MYSQL, "localhost", 3306), connector,
+            SqlLexer.analyze(sql, DatabaseType.MYSQL), sql, 3);
+
+        assertEquals(3L, databaseService.streamQuery(target, 2, sink));
+        assertEquals(List.of(List.of(0L), List.of(1L), List.of(2L)), received);
+        verify(sink).onTruncated(3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamQuery_ExactlyMaxRows() throws Exception {
+        HostBalancer hostBalancer = mock(HostBalancer.class);
+        ReflectionTestUtils.setField(databaseService, "hostBalancer", hostBalancer);
+        when(hostBalancer.execute(any(), any(), anyBoolean(), any())).thenAnswer(invocation ->
+            ((HostBalancer.HostAction<Object, Exception>) invocation.getArgument(3)).apply(invocation.getArgument(0)));
+        DatabaseConnector connector = mock(DatabaseConnector.class);
+        when(connector.getCapabilities()).thenReturn(EnumSet.of(ConnectorCapability.STREAMING));
+        when(connector.streamQuery(any(), anyString(), anyInt(), any())).thenAnswer(invocation -> {
+            QueryStreamSink sink = invocation.getArgument(3);
+            sink.onRows(List.of(List.of(0L), List.of(1L)));
+            return 2L;
+        });
+        QueryStreamSink sink = mock(QueryStreamSink.class);
+
+        DatabaseService.StreamTarget target = new DatabaseService.StreamTarget(
+            new DatabaseConfig(1L, DatabaseType.MYSQL, "localhost", 3306), connector,
+            SqlLexer.analyze(sql, DatabaseType.MYSQL), sql, 2);
+
+        assertEquals(2L, databaseService.streamQuery(target, 2, sink));
+        verify(sink, never()).onTruncated(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamQuery_Buffered() throws Exception {
+        HostBalancer hostBalancer = mock(HostBalancer.class);
+        ReflectionTestUtils.setField(databaseService, "hostBalancer", hostBalancer);
+        when(hostBalancer.execute(any(), any(), anyBoolean(), any())).thenAnswer(invocation ->
+            ((HostBalancer.HostAction<Object, Exception>) invocation.getArgument(3)).apply(invocation.getArgument(0)));
+        DatabaseConnector connector = mock(DatabaseConnector.class);
+        when(connector.executeQuery(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            ResultLimits limits = invocation.getArgument(3);
+            DatabaseConnector.QueryResult result = new DatabaseConnector.QueryResult();
+            result.setColumns(List.of("id"));
+            List<List<Object>> rows = new ArrayList<>();
+            for (long i = 0; i < limits.getMaxRows(); i++) {
+                rows.add(List.of(i));
+            }
+            result.setRows(rows);
+            return result;
+        });
+        List<List<Object>> received = new ArrayList<>();
+        QueryStreamSink sink = mock(QueryStreamSink.class);
+        doAnswer(invocation -> received.addAll(invocation.getArgument(0))).when(sink).onRows(any());
+
+        DatabaseService.StreamTarget target = new DatabaseService.StreamTarget(
+            new DatabaseConfig(1L, DatabaseType.ORACLE, "localhost", 1521), connector,
+            SqlLexer.analyze(sql, DatabaseType.ORACLE), sql, 3);
+
+        assertEquals(3L, databaseService.streamQuery(target, 2, sink));
+        assertEquals(List.of(List.of(0L), List.of(1L), List.of(2L)), received);
+        verify(sink).onTruncated(3L);
+        verify(connector, never()).streamQuery(any(), anyString(), anyInt(), any());
+    }
+
+    private String encode(Long configId, long offset) {
+        return ReflectionTestUtils.invokeMethod(databaseService, "encodeContinuation", configId, offset, sql);
+    }
+
+    private long decode(String token, Long configId, String statementSql) {
+        Long offset = ReflectionTestUtils.invokeMethod(databaseService, "decodeContinuation", token, configId, statementSql);
+        return offset;
+    }
+}
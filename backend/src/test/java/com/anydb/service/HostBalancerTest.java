@@ -0,0 +1,157 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.HostEndpoint;
+import com.anydb.connector.LoadBalancePolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 多主机负载均衡与故障切换单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class HostBalancerTest {
+
+    private HostBalancer balancer;
+
+    private DatabaseConnector connector;
+
+    private DatabaseConfig config;
+
+    @BeforeEach
+    void setUp() {
+        balancer = new HostBalancer();
+        connector = mock(DatabaseConnector.class);
+
+        config = new DatabaseConfig(1L, DatabaseType.POSTGRESQL, "node-a", 5432);
+        config.setHosts(List.of(new HostEndpoint("node-b", null), new HostEndpoint("node-c", 5433)));
+    }
+
+    @Test
+    void testExecute_NoHosts() {
+        config.setHosts(null);
+        assertEquals("node-a", balancer.execute(config, connector, true, DatabaseConfig::getHost));
+    }
+
+    @Test
+    void testExecute_ReadConnectionFailure() {
+        List<String> attempts = new ArrayList<>();
+        String host = balancer.execute(config, connector, true, target -> {
+            attempts.add(target.getHost());
+            if (target.getHost().equals("node-a")) {
+                throw refused();
+            }
+            return target.getHost();
+        });
+        assertEquals("node-b", host);
+        assertEquals(List.of("node-a", "node-b"), attempts);
+
+        // 隔离期内不再等待故障主机
+        assertEquals("node-b", balancer.execute(config, connector, true, DatabaseConfig::getHost));
+        Map<String, Object> status = balancer.getHostStatus(config).get(0);
+        assertEquals(true, status.get("quarantined"));
+    }
+
+    @Test
+    void testExecute_WriteConnectionFailure() {
+        List<String> attempts = new ArrayList<>();
+        assertThrows(RuntimeException.class, () -> balancer.execute(config, connector, false, target -> {
+            attempts.add(target.getHost());
+            throw refused();
+        }));
+        assertEquals(List.of("node-a"), attempts);
+
+        // 写操作失败同样隔离主机，下一次请求直接发往备用主机
+        assertEquals("node-b", balancer.execute(config, connector, false, DatabaseConfig::getHost));
+    }
+
+    @Test
+    void testExecute_StatementError() {
+        assertThrows(RuntimeException.class, () -> balancer.execute(config, connector, true, target -> {
+            throw new RuntimeException("语法错误", new SQLSyntaxErrorException("bad sql", "42000"));
+        }));
+        assertEquals("node-a", balancer.execute(config, connector, true, DatabaseConfig::getHost));
+    }
+
+    @Test
+    void testProbeQuarantinedHosts() {
+        balancer.execute(config, connector, true, target -> {
+            if (target.getHost().equals("node-a")) {
+                throw refused();
+            }
+            return target.getHost();
+        });
+
+        when(connector.testConnection(any())).thenReturn(true);
+        balancer.probeQuarantinedHosts();
+
+        assertEquals("node-a", balancer.execute(config, connector, true, DatabaseConfig::getHost));
+        assertEquals(false, balancer.getHostStatus(config).get(0).get("quarantined"));
+    }
+
+    @Test
+    void testProbeQuarantinedHosts_LatencyWeighted() {
+        config.setLoadBalancePolicy(LoadBalancePolicy.LATENCY_WEIGHTED);
+        balancer.execute(config, connector, true, target -> {
+            sleep(50);
+            return target.getHost();
+        });
+        assertTrue(balancer.getHostStatus(config).stream().allMatch(status -> status.get("averageLatencyMs") == null));
+
+        when(connector.testConnection(any())).thenReturn(true);
+        balancer.probeQuarantinedHosts();
+
+        assertTrue(balancer.getHostStatus(config).stream()
+            .allMatch(status -> status.get("averageLatencyMs") != null && (Long) status.get("averageLatencyMs") < 50));
+    }
+
+    @Test
+    void testExecute_RoundRobin() {
+        config.setLoadBalancePolicy(LoadBalancePolicy.ROUND_ROBIN);
+        List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            hosts.add(balancer.execute(config, connector, true, target -> target.getHost() + ":" + target.getPort()));
+        }
+        assertEquals(3, hosts.stream().distinct().count());
+        assertTrue(hosts.contains("node-c:5433"));
+    }
+
+    @Test
+    void testExecute_LeastConnections() {
+        config.setHosts(List.of(new HostEndpoint("node-b", null)));
+        config.setLoadBalancePolicy(LoadBalancePolicy.LEAST_CONNECTIONS);
+
+        // 在第一个请求执行期间发起的请求应落到另一台主机
+        String inner = balancer.execute(config, connector, true,
+            outer -> balancer.execute(config, connector, true, target -> outer.getHost() + "/" + target.getHost()));
+        String[] hosts = inner.split("/");
+        assertNotEquals(hosts[0], hosts[1]);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RuntimeException refused() {
+        return new RuntimeException("连接失败", new SQLNonTransientConnectionException("refused", "08001"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.PlanNode;
+import com.anydb.connector.QueryPlan;
+import com.anydb.sql.SqlLexer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 查询代价检查单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class QueryGuardTest {
+
+    private QueryGuard guard;
+
+    private DatabaseConfig config;
+
+    @BeforeEach
+    void setUp() {
+        guard = new QueryGuard();
+        guard.setMaxRows(1_000_000);
+        config = new DatabaseConfig(1L, DatabaseType.POSTGRESQL, "localhost", 5432);
+    }
+
+    @Test
+    void testApplies() {
+        assertTrue(guard.applies(config, SqlLexer.analyze("SELECT * FROM events")));
+        assertFalse(guard.applies(config, SqlLexer.analyze("SELECT * FROM events FOR UPDATE")));
+        assertFalse(guard.applies(config, SqlLexer.analyze("DELETE FROM events")));
+        assertFalse(guard.applies(config, SqlLexer.analyze("SHOW TABLES")));
+
+        config.setOption(QueryGuard.OPTION_MAX_ROWS, "0");
+        assertFalse(guard.applies(config, SqlLexer.analyze("SELECT * FROM events")));
+    }
+
+    @Test
+    void testEvaluate() {
+        PlanNode sort = node("Sort", 2_000_000_000, 40_000_000.0);
+        sort.addChild(node("Seq Scan", 2_000_000_000, 35_000_000.0));
+
+        QueryGuard.Verdict verdict = guard.evaluate(config, new QueryPlan(sort, QueryPlan.FORMAT_JSON, "[]"));
+
+        assertNotNull(verdict);
+        assertEquals(QueryGuard.Action.CONFIRM, verdict.action());
+        assertEquals(2_000_000_000.0, verdict.estimatedRows());
+        assertNull(guard.evaluate(config, new QueryPlan(node("Index Scan", 20, 8.0), QueryPlan.FORMAT_JSON, "[]")));
+    }
+
+    @Test
+    void testEvaluate_UnderLimit() {
+        PlanNode limit = node("Limit", 10, 5.0);
+        limit.addChild(node("Seq Scan", 2_000_000_000, 35_000_000.0));
+
+        assertNull(guard.evaluate(config, new QueryPlan(limit, QueryPlan.FORMAT_JSON, "[]")));
+
+        PlanNode join = node("Nested Loop", 20_000_000, 900_000.0);
+        join.addChild(limit);
+        join.addChild(node("Seq Scan", 20_000_000, 400_000.0));
+
+        QueryGuard.Verdict verdict = guard.evaluate(config, new QueryPlan(join, QueryPlan.FORMAT_JSON, "[]"));
+
+        assertNotNull(verdict);
+        assertEquals(20_000_000.0, verdict.estimatedRows());
+    }
+
+    @Test
+    void testEvaluate_DataSourceOptions() {
+        config.setOption(QueryGuard.OPTION_MAX_ROWS, "0");
+        config.setOption(QueryGuard.OPTION_MAX_COST, "1000");
+        config.setOption(QueryGuard.OPTION_ACTION, "limit");
+        config.setOption(QueryGuard.OPTION_LIMIT, "200");
+
+        QueryGuard.Verdict verdict =
+            guard.evaluate(config, new QueryPlan(node("Seq Scan", 50_000_000, 1500.0), QueryPlan.FORMAT_JSON, "[]"));
+
+        assertEquals(QueryGuard.Action.LIMIT, verdict.action());
+        assertEquals(200, verdict.limit());
+        assertNull(guard.evaluate(config, new QueryPlan(node("Seq Scan", 50_000_000, 900.0), QueryPlan.FORMAT_JSON, "[]")));
+
+        config.setOption(QueryGuard.OPTION_ACTION, "drop");
+        assertThrows(IllegalArgumentException.class,
+            () -> guard.evaluate(config, new QueryPlan(node("Seq Scan", 1, 5000.0), QueryPlan.FORMAT_JSON, "[]")));
+    }
+
+    private static PlanNode node(String operation, double rows, Double cost) {
+        PlanNode node = new PlanNode(operation);
+        node.setEstimatedRows(rows);
+        node.setEstimatedCost(cost);
+        return node;
+    }
+}
@@ -0,0 +1,118 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseConnector;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.HostEndpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 读写分离路由单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ReplicaRouterTest {
+
+    private ReplicaRouter router;
+
+    private DatabaseConnector connector;
+
+    private DatabaseConfig config;
+
+    @BeforeEach
+    void setUp() {
+        router = new ReplicaRouter();
+        ReflectionTestUtils.setField(router, "unhealthyBackoff", 60000L);
+        connector = mock(DatabaseConnector.class);
+
+        config = new DatabaseConfig(1L, DatabaseType.MYSQL, "primary", 3306);
+        config.setReplicas(List.of(new HostEndpoint("replica-a", null), new HostEndpoint("replica-b", 3307)));
+    }
+
+    @Test
+    void testRouteRead() {
+        List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            hosts.add(router.routeRead(config, connector, target -> target.getHost() + ":" + target.getPort()));
+        }
+        assertTrue(hosts.contains("replica-a:3306"));
+        assertTrue(hosts.contains("replica-b:3307"));
+        assertFalse(hosts.contains("primary:3306"));
+    }
+
+    @Test
+    void testRouteRead_ConnectionFailure() {
+        config.setReplicas(List.of(new HostEndpoint("replica-a", null)));
+
+        String host = router.routeRead(config, connector, target -> {
+            if (!target.getHost().equals("primary")) {
+                throw new RuntimeException("连接失败", new SQLNonTransientConnectionException("refused", "08001"));
+            }
+            return target.getHost();
+        });
+        assertEquals("primary", host);
+
+        // 摘除期内直接走主库
+        assertEquals("primary", router.routeRead(config, connector, DatabaseConfig::getHost));
+        Map<String, Object> status = router.getReplicaStatus(config).get(0);
+        assertEquals(false, status.get("healthy"));
+    }
+
+    @Test
+    void testRouteRead_StatementError() {
+        assertThrows(RuntimeException.class, () -> router.routeRead(config, connector, target -> {
+            throw new RuntimeException("语法错误", new SQLSyntaxErrorException("bad sql", "42000"));
+        }));
+    }
+
+    @Test
+    void testRouteRead_LagOverLimit() {
+        config.setMaxReplicationLag(10);
+        when(connector.getReplicationLag(argThat(target -> target != null && target.getHost().equals("replica-a"))))
+            .thenReturn(60L);
+        when(connector.getReplicationLag(argThat(target -> target != null && target.getHost().equals("replica-b"))))
+            .thenReturn(2L);
+
+        // 延迟尚未探测时不路由到副本
+        assertEquals("primary", router.routeRead(config, connector, DatabaseConfig::getHost));
+        router.probeReplicationLag();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("replica-b", router.routeRead(config, connector, DatabaseConfig::getHost));
+        }
+    }
+
+    @Test
+    void testProbeReplicationLag_Failure() {
+        config.setMaxReplicationLag(10);
+        config.setReplicas(List.of(new HostEndpoint("replica-a", null)));
+        when(connector.getReplicationLag(any())).thenReturn(1L);
+        router.routeRead(config, connector, DatabaseConfig::getHost);
+        router.probeReplicationLag();
+        assertEquals("replica-a", router.routeRead(config, connector, DatabaseConfig::getHost));
+
+        when(connector.getReplicationLag(any())).thenThrow(new RuntimeException("timeout"));
+        router.probeReplicationLag();
+
+        assertEquals("primary", router.routeRead(config, connector, DatabaseConfig::getHost));
+        assertEquals(false, router.getReplicaStatus(config).get(0).get("healthy"));
+        verify(connector, times(2)).getReplicationLag(any());
+    }
+}
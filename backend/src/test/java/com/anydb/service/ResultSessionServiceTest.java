@@ -0,0 +1,130 @@
+package com.anydb.service;
+
+import com.anydb.connector.DatabaseConfig;
+import com.anydb.connector.DatabaseType;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.spool.ResultSpoolManager;
+import com.anydb.sql.SqlLexer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 查询结果会话单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ResultSessionServiceTest {
+
+    private static final DatabaseService.StreamTarget TARGET = new DatabaseService.StreamTarget(
+        new DatabaseConfig(1L, DatabaseType.MYSQL, "localhost", 3306), null,
+        SqlLexer.analyze("SELECT id FROM t"), "SELECT id FROM t", 0);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @InjectMocks
+    private ResultSessionService sessionService;
+
+    private ResultSpoolManager spoolManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spoolManager = new ResultSpoolManager();
+        ReflectionTestUtils.setField(spoolManager, "directory", directory.toString());
+        ReflectionTestUtils.setField(spoolManager, "memoryRows", 2);
+        spoolManager.init();
+
+        ReflectionTestUtils.setField(sessionService, "resultSpoolManager", spoolManager);
+        ReflectionTestUtils.setField(sessionService, "batchSize", 3);
+        ReflectionTestUtils.setField(sessionService, "maxConcurrentReads", 2);
+        ReflectionTestUtils.setField(sessionService, "fetchTimeout", 5_000L);
+        sessionService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionService.shutdown();
+        spoolManager.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOpen() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(databaseService.prepareStream(1L, "SELECT id FROM t", false)).thenReturn(TARGET);
+        when(databaseService.streamQuery(eq(TARGET), anyInt(), any())).thenAnswer(invocation -> {
+            QueryStreamSink sink = invocation.getArgument(2);
+            sink.onColumns(List.of("id"));
+            sink.onRows(List.of(List.of(0), List.of(1), List.of(2)));
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            sink.onRows(List.of(List.of(3), List.of(4)));
+            return 5L;
+        });
+
+        Map<String, Object> first = sessionService.open(1L, "SELECT id FROM t", 2, false);
+        String sessionId = (String) first.get("sessionId");
+
+        assertEquals(List.of(List.of(0), List.of(1)), first.get("rows"));
+        assertEquals(false, first.get("finished"));
+
+        release.countDown();
+        Map<String, Object> all = sessionService.fetch(sessionId, 0, 10, null, null);
+        assertEquals(true, all.get("finished"));
+        assertEquals(5, all.get("total"));
+        assertEquals(true, all.get("spilled"));
+
+        Map<String, Object> sorted = sessionService.fetch(sessionId, 0, 2, "id", "DESC");
+        assertEquals(List.of(List.of(4), List.of(3)), sorted.get("rows"));
+
+        sessionService.close(sessionId);
+        assertThrows(IllegalArgumentException.class, () -> sessionService.fetch(sessionId, 0, 1, null, null));
+    }
+
+    @Test
+    void testOpen_QueryFailure() throws Exception {
+        when(databaseService.prepareStream(1L, "SELECT * FROM t", false)).thenReturn(TARGET);
+        when(databaseService.streamQuery(eq(TARGET), anyInt(), any()))
+            .thenThrow(new IllegalArgumentException("Table 't' doesn't exist"));
+
+        IllegalStateException error =
+            assertThrows(IllegalStateException.class, () -> sessionService.open(1L, "SELECT * FROM t", 10, false));
+
+        assertEquals("Table 't' doesn't exist", error.getMessage());
+        assertEquals(0, spoolManager.size());
+    }
+
+    @Test
+    void testOpen_Rejected() throws Exception {
+        when(databaseService.prepareStream(1L, "DELETE FROM t", false))
+            .thenThrow(new IllegalArgumentException("流式读取与保存结果只支持只读查询，写入语句请通过执行更新提交"));
+
+        assertThrows(IllegalArgumentException.class, () -> sessionService.open(1L, "DELETE FROM t", 10, false));
+
+        verify(databaseService, never()).streamQuery(any(DatabaseService.StreamTarget.class), anyInt(), any());
+        assertEquals(0, spoolManager.size());
+    }
+}
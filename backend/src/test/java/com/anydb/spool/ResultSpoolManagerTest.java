@@ -0,0 +1,177 @@
+package com.anydb.spool;
+
+import com.anydb.connector.DatabaseConnector.QueryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 查询结果落盘单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class ResultSpoolManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private ResultSpoolManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        manager = new ResultSpoolManager();
+        manager.setDirectory(directory.toString());
+        manager.setMemoryRows(50);
+        manager.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testCreate_InMemory() {
+        SpooledResult result = fill(manager.create(1L), 40);
+
+        assertFalse(result.isSpilled());
+        assertEquals(0, manager.getDiskUsage());
+        assertEquals(List.of(10L, "name-10"), result.window(10, 5, null, null).getRows().get(0));
+    }
+
+    @Test
+    void testWindow_Spilled() {
+        SpooledResult result = fill(manager.create(1L), 5000);
+
+        assertTrue(result.isSpilled());
+        assertTrue(manager.getDiskUsage() > 0);
+        QueryResult window = result.window(1020, 10, null, null);
+        assertEquals(5000, window.getTotal());
+        assertEquals(10, window.getRows().size());
+        assertEquals(List.of(1020L, "name-1020"), window.getRows().get(0));
+        assertEquals(List.of(1029L, "name-1029"), window.getRows().get(9));
+        assertEquals(2, result.window(4998, 100, null, null).getRows().size());
+        assertTrue(result.window(6000, 10, null, null).getRows().isEmpty());
+    }
+
+    @Test
+    void testWindow_SortSpilled() {
+        SpooledResult result = manager.create(1L);
+        result.onColumns(List.of("id", "bucket"));
+        List<List<Object>> rows = new ArrayList<>();
+        for (long i = 0; i < 5000; i++) {
+            rows.add(Arrays.asList(i, i % 7 == 0 ? null : (int) (i % 10)));
+        }
+        result.onRows(rows);
+        result.finish(1L);
+
+        List<List<Object>> first = result.window(0, 1000, "bucket", "ASC").getRows();
+        assertNull(first.get(0).get(1));
+        assertEquals(0L, first.get(0).get(0));
+        assertEquals(7L, first.get(1).get(0));
+
+        List<List<Object>> last = result.window(4990, 10, "bucket", "DESC").getRows();
+        assertNull(last.get(9).get(1));
+        assertEquals(4998L, last.get(9).get(0));
+        assertEquals(9, result.window(0, 1, "bucket", "DESC").getRows().get(0).get(1));
+
+        assertThrows(IllegalArgumentException.class, () -> result.window(0, 10, "missing", "ASC"));
+    }
+
+    @Test
+    void testWindow_ValueTypes() {
+        SpooledResult result = manager.create(1L);
+        result.onColumns(List.of("a", "b", "c", "d", "e", "f"));
+        Timestamp timestamp = Timestamp.valueOf("2024-05-01 12:30:45.123456789");
+        List<Object> row = Arrays.asList(new BigDecimal("12.340"), timestamp, true, 1.5, null, new byte[] {1, 2});
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rows.add(row);
+        }
+        result.onRows(rows);
+        result.finish(1L);
+
+        List<Object> read = result.window(59, 1, null, null).getRows().get(0);
+        assertEquals(new BigDecimal("12.340"), read.get(0));
+        assertEquals(timestamp, read.get(1));
+        assertEquals(true, read.get(2));
+        assertEquals(1.5, read.get(3));
+        assertNull(read.get(4));
+        assertArrayEquals(new byte[] {1, 2}, (byte[]) read.get(5));
+    }
+
+    @Test
+    void testCreate_DiskFull() throws Exception {
+        manager.setMaxDiskBytes((1L << 20) + 5000);
+        SpooledResult older = fill(manager.create(1L), 200);
+        SpooledResult newer = fill(manager.create(1L), 200);
+        newer.window(0, 1, null, null);
+
+        fill(manager.create(1L), 200);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.get(older.getId()));
+        assertSame(newer, manager.get(newer.getId()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+
+        manager.remove(newer.getId());
+        assertThrows(IllegalStateException.class, () -> newer.window(0, 1, null, null));
+    }
+
+    @Test
+    void testCreate_MaxResults() {
+        manager.setMaxResults(2);
+        SpooledResult finished = fill(manager.create(1L), 10);
+        SpooledResult running = manager.create(1L);
+
+        SpooledResult created = manager.create(1L);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.get(finished.getId()));
+        assertTrue(finished.isCancelled());
+        assertSame(running, manager.get(running.getId()));
+        assertSame(created, manager.get(created.getId()));
+        assertThrows(IllegalStateException.class, () -> manager.create(1L));
+        assertEquals(2, manager.size());
+    }
+
+    @Test
+    void testCleanup() {
+        SpooledResult result = fill(manager.create(1L), 100);
+        manager.setTtl(-1);
+
+        manager.cleanup();
+
+        assertEquals(0, manager.size());
+        assertEquals(0, manager.getDiskUsage());
+        assertTrue(result.isCancelled());
+    }
+
+    private static SpooledResult fill(SpooledResult result, int count) {
+        result.onColumns(List.of("id", "name"));
+        List<List<Object>> batch = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            batch.add(Arrays.asList(i, "name-" + i));
+            if (batch.size() == 500) {
+                result.onRows(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        result.onRows(batch);
+        result.finish(1L);
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package com.anydb.sql;
+
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL词法分析器单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class SqlLexerTest {
+
+    @Test
+    void testAnalyze_StatementType() {
+        assertEquals(StatementType.SELECT, SqlLexer.analyze("  select 1").getType());
+        assertEquals(StatementType.SELECT, SqlLexer.analyze("(SELECT 1) UNION (SELECT 2)").getType());
+        assertEquals(StatementType.SELECT, SqlLexer.analyze("WITH RECURSIVE t AS (SELECT 1) SELECT * FROM t").getType());
+        assertEquals(StatementType.UPDATE,
+            SqlLexer.analyze("WITH ids AS (SELECT id FROM a) UPDATE b SET x = 1 WHERE id IN (SELECT id FROM ids)").getType());
+        assertEquals(StatementType.INSERT, SqlLexer.analyze("REPLACE INTO t VALUES (1)").getType());
+        assertEquals(StatementType.DDL, SqlLexer.analyze("CREATE TABLE IF NOT EXISTS t (id int)").getType());
+        assertEquals(StatementType.TRANSACTION, SqlLexer.analyze("BEGIN").getType());
+        assertEquals(StatementType.SYSTEM, SqlLexer.analyze("SYSTEM FLUSH LOGS", DatabaseType.CLICKHOUSE).getType());
+        assertEquals(StatementType.EXPLAIN, SqlLexer.analyze("/* hint */ EXPLAIN SELECT 1").getType());
+        assertEquals(StatementType.EMPTY, SqlLexer.analyze(" -- only a comment\n").getType());
+        assertEquals(StatementType.EMPTY, SqlLexer.analyze(null).getType());
+    }
+
+    @Test
+    void testIsReadOnly() {
+        assertTrue(SqlLexer.analyze("SELECT REPLACE(name, 'a', 'b') FROM t").isReadOnly());
+        assertTrue(SqlLexer.analyze("SELECT 'UPDATE t SET x = 1; DELETE' AS note").isReadOnly());
+        assertTrue(SqlLexer.analyze("SELECT `update` FROM t # DELETE FROM t").isReadOnly());
+
+        assertFalse(SqlLexer.analyze("SELECT * FROM t FOR NO KEY UPDATE", DatabaseType.POSTGRESQL).isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT * FROM t FOR SHARE").isReadOnly());
+        assertTrue(SqlLexer.analyze("SELECT * FROM t FOR SHARE").isLockingRead());
+        assertFalse(SqlLexer.analyze("SELECT 1; SELECT 2").isReadOnly());
+        assertTrue(SqlLexer.analyze("SELECT 1;;  ").isReadOnly());
+    }
+
+    @Test
+    void testIsReadOnly_Routing() {
+        assertTrue(SqlLexer.analyze("SELECT * FROM orders").isReadOnly());
+        assertTrue(SqlLexer.analyze("/* report */ -- daily\n select count(*) from orders;").isReadOnly());
+        assertTrue(SqlLexer.analyze("SHOW TABLES").isReadOnly());
+        assertTrue(SqlLexer.analyze("EXPLAIN SELECT * FROM orders").isReadOnly());
+        assertTrue(SqlLexer.analyze("WITH t AS (SELECT 1 AS update_time) SELECT * FROM t").isReadOnly());
+
+        assertFalse(SqlLexer.analyze("UPDATE orders SET state = 1").isReadOnly());
+        assertFalse(SqlLexer.analyze("BEGIN").isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT * FROM orders WHERE id = 1 FOR UPDATE").isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT * FROM orders LOCK IN SHARE MODE").isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT * INTO backup FROM orders").isReadOnly());
+        assertFalse(SqlLexer.analyze("WITH d AS (DELETE FROM orders RETURNING *) SELECT * FROM d").isReadOnly());
+        assertFalse(SqlLexer.analyze("EXPLAIN ANALYZE DELETE FROM orders").isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT 1; DROP TABLE orders").isReadOnly());
+    }
+
+    @Test
+    void testAnalyze_ExecutableComments() {
+        SqlStatement locking = SqlLexer.analyze("SELECT * FROM t /*!40001 FOR UPDATE */", DatabaseType.MYSQL);
+        assertTrue(locking.isLockingRead());
+        assertFalse(locking.isReadOnly());
+
+        SqlStatement hidden = SqlLexer.analyze("SELECT 1 /*! ; DELETE FROM t */", DatabaseType.TIDB);
+        assertTrue(hidden.isMultiStatement());
+        assertFalse(hidden.isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT 1 /*T! ; DELETE FROM t */", DatabaseType.TIDB).isReadOnly());
+        assertFalse(SqlLexer.analyze("SELECT * FROM t /*M!100000 FOR UPDATE */", DatabaseType.MARIADB).isReadOnly());
+
+        assertTrue(SqlLexer.analyze("SELECT /*+ USE_INDEX(t, idx) */ * FROM t", DatabaseType.TIDB).isReadOnly());
+        assertTrue(SqlLexer.analyze("SELECT 1 /*! ; DELETE FROM t */", DatabaseType.POSTGRESQL).isReadOnly());
+    }
+
+    @Test
+    void testGetTables() {
+        assertEquals(List.of("shop.orders", "customers"), SqlLexer.analyze(
+            "SELECT * FROM `shop`.`orders` o JOIN customers c ON c.id = o.cid").getTables());
+        assertEquals(List.of("a", "b", "c"), SqlLexer.analyze(
+            "SELECT * FROM a, b x, (SELECT * FROM c) y WHERE a.id = b.id ORDER BY a.id, b.id").getTables());
+        assertEquals(List.of("dbo.Orders"), SqlLexer.analyze(
+            "SELECT TOP 10 * FROM [dbo].[Orders]", DatabaseType.SQLSERVER).getTables());
+        assertEquals(List.of("public.events"), SqlLexer.analyze(
+            "SELECT * FROM public.events, generate_series(1, 3) g", DatabaseType.POSTGRESQL).getTables());
+        assertEquals(List.of("t"), SqlLexer.analyze("INSERT INTO t(a, b) VALUES (1, 2)").getTables());
+        assertEquals(List.of("t"), SqlLexer.analyze("UPDATE t SET a = 1").getTables());
+        assertEquals(List.of("t"), SqlLexer.analyze("CREATE TABLE IF NOT EXISTS t (id int)").getTables());
+    }
+
+    @Test
+    void testGetFingerprint() {
+        SqlStatement first = SqlLexer.analyze("SELECT * FROM orders WHERE id IN (1, 2, 3) AND name = 'x' -- trace");
+        SqlStatement second = SqlLexer.analyze("select *\n  from ORDERS\twhere id in (42)  and NAME = 'yy'");
+        assertEquals("select * from orders where id in (?+) and name = ?", first.getFingerprint());
+        assertEquals("select * from orders where id in (?) and name = ?", second.getFingerprint());
+        assertEquals(SqlLexer.analyze("SELECT count(*) FROM t WHERE a = $1", DatabaseType.POSTGRESQL).getFingerprint(),
+            SqlLexer.analyze("SELECT COUNT(*) FROM t WHERE a = 7", DatabaseType.POSTGRESQL).getFingerprint());
+        assertEquals("select \"Name\" from t where body = ?",
+            SqlLexer.analyze("SELECT \"Name\" FROM t WHERE body = $fn$ it's; here $fn$", DatabaseType.POSTGRESQL)
+                .getFingerprint());
+    }
+
+    @Test
+    void testGetMaskedSql() {
+        SqlStatement statement = SqlLexer.analyze(
+            "UPDATE users SET password = 'p@ss''word', retries = 3 /* reset */ WHERE name = \"admin\"",
+            DatabaseType.MYSQL);
+        assertEquals("UPDATE users SET password = '***', retries = 3 WHERE name = '***'", statement.getMaskedSql());
+        assertEquals("SELECT * FROM t WHERE k = '***'",
+            SqlLexer.analyze("SELECT * FROM t WHERE k = 'a\\'b'", DatabaseType.MYSQL).getMaskedSql());
+    }
+
+    @Test
+    void testIsAnalytical() {
+        assertTrue(SqlLexer.analyze("SELECT region, SUM(amount) FROM sales GROUP BY region").isAnalytical());
+        assertTrue(SqlLexer.analyze("SELECT id, rank() OVER (ORDER BY score) FROM t").isAnalytical());
+        assertFalse(SqlLexer.analyze("SELECT * FROM sales WHERE id = 1 ORDER BY id").isAnalytical());
+        assertFalse(SqlLexer.analyze("INSERT INTO s SELECT region, SUM(amount) FROM sales GROUP BY region")
+            .isAnalytical());
+    }
+
+    @Test
+    void testHasRowLimit() {
+        assertTrue(SqlLexer.analyze("SELECT * FROM t ORDER BY id LIMIT 10").hasRowLimit());
+        assertTrue(SqlLexer.analyze("SELECT * FROM t FETCH FIRST 5 ROWS ONLY").hasRowLimit());
+        assertTrue(SqlLexer.analyze("SELECT TOP 10 * FROM t", DatabaseType.SQLSERVER).hasRowLimit());
+        assertTrue(SqlLexer.analyze("SELECT * FROM t ORDER BY id OFFSET 10", DatabaseType.POSTGRESQL).hasRowLimit());
+        assertFalse(SqlLexer.analyze("SELECT * FROM (SELECT * FROM t OFFSET 10) x", DatabaseType.POSTGRESQL).hasRowLimit());
+        assertFalse(SqlLexer.analyze("SELECT * FROM (SELECT * FROM t LIMIT 10) x").hasRowLimit());
+        assertFalse(SqlLexer.analyze("WITH r AS (SELECT * FROM t LIMIT 5) SELECT * FROM r").hasRowLimit());
+        assertFalse(SqlLexer.analyze("SELECT * FROM t WHERE id > 10").hasRowLimit());
+        assertFalse(SqlLexer.analyze("SELECT * FROM t ORDER BY x").hasRowLimit());
+        assertFalse(SqlLexer.analyze("SELECT status, COUNT(*) FROM t GROUP BY status HAVING COUNT(*) > 1").hasRowLimit());
+    }
+}
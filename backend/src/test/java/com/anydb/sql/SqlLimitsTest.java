@@ -0,0 +1,46 @@
+package com.anydb.sql;
+
+import com.anydb.connector.DatabaseType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 方言行数限制改写单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+class SqlLimitsTest {
+
+    @Test
+    void testApplyLimit() {
+        assertEquals("SELECT * FROM t ORDER BY id\nLIMIT 100",
+            SqlLimits.applyLimit(DatabaseType.MYSQL, "SELECT * FROM t ORDER BY id", 100, 0));
+        assertEquals("SELECT * FROM (\nSELECT * FROM t ORDER BY id\n) WHERE ROWNUM <= 100",
+            SqlLimits.applyLimit(DatabaseType.ORACLE, "SELECT * FROM t ORDER BY id", 100, 0));
+        assertNull(SqlLimits.applyLimit(DatabaseType.SQLSERVER, "SELECT * FROM t", 100, 0));
+        assertFalse(SqlLimits.supportsLimit(DatabaseType.SQLSERVER));
+    }
+
+    @Test
+    void testApplyLimit_Offset() {
+        assertEquals("SELECT * FROM t -- note\nLIMIT 1001 OFFSET 2000",
+            SqlLimits.applyLimit(DatabaseType.POSTGRESQL, "SELECT * FROM t -- note", 1001, 2000));
+        assertEquals("SELECT * FROM (\nSELECT * FROM hits SETTINGS max_threads = 4\n) LIMIT 10 OFFSET 20",
+            SqlLimits.applyLimit(DatabaseType.CLICKHOUSE, "SELECT * FROM hits SETTINGS max_threads = 4", 10, 20));
+        assertNull(SqlLimits.applyLimit(DatabaseType.ORACLE, "SELECT * FROM t", 10, 20));
+    }
+
+    @Test
+    void testApplyLimit_ClickHouseFormat() {
+        assertNull(SqlLimits.applyLimit(DatabaseType.CLICKHOUSE, "SELECT * FROM hits FORMAT JSONEachRow", 10, 0));
+        assertNull(SqlLimits.applyLimit(DatabaseType.CLICKHOUSE, "SELECT * FROM hits\nformat CSV\n", 10, 0));
+        assertNotNull(SqlLimits.applyLimit(DatabaseType.CLICKHOUSE, "SELECT format FROM hits", 10, 0));
+    }
+
+    @Test
+    void testStripTrailingSemicolons() {
+        assertEquals("SELECT 1", SqlLimits.stripTrailingSemicolons("  SELECT 1 ; ;\n"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.anydb.websocket;
+
+import com.anydb.connector.QueryProgress;
+import com.anydb.connector.QueryStreamSink;
+import com.anydb.service.DatabaseService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 查询结果流式推送处理器单元测试
+ *
+ * @author AnyDB Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class QueryStreamWebSocketHandlerTest {
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @Mock
+    private WebSocketSession session;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private QueryStreamWebSocketHandler handler;
+
+    private final List<JsonNode> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(handler, "defaultBatchSize", 2);
+        ReflectionTestUtils.setField(handler, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(handler, "maxConcurrentQueries", 2);
+        ReflectionTestUtils.setField(handler, "creditTimeout", 5_000L);
+        ReflectionTestUtils.setField(handler, "sendTimeLimit", 1_000);
+        ReflectionTestUtils.setField(handler, "sendBufferSize", 1 << 20);
+        handler.init();
+
+        lenient().when(session.getId()).thenReturn("s1");
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            sent.add(objectMapper.readTree((String) message.getPayload()));
+            return null;
+        }).when(session).sendMessage(any());
+
+        handler.afterConnectionEstablished(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void testExecute_CreditsExhausted() throws Exception {
+        mockStream(3);
+
+        handleMessage("{\"type\":\"execute\",\"queryId\":\"q1\",\"configId\":1,\"sql\":\"SELECT 1\",\"credits\":1}");
+
+        awaitMessages("rows", 1);
+        Thread.sleep(200);
+        assertEquals(1, count("rows"));
+        assertEquals(0, count("complete"));
+        assertEquals("a", sent.get(0).path("columns").get(0).asText());
+
+        handleMessage("{\"type\":\"request\",\"queryId\":\"q1\",\"credits\":2}");
+
+        awaitMessages("complete", 1);
+        assertEquals(3, count("rows"));
+        JsonNode complete = last("complete");
+        assertEquals(6, complete.path("rowsRead").asLong());
+        assertFalse(complete.path("cancelled").asBoolean());
+        assertEquals(0, handler.getRunningQueryCount());
+    }
+
+    @Test
+    void testCancel_WaitingForCredits() throws Exception {
+        mockStream(3);
+
+        handleMessage("{\"type\":\"execute\",\"queryId\":\"q2\",\"configId\":1,\"sql\":\"SELECT 1\",\"credits\":1}");
+        awaitMessages("rows", 1);
+
+        handleMessage("{\"type\":\"cancel\",\"queryId\":\"q2\"}");
+
+        awaitMessages("complete", 1);
+        assertEquals(1, count("rows"));
+        assertTrue(last("complete").path("cancelled").asBoolean());
+    }
+
+    @Test
+    void testCancel_StatementExecuting() throws Exception {
+        CountDownLatch registered = new CountDownLatch(1);
+        CountDownLatch statementCancelled = new CountDownLatch(1);
+        when(databaseService.streamQuery(eq(1L), anyString(), anyBoolean(), anyInt(), any())).thenAnswer(invocation -> {
+            QueryStreamSink sink = invocation.getArgument(4);
+            sink.onCancellable(statementCancelled::countDown);
+            registered.countDown();
+            // 模拟语句执行中：阻塞到被终止
+            assertTrue(statementCancelled.await(5, TimeUnit.SECONDS));
+            return 0L;
+        });
+
+        handleMessage("{\"type\":\"execute\",\"queryId\":\"q5\",\"configId\":1,\"sql\":\"SELECT 1\",\"credits\":1}");
+        assertTrue(registered.await(5, TimeUnit.SECONDS));
+
+        handleMessage("{\"type\":\"cancel\",\"queryId\":\"q5\"}");
+
+        awaitMessages("complete", 1);
+        assertTrue(last("complete").path("cancelled").asBoolean());
+    }
+
+    @Test
+    void testAfterConnectionClosed_QueryRunning() throws Exception {
+        mockStream(3);
+
+        handleMessage("{\"type\":\"execute\",\"queryId\":\"q3\",\"configId\":1,\"sql\":\"SELECT 1\",\"credits\":1}");
+        awaitMessages("rows", 1);
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (handler.getRunningQueryCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, handler.getRunningQueryCount());
+    }
+
+    @Test
+    void testExecute_BatchSizeTooLarge() throws Exception {
+        handleMessage("{\"type\":\"execute\",\"queryId\":\"q4\",\"configId\":1,\"sql\":\"SELECT 1\",\"batchSize\":1000}");
+
+        assertEquals("error", sent.get(0).path("type").asText());
+        assertEquals("q4", sent.get(0).path("queryId").asText());
+        verifyNoInteractions(databaseService);
+    }
+
+    /**
+     * 模拟连接器：推送列头后按批推送指定批数，每批之后推送进度
+     */
+    private void mockStream(int batches) throws Exception {
+        when(databaseService.streamQuery(eq(1L), anyString(), anyBoolean(), anyInt(), any())).thenAnswer(invocation -> {
+            QueryStreamSink sink = invocation.getArgument(4);
+            sink.onColumns(List.of("a", "b"));
+            long rows = 0;
+            for (int i = 0; i < batches && !sink.isCancelled(); i++) {
+                sink.onRows(List.of(List.of(i, "x"), List.of(i, "y")));
+                rows += 2;
+                sink.onProgress(new QueryProgress(rows, 1));
+            }
+            return rows;
+        });
+    }
+
+    private void handleMessage(String payload) throws Exception {
+        handler.handleMessage(session, new TextMessage(payload));
+    }
+
+    private void awaitMessages(String type, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count(type) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(count(type) >= expected, "未收到足够的" + type + "消息: " + sent);
+    }
+
+    private long count(String type) {
+        return sent.stream().filter(node -> type.equals(node.path("type").asText())).count();
+    }
+
+    private JsonNode last(String type) {
+        JsonNode match = null;
+        for (JsonNode node : sent) {
+            if (type.equals(node.path("type").asText())) {
+                match = node;
+            }
+        }
+        return match;
+    }
+}
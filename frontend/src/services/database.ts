@@ -25,6 +25,9 @@ export interface QueryResult {
   rows: any[][]
   total: number
   executionTime: number
+  // 预览采样方式（NONE表示未采样），仅preview请求返回
+  samplingMethod?: string
+  samplingPercent?: number
 }
 
 export interface UpdateResult {
@@ -78,7 +81,8 @@ export interface DatabaseService {
     page: number,
     size: number,
     orderBy?: string,
-    orderDirection?: string
+    orderDirection?: string,
+    preview?: boolean
   ): Promise<QueryResult>
   
   // 执行SQL查询
@@ -117,14 +121,15 @@ const databaseService: DatabaseService = {
     return response.data
   },
 
-  async getTableData(configId: number, database: string, tableName: string, page: number, size: number, orderBy?: string, orderDirection?: string) {
+  async getTableData(configId: number, database: string, tableName: string, page: number, size: number, orderBy?: string, orderDirection?: string, preview?: boolean) {
     const params = {
       database,
       tableName,
       page,
       size,
       orderBy,
-      orderDirection
+      orderDirection,
+      preview
     }
     const response = await api.post(`/databases/${configId}/table-data`, null, { params })
     return response.data